@@ -0,0 +1,255 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Represents an index of the titles and artists of the songs of a playlist that finds the songs whose title or
+// artist is closest to a piece of text that may have typos. Closeness is the edit (Levenshtein) distance, ignoring
+// case. Each field is kept in a BK-tree, in which every child of a term sits at a known distance from it, so a
+// search only compares the text with the branches that can hold terms within the bound instead of every term.
+// The index observes the playlist and is updated as songs are added and removed.
+public class FuzzyIndex implements PlaylistObserver {
+    // Represents a field of a song that can be searched
+    public enum Field {
+        TITLE, ARTIST
+    }
+
+    private Playlist playlist;
+    private BkTree titles = new BkTree();
+    private BkTree artists = new BkTree();
+
+    /*
+     * MODIFIES: playlist
+     * EFFECTS: creates an index of the titles and artists of the songs in playlist that keeps itself up to date
+     *          as playlist changes
+     */
+    public FuzzyIndex(Playlist playlist) {
+        this.playlist = playlist;
+        for (Song song : playlist.getSongs()) {
+            add(song);
+        }
+        playlist.addObserver(this);
+    }
+
+    /*
+     * REQUIRES: maxDistance >= 0 and k > 0
+     * EFFECTS: returns at most k songs whose field is within maxDistance edits of text, ignoring case, closest
+     *          first; songs whose fields are equally close are ordered by field, then by when they were added
+     */
+    public List<Song> closest(Field field, String text, int maxDistance, int k) {
+        List<List<Node>> byDistance = treeOf(field).within(text.toLowerCase(), maxDistance);
+        List<Song> found = new ArrayList<>();
+        for (List<Node> nodes : byDistance) {
+            nodes.sort((a, b) -> a.term.compareTo(b.term));
+            for (Node node : nodes) {
+                for (Song song : node.songs) {
+                    if (found.size() == k) {
+                        return found;
+                    }
+                    found.add(song);
+                }
+            }
+        }
+        return found;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: indexes the songs added to playlist and drops the songs removed from it
+     */
+    @Override
+    public void update(Playlist playlist, PlaylistChange change) {
+        if (change.getType() == PlaylistChange.Type.ADD) {
+            add(change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.ADD_ALL) {
+            for (Song song : change.getSongs()) {
+                add(song);
+            }
+        } else if (change.getType() == PlaylistChange.Type.REMOVE) {
+            remove(change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.REMOVE_ALL) {
+            for (Song song : change.getSongs()) {
+                remove(song);
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: stops keeping the index up to date with playlist
+     */
+    public void close() {
+        playlist.removeObserver(this);
+    }
+
+    public Playlist getPlaylist() {
+        return playlist;
+    }
+
+    // EFFECTS: returns the number of distinct values of field, ignoring case, among the songs in the index
+    public int getNumTerms(Field field) {
+        return treeOf(field).nodes.size() - treeOf(field).numEmpty;
+    }
+
+    /*
+     * EFFECTS: returns the least number of characters that must be inserted, deleted or replaced to turn a
+     *          into b
+     */
+    public static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int replace = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    // EFFECTS: returns the tree that holds field
+    private BkTree treeOf(Field field) {
+        return field == Field.TITLE ? titles : artists;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the title and artist of song to the index
+     */
+    private void add(Song song) {
+        titles.add(song.getTitle().toLowerCase(), song);
+        artists.add(song.getArtist().toLowerCase(), song);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes the title and artist of song from the index
+     */
+    private void remove(Song song) {
+        titles.remove(song.getTitle().toLowerCase(), song);
+        artists.remove(song.getArtist().toLowerCase(), song);
+    }
+
+    // Represents a BK-tree of lower-case terms, each with the songs that have it. A term whose songs have all been
+    // removed stays in the tree, to keep its children reachable, until more than half the terms are like that and
+    // the tree is built again from the terms still in use.
+    private static class BkTree {
+        private Node root;
+        private Map<String, Node> nodes = new HashMap<>();  // node of each term in the tree
+        private int numEmpty = 0;                           // nodes without songs
+
+        // MODIFIES: this
+        // EFFECTS: adds song under term, adding term to the tree if it is not there
+        void add(String term, Song song) {
+            Node node = nodes.get(term);
+            if (node == null) {
+                node = new Node(term);
+                insert(node);
+                nodes.put(term, node);
+            } else if (node.songs.isEmpty()) {
+                numEmpty--;
+            }
+            node.songs.add(song);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: removes song from under term, building the tree again if too many terms have no songs left
+        void remove(String term, Song song) {
+            Node node = nodes.get(term);
+            if (node != null && node.songs.remove(song) && node.songs.isEmpty()) {
+                numEmpty++;
+                if (numEmpty * 2 > nodes.size()) {
+                    compact();
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: places node in the tree as the child of the node its term is at a new distance from
+        private void insert(Node node) {
+            if (root == null) {
+                root = node;
+                return;
+            }
+            Node parent = root;
+            int distance = editDistance(parent.term, node.term);
+            while (parent.children.containsKey(distance)) {
+                parent = parent.children.get(distance);
+                distance = editDistance(parent.term, node.term);
+            }
+            parent.children.put(distance, node);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: builds the tree again from the terms that still have songs
+        private void compact() {
+            List<Node> kept = new ArrayList<>();
+            for (Node node : nodes.values()) {
+                if (!node.songs.isEmpty()) {
+                    kept.add(node);
+                }
+            }
+            root = null;
+            nodes.clear();
+            numEmpty = 0;
+            for (Node node : kept) {
+                node.children.clear();
+                insert(node);
+                nodes.put(node.term, node);
+            }
+        }
+
+        /*
+         * EFFECTS: returns the nodes with songs whose terms are within maxDistance of text, in one list for each
+         *          distance from 0 to maxDistance; only visits the children of a node whose distance from it is
+         *          within maxDistance of the node's own distance from text
+         */
+        List<List<Node>> within(String text, int maxDistance) {
+            List<List<Node>> byDistance = new ArrayList<>();
+            for (int d = 0; d <= maxDistance; d++) {
+                byDistance.add(new ArrayList<>());
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            if (root != null) {
+                pending.push(root);
+            }
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int distance = editDistance(text, node.term);
+                if (distance <= maxDistance && !node.songs.isEmpty()) {
+                    byDistance.get(distance).add(node);
+                }
+                for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        pending.push(child.getValue());
+                    }
+                }
+            }
+            return byDistance;
+        }
+    }
+
+    // Represents a term in a BK-tree, the songs that have it, and its children keyed by their distance from it
+    private static class Node {
+        private final String term;
+        private final Set<Song> songs = new LinkedHashSet<>(2);
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        Node(String term) {
+            this.term = term;
+        }
+    }
+}
@@ -0,0 +1,575 @@
+package model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Represents a full-text index of the songs of any number of playlists that finds the songs whose fields contain
+// every word of a query, best matches first. Fields are split into words, ignoring case and accents, and each word
+// maps to a postings list of the songs that have it. A song scores the weight of each field each query word appears
+// in, so a title match outranks a genre match, and postings are kept in tiers by that weight. A search works down
+// from the highest score the words allow, intersecting the tiers whose weights add up to each score, and stops as
+// soon as it has enough hits; an intersection walks the shortest tier and jumps ahead in the others along skip
+// pointers, so a common word costs little when paired with a rare one. The ways of picking one tier per word grow
+// exponentially with the number of words, so a query with too many of them instead walks the songs of its rarest
+// word once, scoring each song that has every word by the tiers it is in. Songs that score the same are in the order
+// they were indexed. The playlists are observed, so the index follows their songs as they are added and removed;
+// removed songs are skipped until there are more of them than songs, when the index is rebuilt.
+public class LibrarySearch implements PlaylistObserver {
+    public static final int TITLE_WEIGHT = 3;
+    public static final int ARTIST_WEIGHT = 2;
+    public static final int GENRE_WEIGHT = 1;
+    private static final int TITLE = 1;     // field bits recorded in postings
+    private static final int ARTIST = 2;
+    private static final int GENRE = 4;
+    private static final int[] WEIGHTS = weights();     // total weight of each combination of field bits
+    private static final int MAX_COMBINATIONS = 64;     // most ways of picking tiers a search tries score by score
+    private List<Playlist> watched = new ArrayList<>();
+    private Map<Playlist, Map<Song, Integer>> ids = new IdentityHashMap<>();   // id of each song, by playlist
+    private Song[] songs = new Song[16];            // song of each id
+    private Playlist[] owners = new Playlist[16];   // playlist the song of each id is in
+    private int numIds = 0;
+    private BitSet removed = new BitSet();          // ids whose songs have been removed
+    private int numRemoved = 0;
+    private Map<String, Postings> postings = new HashMap<>();
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: indexes the songs of playlist and keeps them up to date as playlist changes, unless playlist is
+     *          already watched
+     */
+    public void watch(Playlist playlist) {
+        if (ids.containsKey(playlist)) {
+            return;
+        }
+        watched.add(playlist);
+        ids.put(playlist, new IdentityHashMap<>());
+        for (Song song : playlist.getSongs()) {
+            add(playlist, song);
+        }
+        playlist.addObserver(this);
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: stops watching playlist and drops its songs from the index, if it is watched
+     */
+    public void unwatch(Playlist playlist) {
+        Map<Song, Integer> songIds = ids.remove(playlist);
+        if (songIds == null) {
+            return;
+        }
+        watched.removeIf(p -> p == playlist);
+        playlist.removeObserver(this);
+        for (int id : songIds.values()) {
+            markRemoved(id);
+        }
+        rebuildIfSparse();
+    }
+
+    /*
+     * MODIFIES: this, playlist, and every watched playlist with the same name as playlist
+     * EFFECTS: watches playlist in place of any other watched playlist with the same name, such as an earlier
+     *          copy of it read from a file
+     */
+    public void watchLatest(Playlist playlist) {
+        for (Playlist other : getWatched()) {
+            if (other != playlist && other.getPlaylistName().equals(playlist.getPlaylistName())) {
+                unwatch(other);
+            }
+        }
+        watch(playlist);
+    }
+
+    // EFFECTS: returns the playlists watched, in the order they were first watched
+    public List<Playlist> getWatched() {
+        return new ArrayList<>(watched);
+    }
+
+    /*
+     * REQUIRES: k > 0
+     * EFFECTS: returns at most k hits for the songs whose title, artist or genre contain every word of query,
+     *          highest score first; returns no hits if query has no words
+     */
+    public List<SearchHit> search(String query, int k) {
+        Postings[] lists = listsFor(query);
+        if (lists == null) {
+            return new ArrayList<>();
+        }
+        int[] most = new int[lists.length + 1];     // highest score the words from each index on can add
+        for (int i = lists.length - 1; i >= 0; i--) {
+            most[i] = most[i + 1] + lists[i].maxWeight();
+        }
+        return combinations(lists) <= MAX_COMBINATIONS ? searchByScore(lists, most, k) : searchOnce(lists, most[0], k);
+    }
+
+    /*
+     * REQUIRES: k > 0, most[i] is the sum of the highest weights of lists from i on
+     * EFFECTS: returns at most k hits for the songs that have every word of lists, highest score first, trying
+     *          each score from the highest down and stopping once there are k hits
+     */
+    private List<SearchHit> searchByScore(Postings[] lists, int[] most, int k) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (int score = most[0]; score >= lists.length && hits.size() < k; score--) {
+            List<Integer> found = new ArrayList<>();
+            collect(lists, most, 0, score, new Tier[lists.length], k - hits.size(), found);
+            Collections.sort(found);
+            for (int i = 0; i < found.size() && hits.size() < k; i++) {
+                hits.add(new SearchHit(songs[found.get(i)], owners[found.get(i)], score));
+            }
+        }
+        return hits;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: indexes the songs added to playlist and drops the songs removed from it
+     */
+    @Override
+    public void update(Playlist playlist, PlaylistChange change) {
+        if (change.getType() == PlaylistChange.Type.ADD) {
+            add(playlist, change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.ADD_ALL) {
+            for (Song song : change.getSongs()) {
+                add(playlist, song);
+            }
+        } else if (change.getType() == PlaylistChange.Type.REMOVE) {
+            remove(playlist, change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.REMOVE_ALL) {
+            for (Song song : change.getSongs()) {
+                remove(playlist, song);
+            }
+        }
+        rebuildIfSparse();
+    }
+
+    // EFFECTS: returns the number of songs in the index
+    public int getNumSongs() {
+        return numIds - numRemoved;
+    }
+
+    // EFFECTS: returns the number of distinct words in the index
+    public int getNumWords() {
+        return postings.size();
+    }
+
+    /*
+     * EFFECTS: returns the words of text in order: its runs of letters and digits, in lower case and without
+     *          accents
+     */
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean folded = false;     // true if word has characters that may carry accents
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+                folded |= c > 127;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && word.length() > 0) {
+                words.add(folded ? stripAccents(word.toString()) : word.toString());
+                word.setLength(0);
+                folded = false;
+            }
+        }
+        return words;
+    }
+
+    // EFFECTS: returns word without the accents on its letters
+    private static String stripAccents(String word) {
+        return Normalizer.normalize(word, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    // EFFECTS: returns the total weight of each combination of field bits, indexed by the bits
+    private static int[] weights() {
+        int[] weights = new int[(TITLE | ARTIST | GENRE) + 1];
+        for (int bits = 0; bits < weights.length; bits++) {
+            weights[bits] = ((bits & TITLE) != 0 ? TITLE_WEIGHT : 0) + ((bits & ARTIST) != 0 ? ARTIST_WEIGHT : 0)
+                    + ((bits & GENRE) != 0 ? GENRE_WEIGHT : 0);
+        }
+        return weights;
+    }
+
+    /*
+     * EFFECTS: returns the postings of each distinct word of query, or null if query has no words or some word
+     *          is in no song
+     */
+    private Postings[] listsFor(String query) {
+        Set<String> words = new LinkedHashSet<>(tokenize(query));
+        if (words.isEmpty()) {
+            return null;
+        }
+        Postings[] lists = new Postings[words.size()];
+        int i = 0;
+        for (String word : words) {
+            lists[i] = postings.get(word);
+            if (lists[i++] == null) {
+                return null;
+            }
+        }
+        return lists;
+    }
+
+    /*
+     * REQUIRES: most[j] is the sum of the highest weights of lists from j on
+     * MODIFIES: chosen, found
+     * EFFECTS: for each way of picking, for the words of lists from i on, one weight each that add up to
+     *          remaining, adds to found at most limit of the songs that have each word with the weight picked for
+     *          it, and the words before i with the weights of the tiers in chosen; lowest ids are added first;
+     *          gives up at once if the words left need more than remaining or cannot reach it
+     */
+    private void collect(Postings[] lists, int[] most, int i, int remaining, Tier[] chosen, int limit,
+                         List<Integer> found) {
+        if (remaining < lists.length - i || remaining > most[i]) {
+            return;
+        }
+        if (i == lists.length) {
+            intersect(chosen.clone(), limit, found);
+            return;
+        }
+        for (int weight = 1; weight <= lists[i].maxWeight() && weight <= remaining; weight++) {
+            if (lists[i].byWeight[weight].size > 0) {
+                chosen[i] = lists[i].byWeight[weight];
+                collect(lists, most, i + 1, remaining - weight, chosen, limit, found);
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of ways of picking a non-empty tier of each of lists, or more than
+    //          MAX_COMBINATIONS if there are more than that
+    private static int combinations(Postings[] lists) {
+        int combinations = 1;
+        for (int i = 0; i < lists.length && combinations <= MAX_COMBINATIONS; i++) {
+            combinations *= lists[i].tiers().size();
+        }
+        return combinations;
+    }
+
+    /*
+     * REQUIRES: k > 0, bound is the sum of the highest weights of lists
+     * EFFECTS: returns at most k hits for the songs that have every word of lists, highest score first and in
+     *          the order they were indexed among equal scores; walks the ids of the rarest word once, jumping ahead
+     *          in the others, and keeps the best k songs found so far, stopping early once they all score bound
+     */
+    private List<SearchHit> searchOnce(Postings[] lists, int bound, int k) {
+        WordCursor[] cursors = new WordCursor[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            cursors[i] = new WordCursor(lists[i]);
+        }
+        Arrays.sort(cursors, (a, b) -> Integer.compare(a.size, b.size));
+        PriorityQueue<Long> best = new PriorityQueue<>();   // rank of each song kept, worst first
+        int id = cursors[0].seek(0);
+        while (id >= 0 && !(best.size() == k && best.peek() >> 32 == bound)) {
+            int next = alignWords(cursors, id);
+            if (next == id && !removed.get(id)) {
+                best.add(rank(id, cursors));
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+            id = next < 0 ? -1 : cursors[0].seek(next == id ? id + 1 : next);
+        }
+        return hitsOf(best);
+    }
+
+    /*
+     * REQUIRES: the cursor of each word is at or before id
+     * MODIFIES: cursors
+     * EFFECTS: moves the cursor of each word after the first to its first id at or after id, stopping at the
+     *          first word that does not have id; returns id if every word has it, otherwise the id that word
+     *          stopped at, or -1 if that word has no ids left
+     */
+    private static int alignWords(WordCursor[] cursors, int id) {
+        for (int i = 1; i < cursors.length; i++) {
+            int at = cursors[i].seek(id);
+            if (at != id) {
+                return at;
+            }
+        }
+        return id;
+    }
+
+    // EFFECTS: returns the rank of the song of id, found by every one of cursors: its score in the high half and,
+    //          so that earlier songs rank higher among equal scores, its id counted down in the low half
+    private static long rank(int id, WordCursor[] cursors) {
+        long score = 0;
+        for (WordCursor cursor : cursors) {
+            score += cursor.weight;
+        }
+        return score << 32 | (Integer.MAX_VALUE - id);
+    }
+
+    // EFFECTS: returns the hits for the songs ranked in ranks, highest rank first
+    private List<SearchHit> hitsOf(PriorityQueue<Long> ranks) {
+        List<SearchHit> hits = new ArrayList<>();
+        while (!ranks.isEmpty()) {
+            long rank = ranks.poll();
+            int id = Integer.MAX_VALUE - (int) rank;
+            hits.add(new SearchHit(songs[id], owners[id], (int) (rank >> 32)));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    /*
+     * MODIFIES: tiers, found
+     * EFFECTS: adds to found, in ascending order, the first limit ids that are in every one of tiers and whose
+     *          songs have not been removed; walks the shortest tier and jumps ahead in the others along skip
+     *          pointers about every sqrt(size) ids
+     */
+    private void intersect(Tier[] tiers, int limit, List<Integer> found) {
+        Arrays.sort(tiers, (a, b) -> Integer.compare(a.size, b.size));
+        int[] cursors = new int[tiers.length];
+        int[] skips = new int[tiers.length];
+        for (int i = 0; i < tiers.length; i++) {
+            skips[i] = Math.max(1, (int) Math.sqrt(tiers[i].size));
+        }
+        int added = 0;
+        while (cursors[0] < tiers[0].size && added < limit) {
+            int id = tiers[0].ids[cursors[0]];
+            int next = align(tiers, cursors, skips, id);
+            if (next < 0) {
+                return;
+            }
+            if (next == id && !removed.get(id)) {
+                found.add(id);
+                added++;
+            }
+            cursors[0] = tiers[0].advance(cursors[0], next == id ? id + 1 : next, skips[0]);
+        }
+    }
+
+    /*
+     * REQUIRES: cursors[i] is at or before id in tiers[i] for every i > 0
+     * MODIFIES: cursors
+     * EFFECTS: moves the cursor of each tier after the first to its first id at or after id, stopping at the
+     *          first tier that does not have id; returns id if every tier has it, otherwise the id that tier
+     *          stopped at, before which no other id can be in every tier, or -1 if that tier has no ids left
+     */
+    private static int align(Tier[] tiers, int[] cursors, int[] skips, int id) {
+        for (int i = 1; i < tiers.length; i++) {
+            cursors[i] = tiers[i].advance(cursors[i], id, skips[i]);
+            if (cursors[i] == tiers[i].size) {
+                return -1;
+            }
+            if (tiers[i].ids[cursors[i]] != id) {
+                return tiers[i].ids[cursors[i]];
+            }
+        }
+        return id;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: gives song of playlist the next id and adds it to the postings of each word of its fields,
+     *          unless it is already indexed
+     */
+    private void add(Playlist playlist, Song song) {
+        Map<Song, Integer> songIds = ids.get(playlist);
+        if (songIds.containsKey(song)) {
+            return;
+        }
+        if (numIds == songs.length) {
+            songs = Arrays.copyOf(songs, numIds * 2);
+            owners = Arrays.copyOf(owners, numIds * 2);
+        }
+        int id = numIds++;
+        songIds.put(song, id);
+        songs[id] = song;
+        owners[id] = playlist;
+        addWords(song.getTitle(), id, TITLE);
+        addWords(song.getArtist(), id, ARTIST);
+        addWords(song.getGenre(), id, GENRE);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds id, found in field, to the postings of each word of text
+     */
+    private void addWords(String text, int id, int field) {
+        for (String word : tokenize(text)) {
+            postings.computeIfAbsent(word, w -> new Postings()).add(id, field);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: marks the id of song of playlist as removed
+     */
+    private void remove(Playlist playlist, Song song) {
+        Integer id = ids.get(playlist).remove(song);
+        if (id != null) {
+            markRemoved(id);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: marks id as removed; its postings are dropped when the index is next rebuilt
+     */
+    private void markRemoved(int id) {
+        removed.set(id);
+        songs[id] = null;
+        owners[id] = null;
+        numRemoved++;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: throws away the index and indexes the songs of every watched playlist again, giving them new
+     *          ids, if more ids have been removed than are in use
+     */
+    private void rebuildIfSparse() {
+        if (numRemoved <= numIds - numRemoved) {
+            return;
+        }
+        songs = new Song[16];
+        owners = new Playlist[16];
+        numIds = 0;
+        removed = new BitSet();
+        numRemoved = 0;
+        postings = new HashMap<>();
+        for (Playlist playlist : watched) {
+            ids.put(playlist, new IdentityHashMap<>());
+            for (Song song : playlist.getSongs()) {
+                add(playlist, song);
+            }
+        }
+    }
+
+    // Represents the ids of the songs that have one word, grouped into tiers by the weight of the fields each has
+    // it in. Ids are added in ascending order, so only the song of the last id can still gain a field, which moves
+    // it from the end of one tier to the end of a higher one.
+    private static class Postings {
+        private final Tier[] byWeight = new Tier[WEIGHTS[TITLE | ARTIST | GENRE] + 1];
+        private int lastId = -1;
+        private int lastFields = 0;     // field bits of the song of lastId
+
+        Postings() {
+            for (int weight = 0; weight < byWeight.length; weight++) {
+                byWeight[weight] = new Tier();
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records that the song of id, which is at least as large as every id already added, has the
+        //          word in field
+        void add(int id, int field) {
+            if (id == lastId) {
+                if ((lastFields | field) == lastFields) {
+                    return;
+                }
+                byWeight[WEIGHTS[lastFields]].size--;
+                lastFields |= field;
+            } else {
+                lastId = id;
+                lastFields = field;
+            }
+            byWeight[WEIGHTS[lastFields]].add(id);
+        }
+
+        // EFFECTS: returns the weights of the tiers that have ids, lowest first
+        List<Integer> tiers() {
+            List<Integer> weights = new ArrayList<>();
+            for (int weight = 1; weight < byWeight.length; weight++) {
+                if (byWeight[weight].size > 0) {
+                    weights.add(weight);
+                }
+            }
+            return weights;
+        }
+
+        // EFFECTS: returns the highest weight of any id, or 0 if there are none
+        int maxWeight() {
+            int weight = byWeight.length - 1;
+            while (weight > 0 && byWeight[weight].size == 0) {
+                weight--;
+            }
+            return weight;
+        }
+    }
+
+    // Represents a position in the ids of the songs that have one word, taken from all of its tiers at once in
+    // ascending order; each id is in exactly one tier, whose weight is the weight of the word in that song
+    private static class WordCursor {
+        private final Tier[] tiers;
+        private final int[] weights;    // weight of each tier
+        private final int[] at;         // position in each tier
+        private final int[] skips;      // distance between the skip pointers of each tier
+        private final int size;         // number of ids in all tiers
+        private int weight = 0;         // weight of the id last found
+
+        // EFFECTS: creates a cursor before the first id of the non-empty tiers of postings
+        WordCursor(Postings postings) {
+            List<Integer> nonEmpty = postings.tiers();
+            tiers = new Tier[nonEmpty.size()];
+            weights = new int[tiers.length];
+            at = new int[tiers.length];
+            skips = new int[tiers.length];
+            int total = 0;
+            for (int t = 0; t < tiers.length; t++) {
+                weights[t] = nonEmpty.get(t);
+                tiers[t] = postings.byWeight[weights[t]];
+                skips[t] = Math.max(1, (int) Math.sqrt(tiers[t].size));
+                total += tiers[t].size;
+            }
+            size = total;
+        }
+
+        // REQUIRES: id is at least as large as any id given before
+        // MODIFIES: this
+        // EFFECTS: moves to the first id at or after id and returns it, recording its weight, or returns -1 if
+        //          there is none
+        int seek(int id) {
+            int found = -1;
+            for (int t = 0; t < tiers.length; t++) {
+                at[t] = tiers[t].advance(at[t], id, skips[t]);
+                if (at[t] < tiers[t].size && (found < 0 || tiers[t].ids[at[t]] < found)) {
+                    found = tiers[t].ids[at[t]];
+                    weight = weights[t];
+                }
+            }
+            return found;
+        }
+    }
+
+    // Represents the ids of the songs that have one word with one weight, in ascending order
+    private static class Tier {
+        private int[] ids = new int[2];
+        private int size = 0;
+
+        // MODIFIES: this
+        // EFFECTS: adds id, which is larger than every id already added
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        // EFFECTS: returns the index of the first id at or after id, starting from index from; follows skip
+        //          pointers, skip ids apart, while they do not pass id, then steps one id at a time
+        int advance(int from, int id, int skip) {
+            int at = from;
+            if (at < size && ids[at] >= id) {
+                return at;
+            }
+            while (at + skip < size && ids[at + skip] <= id) {
+                at += skip;
+            }
+            while (at < size && ids[at] < id) {
+                at++;
+            }
+            return at;
+        }
+    }
+}
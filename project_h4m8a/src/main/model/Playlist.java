@@ -5,13 +5,18 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 
 // Represents a playlist with a name and no songs
-public class Playlist implements Writable {
+public class Playlist implements Writable, SongPager {
     private List<Song> songs = new ArrayList<>();   // a list of songs in the playlist
     private String name;    // name of the playlist
     private int counter = 0;    // the index of the current song
+    private List<PlaylistObserver> observers = new ArrayList<>();   // observers notified of changes
+    private volatile boolean dirty = false;     // true if playlist has changed since it was last saved; set
+                                                // again by the saving thread if a save fails
+    private long version = 0;   // incremented whenever songs are added, removed or reordered
 
     /*
      * REQUIRES: name has a non-zero length
@@ -27,9 +32,17 @@ public class Playlist implements Writable {
      * EFFECTS: order of songs in Playlist is shuffled
      */
     public void shuffle() {
-        Collections.shuffle(this.songs);
-        this.counter = 0;
-        EventLog.getInstance().logEvent(new Event("Shuffled " + this.name));
+        shuffle(new Random().nextLong());
+    }
+
+    /*
+     * REQUIRES: Playlist object has non-zero size
+     * MODIFIES: this
+     * EFFECTS: order of songs in Playlist is shuffled using a random generator seeded with seed,
+     *          so that the same shuffle can be repeated when the playlist is restored
+     */
+    public void shuffle(long seed) {
+        reorder(new PlaylistChange(PlaylistChange.Type.SHUFFLE, null, -1, -1, Long.toString(seed)));
     }
 
     /*
@@ -145,7 +158,39 @@ public class Playlist implements Writable {
         if (!this.songs.contains(song)) {
             this.songs.add(song);
             EventLog.getInstance().logEvent(new Event("Added " + song.getTitle() + " to " + this.name));
+            notifyObservers(new PlaylistChange(PlaylistChange.Type.ADD, song, -1, this.songs.size() - 1, null));
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the songs in newSongs to the end of the playlist in order, in one pass, skipping songs
+     *          already in the playlist or repeated in newSongs; logs a single event and notifies observers
+     *          of a single change for the whole batch; returns the number of songs added
+     */
+    public int addSongs(List<Song> newSongs) {
+        List<Song> added = addSongsHelper(newSongs);
+        if (!added.isEmpty()) {
+            EventLog.getInstance().logEvent(new Event("Added " + added.size() + " songs to " + this.name));
+            notifyObservers(new PlaylistChange(PlaylistChange.Type.ADD_ALL, added));
+        }
+        return added.size();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the songs in newSongs that are not already in the playlist to its end and returns them
+     */
+    private List<Song> addSongsHelper(List<Song> newSongs) {
+        Set<Song> present = new HashSet<>(this.songs);
+        List<Song> added = new ArrayList<>();
+        for (Song song : newSongs) {
+            if (present.add(song)) {
+                added.add(song);
+            }
         }
+        this.songs.addAll(added);
+        return added;
     }
 
     /*
@@ -155,6 +200,7 @@ public class Playlist implements Writable {
     public void addSongJson(Song song) {
         if (!this.songs.contains(song)) {
             this.songs.add(song);
+            this.version++;
         }
     }
 
@@ -165,14 +211,74 @@ public class Playlist implements Writable {
      *          title of the song and restarts the playlist
      */
     public void removeSong(String songTitle) {
+        int songIndex = findSongIndex(songTitle);
+        if (songIndex != -1) {
+            Song song = this.songs.remove(songIndex);
+            EventLog.getInstance().logEvent(new Event("Removed " + songTitle + " from " + this.name));
+            notifyObservers(new PlaylistChange(PlaylistChange.Type.REMOVE, song, songIndex, -1, null));
+        }
+        replay();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes every song in toRemove from the playlist in one pass; logs a single event, notifies
+     *          observers of a single change and restarts the playlist if any song was removed;
+     *          returns the number of songs removed
+     */
+    public int removeAll(Collection<Song> toRemove) {
+        Set<Song> removing = new HashSet<>(toRemove);
+        return removeIf(removing::contains);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes every song whose title is in titles from the playlist in one pass; logs a single
+     *          event, notifies observers of a single change and restarts the playlist if any song was removed;
+     *          returns the number of songs removed
+     */
+    public int removeTitles(Collection<String> titles) {
+        Set<String> removing = new HashSet<>(titles);
+        return removeIf(song -> removing.contains(song.getTitle()));
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes every song that matches filter from the playlist in one pass; logs a single event,
+     *          notifies observers of a single change and restarts the playlist if any song was removed;
+     *          returns the number of songs removed
+     */
+    public int removeIf(Predicate<Song> filter) {
+        List<Integer> indexes = new ArrayList<>();
+        List<Song> removed = removeIfHelper(filter, indexes);
+        if (!removed.isEmpty()) {
+            EventLog.getInstance().logEvent(new Event("Removed " + removed.size() + " songs from " + this.name));
+            notifyObservers(new PlaylistChange(PlaylistChange.Type.REMOVE_ALL, removed, indexes));
+            replay();
+        }
+        return removed.size();
+    }
+
+    /*
+     * MODIFIES: this, indexes
+     * EFFECTS: removes the songs that match filter from the playlist, keeping the others in order,
+     *          adds the indexes they were at to indexes and returns the removed songs
+     */
+    private List<Song> removeIfHelper(Predicate<Song> filter, List<Integer> indexes) {
+        List<Song> kept = new ArrayList<>(this.songs.size());
+        List<Song> removed = new ArrayList<>();
         for (Song song : this.songs) {
-            if (song.getTitle().equals(songTitle)) {
-                this.songs.remove(song);
-                EventLog.getInstance().logEvent(new Event("Removed " + songTitle + " from " + this.name));
-                break;
+            if (filter.test(song)) {
+                indexes.add(kept.size() + removed.size());
+                removed.add(song);
+            } else {
+                kept.add(song);
             }
         }
-        replay();
+        if (!removed.isEmpty()) {
+            this.songs = kept;
+        }
+        return removed;
     }
 
     /*
@@ -208,9 +314,27 @@ public class Playlist implements Writable {
      *          (starting from index 1) and resets the playlist
      */
     public void moveSong(Song song, int moveToIndex) {
-        removeSong(song.getTitle());
+        int songIndex = moveSongHelper(song, moveToIndex);
+        EventLog.getInstance().logEvent(new Event("Moved " + song.getTitle() + " to position "
+                + moveToIndex + " of " + this.name));
+        notifyObservers(new PlaylistChange(PlaylistChange.Type.MOVE, song, songIndex, moveToIndex - 1, null));
+    }
+
+    /*
+     * REQUIRES: moveToIndex >= 1 and moveToIndex <= this.songs.size() + 1
+     * MODIFIES: this
+     * EFFECTS: moves the song to the index moveToIndex of the playlist (starting from index 1),
+     *          resets the playlist and returns the index the song was moved from (-1 if it was
+     *          not in the playlist)
+     */
+    private int moveSongHelper(Song song, int moveToIndex) {
+        int songIndex = findSongIndex(song.getTitle());
+        if (songIndex != -1) {
+            this.songs.remove(songIndex);
+        }
         this.songs.add(moveToIndex - 1, song);
         replay();
+        return songIndex;
     }
 
     /*
@@ -219,30 +343,14 @@ public class Playlist implements Writable {
      * EFFECTS: arranges the playlist by alphabetical order of the titles
      */
     public void arrangeByTitle() {
-        this.songs = arrangeByTitleHelper();
-        EventLog.getInstance().logEvent(new Event("Arranged " + this.name
-                + " in alphabetical order of song titles"));
+        reorder(new PlaylistChange(PlaylistChange.Type.ARRANGE, null, -1, -1, "title"));
     }
 
     /*
      * EFFECTS: returns a list of Song objects in alphabetical order based on the titles
      */
     public List<Song> arrangeByTitleHelper() {
-        List<String> tempSongTitles = songTitlesInPlaylist();
-        List<Song> newSongList = new ArrayList<>();
-        Collections.sort(tempSongTitles);
-
-        for (int songIndex1 = 0; songIndex1 < getNumSongs(); songIndex1++) {
-            for (int songIndex2 = 0; songIndex2 < getNumSongs(); songIndex2++) {
-                if (Objects.equals(this.songs.get(songIndex2).getTitle(),
-                        tempSongTitles.get(songIndex1))) {
-                    if (!newSongList.contains(this.songs.get(songIndex2))) {
-                        newSongList.add(this.songs.get(songIndex2));
-                    }
-                }
-            }
-        }
-        return newSongList;
+        return sortedBy(Comparator.comparing(Song::getTitle));
     }
 
     /*
@@ -252,9 +360,7 @@ public class Playlist implements Writable {
      *          of the songs
      */
     public void arrangeByTime() {
-        this.songs = arrangeByTimeHelper();
-        EventLog.getInstance().logEvent(new Event("Arranged " + this.name
-                + " in ascending order of song durations"));
+        reorder(new PlaylistChange(PlaylistChange.Type.ARRANGE, null, -1, -1, "time"));
     }
 
     /*
@@ -264,20 +370,7 @@ public class Playlist implements Writable {
      *          the playlist
      */
     public List<Song> arrangeByTimeHelper() {
-        List<Integer> tempSongTimes = songTimesInPlaylist();
-        List<Song> newSongList = new ArrayList<>();
-        Collections.sort(tempSongTimes);
-
-        for (int songIndex1 = 0; songIndex1 < getNumSongs(); songIndex1++) {
-            for (int songIndex2 = 0; songIndex2 < getNumSongs(); songIndex2++) {
-                if (this.songs.get(songIndex2).getTime() == tempSongTimes.get(songIndex1)) {
-                    if (!newSongList.contains(this.songs.get(songIndex2))) {
-                        newSongList.add(this.songs.get(songIndex2));
-                    }
-                }
-            }
-        }
-        return newSongList;
+        return sortedBy(Comparator.comparingInt(Song::getTime));
     }
 
     /*
@@ -286,9 +379,7 @@ public class Playlist implements Writable {
      * EFFECTS: arranges the playlist by alphabetical order of the artist name
      */
     public void arrangeByArtist() {
-        this.songs = arrangeByArtistHelper();
-        EventLog.getInstance().logEvent(new Event("Arranged " + this.name
-                + " in alphabetical order of artist names"));
+        reorder(new PlaylistChange(PlaylistChange.Type.ARRANGE, null, -1, -1, "artist"));
     }
 
     /*
@@ -296,21 +387,7 @@ public class Playlist implements Writable {
      *          artist name
      */
     public List<Song> arrangeByArtistHelper() {
-        List<String> tempArtists = artistsInPlaylist();
-        List<Song> newSongList = new ArrayList<>();
-        Collections.sort(tempArtists);
-
-        for (int songIndex1 = 0; songIndex1 < getNumSongs(); songIndex1++) {
-            for (int songIndex2 = 0; songIndex2 < getNumSongs(); songIndex2++) {
-                if (Objects.equals(this.songs.get(songIndex2).getArtist(),
-                        tempArtists.get(songIndex1))) {
-                    if (!newSongList.contains(this.songs.get(songIndex2))) {
-                        newSongList.add(this.songs.get(songIndex2));
-                    }
-                }
-            }
-        }
-        return newSongList;
+        return sortedBy(Comparator.comparing(Song::getArtist));
     }
 
     /*
@@ -319,30 +396,14 @@ public class Playlist implements Writable {
      * EFFECTS: arranges the playlist by alphabetical order of the genre
      */
     public void arrangeByGenre() {
-        this.songs = arrangeByGenreHelper();
-        EventLog.getInstance().logEvent(new Event("Arranged " + this.name
-                + " in alphabetical order of genres"));
+        reorder(new PlaylistChange(PlaylistChange.Type.ARRANGE, null, -1, -1, "genre"));
     }
 
     /*
      * EFFECTS: returns a list of Song objects in alphabetical order based on the genre
      */
     public List<Song> arrangeByGenreHelper() {
-        List<String> tempGenres = genresInPlaylist();
-        List<Song> newSongList = new ArrayList<>();
-        Collections.sort(tempGenres);
-
-        for (int songIndex1 = 0; songIndex1 < getNumSongs(); songIndex1++) {
-            for (int songIndex2 = 0; songIndex2 < getNumSongs(); songIndex2++) {
-                if (Objects.equals(this.songs.get(songIndex2).getGenre(),
-                        tempGenres.get(songIndex1))) {
-                    if (!newSongList.contains(this.songs.get(songIndex2))) {
-                        newSongList.add(this.songs.get(songIndex2));
-                    }
-                }
-            }
-        }
-        return newSongList;
+        return sortedBy(Comparator.comparing(Song::getGenre));
     }
 
     /*
@@ -350,8 +411,199 @@ public class Playlist implements Writable {
      * EFFECTS: reverses the playlist order
      */
     public void reverse() {
-        Collections.reverse(this.songs);
-        EventLog.getInstance().logEvent(new Event("Reversed playlist order"));
+        reorder(new PlaylistChange(PlaylistChange.Type.REVERSE, null, -1, -1, null));
+    }
+
+    /*
+     * REQUIRES: change is an ARRANGE, SHUFFLE or REVERSE change
+     * EFFECTS: returns a new list of the songs in the order change would put them in, without changing the
+     *          playlist; safe to call on a snapshot from another thread
+     */
+    public List<Song> reorderedBy(PlaylistChange change) {
+        List<Song> reordered = new ArrayList<>(this.songs);
+        if (change.getType() == PlaylistChange.Type.SHUFFLE) {
+            Collections.shuffle(reordered, new Random(Long.parseLong(change.getDetail())));
+        } else if (change.getType() == PlaylistChange.Type.REVERSE) {
+            Collections.reverse(reordered);
+        } else if (change.getDetail().equals("title")) {
+            reordered = arrangeByTitleHelper();
+        } else if (change.getDetail().equals("time")) {
+            reordered = arrangeByTimeHelper();
+        } else if (change.getDetail().equals("artist")) {
+            reordered = arrangeByArtistHelper();
+        } else {
+            reordered = arrangeByGenreHelper();
+        }
+        return reordered;
+    }
+
+    /*
+     * REQUIRES: change is an ARRANGE, SHUFFLE or REVERSE change
+     * MODIFIES: this
+     * EFFECTS: reorders the playlist as change says, logs it and notifies observers of change
+     */
+    public void reorder(PlaylistChange change) {
+        reorder(change, reorderedBy(change));
+    }
+
+    /*
+     * REQUIRES: change is an ARRANGE, SHUFFLE or REVERSE change, and reordered is what reorderedBy(change)
+     *           returns for the playlist as it is now, worked out ahead of time (for example on a snapshot
+     *           in the background)
+     * MODIFIES: this
+     * EFFECTS: puts the songs in the order of reordered in one step, restarting the playlist if it was
+     *          shuffled, then logs the change and notifies observers of it
+     */
+    public void reorder(PlaylistChange change, List<Song> reordered) {
+        this.songs = new ArrayList<>(reordered);
+        if (change.getType() == PlaylistChange.Type.SHUFFLE) {
+            this.counter = 0;
+        }
+        EventLog.getInstance().logEvent(new Event(describeReorder(change)));
+        notifyObservers(change);
+    }
+
+    // EFFECTS: returns the event log description of the arrange, shuffle or reverse change
+    private String describeReorder(PlaylistChange change) {
+        if (change.getType() == PlaylistChange.Type.SHUFFLE) {
+            return "Shuffled " + this.name;
+        } else if (change.getType() == PlaylistChange.Type.REVERSE) {
+            return "Reversed playlist order";
+        } else if (change.getDetail().equals("title")) {
+            return "Arranged " + this.name + " in alphabetical order of song titles";
+        } else if (change.getDetail().equals("time")) {
+            return "Arranged " + this.name + " in ascending order of song durations";
+        } else if (change.getDetail().equals("artist")) {
+            return "Arranged " + this.name + " in alphabetical order of artist names";
+        }
+        return "Arranged " + this.name + " in alphabetical order of genres";
+    }
+
+    // EFFECTS: returns a new list of the songs sorted by comparator, keeping songs that compare equal in order
+    private List<Song> sortedBy(Comparator<Song> comparator) {
+        List<Song> sorted = new ArrayList<>(this.songs);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes the given change to the playlist without logging it or notifying observers;
+     *          used only when restoring playlist from file
+     */
+    public void applyChange(PlaylistChange change) {
+        this.version++;
+        switch (change.getType()) {
+            case ADD:
+                addSongJson(change.getSong());
+                break;
+            case ADD_ALL:
+                addSongsHelper(change.getSongs());
+                break;
+            case REMOVE:
+            case REMOVE_ALL:
+                applyRemoval(change);
+                break;
+            case MOVE:
+                moveSongHelper(change.getSong(), change.getToIndex() + 1);
+                break;
+            default:
+                applyReorder(change);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes the given remove or remove all change to the playlist and restarts it, without logging
+     *          it or notifying observers
+     */
+    private void applyRemoval(PlaylistChange change) {
+        if (change.getType() == PlaylistChange.Type.REMOVE_ALL) {
+            Set<Song> removed = new HashSet<>(change.getSongs());
+            removeIfHelper(removed::contains, new ArrayList<>());
+        } else {
+            int songIndex = findSongIndex(change.getSong().getTitle());
+            if (songIndex != -1) {
+                this.songs.remove(songIndex);
+            }
+        }
+        replay();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes the given arrange, shuffle or reverse change to the playlist without logging it
+     *          or notifying observers
+     */
+    private void applyReorder(PlaylistChange change) {
+        this.songs = reorderedBy(change);
+        if (change.getType() == PlaylistChange.Type.SHUFFLE) {
+            this.counter = 0;
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds observer to the observers notified of changes to this playlist
+     */
+    public void addObserver(PlaylistObserver observer) {
+        if (!this.observers.contains(observer)) {
+            this.observers.add(observer);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes observer from the observers notified of changes to this playlist
+     */
+    public void removeObserver(PlaylistObserver observer) {
+        this.observers.remove(observer);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: marks the playlist as changed and notifies all observers of change
+     */
+    private void notifyObservers(PlaylistChange change) {
+        this.dirty = true;
+        this.version++;
+        for (PlaylistObserver observer : this.observers) {
+            observer.update(this, change);
+        }
+    }
+
+    /*
+     * EFFECTS: returns true if the playlist has changed since it was last saved
+     */
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: marks the playlist as saved
+     */
+    public void markClean() {
+        this.dirty = false;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: marks the playlist as changed since it was last saved, such as after a save of it failed
+     */
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    /*
+     * EFFECTS: returns a copy of this playlist with the same name, songs and current song; the copy
+     *          has no observers and is not affected by later changes to this playlist
+     */
+    public Playlist snapshot() {
+        Playlist copy = new Playlist(this.name);
+        copy.songs = new ArrayList<>(this.songs);
+        copy.counter = this.counter;
+        return copy;
     }
 
     public String getPlaylistName() {
@@ -362,6 +614,7 @@ public class Playlist implements Writable {
         return this.counter;
     }
 
+    @Override
     public int getNumSongs() {
         return this.songs.size();
     }
@@ -370,17 +623,44 @@ public class Playlist implements Writable {
         return this.songs.get(songIndex);
     }
 
-    // EFFECTS: returns all the songs in the playlist
+    /*
+     * EFFECTS: returns a read-only view of the songs in the playlist, in order; the view reflects later
+     *          changes to the playlist, so callers that only show part of it should use getSongs(offset, limit)
+     */
     public List<Song> getSongs() {
-        return this.songs;
+        return Collections.unmodifiableList(this.songs);
+    }
+
+    /*
+     * REQUIRES: offset >= 0 and limit >= 0
+     * EFFECTS: returns a new list of at most limit songs starting at index offset, in order;
+     *          returns an empty list if offset >= getNumSongs()
+     */
+    @Override
+    public List<Song> getSongs(int offset, int limit) {
+        int from = Math.min(offset, this.songs.size());
+        return new ArrayList<>(this.songs.subList(from, (int) Math.min((long) from + limit, this.songs.size())));
+    }
+
+    /*
+     * REQUIRES: pageSize > 0
+     * EFFECTS: returns a fail-fast cursor over the songs in the playlist that copies pageSize songs at a time
+     */
+    public SongCursor cursor(int pageSize) {
+        return new SongCursor(this, pageSize);
+    }
+
+    @Override
+    public long getVersion() {
+        return this.version;
     }
 
     // EFFECTS: returns a string representation of Playlist
     @Override
     public String toString() {
-        String songsString = "";
+        StringBuilder songsString = new StringBuilder();
         for (Song song : this.songs) {
-            songsString += song.toString();
+            songsString.append(song.toString());
         }
         return this.name + " has " + getNumSongs() + " song(s)" + "\nSongs:" + songsString;
     }
@@ -0,0 +1,106 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.util.Collections;
+import java.util.List;
+
+// Represents a single change made to a playlist, such as adding, removing, moving or reordering songs,
+// or adding or removing many songs at once
+public class PlaylistChange implements Writable {
+
+    // the kinds of changes that can be made to a playlist
+    public enum Type {
+        ADD, ADD_ALL, REMOVE, REMOVE_ALL, MOVE, ARRANGE, SHUFFLE, REVERSE
+    }
+
+    private Type type;      // kind of change
+    private Song song;      // song that was added, removed or moved; null for reorders
+    private int index;      // index the song was at before the change; -1 if not applicable
+    private int toIndex;    // index the song is at after the change; -1 if not applicable
+    private String detail;  // arrange key or shuffle seed; null if not applicable
+    private List<Song> songs;   // songs that were added or removed together, in order; null if not applicable
+    private List<Integer> indexes;  // ascending indexes removed songs were at; null if not known or not applicable
+
+    /*
+     * EFFECTS: creates a change of given type on song, moving it from index to toIndex,
+     *          with given detail
+     */
+    public PlaylistChange(Type type, Song song, int index, int toIndex, String detail) {
+        this.type = type;
+        this.song = song;
+        this.index = index;
+        this.toIndex = toIndex;
+        this.detail = detail;
+    }
+
+    /*
+     * EFFECTS: creates a change of given type on all of songs at once
+     */
+    public PlaylistChange(Type type, List<Song> songs) {
+        this(type, null, -1, -1, null);
+        this.songs = Collections.unmodifiableList(songs);
+    }
+
+    /*
+     * REQUIRES: indexes is ascending and has one index for each song in songs
+     * EFFECTS: creates a change of given type on all of songs at once, which were at indexes before the change;
+     *          the indexes are only for observers of the live playlist and are not written to JSON
+     */
+    public PlaylistChange(Type type, List<Song> songs, List<Integer> indexes) {
+        this(type, songs);
+        this.indexes = Collections.unmodifiableList(indexes);
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public Song getSong() {
+        return this.song;
+    }
+
+    public int getIndex() {
+        return this.index;
+    }
+
+    public int getToIndex() {
+        return this.toIndex;
+    }
+
+    public String getDetail() {
+        return this.detail;
+    }
+
+    public List<Song> getSongs() {
+        return this.songs;
+    }
+
+    public List<Integer> getIndexes() {
+        return this.indexes;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("op", this.type.name());
+        if (this.song != null) {
+            json.put("song", this.song.toJson());
+        }
+        if (this.songs != null) {
+            JSONArray jsonArray = new JSONArray();
+            for (Song changed : this.songs) {
+                jsonArray.put(changed.toJson());
+            }
+            json.put("songs", jsonArray);
+        }
+        json.put("index", this.index);
+        json.put("toIndex", this.toIndex);
+        if (this.detail != null) {
+            json.put("detail", this.detail);
+        }
+        return json;
+    }
+}
@@ -0,0 +1,7 @@
+package model;
+
+// Represents an object that is notified whenever a playlist it observes is changed
+public interface PlaylistObserver {
+    // EFFECTS: handles change that was just made to playlist
+    void update(Playlist playlist, PlaylistChange change);
+}
@@ -0,0 +1,267 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Represents a prefix trie of terms, ignoring case, that counts how many times each term has been added and
+// completes a prefix with the terms that start with it, most common first. Each term is shown in the spelling
+// it was most often added with. Every node knows the highest count below it, so completing a prefix visits
+// the best branches first and stops after the requested number of terms instead of listing every term below
+// the prefix. Children are kept in sorted arrays and nodes left without terms are pruned, to keep it compact.
+public class PrefixTrie {
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private Node root = new Node();
+    private int size = 0;   // number of distinct terms with a count above zero
+
+    /*
+     * REQUIRES: times > 0
+     * MODIFIES: this
+     * EFFECTS: adds term times times
+     */
+    public void add(String term, int times) {
+        String key = term.toLowerCase();
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrAdd(key.charAt(i));
+        }
+        Node node = path[key.length()];
+        if (node.count == 0) {
+            size++;
+            node.spellings = new HashMap<>(2);
+        }
+        node.count += times;
+        node.spellings.merge(term, times, Integer::sum);
+        updateBest(path, key);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds term once
+     */
+    public void add(String term) {
+        add(term, 1);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: takes one away from the count of term, if it has been added, removing it once its count reaches
+     *          zero
+     */
+    public void remove(String term) {
+        String key = term.toLowerCase();
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length() && path[i] != null; i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+        Node node = path[key.length()];
+        if (node == null || node.count == 0) {
+            return;
+        }
+        node.count--;
+        if (node.spellings.merge(term, -1, Integer::sum) <= 0) {
+            node.spellings.remove(term);
+        }
+        if (node.count == 0) {
+            size--;
+            node.spellings = null;
+        }
+        updateBest(path, key);
+    }
+
+    /*
+     * REQUIRES: k > 0
+     * EFFECTS: returns at most k terms that start with prefix, ignoring case, in the spelling each was most often
+     *          added with; terms added more often come first, and terms added equally often are in alphabetical
+     *          order
+     */
+    public List<String> complete(String prefix, int k) {
+        String key = prefix.toLowerCase();
+        Node start = root;
+        for (int i = 0; i < key.length() && start != null; i++) {
+            start = start.child(key.charAt(i));
+        }
+        List<String> found = new ArrayList<>();
+        if (start == null || start.best == 0) {
+            return found;
+        }
+        PriorityQueue<Entry> pending = new PriorityQueue<>();
+        pending.add(new Entry(start, key, false));
+        while (!pending.isEmpty() && found.size() < k) {
+            Entry entry = pending.poll();
+            if (entry.isTerm) {
+                found.add(entry.node.spelling());
+            } else {
+                expand(entry, pending);
+            }
+        }
+        return found;
+    }
+
+    /*
+     * EFFECTS: returns the spelling term was most often added with, if a term equal to it ignoring case has been
+     *          added, otherwise returns term
+     */
+    public String canonical(String term) {
+        Node node = root;
+        String key = term.toLowerCase();
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node == null || node.count == 0 ? term : node.spelling();
+    }
+
+    // EFFECTS: returns the number of times term has been added and not removed, ignoring case
+    public int getCount(String term) {
+        Node node = root;
+        String key = term.toLowerCase();
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node == null ? 0 : node.count;
+    }
+
+    // EFFECTS: returns the number of distinct terms, ignoring case
+    public int size() {
+        return size;
+    }
+
+    /*
+     * MODIFIES: pending
+     * EFFECTS: queues the term at the node of entry, if any, and each child of the node that has terms
+     */
+    private static void expand(Entry entry, PriorityQueue<Entry> pending) {
+        Node node = entry.node;
+        if (node.count > 0) {
+            pending.add(new Entry(node, entry.path, true));
+        }
+        for (int i = 0; i < node.labels.length; i++) {
+            if (node.children[i].best > 0) {
+                pending.add(new Entry(node.children[i], entry.path + node.labels[i], false));
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: works out the highest count below each node of path again, from the end of key back to the root,
+     *          and prunes nodes that no longer have any terms below them
+     */
+    private static void updateBest(Node[] path, String key) {
+        for (int i = key.length(); i >= 0; i--) {
+            Node node = path[i];
+            int best = node.count;
+            for (Node child : node.children) {
+                best = Math.max(best, child.best);
+            }
+            node.best = best;
+            if (best == 0 && i > 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+        }
+    }
+
+    // Represents a node of the trie: the count of the term ending at it and its children by next character
+    private static class Node {
+        private char[] labels = NO_LABELS;          // characters leading to children, in ascending order
+        private Node[] children = NO_CHILDREN;      // child for each label
+        private int count = 0;                      // times the term ending here has been added
+        private int best = 0;                       // highest count at or below this node
+        private Map<String, Integer> spellings;     // times each spelling of the term was added; null if none
+
+        // EFFECTS: returns the child for c, or null if there is none
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i < 0 ? null : children[i];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the child for c, adding it if there is none
+        Node childOrAdd(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            newLabels[at] = c;
+            newChildren[at] = new Node();
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: removes the child for c, if any
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(labels, i + 1, newLabels, i, labels.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            labels = newLabels.length == 0 ? NO_LABELS : newLabels;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        // EFFECTS: returns the spelling the term ending here was most often added with, the first alphabetically
+        //          if several were added equally often
+        String spelling() {
+            String chosen = null;
+            for (Map.Entry<String, Integer> entry : spellings.entrySet()) {
+                int compare = chosen == null ? 1 : entry.getValue() - spellings.get(chosen);
+                if (compare > 0 || compare == 0 && entry.getKey().compareTo(chosen) < 0) {
+                    chosen = entry.getKey();
+                }
+            }
+            return chosen;
+        }
+    }
+
+    // Represents a node waiting to be expanded, or a term waiting to be returned, while completing a prefix.
+    // Entries come out highest count first, then in alphabetical order of their paths, with a term before the
+    // node it ends at, which gives the terms in the order complete promises.
+    private static class Entry implements Comparable<Entry> {
+        private final Node node;
+        private final String path;
+        private final boolean isTerm;
+
+        Entry(Node node, String path, boolean isTerm) {
+            this.node = node;
+            this.path = path;
+            this.isTerm = isTerm;
+        }
+
+        // EFFECTS: returns the count of the term if this is a term, otherwise the highest count below the node
+        int priority() {
+            return isTerm ? node.count : node.best;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (priority() != other.priority()) {
+                return Integer.compare(other.priority(), priority());
+            }
+            int compare = path.compareTo(other.path);
+            if (compare != 0) {
+                return compare;
+            }
+            return Boolean.compare(other.isTerm, isTerm);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package model;
+
+// Represents a song found by a library search, the playlist it was found in, and how well it matched
+public class SearchHit {
+    private final Song song;
+    private final Playlist playlist;
+    private final int score;
+
+    // EFFECTS: creates a hit for song in playlist with given score
+    public SearchHit(Song song, Playlist playlist, int score) {
+        this.song = song;
+        this.playlist = playlist;
+        this.score = score;
+    }
+
+    public Song getSong() {
+        return song;
+    }
+
+    public Playlist getPlaylist() {
+        return playlist;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return song.getTitle() + " - " + song.getArtist() + " (" + playlist.getPlaylistName() + ")";
+    }
+}
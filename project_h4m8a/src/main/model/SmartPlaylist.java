@@ -0,0 +1,183 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a playlist whose songs are the songs of its source playlists that satisfy every one of its rules,
+// such as "genre is Jazz" and "time less than 300". The songs of a source are checked once, when it is attached;
+// after that the smart playlist observes the source and checks only the songs added to or removed from it, so
+// it never scans a source again. Songs are in the order they joined, and a song held by several sources is in
+// the smart playlist once. Only the definition (name, source names and rules) is stored; the songs are worked
+// out again when the sources are attached.
+public class SmartPlaylist implements PlaylistObserver, Writable {
+    private final String name;
+    private final List<SongRule> rules;
+    private final List<String> sourceNames;
+    private final List<Playlist> sources = new ArrayList<>();   // sources attached
+    private final Map<Song, Integer> members = new LinkedHashMap<>();  // songs that match, and how many sources
+    private long numChecked = 0;    // songs checked against the rules
+
+    /*
+     * EFFECTS: creates a smart playlist with given name of the songs that satisfy every one of rules in the
+     *          playlists named in sourceNames; it has no songs until its sources are attached
+     */
+    public SmartPlaylist(String name, List<SongRule> rules, List<String> sourceNames) {
+        this.name = name;
+        this.rules = new ArrayList<>(rules);
+        this.sourceNames = new ArrayList<>(sourceNames);
+    }
+
+    /*
+     * REQUIRES: the name of source is one of getSourceNames()
+     * MODIFIES: this, source
+     * EFFECTS: adds the songs of source that satisfy the rules and keeps them up to date as source changes,
+     *          in place of any other attached source with the same name, such as an earlier copy of it
+     */
+    public void attach(Playlist source) {
+        for (Playlist other : new ArrayList<>(sources)) {
+            if (other == source) {
+                return;
+            }
+            if (other.getPlaylistName().equals(source.getPlaylistName())) {
+                detach(other);
+            }
+        }
+        for (Song song : source.getSongs()) {
+            join(song);
+        }
+        sources.add(source);
+        source.addObserver(this);
+    }
+
+    /*
+     * MODIFIES: this, source
+     * EFFECTS: stops observing source and drops the songs it contributed, if it is attached
+     */
+    public void detach(Playlist source) {
+        if (sources.removeIf(p -> p == source)) {
+            source.removeObserver(this);
+            for (Song song : source.getSongs()) {
+                leave(song);
+            }
+        }
+    }
+
+    // EFFECTS: returns true if song satisfies every rule
+    public boolean matches(Song song) {
+        for (SongRule rule : rules) {
+            if (!rule.matches(song)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the songs added to playlist that satisfy the rules and drops the songs removed from it
+     */
+    @Override
+    public void update(Playlist playlist, PlaylistChange change) {
+        if (change.getType() == PlaylistChange.Type.ADD) {
+            join(change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.ADD_ALL) {
+            for (Song song : change.getSongs()) {
+                join(song);
+            }
+        } else if (change.getType() == PlaylistChange.Type.REMOVE) {
+            leave(change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.REMOVE_ALL) {
+            for (Song song : change.getSongs()) {
+                leave(song);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<SongRule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    public List<String> getSourceNames() {
+        return Collections.unmodifiableList(sourceNames);
+    }
+
+    // EFFECTS: returns the sources attached, in the order they were attached
+    public List<Playlist> getSources() {
+        return new ArrayList<>(sources);
+    }
+
+    // EFFECTS: returns the songs of the smart playlist, in the order they joined
+    public List<Song> getSongs() {
+        return new ArrayList<>(members.keySet());
+    }
+
+    public int getNumSongs() {
+        return members.size();
+    }
+
+    // EFFECTS: returns the number of songs checked against the rules since the smart playlist was created
+    public long getNumChecked() {
+        return numChecked;
+    }
+
+    // EFFECTS: returns the rules as they read, joined by "and"
+    public String describeRules() {
+        List<String> described = new ArrayList<>();
+        for (SongRule rule : rules) {
+            described.add(rule.toString());
+        }
+        return described.isEmpty() ? "every song" : String.join(" and ", described);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("name", name);
+        json.put("sources", new JSONArray(sourceNames));
+        JSONArray jsonRules = new JSONArray();
+        for (SongRule rule : rules) {
+            jsonRules.put(rule.toJson());
+        }
+        json.put("rules", jsonRules);
+        return json;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: counts song as held by one more source if it satisfies the rules, adding it if it is new
+     */
+    private void join(Song song) {
+        numChecked++;
+        if (matches(song)) {
+            members.merge(song, 1, Integer::sum);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: counts song as held by one source fewer if it satisfies the rules, dropping it once no source
+     *          holds it
+     */
+    private void leave(Song song) {
+        numChecked++;
+        if (matches(song) && members.containsKey(song) && members.merge(song, -1, Integer::sum) == 0) {
+            members.remove(song);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents the artists and genres of the songs in any number of playlists, kept in prefix tries so that a
+// partly typed artist or genre can be completed with the ones already in use, most common first. The playlists
+// are observed, so the completions follow the songs as they are added and removed.
+public class SongCompletions implements PlaylistObserver {
+    private List<Playlist> watched = new ArrayList<>();
+    private PrefixTrie artists = new PrefixTrie();
+    private PrefixTrie genres = new PrefixTrie();
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: adds the artists and genres of the songs in playlist and keeps them up to date as playlist
+     *          changes, unless playlist is already watched
+     */
+    public void watch(Playlist playlist) {
+        if (isWatched(playlist)) {
+            return;
+        }
+        Map<String, Integer> artistCounts = new HashMap<>();
+        Map<String, Integer> genreCounts = new HashMap<>();
+        for (Song song : playlist.getSongs()) {
+            artistCounts.merge(song.getArtist(), 1, Integer::sum);
+            genreCounts.merge(song.getGenre(), 1, Integer::sum);
+        }
+        artistCounts.forEach(artists::add);
+        genreCounts.forEach(genres::add);
+        watched.add(playlist);
+        playlist.addObserver(this);
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: stops watching playlist and removes the artists and genres of its songs, if it is watched
+     */
+    public void unwatch(Playlist playlist) {
+        if (!isWatched(playlist)) {
+            return;
+        }
+        watched.removeIf(p -> p == playlist);
+        playlist.removeObserver(this);
+        for (Song song : playlist.getSongs()) {
+            remove(song);
+        }
+    }
+
+    /*
+     * MODIFIES: this, playlist, and every other watched playlist
+     * EFFECTS: watches playlist, stopping watching every other playlist
+     */
+    public void watchOnly(Playlist playlist) {
+        for (Playlist other : new ArrayList<>(watched)) {
+            if (other != playlist) {
+                unwatch(other);
+            }
+        }
+        watch(playlist);
+    }
+
+    // EFFECTS: returns true if playlist is watched
+    public boolean isWatched(Playlist playlist) {
+        for (Playlist p : watched) {
+            if (p == playlist) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * REQUIRES: k > 0
+     * EFFECTS: returns at most k artists of the watched songs that start with prefix, ignoring case, those with
+     *          the most songs first
+     */
+    public List<String> completeArtist(String prefix, int k) {
+        return artists.complete(prefix, k);
+    }
+
+    /*
+     * REQUIRES: k > 0
+     * EFFECTS: returns at most k genres of the watched songs that start with prefix, ignoring case, those with
+     *          the most songs first
+     */
+    public List<String> completeGenre(String prefix, int k) {
+        return genres.complete(prefix, k);
+    }
+
+    // EFFECTS: returns the usual spelling of artist among the watched songs, or artist if no song has it
+    public String canonicalArtist(String artist) {
+        return artists.canonical(artist);
+    }
+
+    // EFFECTS: returns the usual spelling of genre among the watched songs, or genre if no song has it
+    public String canonicalGenre(String genre) {
+        return genres.canonical(genre);
+    }
+
+    // EFFECTS: returns the number of distinct artists of the watched songs, ignoring case
+    public int getNumArtists() {
+        return artists.size();
+    }
+
+    // EFFECTS: returns the number of distinct genres of the watched songs, ignoring case
+    public int getNumGenres() {
+        return genres.size();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the artists and genres of the songs added to playlist and removes those of the songs
+     *          removed from it
+     */
+    @Override
+    public void update(Playlist playlist, PlaylistChange change) {
+        if (change.getType() == PlaylistChange.Type.ADD) {
+            add(change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.ADD_ALL) {
+            for (Song song : change.getSongs()) {
+                add(song);
+            }
+        } else if (change.getType() == PlaylistChange.Type.REMOVE) {
+            remove(change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.REMOVE_ALL) {
+            for (Song song : change.getSongs()) {
+                remove(song);
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the artist and genre of song
+     */
+    private void add(Song song) {
+        artists.add(song.getArtist());
+        genres.add(song.getGenre());
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes the artist and genre of song
+     */
+    private void remove(Song song) {
+        artists.remove(song.getArtist());
+        genres.remove(song.getGenre());
+    }
+}
@@ -0,0 +1,71 @@
+package model;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Represents a fail-fast iterator over the songs of a SongPager that fetches them one page at a time.
+// If the songs change while the cursor is in use, the next call to hasNext or next throws
+// ConcurrentModificationException instead of returning songs from two different orders. To iterate
+// over a playlist while it changes, iterate over a cursor of its snapshot instead.
+public class SongCursor implements Iterator<Song> {
+    private SongPager pager;
+    private int pageSize;
+    private long version;           // version of pager when this cursor was made
+    private int offset = 0;         // index in pager of the first song in page
+    private List<Song> page;        // songs fetched most recently
+    private int position = 0;       // index in page of the next song
+
+    /*
+     * REQUIRES: pageSize > 0
+     * EFFECTS: creates a cursor at the first song of pager that fetches pageSize songs at a time
+     */
+    public SongCursor(SongPager pager, int pageSize) {
+        this.pager = pager;
+        this.pageSize = pageSize;
+        this.version = pager.getVersion();
+        this.page = pager.getSongs(0, pageSize);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns true if there is another song, fetching the next page if needed;
+     *          throws ConcurrentModificationException if the songs have changed since this cursor was made
+     */
+    @Override
+    public boolean hasNext() {
+        checkVersion();
+        if (position == page.size() && page.size() == pageSize) {
+            offset += pageSize;
+            page = pager.getSongs(offset, pageSize);
+            position = 0;
+        }
+        return position < page.size();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the next song; throws NoSuchElementException if there is none, or
+     *          ConcurrentModificationException if the songs have changed since this cursor was made
+     */
+    @Override
+    public Song next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(position++);
+    }
+
+    // EFFECTS: returns the index of the song that the next call to next() returns
+    public int nextIndex() {
+        return offset + position;
+    }
+
+    // EFFECTS: throws ConcurrentModificationException if the songs have changed since this cursor was made
+    private void checkVersion() {
+        if (pager.getVersion() != version) {
+            throw new ConcurrentModificationException("Songs changed while being iterated");
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents an inverted index of the songs of a playlist that finds the songs whose title, artist or genre
+// contains a given piece of text, ignoring case. Every three-character sequence (trigram) of a song's fields
+// maps to the ids of the songs that contain it, so a search only checks the songs that have every trigram of
+// the text instead of every song. The index observes the playlist and is updated as songs are added and
+// removed; ids of removed songs are skipped until there are more of them than songs, when the index is rebuilt.
+public class SongIndex implements PlaylistObserver {
+    private static final int GRAM = 3;
+    private static final char SEPARATOR = '\n';     // between fields of a key, so no trigram spans two fields
+    private Playlist playlist;
+    private Map<Song, Integer> ids = new IdentityHashMap<>();   // id of each song object in the playlist
+    private List<Song> songs = new ArrayList<>();       // song of each id; null if the song was removed
+    private List<String> keys = new ArrayList<>();      // lower-case fields of the song of each id
+    private TrigramTable postings = new TrigramTable();     // ids of the songs containing each trigram
+    private int numRemoved = 0;                 // ids whose songs have been removed
+    private int[] order = new int[0];           // ids in playlist order
+    private int[] positions = new int[0];       // index in the playlist of the song of each id
+    private long orderVersion = -1;             // version of playlist when order was worked out
+
+    /*
+     * MODIFIES: playlist
+     * EFFECTS: creates an index of the songs in playlist that keeps itself up to date as playlist changes
+     */
+    public SongIndex(Playlist playlist) {
+        this.playlist = playlist;
+        rebuild();
+        playlist.addObserver(this);
+    }
+
+    /*
+     * EFFECTS: returns the songs whose title, artist or genre contains query, ignoring case, in playlist
+     *          order; returns every song if query is empty
+     */
+    public List<Song> search(String query) {
+        String text = query.toLowerCase();
+        ensureOrder();
+        if (text.length() < GRAM) {
+            return matchInOrder(text, null);
+        }
+        int[] candidates = candidates(text);
+        if (candidates.length > order.length / 16) {
+            BitSet marked = new BitSet(songs.size());
+            for (int id : candidates) {
+                marked.set(id);
+            }
+            return matchInOrder(text, marked);
+        }
+        return matchByPosition(text, candidates);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: indexes the songs added to playlist and drops the songs removed from it
+     */
+    @Override
+    public void update(Playlist playlist, PlaylistChange change) {
+        if (change.getType() == PlaylistChange.Type.ADD) {
+            add(change.getSong());
+            appendToOrder(1);
+        } else if (change.getType() == PlaylistChange.Type.ADD_ALL) {
+            for (Song song : change.getSongs()) {
+                add(song);
+            }
+            appendToOrder(change.getSongs().size());
+        } else if (change.getType() == PlaylistChange.Type.REMOVE) {
+            remove(change.getSong());
+        } else if (change.getType() == PlaylistChange.Type.REMOVE_ALL) {
+            for (Song song : change.getSongs()) {
+                remove(song);
+            }
+        }
+        if (numRemoved > ids.size()) {
+            rebuild();
+        }
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: stops keeping the index up to date with playlist
+     */
+    public void close() {
+        playlist.removeObserver(this);
+    }
+
+    public Playlist getPlaylist() {
+        return playlist;
+    }
+
+    // EFFECTS: returns the number of songs in the index
+    public int getNumSongs() {
+        return ids.size();
+    }
+
+    // EFFECTS: returns the number of distinct trigrams in the index
+    public int getNumTrigrams() {
+        return postings.size;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: throws away the index and indexes every song in playlist again, giving them new ids
+     */
+    private void rebuild() {
+        ids.clear();
+        songs.clear();
+        keys.clear();
+        postings = new TrigramTable();
+        numRemoved = 0;
+        orderVersion = -1;
+        for (Song song : playlist.getSongs()) {
+            add(song);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: gives song the next id and adds it to the postings of each of its trigrams
+     */
+    private void add(Song song) {
+        if (ids.containsKey(song)) {
+            return;
+        }
+        int id = songs.size();
+        String key = (song.getTitle() + SEPARATOR + song.getArtist() + SEPARATOR + song.getGenre()).toLowerCase();
+        ids.put(song, id);
+        songs.add(song);
+        keys.add(key);
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            postings.getOrAdd(trigramAt(key, i)).add(id);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: if the playlist order was up to date before count songs were just added to the end of the
+     *          playlist, appends their ids to it so it does not have to be worked out again
+     */
+    private void appendToOrder(int count) {
+        if (orderVersion != playlist.getVersion() - 1 || ids.size() != playlist.getNumSongs()) {
+            return;
+        }
+        List<Song> current = playlist.getSongs();
+        int start = order.length;
+        order = Arrays.copyOf(order, start + count);
+        positions = Arrays.copyOf(positions, Math.max(songs.size(), positions.length));
+        for (int i = start; i < order.length; i++) {
+            order[i] = ids.get(current.get(i));
+            positions[order[i]] = i;
+        }
+        orderVersion = playlist.getVersion();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: marks the id of song as removed; its postings are dropped when the index is next rebuilt
+     */
+    private void remove(Song song) {
+        Integer id = ids.remove(song);
+        if (id != null) {
+            songs.set(id, null);
+            keys.set(id, null);
+            numRemoved++;
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: works out the playlist order of the ids again if playlist has changed since it was last worked
+     *          out; rebuilds the index if playlist has songs the index has not seen
+     */
+    private void ensureOrder() {
+        if (orderVersion == playlist.getVersion()) {
+            return;
+        }
+        if (playlist.getNumSongs() != ids.size()) {
+            rebuild();
+        }
+        List<Song> current = playlist.getSongs();
+        order = new int[current.size()];
+        positions = new int[songs.size()];
+        for (int i = 0; i < order.length; i++) {
+            Integer id = ids.get(current.get(i));
+            if (id == null) {
+                rebuild();
+                ensureOrder();
+                return;
+            }
+            order[i] = id;
+            positions[id] = i;
+        }
+        orderVersion = playlist.getVersion();
+    }
+
+    /*
+     * REQUIRES: text has at least GRAM characters
+     * EFFECTS: returns, in ascending order, the ids that are in the postings of every trigram of text
+     */
+    private int[] candidates(String text) {
+        Postings[] lists = new Postings[text.length() - GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(trigramAt(text, i));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, lists[i]);
+        }
+        return result;
+    }
+
+    /*
+     * EFFECTS: returns the songs in playlist order whose keys contain text, checking only the ids set in
+     *          marked, or every id if marked is null
+     */
+    private List<Song> matchInOrder(String text, BitSet marked) {
+        List<Song> matches = new ArrayList<>();
+        for (int id : order) {
+            if ((marked == null || marked.get(id)) && keys.get(id).contains(text)) {
+                matches.add(songs.get(id));
+            }
+        }
+        return matches;
+    }
+
+    /*
+     * EFFECTS: returns the songs of candidates whose keys contain text, sorted into playlist order
+     */
+    private List<Song> matchByPosition(String text, int[] candidates) {
+        long[] found = new long[candidates.length];
+        int numFound = 0;
+        for (int id : candidates) {
+            if (songs.get(id) != null && keys.get(id).contains(text)) {
+                found[numFound++] = ((long) positions[id] << 32) | id;
+            }
+        }
+        Arrays.sort(found, 0, numFound);
+        List<Song> matches = new ArrayList<>(numFound);
+        for (int i = 0; i < numFound; i++) {
+            matches.add(songs.get((int) found[i]));
+        }
+        return matches;
+    }
+
+    // EFFECTS: returns the ids in both sorted, which is in ascending order, and in postings, in ascending order
+    private static int[] intersect(int[] sorted, Postings postings) {
+        int[] result = new int[Math.min(sorted.length, postings.size)];
+        int size = 0;
+        int j = 0;
+        for (int id : sorted) {
+            while (j < postings.size && postings.ids[j] < id) {
+                j++;
+            }
+            if (j < postings.size && postings.ids[j] == id) {
+                result[size++] = id;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // EFFECTS: returns the trigram of text starting at index i, packed into a long
+    private static long trigramAt(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    // Represents a hash table from trigrams to their postings that stores the trigrams unboxed
+    private static class TrigramTable {
+        private long[] grams = new long[1024];
+        private Postings[] lists = new Postings[1024];
+        private int size = 0;
+
+        // EFFECTS: returns the postings of trigram, or null if no song contains it
+        Postings get(long trigram) {
+            int slot = slotOf(trigram);
+            return lists[slot];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the postings of trigram, adding empty postings for it if there are none
+        Postings getOrAdd(long trigram) {
+            int slot = slotOf(trigram);
+            if (lists[slot] == null) {
+                grams[slot] = trigram;
+                lists[slot] = new Postings();
+                if (++size * 2 > grams.length) {
+                    grow();
+                    slot = slotOf(trigram);
+                }
+            }
+            return lists[slot];
+        }
+
+        // EFFECTS: returns the slot holding trigram, or the empty slot where it belongs
+        private int slotOf(long trigram) {
+            int mask = grams.length - 1;
+            int slot = (int) ((trigram * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (lists[slot] != null && grams[slot] != trigram) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: doubles the number of slots and puts every trigram back in its slot
+        private void grow() {
+            long[] oldGrams = grams;
+            Postings[] oldLists = lists;
+            grams = new long[oldGrams.length * 2];
+            lists = new Postings[oldLists.length * 2];
+            for (int i = 0; i < oldGrams.length; i++) {
+                if (oldLists[i] != null) {
+                    int slot = slotOf(oldGrams[i]);
+                    grams[slot] = oldGrams[i];
+                    lists[slot] = oldLists[i];
+                }
+            }
+        }
+    }
+
+    // Represents the ids of the songs containing one trigram, in ascending order
+    private static class Postings {
+        private int[] ids = new int[2];
+        private int size = 0;
+
+        // MODIFIES: this
+        // EFFECTS: adds id, which is at least as large as every id already added, unless it is already added
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
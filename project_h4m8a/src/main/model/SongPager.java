@@ -0,0 +1,20 @@
+package model;
+
+import java.util.List;
+
+// Represents an ordered collection of songs that can be read a window at a time, so that callers only
+// fetch the songs they are about to show, wherever the songs are kept
+public interface SongPager {
+    // EFFECTS: returns the number of songs
+    int getNumSongs();
+
+    /*
+     * REQUIRES: offset >= 0 and limit >= 0
+     * EFFECTS: returns a new list of at most limit songs starting at index offset, in order;
+     *          returns an empty list if offset >= getNumSongs()
+     */
+    List<Song> getSongs(int offset, int limit);
+
+    // EFFECTS: returns a number that changes whenever the songs are added to, removed or reordered
+    long getVersion();
+}
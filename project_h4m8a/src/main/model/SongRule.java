@@ -0,0 +1,94 @@
+package model;
+
+import org.json.JSONObject;
+import persistence.Writable;
+
+// Represents a condition on one field of a song, such as "genre is Jazz" or "time less than 300". Text fields
+// are compared ignoring case, and less than and more than put text in alphabetical order; the time is compared
+// as a number of seconds.
+public class SongRule implements Writable {
+    // Represents a field of a song that a rule can test
+    public enum Field {
+        TITLE, ARTIST, GENRE, TIME
+    }
+
+    // Represents a way a rule can compare a field with its value
+    public enum Operator {
+        IS, CONTAINS, LESS_THAN, MORE_THAN
+    }
+
+    private final Field field;
+    private final Operator operator;
+    private final String value;
+
+    /*
+     * REQUIRES: value is a whole number if field is TIME and operator is not CONTAINS
+     * EFFECTS: creates a rule that compares field of a song with value using operator
+     */
+    public SongRule(Field field, Operator operator, String value) {
+        this.field = field;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    // EFFECTS: returns true if song satisfies this rule
+    public boolean matches(Song song) {
+        if (field == Field.TIME && operator != Operator.CONTAINS) {
+            return compare(Integer.compare(song.getTime(), Integer.parseInt(value)));
+        }
+        String text = textOf(song);
+        if (operator == Operator.CONTAINS) {
+            return text.toLowerCase().contains(value.toLowerCase());
+        }
+        return compare(text.compareToIgnoreCase(value));
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    // EFFECTS: returns the rule as it reads, such as "genre is Jazz"
+    @Override
+    public String toString() {
+        return field.name().toLowerCase() + " " + operator.name().toLowerCase().replace('_', ' ') + " " + value;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("field", field.name());
+        json.put("operator", operator.name());
+        json.put("value", value);
+        return json;
+    }
+
+    // EFFECTS: returns the field of song this rule tests, as text
+    private String textOf(Song song) {
+        if (field == Field.TITLE) {
+            return song.getTitle();
+        } else if (field == Field.ARTIST) {
+            return song.getArtist();
+        } else if (field == Field.GENRE) {
+            return song.getGenre();
+        }
+        return Integer.toString(song.getTime());
+    }
+
+    // EFFECTS: returns true if a field that compared with value as given by comparison satisfies the operator
+    private boolean compare(int comparison) {
+        if (operator == Operator.IS) {
+            return comparison == 0;
+        } else if (operator == Operator.LESS_THAN) {
+            return comparison < 0;
+        }
+        return comparison > 0;
+    }
+}
@@ -0,0 +1,77 @@
+package persistence;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Represents a file that is written through a temporary file next to it. The temporary file replaces
+// the destination only once everything written to it is on disk, so a crash while writing never leaves
+// a half-written destination file.
+public class AtomicFile {
+    private static final String TEMP_SUFFIX = ".tmp";
+    private String destination;
+    private FileOutputStream stream;
+
+    // EFFECTS: creates an atomic file that replaces destination
+    public AtomicFile(String destination) {
+        this.destination = destination;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: opens the temporary file and returns a stream to write to it;
+     *          throws FileNotFoundException if the file cannot be opened
+     */
+    public OutputStream open() throws FileNotFoundException {
+        stream = new FileOutputStream(new File(destination + TEMP_SUFFIX));
+        return stream;
+    }
+
+    /*
+     * REQUIRES: everything written to the stream returned by open() has been flushed
+     * MODIFIES: this
+     * EFFECTS: forces the temporary file to disk, closes it and atomically replaces the destination
+     *          with it; throws IOException if this fails, in which case the destination is unchanged
+     */
+    public void commit() throws IOException {
+        try {
+            stream.getFD().sync();
+        } finally {
+            stream.close();
+        }
+        Path temp = tempPath();
+        try {
+            Files.move(temp, new File(destination).toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, new File(destination).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: closes and deletes the temporary file, if it was opened, leaving the destination unchanged
+     */
+    public void abort() {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+            Files.deleteIfExists(tempPath());
+        } catch (IOException e) {
+            // the temporary file is left behind and is replaced by the next write
+        }
+    }
+
+    // EFFECTS: returns the path of the temporary file
+    private Path tempPath() {
+        return new File(destination + TEMP_SUFFIX).toPath();
+    }
+}
@@ -0,0 +1,18 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Represents an object that is shown the folders and audio files found by a DirectoryScanner walk
+public interface AudioFileVisitor {
+    // EFFECTS: handles folder, before any of the files in it; throws IOException if folder cannot be handled
+    default void visitFolder(Path folder) throws IOException {
+    }
+
+    // EFFECTS: handles the audio file at file
+    void visitAudioFile(Path file);
+
+    // EFFECTS: handles path, a file or folder that could not be visited because of error and was skipped
+    default void visitFailed(Path path, IOException error) {
+    }
+}
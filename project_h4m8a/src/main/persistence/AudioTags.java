@@ -0,0 +1,90 @@
+package persistence;
+
+import model.Song;
+
+import java.io.IOException;
+
+// Represents the tag metadata read from an audio file: title, artist, genre and duration. A field is only
+// set the first time a non-blank value is found for it, so a reader can look at the richest tags in a file
+// first and fill in what they lack from older tags afterwards.
+public class AudioTags {
+    private String title;
+    private String artist;
+    private String genre;
+    private double seconds = 0;     // duration in seconds; 0 if not known
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getArtist() {
+        return artist;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public double getSeconds() {
+        return seconds;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets the title to title, trimmed, if no title is set yet and title is not blank
+     */
+    public void offerTitle(String title) {
+        if (this.title == null && !isBlank(title)) {
+            this.title = title.trim();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets the artist to artist, trimmed, if no artist is set yet and artist is not blank
+     */
+    public void offerArtist(String artist) {
+        if (this.artist == null && !isBlank(artist)) {
+            this.artist = artist.trim();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets the genre to genre, trimmed, if no genre is set yet and genre is not blank
+     */
+    public void offerGenre(String genre) {
+        if (this.genre == null && !isBlank(genre)) {
+            this.genre = genre.trim();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets the duration to seconds if no duration is set yet and seconds is positive
+     */
+    public void offerSeconds(double seconds) {
+        if (this.seconds <= 0 && seconds > 0) {
+            this.seconds = seconds;
+        }
+    }
+
+    /*
+     * EFFECTS: returns a song with these tags, using fallbackTitle if there is no title and
+     *          SongImporter.UNKNOWN if there is no artist or genre, with the duration rounded to whole
+     *          seconds; throws IOException if the duration is not known
+     */
+    public Song toSong(String fallbackTitle) throws IOException {
+        long time = Math.max(1, Math.round(seconds));
+        if (seconds <= 0 || time > Integer.MAX_VALUE) {
+            throw new IOException("duration is not known");
+        }
+        return new Song(title == null ? fallbackTitle : title, artist == null ? SongImporter.UNKNOWN : artist,
+                (int) time, genre == null ? SongImporter.UNKNOWN : genre);
+    }
+
+    // EFFECTS: returns true if text is null or holds only whitespace and null characters
+    private boolean isBlank(String text) {
+        return text == null || text.replace('\0', ' ').trim().isEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package persistence;
+
+import model.Playlist;
+
+// Represents the outcome of reading or writing one playlist in a batch: the playlist on success,
+// or the error that stopped it
+public class BatchResult {
+    private String key;         // path or name the playlist was read from or written to
+    private Playlist playlist;  // playlist read or written; null if it failed
+    private Exception error;    // error that stopped the read or write; null if it succeeded
+
+    /*
+     * EFFECTS: creates the result for key, holding playlist if it succeeded or error if it failed
+     */
+    public BatchResult(String key, Playlist playlist, Exception error) {
+        this.key = key;
+        this.playlist = playlist;
+        this.error = error;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public Playlist getPlaylist() {
+        return this.playlist;
+    }
+
+    public Exception getError() {
+        return this.error;
+    }
+
+    // EFFECTS: returns true if the playlist was read or written without error
+    public boolean isSuccess() {
+        return this.error == null;
+    }
+}
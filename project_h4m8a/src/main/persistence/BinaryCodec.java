@@ -0,0 +1,88 @@
+package persistence;
+
+import model.Playlist;
+import model.PlaylistChange;
+import model.Song;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Represents a compact binary playlist format: a magic number and version, the playlist name, the number
+// of songs, then each song's title, artist, duration and genre. It is not human-readable but is smaller
+// and faster to read and write than JSON.
+public class BinaryCodec implements PlaylistCodec {
+    private static final byte[] MAGIC = "PLST".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+
+    @Override
+    public String getName() {
+        return "Binary";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".plst";
+    }
+
+    @Override
+    public boolean matches(byte[] header, int length) {
+        return length >= MAGIC.length && Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC);
+    }
+
+    @Override
+    public Playlist read(InputStream in) throws IOException {
+        return read(in, Integer.MAX_VALUE, chunk -> { });
+    }
+
+    // EFFECTS: reads a playlist from in, handing its songs to onChunk chunkSize at a time as each is read
+    @Override
+    public Playlist read(InputStream in, int chunkSize, Consumer<List<Song>> onChunk) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC) || data.readUnsignedByte() != VERSION) {
+            throw new IOException("Not a binary playlist");
+        }
+        Playlist playlist = new Playlist(data.readUTF());
+        int numSongs = data.readInt();
+        List<Song> songs = new ArrayList<>();
+        SongChunker chunker = new SongChunker(chunkSize, onChunk);
+        for (int i = 0; i < numSongs; i++) {
+            String title = data.readUTF();
+            String artist = data.readUTF();
+            int time = data.readInt();
+            String genre = data.readUTF();
+            Song song = new Song(title, artist, time, genre);
+            songs.add(song);
+            chunker.add(song);
+        }
+        chunker.flush();
+        playlist.applyChange(new PlaylistChange(PlaylistChange.Type.ADD_ALL, songs));
+        return playlist;
+    }
+
+    @Override
+    public void write(Playlist playlist, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        data.writeUTF(playlist.getPlaylistName());
+        data.writeInt(playlist.getNumSongs());
+        for (Song song : playlist.getSongs()) {
+            data.writeUTF(song.getTitle());
+            data.writeUTF(song.getArtist());
+            data.writeInt(song.getTime());
+            data.writeUTF(song.getGenre());
+        }
+        data.flush();
+    }
+}
@@ -0,0 +1,162 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Represents the playlist file formats the application knows about. The format of a file being read is
+// detected from its first bytes, so files in any registered format can be opened whatever they are named;
+// the format of a file being written is chosen by its extension, falling back to the default format.
+// Files whose name ends with Compression.GZIP_SUFFIX are written compressed, and compressed files are
+// decompressed as they are read.
+// We use the Singleton Design Pattern so that every reader and writer sees the same formats.
+public class CodecRegistry {
+    private static final int HEADER_LENGTH = 16;   // number of bytes looked at to detect a format
+    private static CodecRegistry theRegistry;
+    private List<PlaylistCodec> codecs = new ArrayList<>();
+    private PlaylistCodec defaultCodec;
+
+    // EFFECTS: creates a registry holding the JSON and binary formats, with JSON as the default
+    private CodecRegistry() {
+        defaultCodec = new JsonCodec();
+        codecs.add(defaultCodec);
+        codecs.add(new BinaryCodec());
+    }
+
+    // EFFECTS: returns the only registry, creating it if it does not already exist
+    public static synchronized CodecRegistry getInstance() {
+        if (theRegistry == null) {
+            theRegistry = new CodecRegistry();
+        }
+        return theRegistry;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds codec to the known formats, replacing any format with the same extension
+     */
+    public synchronized void register(PlaylistCodec codec) {
+        codecs.removeIf(c -> c.getExtension().equals(codec.getExtension()));
+        codecs.add(codec);
+    }
+
+    // EFFECTS: returns the known formats
+    public synchronized List<PlaylistCodec> getCodecs() {
+        return Collections.unmodifiableList(new ArrayList<>(codecs));
+    }
+
+    public synchronized PlaylistCodec getDefault() {
+        return defaultCodec;
+    }
+
+    /*
+     * REQUIRES: codec has been registered
+     * MODIFIES: this
+     * EFFECTS: makes codec the format used to write files whose extension is not known
+     */
+    public synchronized void setDefault(PlaylistCodec codec) {
+        defaultCodec = codec;
+    }
+
+    /*
+     * EFFECTS: returns the format whose extension ends path, ignoring any compression suffix, or the
+     *          default format if there is none
+     */
+    public synchronized PlaylistCodec forFile(String path) {
+        String name = Compression.stripSuffix(path);
+        for (PlaylistCodec codec : codecs) {
+            if (name.endsWith(codec.getExtension())) {
+                return codec;
+            }
+        }
+        return defaultCodec;
+    }
+
+    /*
+     * REQUIRES: in supports mark and reset
+     * EFFECTS: returns the format whose header starts in, without consuming any of in; falls back to
+     *          the format for path if no format recognizes the header
+     */
+    public PlaylistCodec detect(InputStream in, String path) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+        in.mark(HEADER_LENGTH);
+        int length = in.readNBytes(header, 0, HEADER_LENGTH);
+        in.reset();
+        for (PlaylistCodec codec : getCodecs()) {
+            if (codec.matches(header, length)) {
+                return codec;
+            }
+        }
+        return forFile(path);
+    }
+
+    /*
+     * EFFECTS: reads the playlist stored in the file at path in whatever format it is in and returns it;
+     *          throws IOException if an error occurs while reading
+     */
+    public Playlist read(String path) throws IOException {
+        try (InputStream in = Compression.open(path)) {
+            return read(in, path);
+        }
+    }
+
+    /*
+     * REQUIRES: in supports mark and reset
+     * MODIFIES: in
+     * EFFECTS: reads a playlist from in, which holds the contents of the file at path, in whatever format
+     *          it is in, decompressing it if it is compressed, and returns it;
+     *          throws IOException if an error occurs while reading
+     */
+    public Playlist read(InputStream in, String path) throws IOException {
+        InputStream contents = Compression.decompress(in);
+        return detect(contents, path).read(contents);
+    }
+
+    /*
+     * REQUIRES: in supports mark and reset, and chunkSize > 0
+     * MODIFIES: in
+     * EFFECTS: reads a playlist from in like read(in, path), also handing its songs to onChunk, in order and
+     *          at most chunkSize at a time, as its format allows; throws IOException if an error occurs while
+     *          reading
+     */
+    public Playlist read(InputStream in, String path, int chunkSize, Consumer<List<Song>> onChunk)
+            throws IOException {
+        InputStream contents = Compression.decompress(in);
+        return detect(contents, path).read(contents, chunkSize, onChunk);
+    }
+
+    /*
+     * EFFECTS: writes playlist to the file at path in the format chosen by its extension, replacing
+     *          the file only once it is completely written; throws IOException if an error occurs while writing
+     */
+    public void write(Playlist playlist, String path) throws IOException {
+        AtomicFile file = new AtomicFile(path);
+        OutputStream out = file.open();
+        try {
+            write(playlist, out, path);
+            file.commit();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+    }
+
+    /*
+     * MODIFIES: out
+     * EFFECTS: writes playlist to out, which will become the file at path, in the format chosen by the
+     *          extension of path and compressed if path is to be compressed;
+     *          throws IOException if an error occurs while writing
+     */
+    public void write(Playlist playlist, OutputStream out, String path) throws IOException {
+        OutputStream contents = Compression.compress(out, path);
+        forFile(path).write(playlist, contents);
+        Compression.finish(contents);
+    }
+}
@@ -0,0 +1,82 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Represents the gzip compression used for stored playlists. Files are compressed and decompressed as
+// they are streamed, so a file is never held in memory in full. Compressed files are recognized by the
+// gzip magic number when read, whatever they are named; files are written compressed when their name
+// ends with GZIP_SUFFIX.
+public class Compression {
+    public static final String GZIP_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /*
+     * EFFECTS: opens the file at path for reading, decompressing it as it is read if it is compressed;
+     *          throws IOException if the file cannot be opened
+     */
+    public static InputStream open(String path) throws IOException {
+        InputStream file = new FileInputStream(path);
+        try {
+            return decompress(new BufferedInputStream(file, BUFFER_SIZE));
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /*
+     * REQUIRES: in supports mark and reset
+     * EFFECTS: returns a stream that reads in decompressed if it starts with the gzip magic number,
+     *          otherwise returns in; the returned stream supports mark and reset
+     */
+    public static InputStream decompress(InputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    /*
+     * EFFECTS: returns a stream that compresses what is written to it into out if the file at path is
+     *          written compressed, otherwise returns out; the returned stream must be finished with
+     *          finish() to write the end of the compressed data
+     */
+    public static OutputStream compress(OutputStream out, String path) throws IOException {
+        if (isCompressed(path)) {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return out;
+    }
+
+    /*
+     * MODIFIES: out
+     * EFFECTS: writes the end of the compressed data if out was returned compressing by compress(),
+     *          without closing the stream underneath it; otherwise flushes out
+     */
+    public static void finish(OutputStream out) throws IOException {
+        if (out instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) out).finish();
+        }
+        out.flush();
+    }
+
+    // EFFECTS: returns true if the file at path is written compressed
+    public static boolean isCompressed(String path) {
+        return path.endsWith(GZIP_SUFFIX);
+    }
+
+    // EFFECTS: returns path without GZIP_SUFFIX, if it ends with it
+    public static String stripSuffix(String path) {
+        return isCompressed(path) ? path.substring(0, path.length() - GZIP_SUFFIX.length()) : path;
+    }
+}
@@ -0,0 +1,47 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Represents an exporter to CSV files with a header line and then one song per line, in the form read
+// by CsvImporter. Fields holding commas or quotes are quoted, and line breaks become spaces.
+public class CsvExporter extends SongExporter {
+
+    // EFFECTS: creates an exporter that writes to destination file
+    public CsvExporter(String destination) {
+        super(destination);
+    }
+
+    /*
+     * EFFECTS: returns field with line breaks replaced by spaces, so it stays on one line, and quoted if
+     *          it holds a comma, a quote or surrounding spaces
+     */
+    public static String quote(String field) {
+        String line = field.replace('\n', ' ').replace('\r', ' ');
+        if (line.contains(",") || line.contains("\"") || !line.equals(line.trim())) {
+            return "\"" + line.replace("\"", "\"\"") + "\"";
+        }
+        return line;
+    }
+
+    @Override
+    protected void writeHeader(Writer writer, Playlist playlist) throws IOException {
+        writer.write(CsvImporter.HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    protected void writeSong(Writer writer, Song song) throws IOException {
+        writer.write(quote(song.getTitle()));
+        writer.write(',');
+        writer.write(quote(song.getArtist()));
+        writer.write(',');
+        writer.write(Integer.toString(song.getTime()));
+        writer.write(',');
+        writer.write(quote(song.getGenre()));
+        writer.write('\n');
+    }
+}
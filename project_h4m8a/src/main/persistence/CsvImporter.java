@@ -0,0 +1,65 @@
+package persistence;
+
+import model.Song;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents an importer of CSV files with one song per line in the columns title, artist, duration (in
+// seconds) and genre. Fields may be quoted with double quotes, with "" standing for a quote inside a
+// quoted field. A header line naming the columns is skipped. Quoted fields cannot span lines.
+public class CsvImporter extends SongImporter {
+    public static final String HEADER = "title,artist,duration,genre";
+    private static final int NUM_COLUMNS = 4;
+
+    // EFFECTS: creates an importer that reads from source file
+    public CsvImporter(String source) {
+        super(source);
+    }
+
+    @Override
+    protected Song parseLine(String line) throws MalformedLineException {
+        if (line.trim().isEmpty() || line.replace(" ", "").equalsIgnoreCase(HEADER)) {
+            return null;
+        }
+        List<String> fields = parseFields(line);
+        if (fields.size() != NUM_COLUMNS) {
+            throw new MalformedLineException("expected " + NUM_COLUMNS + " fields but found " + fields.size());
+        }
+        for (String field : fields) {
+            if (field.trim().isEmpty()) {
+                throw new MalformedLineException("empty field");
+            }
+        }
+        return new Song(fields.get(0), fields.get(1), parseDuration(fields.get(2)), fields.get(3));
+    }
+
+    /*
+     * EFFECTS: splits line into its comma separated fields, removing quotes around quoted fields;
+     *          throws MalformedLineException if a quoted field is not closed
+     */
+    public static List<String> parseFields(String line) throws MalformedLineException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted && c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                field.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new MalformedLineException("quoted field is not closed");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,232 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Represents a scanner that builds songs from the audio files in a directory tree. The tree is walked with
+// NIO on the calling thread, and each audio file is handed to a fixed pool of worker threads as soon as it is
+// found, so reading tags overlaps with walking and with itself. Files are recognized by their extension;
+// others are ignored. A folder that cannot be read or disappears during the walk is skipped.
+public class DirectoryScanner {
+    private ExecutorService workers;
+    private Map<String, TagReader> readers = new HashMap<>();   // tag readers by file extension
+
+    // EFFECTS: creates a scanner that reads MP3, FLAC and WAV files with one worker per available processor
+    public DirectoryScanner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // EFFECTS: creates a scanner that reads MP3, FLAC and WAV files with given number of worker threads
+    public DirectoryScanner(int threads) {
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "directory-scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        register(new Mp3TagReader());
+        register(new FlacTagReader());
+        register(new WavTagReader());
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes reader read the files with its extensions, in place of any reader registered before
+     */
+    public void register(TagReader reader) {
+        for (String extension : reader.getExtensions()) {
+            readers.put(extension, reader);
+        }
+    }
+
+    // EFFECTS: returns true if the file at path has an extension this scanner reads
+    public boolean isAudioFile(Path path) {
+        return readerFor(path) != null;
+    }
+
+    /*
+     * EFFECTS: reads the audio file at path and returns a song made from its tags;
+     *          throws IOException if the file cannot be read or is not an audio file this scanner reads
+     */
+    public Song read(Path path) throws IOException {
+        TagReader reader = readerFor(path);
+        if (reader == null) {
+            throw new IOException("Not an audio file: " + path);
+        }
+        return reader.read(path);
+    }
+
+    /*
+     * EFFECTS: reads every audio file in the tree under root and returns the songs and the files and
+     *          folders that could not be read, timed; throws IOException if root cannot be walked
+     */
+    public ScanResult scan(Path root) throws IOException {
+        long start = System.nanoTime();
+        CompletionService<Song> completion = new ExecutorCompletionService<>(workers);
+        Map<Future<Song>, Path> submitted = new HashMap<>();
+        ScanResult result = new ScanResult();
+        walk(root, new AudioFileVisitor() {
+            @Override
+            public void visitAudioFile(Path file) {
+                submitted.put(completion.submit(() -> read(file)), file);
+            }
+
+            @Override
+            public void visitFailed(Path path, IOException error) {
+                result.addFailure(path.toString(), error.getMessage());
+            }
+        });
+        collect(completion, submitted, result);
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /*
+     * EFFECTS: walks the tree under root, showing visitor each folder and then the audio files in it; a file
+     *          or folder under root that cannot be visited, for example because it was deleted during the
+     *          walk, is shown to visitor as failed and skipped; throws IOException if root cannot be walked
+     */
+    public void walk(Path root, AudioFileVisitor visitor) throws IOException {
+        Files.walkFileTree(root, new Walker(root, visitor));
+    }
+
+    /*
+     * EFFECTS: reads the audio files at paths on the worker threads and returns the songs and the files
+     *          that could not be read, timed; throws IOException if interrupted while waiting for them
+     */
+    public ScanResult readAll(Collection<Path> paths) throws IOException {
+        long start = System.nanoTime();
+        CompletionService<Song> completion = new ExecutorCompletionService<>(workers);
+        Map<Future<Song>, Path> submitted = new HashMap<>();
+        for (Path path : paths) {
+            submitted.put(completion.submit(() -> read(path)), path);
+        }
+        ScanResult result = new ScanResult();
+        collect(completion, submitted, result);
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /*
+     * MODIFIES: result
+     * EFFECTS: waits for the reads in submitted to finish and records each in result as a song or a failure;
+     *          throws IOException if interrupted while waiting for them
+     */
+    private void collect(CompletionService<Song> completion, Map<Future<Song>, Path> submitted, ScanResult result)
+            throws IOException {
+        for (int i = 0; i < submitted.size(); i++) {
+            Future<Song> done = take(completion);
+            try {
+                result.addSong(submitted.get(done), done.get());
+            } catch (ExecutionException e) {
+                result.addFailure(submitted.get(done).toString(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Scan was interrupted");
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: playlist
+     * EFFECTS: scans the tree under root and adds the songs found to playlist in one batch;
+     *          returns the result of the scan; throws IOException if root cannot be walked
+     */
+    public ScanResult scanInto(Path root, Playlist playlist) throws IOException {
+        ScanResult result = scan(root);
+        playlist.addSongs(result.getSongs());
+        return result;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stops the worker threads once the files already submitted have been read
+     */
+    public void close() {
+        workers.shutdown();
+    }
+
+    // EFFECTS: returns the tag reader for the extension of the file at path, or null if there is none
+    private TagReader readerFor(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot == -1 ? null : readers.get(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    // EFFECTS: waits for the next read to finish and returns it; throws IOException if interrupted
+    private Future<Song> take(CompletionService<Song> completion) throws IOException {
+        try {
+            return completion.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Scan was interrupted");
+        }
+    }
+
+    // Represents a walk of the tree under a root that shows the folders and audio files in it to a visitor
+    private class Walker extends SimpleFileVisitor<Path> {
+        private Path root;
+        private AudioFileVisitor visitor;
+
+        // EFFECTS: creates a walk of the tree under root for visitor
+        Walker(Path root, AudioFileVisitor visitor) {
+            this.root = root;
+            this.visitor = visitor;
+        }
+
+        // EFFECTS: shows folder to the visitor, skipping it if the visitor cannot handle it
+        @Override
+        public FileVisitResult preVisitDirectory(Path folder, BasicFileAttributes attributes) throws IOException {
+            try {
+                visitor.visitFolder(folder);
+                return FileVisitResult.CONTINUE;
+            } catch (IOException e) {
+                return visitFileFailed(folder, e);
+            }
+        }
+
+        // EFFECTS: shows file to the visitor if it is an audio file
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+            if (Files.isRegularFile(file) && isAudioFile(file)) {
+                visitor.visitAudioFile(file);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        // EFFECTS: shows path to the visitor as failed and skips it; throws error if path is the root
+        @Override
+        public FileVisitResult visitFileFailed(Path path, IOException error) throws IOException {
+            if (path.equals(root)) {
+                throw error;
+            }
+            visitor.visitFailed(path, error);
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        // EFFECTS: shows folder to the visitor as failed if it could not be read to the end
+        @Override
+        public FileVisitResult postVisitDirectory(Path folder, IOException error) {
+            if (error != null) {
+                visitor.visitFailed(folder, error);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Represents a reader of FLAC files. The duration comes from the sample rate and total number of samples
+// in the STREAMINFO block, and the title, artist and genre from the VORBIS_COMMENT block. Other metadata
+// blocks, such as embedded pictures, are skipped without being read.
+public class FlacTagReader extends TagReader {
+    private static final int STREAMINFO = 0;
+    private static final int VORBIS_COMMENT = 4;
+    private static final int BLOCK_HEADER = 4;
+
+    @Override
+    public List<String> getExtensions() {
+        return Arrays.asList("flac");
+    }
+
+    @Override
+    protected void readTags(FileChannel channel, AudioTags tags) throws IOException {
+        if (!readString(readAt(channel, 0, 4, ByteOrder.BIG_ENDIAN), 4, StandardCharsets.US_ASCII).equals("fLaC")) {
+            throw new IOException("Not a FLAC file");
+        }
+        long position = 4;
+        boolean last = false;
+        while (!last) {
+            ByteBuffer header = readAt(channel, position, BLOCK_HEADER, ByteOrder.BIG_ENDIAN);
+            int type = header.get(0) & 0x7f;
+            last = (header.get(0) & 0x80) != 0;
+            int length = ((header.get(1) & 0xff) << 16) | ((header.get(2) & 0xff) << 8) | (header.get(3) & 0xff);
+            if (type == STREAMINFO) {
+                readStreamInfo(readAt(channel, position + BLOCK_HEADER, length, ByteOrder.BIG_ENDIAN), tags);
+            } else if (type == VORBIS_COMMENT) {
+                readComments(readAt(channel, position + BLOCK_HEADER, length, ByteOrder.LITTLE_ENDIAN), tags);
+            }
+            position += BLOCK_HEADER + length;
+        }
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads the duration from the STREAMINFO block in block
+     */
+    private void readStreamInfo(ByteBuffer block, AudioTags tags) {
+        long bits = block.getLong(10);
+        long sampleRate = bits >>> 44;
+        long totalSamples = bits & 0xfffffffffL;
+        if (sampleRate > 0) {
+            tags.offerSeconds((double) totalSamples / sampleRate);
+        }
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads the title, artist and genre from the VORBIS_COMMENT block in block
+     */
+    private void readComments(ByteBuffer block, AudioTags tags) {
+        int vendorLength = block.getInt();
+        block.position(block.position() + vendorLength);
+        int count = block.getInt();
+        for (int i = 0; i < count && block.remaining() >= 4; i++) {
+            int length = block.getInt();
+            if (length < 0 || length > block.remaining()) {
+                return;
+            }
+            String comment = readString(block, length, StandardCharsets.UTF_8);
+            int equals = comment.indexOf('=');
+            String key = equals == -1 ? "" : comment.substring(0, equals).toUpperCase();
+            String value = comment.substring(equals + 1);
+            if (key.equals("TITLE")) {
+                tags.offerTitle(value);
+            } else if (key.equals("ARTIST")) {
+                tags.offerArtist(value);
+            } else if (key.equals("GENRE")) {
+                tags.offerGenre(value);
+            }
+        }
+    }
+}
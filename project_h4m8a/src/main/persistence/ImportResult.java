@@ -0,0 +1,65 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents the outcome of importing a file: how many lines were read, how many songs were added and
+// which lines could not be parsed. Only the first MAX_REPORTED malformed lines are kept, so importing a
+// badly broken file does not fill memory with messages.
+public class ImportResult {
+    public static final int MAX_REPORTED = 100;
+    private int linesRead = 0;
+    private int songsAdded = 0;
+    private int numMalformed = 0;
+    private List<String> malformed = new ArrayList<>();   // "line n: reason" for the first malformed lines
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that one more line has been read
+     */
+    public void lineRead() {
+        linesRead++;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that the line with given number could not be parsed for given reason
+     */
+    public void addMalformed(int lineNumber, String reason) {
+        numMalformed++;
+        if (malformed.size() < MAX_REPORTED) {
+            malformed.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets the number of songs that were added to the playlist
+     */
+    public void setSongsAdded(int songsAdded) {
+        this.songsAdded = songsAdded;
+    }
+
+    public int getLinesRead() {
+        return linesRead;
+    }
+
+    public int getSongsAdded() {
+        return songsAdded;
+    }
+
+    public int getNumMalformed() {
+        return numMalformed;
+    }
+
+    // EFFECTS: returns a description of each of the first MAX_REPORTED malformed lines
+    public List<String> getMalformed() {
+        return Collections.unmodifiableList(malformed);
+    }
+
+    @Override
+    public String toString() {
+        return "Added " + songsAdded + " song(s) from " + linesRead + " line(s), " + numMalformed + " malformed";
+    }
+}
@@ -0,0 +1,51 @@
+package persistence;
+
+import model.Playlist;
+import model.PlaylistChange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents the work needed to save a playlist through a PlaylistJournal: an optional snapshot of
+// the whole playlist followed by the changes made after it. A batch is never modified once created,
+// so it can be handed to another thread to be written.
+public class JournalBatch {
+    private Playlist snapshot;              // copy of the playlist to write in full; null if not needed
+    private List<PlaylistChange> changes;   // changes to append after the snapshot
+
+    /*
+     * REQUIRES: snapshot is not shared with any other object
+     * EFFECTS: creates a batch that writes snapshot (if not null) and then appends changes
+     */
+    public JournalBatch(Playlist snapshot, List<PlaylistChange> changes) {
+        this.snapshot = snapshot;
+        this.changes = Collections.unmodifiableList(new ArrayList<>(changes));
+    }
+
+    /*
+     * EFFECTS: returns a batch that has the same effect as writing this batch and then later;
+     *          a later snapshot replaces everything in this batch
+     */
+    public JournalBatch merge(JournalBatch later) {
+        if (later.snapshot != null) {
+            return later;
+        }
+        List<PlaylistChange> merged = new ArrayList<>(this.changes);
+        merged.addAll(later.changes);
+        return new JournalBatch(this.snapshot, merged);
+    }
+
+    public Playlist getSnapshot() {
+        return this.snapshot;
+    }
+
+    public List<PlaylistChange> getChanges() {
+        return this.changes;
+    }
+
+    // EFFECTS: returns true if writing this batch would not change any file
+    public boolean isEmpty() {
+        return this.snapshot == null && this.changes.isEmpty();
+    }
+}
@@ -0,0 +1,295 @@
+package persistence;
+
+import model.Playlist;
+import model.PlaylistChange;
+import model.Song;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Represents the JSON playlist format; this is the default format. Songs are written either as one
+// object per song, or in a columnar layout of parallel arrays of titles, artists, durations and genres,
+// where artists and genres are indexes into dictionary arrays so each name is written only once.
+// Both layouts are recognized when reading.
+public class JsonCodec implements PlaylistCodec {
+    private static final int INDENT = 4;
+    private static final String COLUMNAR = "columnar";
+    private boolean columnar;   // true if playlists are written in the columnar layout
+
+    // EFFECTS: creates a JSON format that writes one object per song
+    public JsonCodec() {
+        this(false);
+    }
+
+    // EFFECTS: creates a JSON format that writes in the columnar layout if columnar, else one object per song
+    public JsonCodec(boolean columnar) {
+        this.columnar = columnar;
+    }
+
+    @Override
+    public String getName() {
+        return "JSON";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".json";
+    }
+
+    // EFFECTS: returns true if the first byte of header that is not whitespace starts a JSON object
+    @Override
+    public boolean matches(byte[] header, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(header[i])) {
+                return header[i] == '{';
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Playlist read(InputStream in) throws IOException {
+        return read(in, Integer.MAX_VALUE, chunk -> { });
+    }
+
+    /*
+     * EFFECTS: reads a playlist from in, handing its songs to onChunk chunkSize at a time; songs written one
+     *          object per song are parsed and handed on one at a time as the file is read, while a playlist in
+     *          the columnar layout is handed on once it has been read
+     */
+    @Override
+    public Playlist read(InputStream in, int chunkSize, Consumer<List<Song>> onChunk) throws IOException {
+        try {
+            JSONTokener tokener = new JSONTokener(new InputStreamReader(in, StandardCharsets.UTF_8));
+            JSONObject members = new JSONObject();
+            SongChunker chunker = new SongChunker(chunkSize, onChunk);
+            List<Song> songs = readMembers(tokener, members, chunker);
+            Playlist playlist;
+            if (songs == null) {
+                playlist = parsePlaylist(members);
+                chunker.addAll(playlist.getSongs());
+            } else {
+                playlist = new Playlist(members.getString("Name"));
+                playlist.applyChange(new PlaylistChange(PlaylistChange.Type.ADD_ALL, songs));
+            }
+            chunker.flush();
+            return playlist;
+        } catch (JSONException e) {
+            throw new IOException("Not a JSON playlist", e);
+        }
+    }
+
+    @Override
+    public void write(Playlist playlist, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            toJson(playlist).write(writer, INDENT, 0);
+        } catch (JSONException e) {
+            throw new IOException("Unable to write playlist", e);
+        }
+        writer.flush();
+    }
+
+    public boolean isColumnar() {
+        return columnar;
+    }
+
+    // EFFECTS: returns playlist as a JSON object in the layout this format writes
+    public JSONObject toJson(Playlist playlist) {
+        if (!columnar) {
+            return playlist.toJson();
+        }
+        JSONObject json = new JSONObject();
+        json.put("Name", playlist.getPlaylistName());
+        json.put("Layout", COLUMNAR);
+        JSONArray titles = new JSONArray();
+        JSONArray durations = new JSONArray();
+        for (Song song : playlist.getSongs()) {
+            titles.put(song.getTitle());
+            durations.put(song.getTime());
+        }
+        json.put("Titles", titles);
+        putDictionaryColumn(json, playlist.getSongs(), Song::getArtist, "Artists", "ArtistDictionary");
+        json.put("Durations", durations);
+        putDictionaryColumn(json, playlist.getSongs(), Song::getGenre, "Genres", "GenreDictionary");
+        return json;
+    }
+
+    // EFFECTS: parses playlist data in either layout from JSON object and returns it
+    public Playlist parsePlaylist(JSONObject jsonObject) {
+        String name = jsonObject.getString("Name");
+        Playlist playlist = new Playlist(name);
+        if (COLUMNAR.equals(jsonObject.optString("Layout"))) {
+            addColumns(playlist, jsonObject);
+            return playlist;
+        }
+        JSONArray jsonArray = jsonObject.getJSONArray("Songs");
+        List<Song> songs = new ArrayList<>(jsonArray.length());
+        for (Object json : jsonArray) {
+            songs.add(parseSong((JSONObject) json));
+        }
+        playlist.applyChange(new PlaylistChange(PlaylistChange.Type.ADD_ALL, songs));
+        return playlist;
+    }
+
+    // EFFECTS: parses song from JSON object and returns it
+    public Song parseSong(JSONObject jsonObject) {
+        String title = jsonObject.getString("title");
+        String artist = jsonObject.getString("artist");
+        int time = jsonObject.getInt("duration");
+        String genre = jsonObject.getString("genre");
+        return new Song(title, artist, time, genre);
+    }
+
+    /*
+     * MODIFIES: tokener, members, chunker
+     * EFFECTS: reads the JSON object at the start of tokener; the songs in its "Songs" array are parsed one at
+     *          a time and added to chunker, and returned, while every other member is put into members;
+     *          returns null if the object has no "Songs" array; throws JSONException if tokener does not
+     *          start with a JSON object
+     */
+    private List<Song> readMembers(JSONTokener tokener, JSONObject members, SongChunker chunker) {
+        if (tokener.nextClean() != '{') {
+            throw tokener.syntaxError("A JSONObject text must begin with '{'");
+        }
+        List<Song> songs = null;
+        char next = tokener.nextClean();
+        while (next != '}') {
+            tokener.back();
+            String key = tokener.nextValue().toString();
+            if (tokener.nextClean() != ':') {
+                throw tokener.syntaxError("Expected a ':' after a key");
+            }
+            if (key.equals("Songs")) {
+                songs = readSongs(tokener, chunker);
+            } else {
+                members.put(key, tokener.nextValue());
+            }
+            next = nextMember(tokener, '}');
+        }
+        return songs;
+    }
+
+    /*
+     * MODIFIES: tokener, chunker
+     * EFFECTS: reads the JSON array of songs at the start of tokener, adding each song to chunker as soon as
+     *          it is parsed, and returns them; throws JSONException if it is not an array of songs
+     */
+    private List<Song> readSongs(JSONTokener tokener, SongChunker chunker) {
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("A JSONArray text must start with '['");
+        }
+        List<Song> songs = new ArrayList<>();
+        char next = tokener.nextClean();
+        while (next != ']') {
+            tokener.back();
+            Object json = tokener.nextValue();
+            if (!(json instanceof JSONObject)) {
+                throw tokener.syntaxError("A song must be a JSONObject");
+            }
+            Song song = parseSong((JSONObject) json);
+            songs.add(song);
+            chunker.add(song);
+            next = nextMember(tokener, ']');
+        }
+        return songs;
+    }
+
+    /*
+     * MODIFIES: tokener
+     * EFFECTS: reads the separator after a member of an object or array that ends with end, and returns the
+     *          first character of the next member, or end if there is none; throws JSONException if the
+     *          separator is neither ',' nor end
+     */
+    private char nextMember(JSONTokener tokener, char end) {
+        char next = tokener.nextClean();
+        if (next == ',') {
+            return tokener.nextClean();
+        }
+        if (next != end) {
+            throw tokener.syntaxError("Expected a ',' or '" + end + "'");
+        }
+        return next;
+    }
+
+    /*
+     * MODIFIES: playlist
+     * EFFECTS: parses the songs of a playlist in the columnar layout from JSON object and adds them to
+     *          playlist; throws JSONException if the columns do not all have the same length or refer
+     *          to names missing from the dictionaries
+     */
+    private void addColumns(Playlist playlist, JSONObject jsonObject) {
+        JSONArray titles = jsonObject.getJSONArray("Titles");
+        JSONArray artists = jsonObject.getJSONArray("Artists");
+        JSONArray durations = jsonObject.getJSONArray("Durations");
+        JSONArray genres = jsonObject.getJSONArray("Genres");
+        if (artists.length() != titles.length() || durations.length() != titles.length()
+                || genres.length() != titles.length()) {
+            throw new JSONException("Columns of playlist " + playlist.getPlaylistName() + " differ in length");
+        }
+        JSONArray artistDictionary = jsonObject.getJSONArray("ArtistDictionary");
+        JSONArray genreDictionary = jsonObject.getJSONArray("GenreDictionary");
+        List<Song> songs = new ArrayList<>(titles.length());
+        for (int i = 0; i < titles.length(); i++) {
+            String artist = artistDictionary.getString(artists.getInt(i));
+            String genre = genreDictionary.getString(genres.getInt(i));
+            songs.add(new Song(titles.getString(i), artist, durations.getInt(i), genre));
+        }
+        playlist.applyChange(new PlaylistChange(PlaylistChange.Type.ADD_ALL, songs));
+    }
+
+    /*
+     * MODIFIES: json
+     * EFFECTS: puts into json, under column, the index of the field of each song in songs, and under
+     *          dictionary the names those indexes refer to
+     */
+    private void putDictionaryColumn(JSONObject json, List<Song> songs, Function<Song, String> field,
+                                     String column, String dictionary) {
+        Map<String, Integer> indexes = new HashMap<>();
+        JSONArray values = new JSONArray();
+        for (Song song : songs) {
+            values.put(indexOf(field.apply(song), indexes));
+        }
+        json.put(column, values);
+        json.put(dictionary, dictionary(indexes));
+    }
+
+    /*
+     * MODIFIES: indexes
+     * EFFECTS: returns the index of name in the dictionary held by indexes, adding it at the end if it
+     *          is not there yet
+     */
+    private int indexOf(String name, Map<String, Integer> indexes) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            index = indexes.size();
+            indexes.put(name, index);
+        }
+        return index;
+    }
+
+    // EFFECTS: returns the names in indexes as a JSON array, each at its index
+    private JSONArray dictionary(Map<String, Integer> indexes) {
+        String[] names = new String[indexes.size()];
+        for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+            names[entry.getValue()] = entry.getKey();
+        }
+        return new JSONArray(names);
+    }
+}
@@ -4,14 +4,14 @@ import model.Song;
 import model.Playlist;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.stream.Stream;
 
 import org.json.*;
 
 // Represents a reader that reads playlist from JSON data stored in file
+// The file is parsed as it is streamed in, and is decompressed on the fly if it was stored compressed
 // Modeled from JsonSerializationDemo (https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo)
 public class JsonReader {
     private String source;
@@ -26,52 +26,26 @@ public class JsonReader {
      *          throws IOException if an error occurs while reading
      */
     public Playlist read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parsePlaylist(jsonObject);
+        return parsePlaylist(readJson());
     }
 
-    // EFFECTS: reads source file as String and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> contentBuilder.append(s));
+    /*
+     * EFFECTS: reads source file as a JSON object and returns it;
+     *          throws IOException if an error occurs while reading
+     */
+    public JSONObject readJson() throws IOException {
+        try (InputStream in = Compression.open(source)) {
+            return new JSONObject(new JSONTokener(new InputStreamReader(in, StandardCharsets.UTF_8)));
         }
-
-        return contentBuilder.toString();
     }
 
     // EFFECTS: parses playlist data from JSON object and returns it
-    private Playlist parsePlaylist(JSONObject jsonObject) {
-        String name = jsonObject.getString("Name");
-        Playlist playlist = new Playlist(name);
-        addSongs(playlist, jsonObject);
-        return playlist;
-    }
-
-    /*
-     * MODIFIES: playlist
-     * EFFECTS: parses songs from JSON object and adds them to playlist
-     */
-    private void addSongs(Playlist playlist, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("Songs");
-        for (Object json : jsonArray) {
-            JSONObject nextSong = (JSONObject) json;
-            addSong(playlist, nextSong);
-        }
+    public Playlist parsePlaylist(JSONObject jsonObject) {
+        return new JsonCodec().parsePlaylist(jsonObject);
     }
 
-    /*
-     * MODIFIES: playlist
-     * EFFECTS: adds song from JSON object to playlist
-     */
-    private void addSong(Playlist playlist, JSONObject jsonObject) {
-        String title = jsonObject.getString("title");
-        String artist = jsonObject.getString("artist");
-        int time = jsonObject.getInt("duration");
-        String genre = jsonObject.getString("genre");
-        Song song = new Song(title, artist, time, genre);
-        playlist.addSongJson(song);
+    // EFFECTS: parses song from JSON object and returns it
+    public Song parseSong(JSONObject jsonObject) {
+        return new JsonCodec().parseSong(jsonObject);
     }
 }
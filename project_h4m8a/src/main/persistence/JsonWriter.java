@@ -2,31 +2,49 @@ package persistence;
 
 import model.Playlist;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 
 import org.json.*;
 
 // Represents a writer that writes and stores playlist data to file as JSON data
+// Data is written to a temporary file next to the destination, which replaces the destination
+// only once it is completely on disk, so a crash while writing never leaves a half-written file
+// Data is compressed as it is written if the destination name ends with Compression.GZIP_SUFFIX
+// Playlists are written with one object per song unless the writer is made to use the columnar layout
 // Modeled from JsonSerializationDemo (https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo)
 public class JsonWriter {
     private static final int INDENT = 4;
     private PrintWriter writer;
+    private OutputStream stream;
+    private AtomicFile file;
     private String destination;
+    private JsonCodec codec;
 
-    // EFFECTS: creates a writer that writes to destination file
+    // EFFECTS: creates a writer that writes to destination file with one object per song
     public JsonWriter(String destination) {
+        this(destination, false);
+    }
+
+    // EFFECTS: creates a writer that writes to destination file in the columnar layout if columnar is true
+    public JsonWriter(String destination, boolean columnar) {
         this.destination = destination;
+        this.file = new AtomicFile(destination);
+        this.codec = new JsonCodec(columnar);
     }
 
     /*
      * MODIFIES: this
-     * EFFECTS: opens writer; throws FileNotFoundException if destination file
-     *          cannot be opened
+     * EFFECTS: opens writer on a temporary file next to the destination file;
+     *          throws IOException if the file cannot be opened
      */
-    public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+    public void open() throws IOException {
+        stream = Compression.compress(file.open(), destination);
+        writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
     }
 
     /*
@@ -34,24 +52,35 @@ public class JsonWriter {
      * EFFECTS: writes playlist data in JSON format to destination file
      */
     public void write(Playlist playlist) {
-        JSONObject json = playlist.toJson();
-        saveToFile(json.toString(INDENT));
+        write(codec.toJson(playlist));
     }
 
     /*
      * MODIFIES: this
-     * EFFECTS: closes writer
+     * EFFECTS: writes JSON data to destination file
      */
-    public void close() {
-        writer.close();
+    public void write(JSONObject json) {
+        json.write(writer, INDENT, 0);
     }
 
     /*
      * MODIFIES: this
-     * EFFECTS: writes string to file
+     * EFFECTS: forces written data to disk, closes writer and atomically replaces the destination
+     *          file with the written data; throws IOException if the data could not be written,
+     *          in which case the destination file is left unchanged
      */
-    private void saveToFile(String json) {
-        writer.print(json);
+    public void close() throws IOException {
+        writer.flush();
+        if (writer.checkError()) {
+            file.abort();
+            throw new IOException("Unable to write to " + destination);
+        }
+        try {
+            Compression.finish(stream);
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+        file.commit();
     }
-
 }
@@ -0,0 +1,111 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Represents a batch of changes found in a watched music folder: songs whose files appeared, songs whose
+// files disappeared and songs whose files were rewritten with different tags. A batch is applied to a
+// playlist as at most one removeAll and one addSongs call, however many files it covers, followed by a move
+// of each rewritten song back to where its old version was, so editing tags keeps the user's arrangement.
+public class LibraryChange {
+    private List<Song> added = new ArrayList<>();
+    private List<Song> removed = new ArrayList<>();
+    private Map<Song, Song> updated = new LinkedHashMap<>();    // new song for each song whose file was rewritten
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that the file of song appeared
+     */
+    public void addAdded(Song song) {
+        added.add(song);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that the file of song disappeared
+     */
+    public void addRemoved(Song song) {
+        removed.add(song);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that the file of oldSong was rewritten and now holds newSong
+     */
+    public void addUpdated(Song oldSong, Song newSong) {
+        updated.put(oldSong, newSong);
+    }
+
+    public List<Song> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    public List<Song> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    public Map<Song, Song> getUpdated() {
+        return Collections.unmodifiableMap(updated);
+    }
+
+    // EFFECTS: returns the number of files this batch covers
+    public int size() {
+        return added.size() + removed.size() + updated.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /*
+     * MODIFIES: playlist
+     * EFFECTS: adds the added songs to the end of playlist, removes the removed songs from it and replaces each
+     *          updated song it holds with its new version, at the same place
+     */
+    public void applyTo(Playlist playlist) {
+        List<Song> arranged = arrangedAfter(playlist);
+        Set<Song> newVersions = new HashSet<>(updated.values());
+        List<Song> toAdd = new ArrayList<>(added);
+        for (Song song : arranged) {
+            if (newVersions.contains(song)) {
+                toAdd.add(song);
+            }
+        }
+        List<Song> toRemove = new ArrayList<>(removed);
+        toRemove.addAll(updated.keySet());
+        playlist.removeAll(toRemove);
+        playlist.addSongs(toAdd);
+        for (int i = 0; i < arranged.size(); i++) {
+            Song song = arranged.get(i);
+            if (newVersions.contains(song) && playlist.getSong(i) != song) {
+                playlist.moveSong(song, i + 1);
+            }
+        }
+    }
+
+    // EFFECTS: returns the songs of playlist in order, without the removed songs and with each updated song
+    //          replaced by its new version
+    private List<Song> arrangedAfter(Playlist playlist) {
+        Set<Song> removing = new HashSet<>(removed);
+        List<Song> arranged = new ArrayList<>();
+        for (Song song : playlist.getSongs()) {
+            if (!removing.contains(song)) {
+                arranged.add(updated.getOrDefault(song, song));
+            }
+        }
+        return arranged;
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " added, " + removed.size() + " removed, " + updated.size() + " updated";
+    }
+}
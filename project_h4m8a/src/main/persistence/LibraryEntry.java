@@ -0,0 +1,55 @@
+package persistence;
+
+import org.json.JSONObject;
+
+// Represents the index entry of a playlist stored in a library: its name, the file it is stored in,
+// how many songs it has and its total running time
+public class LibraryEntry implements Writable {
+    private String name;        // name of the playlist
+    private String file;        // name of the file the playlist is stored in, relative to the library
+    private int numSongs;       // number of songs in the playlist
+    private double totalTime;   // total running time of the playlist
+
+    /*
+     * EFFECTS: creates an entry for the playlist with given name that is stored in file and has
+     *          numSongs songs with a total running time of totalTime
+     */
+    public LibraryEntry(String name, String file, int numSongs, double totalTime) {
+        this.name = name;
+        this.file = file;
+        this.numSongs = numSongs;
+        this.totalTime = totalTime;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getFile() {
+        return this.file;
+    }
+
+    public int getNumSongs() {
+        return this.numSongs;
+    }
+
+    public double getTotalTime() {
+        return this.totalTime;
+    }
+
+    // EFFECTS: returns a string representation of LibraryEntry
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("name", this.name);
+        json.put("file", this.file);
+        json.put("songs", this.numSongs);
+        json.put("totalTime", this.totalTime);
+        return json;
+    }
+}
@@ -0,0 +1,305 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Represents a watcher that keeps playlists in step with a music folder after it has been scanned once.
+// A WatchService reports the files created, modified and deleted under the folder; events are collected
+// until the folder has been quiet for the quiet period (or MAX_DELAY_MILLIS has passed), and only then are
+// the files they name read again, so copying a thousand files in turns into one LibraryChange. Each change
+// is applied to the watched playlists by the given executor, which lets a UI apply it on its own thread.
+public class LibraryWatcher {
+    public static final long QUIET_MILLIS = 500;
+    public static final long MAX_DELAY_MILLIS = 5000;
+    private Path root;
+    private DirectoryScanner scanner;
+    private Executor applier;           // runs the code that changes the watched playlists
+    private WatchService service;
+    private Thread thread;
+    private long quietMillis = QUIET_MILLIS;
+    private NavigableMap<Path, Song> library = new TreeMap<>();    // song read from each audio file under root
+    private List<Playlist> playlists = new CopyOnWriteArrayList<>();
+    private Consumer<LibraryChange> listener;   // told of each change once it is applied; null if none
+    private volatile int numBatches = 0;
+
+    // EFFECTS: creates a watcher of the folder at root that reads files with scanner and changes playlists in applier
+    public LibraryWatcher(Path root, DirectoryScanner scanner, Executor applier) {
+        this.root = root;
+        this.scanner = scanner;
+        this.applier = applier;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: starts watching every folder under root, scans the audio files in them and returns the result,
+     *          then applies later changes to the files to the watched playlists in the background;
+     *          throws IOException if root cannot be watched or walked
+     */
+    public ScanResult start() throws IOException {
+        service = FileSystems.getDefault().newWatchService();
+        registerAll(root);
+        ScanResult result = scanner.scan(root);
+        library.putAll(result.getFiles());
+        thread = new Thread(this::run, "library-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: applies later changes in the folder to playlist
+     */
+    public void watch(Playlist playlist) {
+        if (!playlists.contains(playlist)) {
+            playlists.add(playlist);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stops applying changes in the folder to playlist
+     */
+    public void unwatch(Playlist playlist) {
+        playlists.remove(playlist);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes listener be told of each change, on the applier, after it is applied to the playlists
+     */
+    public void setListener(Consumer<LibraryChange> listener) {
+        this.listener = listener;
+    }
+
+    /*
+     * REQUIRES: quietMillis > 0 and start() has not been called
+     * MODIFIES: this
+     * EFFECTS: sets how long the folder must be quiet before the changes in it are applied
+     */
+    public void setQuietMillis(long quietMillis) {
+        this.quietMillis = quietMillis;
+    }
+
+    // EFFECTS: returns the number of changes applied so far
+    public int getNumBatches() {
+        return numBatches;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stops watching the folder; events not yet applied are dropped
+     */
+    public void close() {
+        try {
+            if (service != null) {
+                service.close();
+            }
+        } catch (IOException e) {
+            // the watch thread stops once the service is closed either way
+        }
+    }
+
+    // EFFECTS: collects events into batches and applies them until the watch service is closed
+    private void run() {
+        try {
+            while (true) {
+                Set<Path> touched = new LinkedHashSet<>();
+                Set<Path> walks = new LinkedHashSet<>();
+                collect(service.take(), touched, walks);
+                long deadline = System.currentTimeMillis() + MAX_DELAY_MILLIS;
+                WatchKey key;
+                while (System.currentTimeMillis() < deadline
+                        && (key = service.poll(quietMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, touched, walks);
+                }
+                flush(touched, walks);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // watcher was closed
+        }
+    }
+
+    /*
+     * MODIFIES: touched, walks
+     * EFFECTS: adds the paths named by the events of key to touched, and the folders that must be walked
+     *          again because they are new or events were lost to walks
+     */
+    private void collect(WatchKey key, Set<Path> touched, Set<Path> walks) {
+        Path folder = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                walks.add(folder);
+            } else {
+                Path path = folder.resolve((Path) event.context());
+                touched.add(path);
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                    walks.add(path);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: reads the audio files that were touched or are in folders to be walked again, compares them
+     *          with the library and hands the differences to the applier as one change
+     */
+    private void flush(Set<Path> touched, Set<Path> walks) {
+        Set<Path> toRead = new LinkedHashSet<>();
+        for (Path path : touched) {
+            if (Files.isRegularFile(path) && scanner.isAudioFile(path)) {
+                toRead.add(path);
+            }
+        }
+        for (Path folder : walks) {
+            toRead.addAll(walk(folder));
+        }
+        LibraryChange change = new LibraryChange();
+        try {
+            readChanged(toRead, change);
+        } catch (IOException e) {
+            return;
+        }
+        touched.addAll(walks);
+        removeMissing(touched, change);
+        if (!change.isEmpty()) {
+            applier.execute(() -> apply(change));
+        }
+    }
+
+    /*
+     * MODIFIES: this, change
+     * EFFECTS: reads the audio files at paths, updates the library with them and records in change the songs
+     *          that are new or differ from the library; throws IOException if interrupted while reading
+     */
+    private void readChanged(Set<Path> paths, LibraryChange change) throws IOException {
+        for (Map.Entry<Path, Song> entry : scanner.readAll(paths).getFiles().entrySet()) {
+            Song old = library.put(entry.getKey(), entry.getValue());
+            if (old == null) {
+                change.addAdded(entry.getValue());
+            } else if (!old.equals(entry.getValue())) {
+                change.addUpdated(old, entry.getValue());
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this, change
+     * EFFECTS: removes the files at or under the touched paths that no longer exist from the library and
+     *          records their songs as removed; the library is sorted by path, so only the range of files
+     *          under each touched path is visited and the cost of a batch does not grow with the size of
+     *          the library on disk
+     */
+    private void removeMissing(Set<Path> touched, LibraryChange change) {
+        for (Path path : touched) {
+            for (Path file : filesUnder(path)) {
+                if (library.containsKey(file) && !Files.exists(file)) {
+                    change.addRemoved(library.remove(file));
+                }
+            }
+        }
+    }
+
+    /*
+     * EFFECTS: returns the files in the library at or under path; whatever the separator, the paths under
+     *          path sort after it and before the first later path whose text does not start with the text of
+     *          path, ignoring case as some file systems sort paths; siblings whose names start with the name of
+     *          path, such as "Rock - Live" next to "Rock", may come between them and are skipped
+     */
+    private List<Path> filesUnder(Path path) {
+        String prefix = path.toString();
+        List<Path> files = new ArrayList<>();
+        for (Path file : library.tailMap(path, true).keySet()) {
+            if (!file.toString().regionMatches(true, 0, prefix, 0, prefix.length())) {
+                break;
+            }
+            if (file.startsWith(path)) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: starts watching folder and the folders in it, and returns the audio files in them; folders
+     *          that disappear during the walk are skipped, and if folder itself is gone none are returned
+     */
+    private List<Path> walk(Path folder) {
+        List<Path> found = new ArrayList<>();
+        try {
+            scanner.walk(folder, new AudioFileVisitor() {
+                @Override
+                public void visitFolder(Path path) throws IOException {
+                    register(path);
+                }
+
+                @Override
+                public void visitAudioFile(Path file) {
+                    found.add(file);
+                }
+            });
+        } catch (IOException e) {
+            // folder is gone, so there is nothing in it to read
+        }
+        return found;
+    }
+
+    /*
+     * EFFECTS: starts watching folder and every folder under it for files being created, modified or deleted;
+     *          folders that disappear while they are being registered are skipped; throws IOException if
+     *          folder cannot be watched
+     */
+    private void registerAll(Path folder) throws IOException {
+        scanner.walk(folder, new AudioFileVisitor() {
+            @Override
+            public void visitFolder(Path path) throws IOException {
+                register(path);
+            }
+
+            @Override
+            public void visitAudioFile(Path file) {
+            }
+        });
+    }
+
+    // EFFECTS: starts watching folder for files being created, modified or deleted in it
+    private void register(Path folder) throws IOException {
+        folder.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    // EFFECTS: applies change to the watched playlists and tells the listener
+    private void apply(LibraryChange change) {
+        for (Playlist playlist : playlists) {
+            change.applyTo(playlist);
+        }
+        numBatches++;
+        if (listener != null) {
+            listener.accept(change);
+        }
+    }
+}
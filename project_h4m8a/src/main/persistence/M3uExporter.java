@@ -0,0 +1,43 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Represents an exporter to extended M3U playlists, in the form read by M3uImporter. Songs have no
+// location in this application, so each song's location line is its artist and title.
+public class M3uExporter extends SongExporter {
+
+    // EFFECTS: creates an exporter that writes to destination file
+    public M3uExporter(String destination) {
+        super(destination);
+    }
+
+    @Override
+    protected void writeHeader(Writer writer, Playlist playlist) throws IOException {
+        writer.write("#EXTM3U\n#PLAYLIST:");
+        writer.write(singleLine(playlist.getPlaylistName()));
+        writer.write('\n');
+    }
+
+    @Override
+    protected void writeSong(Writer writer, Song song) throws IOException {
+        String name = singleLine(song.getArtist()) + " - " + singleLine(song.getTitle());
+        writer.write("#EXTINF:");
+        writer.write(Integer.toString(song.getTime()));
+        writer.write(',');
+        writer.write(name);
+        writer.write("\n#EXTGENRE:");
+        writer.write(singleLine(song.getGenre()));
+        writer.write('\n');
+        writer.write(name);
+        writer.write('\n');
+    }
+
+    // EFFECTS: returns text with any line breaks replaced by spaces
+    private String singleLine(String text) {
+        return text.replace('\n', ' ').replace('\r', ' ');
+    }
+}
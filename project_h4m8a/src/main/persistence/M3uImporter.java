@@ -0,0 +1,74 @@
+package persistence;
+
+import model.Song;
+
+// Represents an importer of extended M3U playlists. Each song is an "#EXTINF:<seconds>,<artist> - <title>"
+// line, optionally followed by an "#EXTGENRE:<genre>" line, and then the line giving the song's location.
+// Other directives and comments are ignored; a location without an #EXTINF line is malformed, since the
+// song's duration is unknown.
+public class M3uImporter extends SongImporter {
+    private static final String EXTINF = "#EXTINF:";
+    private static final String EXTGENRE = "#EXTGENRE:";
+    private static final String SEPARATOR = " - ";
+    private String title;       // title from the last #EXTINF line; null if no song is being read
+    private String artist;
+    private int time;
+    private String genre;
+
+    // EFFECTS: creates an importer that reads from source file
+    public M3uImporter(String source) {
+        super(source);
+    }
+
+    @Override
+    protected Song parseLine(String line) throws MalformedLineException {
+        String trimmed = line.trim();
+        if (trimmed.startsWith(EXTINF)) {
+            parseInfo(trimmed.substring(EXTINF.length()));
+        } else if (trimmed.startsWith(EXTGENRE)) {
+            genre = trimmed.substring(EXTGENRE.length()).trim();
+        } else if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+            return parseLocation(trimmed);
+        }
+        return null;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: starts a song from the text of an #EXTINF line; throws MalformedLineException if it has no
+     *          duration or title
+     */
+    private void parseInfo(String info) throws MalformedLineException {
+        title = null;
+        int comma = info.indexOf(',');
+        if (comma == -1) {
+            throw new MalformedLineException("#EXTINF has no title");
+        }
+        int seconds = parseDuration(info.substring(0, comma));
+        String name = info.substring(comma + 1).trim();
+        int separator = name.indexOf(SEPARATOR);
+        String songTitle = separator == -1 ? name : name.substring(separator + SEPARATOR.length()).trim();
+        if (songTitle.isEmpty()) {
+            throw new MalformedLineException("#EXTINF has no title");
+        }
+        artist = separator == -1 || separator == 0 ? UNKNOWN : name.substring(0, separator).trim();
+        time = seconds;
+        genre = null;
+        title = songTitle;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: finishes the song started by the last #EXTINF line and returns it;
+     *          throws MalformedLineException if no song was started
+     */
+    private Song parseLocation(String location) throws MalformedLineException {
+        if (title == null) {
+            throw new MalformedLineException("no #EXTINF line before " + location);
+        }
+        Song song = new Song(title, artist, time, genre == null || genre.isEmpty() ? UNKNOWN : genre);
+        title = null;
+        genre = null;
+        return song;
+    }
+}
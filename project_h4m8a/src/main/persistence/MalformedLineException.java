@@ -0,0 +1,10 @@
+package persistence;
+
+// Represents an exception thrown when a line of an imported file cannot be parsed
+public class MalformedLineException extends Exception {
+
+    // EFFECTS: creates an exception explaining why the line is malformed
+    public MalformedLineException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,234 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Represents a reader of MP3 files. Tags come from an ID3v2 tag at the start of the file (versions 2.2 to
+// 2.4), with anything missing taken from an ID3v1 tag at the end. The duration comes from the TLEN frame if
+// there is one, otherwise from the frame count in a Xing/Info header, otherwise it is estimated from the
+// bit rate of the first MPEG frame and the size of the audio data.
+public class Mp3TagReader extends TagReader {
+    private static final int ID3V2_HEADER = 10;
+    private static final int ID3V1_SIZE = 128;
+    private static final int SYNC_SEARCH = 64 * 1024;   // bytes searched for the first MPEG frame
+    private static final String[] GENRES = {"Blues", "Classic Rock", "Country", "Dance", "Disco", "Funk", "Grunge",
+            "Hip-Hop", "Jazz", "Metal", "New Age", "Oldies", "Other", "Pop", "R&B", "Rap", "Reggae", "Rock",
+            "Techno", "Industrial", "Alternative", "Ska", "Death Metal", "Pranks", "Soundtrack", "Euro-Techno",
+            "Ambient", "Trip-Hop", "Vocal", "Jazz+Funk", "Fusion", "Trance", "Classical", "Instrumental", "Acid",
+            "House", "Game", "Sound Clip", "Gospel", "Noise", "AlternRock", "Bass", "Soul", "Punk", "Space",
+            "Meditative", "Instrumental Pop", "Instrumental Rock", "Ethnic", "Gothic", "Darkwave",
+            "Techno-Industrial", "Electronic", "Pop-Folk", "Eurodance", "Dream", "Southern Rock", "Comedy", "Cult",
+            "Gangsta", "Top 40", "Christian Rap", "Pop/Funk", "Jungle", "Native American", "Cabaret", "New Wave",
+            "Psychadelic", "Rave", "Showtunes", "Trailer", "Lo-Fi", "Tribal", "Acid Punk", "Acid Jazz", "Polka",
+            "Retro", "Musical", "Rock & Roll", "Hard Rock"};
+    private static final int[][] BITRATES = {      // kbit/s by [version and layer][bitrate index]
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},    // MPEG 1 layer I
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},       // MPEG 1 layer II
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},        // MPEG 1 layer III
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},       // MPEG 2 and 2.5 layer I
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}};           // MPEG 2 and 2.5 layers II, III
+    private static final int[] SAMPLE_RATES = {44100, 48000, 32000};   // MPEG 1; halved for 2, quartered for 2.5
+
+    @Override
+    public List<String> getExtensions() {
+        return Arrays.asList("mp3");
+    }
+
+    @Override
+    protected void readTags(FileChannel channel, AudioTags tags) throws IOException {
+        long audioStart = readId3v2(channel, tags);
+        long audioEnd = channel.size();
+        if (audioEnd - ID3V1_SIZE >= audioStart) {
+            ByteBuffer tag = readAt(channel, audioEnd - ID3V1_SIZE, ID3V1_SIZE, ByteOrder.BIG_ENDIAN);
+            if (readString(tag, 3, StandardCharsets.ISO_8859_1).equals("TAG")) {
+                readId3v1(tag, tags);
+                audioEnd -= ID3V1_SIZE;
+            }
+        }
+        if (tags.getSeconds() <= 0) {
+            readDuration(channel, audioStart, audioEnd, tags);
+        }
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads the text frames of the ID3v2 tag at the start of the file, if any, and returns the
+     *          position just after the tag
+     */
+    private long readId3v2(FileChannel channel, AudioTags tags) throws IOException {
+        if (channel.size() < ID3V2_HEADER) {
+            return 0;
+        }
+        ByteBuffer header = readAt(channel, 0, ID3V2_HEADER, ByteOrder.BIG_ENDIAN);
+        if (!readString(header, 3, StandardCharsets.ISO_8859_1).equals("ID3")) {
+            return 0;
+        }
+        int version = header.get(3);
+        int flags = header.get(5);
+        int size = synchsafe(header.getInt(6));
+        ByteBuffer tag = readAt(channel, ID3V2_HEADER, (int) Math.min(size, channel.size() - ID3V2_HEADER),
+                ByteOrder.BIG_ENDIAN);
+        if ((flags & 0x40) != 0 && version >= 3) {
+            int extended = tag.getInt(0);
+            tag.position(version == 3 ? 4 + extended : synchsafe(extended));
+        }
+        readFrames(tag, version, tags);
+        return ID3V2_HEADER + size + ((flags & 0x10) != 0 ? ID3V2_HEADER : 0);
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads the title, artist, genre and length frames from the frames of an ID3v2 tag of
+     *          given major version in tag
+     */
+    private void readFrames(ByteBuffer tag, int version, AudioTags tags) {
+        int idLength = version == 2 ? 3 : 4;
+        int headerLength = version == 2 ? 6 : 10;
+        while (tag.remaining() >= headerLength) {
+            String id = readString(tag, idLength, StandardCharsets.ISO_8859_1);
+            int size = version == 2 ? (tag.get() & 0xff) << 16 | (tag.getShort() & 0xffff) : tag.getInt();
+            size = version == 4 ? synchsafe(size) : size;
+            tag.position(tag.position() + headerLength - idLength - (version == 2 ? 3 : 4));
+            if (id.isEmpty() || size <= 0 || size > tag.remaining()) {
+                return;
+            }
+            ByteBuffer frame = tag.slice();
+            frame.limit(size);
+            tag.position(tag.position() + size);
+            readFrame(id, frame, tags);
+        }
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads the text in frame into tags if id names a title, artist, genre or length frame
+     */
+    private void readFrame(String id, ByteBuffer frame, AudioTags tags) {
+        if (id.equals("TIT2") || id.equals("TT2")) {
+            tags.offerTitle(readText(frame));
+        } else if (id.equals("TPE1") || id.equals("TP1")) {
+            tags.offerArtist(readText(frame));
+        } else if (id.equals("TCON") || id.equals("TCO")) {
+            tags.offerGenre(genreName(readText(frame)));
+        } else if (id.equals("TLEN") || id.equals("TLE")) {
+            try {
+                tags.offerSeconds(Long.parseLong(readText(frame).trim()) / 1000.0);
+            } catch (NumberFormatException e) {
+                // the length is found from the audio data instead
+            }
+        }
+    }
+
+    // EFFECTS: returns the text of the ID3v2 text frame in frame
+    private String readText(ByteBuffer frame) {
+        Charset[] encodings = {StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16, StandardCharsets.UTF_16BE,
+                StandardCharsets.UTF_8};
+        int encoding = frame.get();
+        Charset charset = encoding >= 0 && encoding < encodings.length ? encodings[encoding]
+                : StandardCharsets.ISO_8859_1;
+        return readString(frame, frame.remaining(), charset);
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads the title, artist and genre from the ID3v1 tag in tag, just after its "TAG" marker
+     */
+    private void readId3v1(ByteBuffer tag, AudioTags tags) {
+        tags.offerTitle(readString(tag, 30, StandardCharsets.ISO_8859_1));
+        tags.offerArtist(readString(tag, 30, StandardCharsets.ISO_8859_1));
+        int genre = tag.get(ID3V1_SIZE - 1) & 0xff;
+        if (genre < GENRES.length) {
+            tags.offerGenre(GENRES[genre]);
+        }
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: finds the duration of the audio between audioStart and audioEnd from its first MPEG frame
+     */
+    private void readDuration(FileChannel channel, long audioStart, long audioEnd, AudioTags tags)
+            throws IOException {
+        int length = (int) Math.min(SYNC_SEARCH, audioEnd - audioStart);
+        if (length < 4) {
+            return;
+        }
+        ByteBuffer audio = readAt(channel, audioStart, length, ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i + 4 <= length; i++) {
+            MpegFrame frame = MpegFrame.parse(audio.getInt(i));
+            if (frame != null) {
+                long frames = xingFrames(audio, i, frame);
+                tags.offerSeconds(frames > 0 ? (double) frames * frame.samples / frame.sampleRate
+                        : (audioEnd - audioStart - i) * 8.0 / frame.bitrate);
+                return;
+            }
+        }
+    }
+
+    /*
+     * EFFECTS: returns the number of frames given by a Xing or Info header in the frame at offset of audio,
+     *          or 0 if there is none
+     */
+    private long xingFrames(ByteBuffer audio, int offset, MpegFrame frame) {
+        int xing = offset + 4 + frame.sideInfo;
+        if (xing + 12 > audio.limit()) {
+            return 0;
+        }
+        String id = new String(new byte[] {audio.get(xing), audio.get(xing + 1), audio.get(xing + 2),
+                audio.get(xing + 3)}, StandardCharsets.ISO_8859_1);
+        if ((id.equals("Xing") || id.equals("Info")) && (audio.getInt(xing + 4) & 1) != 0) {
+            return audio.getInt(xing + 8) & 0xffffffffL;
+        }
+        return 0;
+    }
+
+    // EFFECTS: returns the genre named by text, which may be an ID3v1 genre number such as "(17)" or "17"
+    private String genreName(String text) {
+        String number = text.trim().replaceAll("^\\((\\d+)\\).*$", "$1");
+        if (number.matches("\\d+") && Integer.parseInt(number) < GENRES.length) {
+            return GENRES[Integer.parseInt(number)];
+        }
+        return text;
+    }
+
+    // EFFECTS: returns the value of the 28 bit synchsafe integer in value
+    private int synchsafe(int value) {
+        return (value & 0x7f) | ((value >> 8) & 0x7f) << 7 | ((value >> 16) & 0x7f) << 14
+                | ((value >> 24) & 0x7f) << 21;
+    }
+
+    // Represents the header of an MPEG audio frame
+    private static class MpegFrame {
+        private int bitrate;        // bits per second
+        private int sampleRate;     // samples per second
+        private int samples;        // samples per frame
+        private int sideInfo;       // bytes of side information after the header
+
+        /*
+         * EFFECTS: returns the frame whose 4 byte header is header, or null if header is not a valid header
+         */
+        static MpegFrame parse(int header) {
+            int version = (header >> 19) & 3;       // 0: MPEG 2.5, 2: MPEG 2, 3: MPEG 1
+            int layer = 4 - ((header >> 17) & 3);   // 1, 2 or 3; 4 is reserved
+            int bitrateIndex = (header >> 12) & 15;
+            int rateIndex = (header >> 10) & 3;
+            if ((header >>> 21) != 0x7ff || version == 1 || layer == 4 || bitrateIndex == 0 || bitrateIndex == 15
+                    || rateIndex == 3) {
+                return null;
+            }
+            MpegFrame frame = new MpegFrame();
+            boolean mpeg1 = version == 3;
+            frame.bitrate = 1000 * BITRATES[mpeg1 ? layer - 1 : Math.min(layer, 2) + 2][bitrateIndex];
+            frame.sampleRate = SAMPLE_RATES[rateIndex] >> (mpeg1 ? 0 : (version == 2 ? 1 : 2));
+            frame.samples = layer == 1 ? 384 : (layer == 3 && !mpeg1 ? 576 : 1152);
+            boolean mono = ((header >> 6) & 3) == 3;
+            frame.sideInfo = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+            return frame;
+        }
+    }
+}
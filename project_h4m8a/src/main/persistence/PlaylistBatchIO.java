@@ -0,0 +1,132 @@
+package persistence;
+
+import model.Playlist;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Represents a pool of worker threads that reads or writes many playlist files at the same time.
+// Results are handed back in the order the files finish, and a file that fails is reported in its
+// result without stopping the rest of the batch.
+public class PlaylistBatchIO {
+    private ExecutorService workers;
+
+    /*
+     * REQUIRES: threads > 0
+     * EFFECTS: creates a pool that reads or writes at most threads files at a time
+     */
+    public PlaylistBatchIO(int threads) {
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "playlist-batch-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+     * EFFECTS: starts reading the playlist files at paths, in whatever format each is in, and returns their results,
+     *          keyed by path, in the order they finish
+     */
+    public Iterator<BatchResult> readAll(List<String> paths) {
+        Map<String, Callable<Playlist>> tasks = new LinkedHashMap<>();
+        for (String path : paths) {
+            tasks.put(path, () -> CodecRegistry.getInstance().read(path));
+        }
+        return run(tasks);
+    }
+
+    /*
+     * EFFECTS: starts writing each playlist in playlists to the file at its path, in the format chosen
+     *          by the path's extension, and returns their results, keyed by path, in the order they finish;
+     *          each playlist is copied before this returns, so it may be changed while the batch is written
+     */
+    public Iterator<BatchResult> writeAll(Map<String, Playlist> playlists) {
+        Map<String, Callable<Playlist>> tasks = new LinkedHashMap<>();
+        for (Map.Entry<String, Playlist> entry : playlists.entrySet()) {
+            String path = entry.getKey();
+            Playlist snapshot = entry.getValue().snapshot();
+            tasks.put(path, () -> {
+                CodecRegistry.getInstance().write(snapshot, path);
+                return snapshot;
+            });
+        }
+        return run(tasks);
+    }
+
+    /*
+     * EFFECTS: starts every task in tasks on the pool and returns their results, keyed like tasks,
+     *          in the order they finish
+     */
+    public Iterator<BatchResult> run(Map<String, Callable<Playlist>> tasks) {
+        CompletionService<BatchResult> completion = new ExecutorCompletionService<>(workers);
+        for (Map.Entry<String, Callable<Playlist>> entry : tasks.entrySet()) {
+            String key = entry.getKey();
+            Callable<Playlist> task = entry.getValue();
+            completion.submit(() -> {
+                try {
+                    return new BatchResult(key, task.call(), null);
+                } catch (Exception e) {
+                    return new BatchResult(key, null, e);
+                }
+            });
+        }
+        return new CompletionIterator(completion, tasks.size());
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: waits for batches that have been started to finish and stops the worker threads
+     */
+    public void close() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Represents an iterator that waits for each result of a batch as it finishes
+    private static class CompletionIterator implements Iterator<BatchResult> {
+        private CompletionService<BatchResult> completion;
+        private int remaining;
+
+        CompletionIterator(CompletionService<BatchResult> completion, int remaining) {
+            this.completion = completion;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public BatchResult next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            try {
+                Future<BatchResult> done = completion.take();
+                return done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for batch", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Batch task failed", e.getCause());
+            }
+        }
+    }
+}
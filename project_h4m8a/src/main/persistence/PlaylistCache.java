@@ -0,0 +1,180 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Represents a cache of playlists read from files, keyed by file path. An entry is only used while the
+// modification time and size of its file (and of the file's journal, if any) are unchanged. The cache
+// holds at most a given number of bytes, estimated from the songs in each playlist, and evicts the least
+// recently used playlists first. Callers always get their own copy of a cached playlist.
+public class PlaylistCache {
+    private static final int PLAYLIST_OVERHEAD = 120;   // estimated bytes for a playlist and its song list
+    private static final int SONG_OVERHEAD = 40;        // estimated bytes for a song and its list slot
+    private static final int STRING_OVERHEAD = 40;      // estimated bytes for a string besides its characters
+    private long capacity;      // most bytes the cached playlists may take up
+    private long usedBytes = 0; // estimated bytes taken up by the cached playlists
+    private Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);  // in least recently used order
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
+
+    // EFFECTS: creates an empty cache that holds playlists taking up at most capacity bytes
+    public PlaylistCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns a copy of the playlist cached for the file at path if its files have not changed
+     *          since it was cached, otherwise removes it and returns null
+     */
+    public synchronized Playlist get(String path) {
+        Entry entry = entries.get(path);
+        if (entry != null && entry.stamp.equals(stampOf(path))) {
+            hits++;
+            return entry.playlist.snapshot();
+        }
+        misses++;
+        if (entry != null) {
+            remove(path);
+        }
+        return null;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: caches a copy of playlist, which holds what is stored in the file at path, evicting least
+     *          recently used playlists until it fits; a playlist larger than the whole cache is not cached
+     */
+    public synchronized void put(String path, Playlist playlist) {
+        remove(path);
+        long size = estimateSize(playlist);
+        if (size > capacity) {
+            return;
+        }
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes + size > capacity && iterator.hasNext()) {
+            usedBytes -= iterator.next().getValue().size;
+            iterator.remove();
+            evictions++;
+        }
+        entries.put(path, new Entry(playlist.snapshot(), stampOf(path), size));
+        usedBytes += size;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns a copy of the playlist stored in the file at path, reading it in whatever format
+     *          it is in and caching it if it is not cached or its file has changed;
+     *          throws IOException if an error occurs while reading
+     */
+    public Playlist read(String path) throws IOException {
+        Playlist playlist = get(path);
+        if (playlist == null) {
+            String stamp = stampOf(path);
+            playlist = CodecRegistry.getInstance().read(path);
+            if (stamp.equals(stampOf(path))) {
+                put(path, playlist);
+            }
+        }
+        return playlist;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes the playlist cached for the file at path, if any
+     */
+    public synchronized void invalidate(String path) {
+        remove(path);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes every cached playlist
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    // EFFECTS: returns an estimate of the bytes of memory taken up by playlist and its songs
+    public long estimateSize(Playlist playlist) {
+        long size = PLAYLIST_OVERHEAD + STRING_OVERHEAD + playlist.getPlaylistName().length();
+        for (Song song : playlist.getSongs()) {
+            size += SONG_OVERHEAD + 3 * STRING_OVERHEAD + song.getTitle().length() + song.getArtist().length()
+                    + song.getGenre().length();
+        }
+        return size;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int getNumEntries() {
+        return entries.size();
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized int getEvictions() {
+        return evictions;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes the playlist cached for the file at path, if any
+     */
+    private void remove(String path) {
+        Entry entry = entries.remove(path);
+        if (entry != null) {
+            usedBytes -= entry.size;
+        }
+    }
+
+    // EFFECTS: returns the modification times and sizes of the file at path and of its journal
+    private String stampOf(String path) {
+        return stampOfFile(Paths.get(path)) + "/" + stampOfFile(Paths.get(path + PlaylistJournal.JOURNAL_SUFFIX));
+    }
+
+    // EFFECTS: returns the modification time and size of file, or "-" if it cannot be read
+    private String stampOfFile(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).to(TimeUnit.NANOSECONDS) + ":" + Files.size(file);
+        } catch (IOException e) {
+            return "-";
+        }
+    }
+
+    // Represents a cached playlist together with the stamp of its files and its estimated size
+    private static class Entry {
+        private Playlist playlist;
+        private String stamp;
+        private long size;
+
+        Entry(Playlist playlist, String stamp, long size) {
+            this.playlist = playlist;
+            this.stamp = stamp;
+            this.size = size;
+        }
+    }
+}
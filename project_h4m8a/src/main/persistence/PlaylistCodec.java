@@ -0,0 +1,51 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Represents a file format that playlists can be read from and written to
+public interface PlaylistCodec {
+    // EFFECTS: returns the name of this format
+    String getName();
+
+    // EFFECTS: returns the file extension of this format, including the leading dot
+    String getExtension();
+
+    // EFFECTS: returns true if the first length bytes of header are the start of a file in this format
+    boolean matches(byte[] header, int length);
+
+    /*
+     * MODIFIES: in
+     * EFFECTS: reads a playlist from in and returns it; throws IOException if in cannot be read or
+     *          is not in this format
+     */
+    Playlist read(InputStream in) throws IOException;
+
+    /*
+     * REQUIRES: chunkSize > 0
+     * MODIFIES: in
+     * EFFECTS: reads a playlist from in like read(in), also handing its songs to onChunk, in order and at most
+     *          chunkSize at a time, as they are parsed; a format that cannot be parsed a piece at a time hands
+     *          them on once the whole playlist has been read; throws IOException if in cannot be read or is
+     *          not in this format
+     */
+    default Playlist read(InputStream in, int chunkSize, Consumer<List<Song>> onChunk) throws IOException {
+        Playlist playlist = read(in);
+        SongChunker chunker = new SongChunker(chunkSize, onChunk);
+        chunker.addAll(playlist.getSongs());
+        chunker.flush();
+        return playlist;
+    }
+
+    /*
+     * MODIFIES: out
+     * EFFECTS: writes playlist to out in this format and flushes it; throws IOException if out cannot be written
+     */
+    void write(Playlist playlist, OutputStream out) throws IOException;
+}
@@ -0,0 +1,405 @@
+package persistence;
+
+import model.Playlist;
+import model.PlaylistChange;
+import model.PlaylistObserver;
+import model.Song;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Represents a journal that stores a playlist as a snapshot file plus an append-only file of the
+// changes made since the snapshot was written, so that saving only writes what has changed.
+// Loading replays the journal over the snapshot, and once the journal grows past COMPACT_THRESHOLD
+// changes it is folded into the snapshot on a background thread. The snapshot may be in any format
+// known to the CodecRegistry; the journal starts with the checksum of the snapshot it applies to, so
+// a journal left behind by a snapshot that has since been replaced is never replayed.
+public class PlaylistJournal implements PlaylistObserver {
+    public static final int COMPACT_THRESHOLD = 1000;
+    public static final String JOURNAL_SUFFIX = ".journal";
+    private static final String SNAPSHOT = "snapshot";
+    private String snapshotFile;    // file holding the last snapshot of the playlist
+    private String journalFile;     // file holding the changes made since the last snapshot
+    private Playlist playlist;      // playlist being journaled; null if none
+    private List<PlaylistChange> pending = new ArrayList<>();   // changes not yet written to journal file
+    private long snapshotChecksum;  // CRC32 of the snapshot file as last read or written
+    private int journalSize = 0;    // number of changes in journal file
+    private boolean journalTorn = false;    // true if the journal file ends with a partly written change
+    private volatile boolean synced = false;    // true if snapshotChecksum and journalSize match the files
+    private ExecutorService compactor;
+
+    // EFFECTS: creates a journal that stores a playlist in snapshotFile and its changes next to it
+    public PlaylistJournal(String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = snapshotFile + JOURNAL_SUFFIX;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: reads the snapshot, replays the changes in the journal over it, starts journaling
+     *          the result and returns it; throws IOException if an error occurs while reading
+     */
+    public Playlist load() throws IOException {
+        return load(Integer.MAX_VALUE, chunk -> { });
+    }
+
+    /*
+     * REQUIRES: chunkSize > 0
+     * MODIFIES: this
+     * EFFECTS: loads the playlist like load(), also handing the songs of the snapshot to onChunk, in order and
+     *          at most chunkSize at a time, as they are read; the playlist returned has the changes in the
+     *          journal replayed over them, so it may differ from the songs handed on
+     */
+    public synchronized Playlist load(int chunkSize, Consumer<List<Song>> onChunk) throws IOException {
+        Playlist loaded = readSnapshot(chunkSize, onChunk);
+        List<JSONObject> entries = readJournal();
+        replay(loaded, entries);
+        journalSize = entries.size();
+        synced = true;
+        attach(loaded);
+        if (journalTorn) {
+            compact();
+        }
+        return loaded;
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: saves playlist; if playlist is the one being journaled, appends only the changes made
+     *          since it was last saved, otherwise writes a new snapshot of it and starts journaling it;
+     *          folds the journal into the snapshot in the background once it is large enough;
+     *          throws IOException if an error occurs while writing
+     */
+    public void save(Playlist playlist) throws IOException {
+        commit(takeBatch(playlist));
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: returns the work needed to save playlist without doing any writing, and marks playlist
+     *          as saved until committing the batch fails; if playlist is the one being journaled and its
+     *          snapshot has been written the batch holds the changes made since it was last saved,
+     *          otherwise it holds a snapshot of playlist, which covers every change made so far, and
+     *          playlist starts being journaled; must be called on the thread that changes playlist
+     */
+    public JournalBatch takeBatch(Playlist playlist) {
+        JournalBatch batch;
+        if (playlist != this.playlist || !synced) {
+            if (playlist != this.playlist) {
+                attach(playlist);
+            }
+            batch = new JournalBatch(playlist.snapshot(), new ArrayList<>());
+            pending.clear();
+        } else {
+            batch = new JournalBatch(null, pending);
+            pending.clear();
+        }
+        playlist.markClean();
+        return batch;
+    }
+
+    /*
+     * MODIFIES: this, the playlist being journaled
+     * EFFECTS: writes batch to the snapshot and journal files; folds the journal into the snapshot
+     *          in the background once it is large enough; if anything fails, the next batch taken is a
+     *          full snapshot and the playlist being journaled is marked as not saved, so the changes in
+     *          batch are not lost, and IOException is thrown, or the RuntimeException that was thrown
+     */
+    public synchronized void commit(JournalBatch batch) throws IOException {
+        try {
+            write(batch);
+        } catch (IOException | RuntimeException e) {
+            synced = false;
+            if (playlist != null) {
+                playlist.markDirty();
+            }
+            throw e;
+        }
+        if (journalSize >= COMPACT_THRESHOLD) {
+            compactInBackground();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: folds the changes in the journal file into the snapshot file and empties the journal;
+     *          only the files are read, so the playlist being journaled is left untouched;
+     *          throws IOException if an error occurs while reading or writing
+     */
+    public synchronized void compact() throws IOException {
+        Playlist folded = readSnapshot(Integer.MAX_VALUE, chunk -> { });
+        replay(folded, readJournal());
+        writeSnapshot(folded);
+        new File(journalFile).delete();
+        journalSize = 0;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: schedules compact() to run on the background compaction thread, starting the thread
+     *          the first time
+     */
+    public synchronized void compactInBackground() {
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        compactor.submit(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                // journal is left in place and is folded in at the next compaction
+            }
+        });
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: waits for any background compaction to finish and stops the compaction thread
+     */
+    public void close() {
+        ExecutorService running;
+        synchronized (this) {
+            running = compactor;
+            compactor = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /*
+     * REQUIRES: isSynced() and playlist holds what is stored in the snapshot and journal files
+     * MODIFIES: this, playlist
+     * EFFECTS: starts journaling playlist without reading the files
+     */
+    public void adopt(Playlist playlist) {
+        attach(playlist);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records change to be written to the journal file at the next save
+     */
+    @Override
+    public void update(Playlist playlist, PlaylistChange change) {
+        if (playlist == this.playlist) {
+            pending.add(change);
+        }
+    }
+
+    // EFFECTS: returns the number of changes in the journal file
+    public int getJournalSize() {
+        return journalSize;
+    }
+
+    // EFFECTS: returns true if this journal has read or written the snapshot file, so it knows where to continue
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: stops journaling the current playlist and starts journaling playlist
+     */
+    private void attach(Playlist playlist) {
+        if (this.playlist != null) {
+            this.playlist.removeObserver(this);
+        }
+        this.playlist = playlist;
+        this.pending.clear();
+        playlist.addObserver(this);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: writes the snapshot in batch, if any, then appends its changes to the journal file; throws
+     *          IOException if an error occurs while writing, or if batch only holds changes but an earlier
+     *          batch failed, since the files then lack the changes before them
+     */
+    private void write(JournalBatch batch) throws IOException {
+        if (batch.getSnapshot() != null) {
+            synced = false;
+            writeSnapshot(batch.getSnapshot());
+            new File(journalFile).delete();
+            journalSize = 0;
+            synced = true;
+        } else if (!synced) {
+            throw new IOException("An earlier save failed; the playlist will be saved in full next time");
+        }
+        if (!batch.getChanges().isEmpty()) {
+            append(batch.getChanges());
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: reads the snapshot file in whatever format it is in, handing its songs to onChunk chunkSize
+     *          at a time as they are read, records its checksum and returns the playlist it holds;
+     *          throws IOException if the file cannot be read
+     */
+    private Playlist readSnapshot(int chunkSize, Consumer<List<Song>> onChunk) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(new FileInputStream(snapshotFile), new CRC32())) {
+            BufferedInputStream in = new BufferedInputStream(checked);
+            Playlist read = CodecRegistry.getInstance().read(in, snapshotFile, chunkSize, onChunk);
+            in.transferTo(OutputStream.nullOutputStream());
+            snapshotChecksum = checked.getChecksum().getValue();
+            return read;
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: writes playlist to the snapshot file in the format chosen by its name and records
+     *          its checksum; throws IOException if the file cannot be written
+     */
+    private void writeSnapshot(Playlist playlist) throws IOException {
+        AtomicFile file = new AtomicFile(snapshotFile);
+        CheckedOutputStream out = new CheckedOutputStream(file.open(), new CRC32());
+        try {
+            CodecRegistry.getInstance().write(playlist, out, snapshotFile);
+            file.commit();
+        } catch (IOException | RuntimeException e) {
+            file.abort();
+            throw e;
+        }
+        snapshotChecksum = out.getChecksum().getValue();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: appends changes to the journal file, one JSON object per line, and forces them to disk;
+     *          a journal file that is missing or was started on a different snapshot is started again
+     *          with a line holding the checksum of the snapshot; throws IOException if the file cannot be
+     *          written
+     */
+    private void append(List<PlaylistChange> changes) throws IOException {
+        boolean isNew = !isCurrent(readHeader());
+        try (FileOutputStream stream = new FileOutputStream(journalFile, !isNew)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+            if (isNew) {
+                writer.write(new JSONObject().put(SNAPSHOT, snapshotChecksum).toString());
+                writer.write(System.lineSeparator());
+            }
+            for (PlaylistChange change : changes) {
+                writer.write(change.toJson().toString());
+                writer.write(System.lineSeparator());
+            }
+            writer.flush();
+            stream.getFD().sync();
+        }
+        journalSize += changes.size();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the changes in the journal file, stopping at a line that was only partly
+     *          written; returns an empty list if there is no journal file, and deletes the journal file
+     *          if it was started on a different snapshot than the one last read or written
+     */
+    private List<JSONObject> readJournal() throws IOException {
+        List<JSONObject> entries = new ArrayList<>();
+        journalTorn = false;
+        if (!new File(journalFile).exists()) {
+            return entries;
+        }
+        boolean current;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(journalFile), StandardCharsets.UTF_8)) {
+            current = isCurrent(reader.readLine());
+            String line;
+            while (current && (line = reader.readLine()) != null) {
+                try {
+                    entries.add(new JSONObject(line));
+                } catch (JSONException e) {
+                    journalTorn = true;
+                    break;
+                }
+            }
+        }
+        if (!current) {
+            Files.delete(Paths.get(journalFile));
+        }
+        return entries;
+    }
+
+    // EFFECTS: returns the first line of the journal file, or null if there is no journal file or it is empty
+    private String readHeader() throws IOException {
+        if (!new File(journalFile).exists()) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(journalFile), StandardCharsets.UTF_8)) {
+            return reader.readLine();
+        }
+    }
+
+    // EFFECTS: returns true if header is the first line of a journal started on the current snapshot
+    private boolean isCurrent(String header) {
+        try {
+            return header != null && new JSONObject(header).optLong(SNAPSHOT, -1) == snapshotChecksum;
+        } catch (JSONException e) {
+            return false;
+        }
+    }
+
+    /*
+     * MODIFIES: playlist
+     * EFFECTS: applies the changes in entries to playlist, in order
+     */
+    private void replay(Playlist playlist, List<JSONObject> entries) {
+        JsonCodec codec = new JsonCodec();
+        for (JSONObject entry : entries) {
+            playlist.applyChange(parseChange(entry, codec));
+        }
+    }
+
+    // EFFECTS: parses a playlist change from JSON object and returns it
+    private PlaylistChange parseChange(JSONObject json, JsonCodec codec) {
+        PlaylistChange.Type type = PlaylistChange.Type.valueOf(json.getString("op"));
+        JSONArray songs = json.optJSONArray("songs");
+        if (songs != null) {
+            List<Song> parsed = new ArrayList<>();
+            for (Object song : songs) {
+                parsed.add(codec.parseSong((JSONObject) song));
+            }
+            return new PlaylistChange(type, parsed);
+        }
+        JSONObject song = json.optJSONObject("song");
+        return new PlaylistChange(type, song == null ? null : codec.parseSong(song), json.getInt("index"),
+                json.getInt("toIndex"), json.optString("detail", null));
+    }
+}
@@ -0,0 +1,386 @@
+package persistence;
+
+import model.Playlist;
+import model.SmartPlaylist;
+import model.Song;
+import model.SongRule;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+// Represents a library that stores many playlists in one directory, each in its own file saved through
+// a PlaylistJournal, together with a small index file of their names, sizes and total times.
+// Listing the library only reads the index; a playlist file is read only when that playlist is opened,
+// and reopening a playlist whose files have not changed since it was read is served from a PlaylistCache.
+// The index also remembers which playlist was used last, so it can be reopened when the application starts,
+// and holds the definitions of the library's smart playlists, whose songs are worked out from their sources.
+public class PlaylistLibrary {
+    public static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+    private static final String INDEX = "library.json";
+    private static final String LAST_USED = "lastUsed";
+    private static final String SMART = "SmartPlaylists";
+    private String directory;
+    private PlaylistCache cache;
+    private Map<String, LibraryEntry> entries;  // entries by playlist name in index order; null until index is read
+    private Map<String, PlaylistJournal> journals = new HashMap<>();    // journals of playlists used so far
+    private boolean compressed = false;     // true if playlists added from now on are stored compressed
+    private String lastUsed;    // name of the playlist opened or saved most recently; null if none
+    private Map<String, JSONObject> smart;  // definitions of smart playlists by name; null until index is read
+
+    // EFFECTS: creates a library that stores playlists in directory, caching up to DEFAULT_CACHE_BYTES of them
+    public PlaylistLibrary(String directory) {
+        this(directory, new PlaylistCache(DEFAULT_CACHE_BYTES));
+    }
+
+    // EFFECTS: creates a library that stores playlists in directory and caches them in cache
+    public PlaylistLibrary(String directory, PlaylistCache cache) {
+        this.directory = directory;
+        this.cache = cache;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets whether playlists added to the library from now on are stored compressed;
+     *          playlists already in the library keep their files
+     */
+    public synchronized void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    /*
+     * EFFECTS: returns the entries of all playlists in the library, read from the index only;
+     *          throws IOException if the index cannot be read
+     */
+    public synchronized List<LibraryEntry> list() throws IOException {
+        return new ArrayList<>(entries().values());
+    }
+
+    /*
+     * EFFECTS: returns true if a playlist with given name is in the library;
+     *          throws IOException if the index cannot be read
+     */
+    public synchronized boolean contains(String name) throws IOException {
+        return entries().containsKey(name);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the playlist with given name, reading it from its file unless it is cached and its
+     *          files have not changed; throws FileNotFoundException if there is no such playlist, or
+     *          IOException if it cannot be read
+     */
+    public Playlist open(String name) throws IOException {
+        return open(name, Integer.MAX_VALUE, chunk -> { });
+    }
+
+    /*
+     * REQUIRES: chunkSize > 0
+     * MODIFIES: this
+     * EFFECTS: returns the playlist with given name like open(name); if it has to be read from its file, its
+     *          songs are also handed to onChunk, in order and at most chunkSize at a time, as they are read,
+     *          so they can be shown before the whole file has been read
+     */
+    public synchronized Playlist open(String name, int chunkSize, Consumer<List<Song>> onChunk) throws IOException {
+        if (!entries().containsKey(name)) {
+            throw new FileNotFoundException(name + " is not in " + directory);
+        }
+        PlaylistJournal journal = journalFor(name);
+        Playlist playlist = journal.isSynced() ? cache.get(journal.getSnapshotFile()) : null;
+        if (playlist != null) {
+            journal.adopt(playlist);
+        } else {
+            playlist = journal.load(chunkSize, onChunk);
+            cache.put(journal.getSnapshotFile(), playlist);
+        }
+        lastUsed = name;
+        return playlist;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: starts opening the playlists with given names on the workers of batchIO and returns their
+     *          results, keyed by name, in the order they finish; a name that is not in the library is
+     *          reported as a failed result; throws IOException if the index cannot be read
+     */
+    public synchronized Iterator<BatchResult> openAll(List<String> names, PlaylistBatchIO batchIO)
+            throws IOException {
+        Map<String, Callable<Playlist>> tasks = new LinkedHashMap<>();
+        for (String name : names) {
+            if (!entries().containsKey(name)) {
+                tasks.put(name, () -> {
+                    throw new FileNotFoundException(name + " is not in " + directory);
+                });
+            } else {
+                PlaylistJournal journal = journalFor(name);
+                tasks.put(name, () -> {
+                    Playlist playlist = journal.load();
+                    cache.put(journal.getSnapshotFile(), playlist);
+                    return playlist;
+                });
+            }
+        }
+        return batchIO.run(tasks);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns every playlist in the library other than the one named skip, read on the workers of
+     *          batchIO, in order of name; playlists that cannot be read are left out; throws IOException if the
+     *          index cannot be read
+     */
+    public List<Playlist> openAllExcept(String skip, PlaylistBatchIO batchIO) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (LibraryEntry entry : list()) {
+            if (!entry.getName().equals(skip)) {
+                names.add(entry.getName());
+            }
+        }
+        return openEach(names, batchIO);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the playlists with given names, read on the workers of batchIO, in order of name;
+     *          playlists that are not in the library or cannot be read are left out; throws IOException if the
+     *          index cannot be read
+     */
+    public List<Playlist> openEach(List<String> names, PlaylistBatchIO batchIO) throws IOException {
+        Map<String, Playlist> opened = new TreeMap<>();
+        Iterator<BatchResult> results = openAll(names, batchIO);
+        while (results.hasNext()) {
+            BatchResult result = results.next();
+            if (result.isSuccess()) {
+                opened.put(result.getKey(), result.getPlaylist());
+            }
+        }
+        return new ArrayList<>(opened.values());
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: saves playlist to its file and updates the index;
+     *          throws IOException if an error occurs while writing
+     */
+    public synchronized void save(Playlist playlist) throws IOException {
+        journalFor(playlist.getPlaylistName()).save(playlist);
+        updateEntry(playlist);
+        writeIndex();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the journal that stores the playlist with given name, choosing a file for it
+     *          if it is not in the library yet and creating the library directory if needed;
+     *          throws IOException if the index cannot be read or the directory cannot be created
+     */
+    public synchronized PlaylistJournal journalFor(String name) throws IOException {
+        PlaylistJournal journal = journals.get(name);
+        if (journal == null) {
+            LibraryEntry entry = entries().get(name);
+            if (entry == null) {
+                entry = new LibraryEntry(name, newFileName(name), 0, 0);
+                entries.put(name, entry);
+            }
+            Files.createDirectories(Paths.get(directory));
+            journal = new PlaylistJournal(pathOf(entry.getFile()));
+            journals.put(name, journal);
+        }
+        return journal;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: updates the index entry of playlist in memory with its current size and total time and
+     *          makes it the playlist used last; the index file is only changed by writeIndex();
+     *          throws IOException if the index cannot be read
+     */
+    public synchronized void updateEntry(Playlist playlist) throws IOException {
+        String name = playlist.getPlaylistName();
+        journalFor(name);
+        String file = entries.get(name).getFile();
+        entries.put(name, new LibraryEntry(name, file, playlist.getNumSongs(), playlist.totalTime()));
+        lastUsed = name;
+    }
+
+    /*
+     * EFFECTS: returns the name of the playlist opened or saved most recently, as last written to the index,
+     *          or null if there is none or it is no longer in the library;
+     *          throws IOException if the index cannot be read
+     */
+    public synchronized String getLastUsed() throws IOException {
+        Map<String, LibraryEntry> read = entries();
+        return read.containsKey(lastUsed) ? lastUsed : null;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stores the definition of smartPlaylist in the index, in place of any smart playlist with the same
+     *          name, and writes the index; throws IOException if the index cannot be read or written
+     */
+    public synchronized void saveSmart(SmartPlaylist smartPlaylist) throws IOException {
+        entries();
+        smart.put(smartPlaylist.getName(), smartPlaylist.toJson());
+        writeIndex();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes the smart playlist with given name from the index, if there is one, and writes the index;
+     *          throws IOException if the index cannot be read or written
+     */
+    public synchronized void removeSmart(String name) throws IOException {
+        entries();
+        if (smart.remove(name) != null) {
+            writeIndex();
+        }
+    }
+
+    /*
+     * EFFECTS: returns the smart playlists in the library, in the order they were first saved, without any
+     *          sources attached; throws IOException if the index cannot be read
+     */
+    public synchronized List<SmartPlaylist> listSmart() throws IOException {
+        entries();
+        List<SmartPlaylist> smartPlaylists = new ArrayList<>();
+        for (JSONObject json : smart.values()) {
+            smartPlaylists.add(parseSmart(json));
+        }
+        return smartPlaylists;
+    }
+
+    /*
+     * EFFECTS: writes the index to the library directory, creating the directory if needed;
+     *          throws IOException if an error occurs while writing
+     */
+    public synchronized void writeIndex() throws IOException {
+        Files.createDirectories(Paths.get(directory));
+        JSONArray jsonArray = new JSONArray();
+        for (LibraryEntry entry : entries().values()) {
+            jsonArray.put(entry.toJson());
+        }
+        JSONObject json = new JSONObject();
+        json.put("Playlists", jsonArray);
+        if (lastUsed != null) {
+            json.put(LAST_USED, lastUsed);
+        }
+        if (!smart.isEmpty()) {
+            json.put(SMART, new JSONArray(smart.values()));
+        }
+        JsonWriter writer = new JsonWriter(pathOf(INDEX));
+        writer.open();
+        writer.write(json);
+        writer.close();
+    }
+
+    public PlaylistCache getCache() {
+        return cache;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: waits for the background work of every journal used so far to finish
+     */
+    public synchronized void close() {
+        for (PlaylistJournal journal : journals.values()) {
+            journal.close();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the index entries, reading them from the index file the first time;
+     *          a library without an index file is empty
+     */
+    private Map<String, LibraryEntry> entries() throws IOException {
+        if (entries == null) {
+            Map<String, LibraryEntry> read = new LinkedHashMap<>();
+            Map<String, JSONObject> readSmart = new LinkedHashMap<>();
+            if (new File(pathOf(INDEX)).exists()) {
+                JSONObject index = new JsonReader(pathOf(INDEX)).readJson();
+                for (Object json : index.getJSONArray("Playlists")) {
+                    LibraryEntry entry = parseEntry((JSONObject) json);
+                    read.put(entry.getName(), entry);
+                }
+                for (Object json : index.has(SMART) ? index.getJSONArray(SMART) : new JSONArray()) {
+                    readSmart.put(((JSONObject) json).getString("name"), (JSONObject) json);
+                }
+                lastUsed = index.optString(LAST_USED, null);
+            }
+            entries = read;
+            smart = readSmart;
+        }
+        return entries;
+    }
+
+    // EFFECTS: parses smart playlist definition from JSON object and returns it, without any sources attached
+    private SmartPlaylist parseSmart(JSONObject json) {
+        List<SongRule> rules = new ArrayList<>();
+        for (Object rule : json.getJSONArray("rules")) {
+            JSONObject jsonRule = (JSONObject) rule;
+            rules.add(new SongRule(SongRule.Field.valueOf(jsonRule.getString("field")),
+                    SongRule.Operator.valueOf(jsonRule.getString("operator")), jsonRule.getString("value")));
+        }
+        List<String> sourceNames = new ArrayList<>();
+        for (Object sourceName : json.getJSONArray("sources")) {
+            sourceNames.add((String) sourceName);
+        }
+        return new SmartPlaylist(json.getString("name"), rules, sourceNames);
+    }
+
+    // EFFECTS: parses library entry from JSON object and returns it
+    private LibraryEntry parseEntry(JSONObject json) {
+        return new LibraryEntry(json.getString("name"), json.getString("file"), json.getInt("songs"),
+                json.getDouble("totalTime"));
+    }
+
+    /*
+     * EFFECTS: returns a file name in the default format, compressed if new files are compressed, for the
+     *          playlist with given name that no other playlist uses
+     */
+    private String newFileName(String name) {
+        String base = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        String extension = CodecRegistry.getInstance().getDefault().getExtension();
+        if (compressed) {
+            extension += Compression.GZIP_SUFFIX;
+        }
+        String file = base + extension;
+        int suffix = 2;
+        while (isFileUsed(file)) {
+            file = base + "-" + suffix + extension;
+            suffix++;
+        }
+        return file;
+    }
+
+    // EFFECTS: returns true if file is the index or is used by a playlist in the library
+    private boolean isFileUsed(String file) {
+        if (file.equals(INDEX)) {
+            return true;
+        }
+        for (LibraryEntry entry : entries.values()) {
+            if (entry.getFile().equals(file)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the path of file in the library directory
+    private String pathOf(String file) {
+        return directory + File.separator + file;
+    }
+}
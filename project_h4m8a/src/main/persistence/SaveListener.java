@@ -0,0 +1,12 @@
+package persistence;
+
+import java.io.IOException;
+
+// Represents an object that is told when a save requested from a SaveService has finished
+public interface SaveListener {
+    // EFFECTS: handles a save of the playlist with name playlistName that was written successfully
+    void saveCompleted(String playlistName);
+
+    // EFFECTS: handles a save of the playlist with name playlistName that failed with error
+    void saveFailed(String playlistName, IOException error);
+}
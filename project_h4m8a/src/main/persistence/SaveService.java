@@ -0,0 +1,116 @@
+package persistence;
+
+import model.Playlist;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Represents a service that saves playlists through a PlaylistJournal on a background thread.
+// The work for each save is taken on the calling thread as an unchangeable JournalBatch, and saves
+// requested while an earlier one is still being written are merged into a single write.
+public class SaveService {
+    private PlaylistJournal journal;
+    private ExecutorService saver;
+    private JournalBatch pendingBatch;      // batch waiting to be written; null if none
+    private String pendingName;             // name of the playlist in pendingBatch
+    private List<SaveListener> pendingListeners = new ArrayList<>();    // listeners told about pendingBatch
+    private int writes = 0;                 // number of batches written
+
+    // EFFECTS: creates a service that saves playlists through journal
+    public SaveService(PlaylistJournal journal) {
+        this.journal = journal;
+        this.saver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "playlist-saver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+     * MODIFIES: this, playlist
+     * EFFECTS: takes the work needed to save playlist and schedules it to be written in the background,
+     *          merging it with any save that has not been written yet; listener (if not null) is told
+     *          on the background thread once the write has finished; must be called on the thread that
+     *          changes playlist
+     */
+    public synchronized void save(Playlist playlist, SaveListener listener) {
+        JournalBatch batch = journal.takeBatch(playlist);
+        boolean scheduled = pendingBatch != null;
+        pendingBatch = scheduled ? pendingBatch.merge(batch) : batch;
+        pendingName = playlist.getPlaylistName();
+        if (listener != null) {
+            pendingListeners.add(listener);
+        }
+        if (!scheduled) {
+            saver.submit(this::writePending);
+        }
+    }
+
+    /*
+     * EFFECTS: waits until every save requested so far has been written
+     */
+    public void flush() {
+        try {
+            saver.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // writePending reports its own errors to listeners, so the empty task cannot fail
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: waits until every save requested so far has been written and stops the background thread
+     */
+    public void close() {
+        saver.shutdown();
+        try {
+            saver.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public PlaylistJournal getJournal() {
+        return journal;
+    }
+
+    // EFFECTS: returns the number of writes done so far; merged saves count as one write
+    public synchronized int getWrites() {
+        return writes;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: writes the pending batch through the journal and tells its listeners the result; an unexpected
+     *          error while writing is reported to them as a failed save instead of ending the task unseen
+     */
+    private void writePending() {
+        JournalBatch batch;
+        String name;
+        List<SaveListener> listeners;
+        synchronized (this) {
+            batch = pendingBatch;
+            name = pendingName;
+            listeners = new ArrayList<>(pendingListeners);
+            pendingBatch = null;
+            pendingListeners.clear();
+            writes++;
+        }
+        try {
+            journal.commit(batch);
+            listeners.forEach(listener -> listener.saveCompleted(name));
+        } catch (IOException e) {
+            listeners.forEach(listener -> listener.saveFailed(name, e));
+        } catch (RuntimeException e) {
+            IOException error = new IOException("Playlist could not be written", e);
+            listeners.forEach(listener -> listener.saveFailed(name, error));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package persistence;
+
+import model.Song;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Represents the outcome of scanning a directory of audio files: the songs read from them, the files that
+// could not be read and how fast the scan went. Songs are kept in order of the path of their file, so scanning
+// the same folder twice gives the same order. Only the first MAX_REPORTED failures are kept.
+public class ScanResult {
+    public static final int MAX_REPORTED = 100;
+    private Map<Path, Song> files = new TreeMap<>();    // songs read, by the file they were read from
+    private int filesScanned = 0;
+    private int numFailed = 0;
+    private List<String> failures = new ArrayList<>();  // "file: reason" for the first files that failed
+    private long elapsedNanos = 0;
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that song was read from file
+     */
+    public void addSong(Path file, Song song) {
+        filesScanned++;
+        files.put(file, song);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that file could not be read for given reason
+     */
+    public void addFailure(String file, String reason) {
+        filesScanned++;
+        numFailed++;
+        if (failures.size() < MAX_REPORTED) {
+            failures.add(file + ": " + reason);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets how long the scan took
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // EFFECTS: returns a new list of the songs read, in order of the path of their file
+    public List<Song> getSongs() {
+        return new ArrayList<>(files.values());
+    }
+
+    // EFFECTS: returns the songs read, keyed by the file each was read from, in order of path
+    public Map<Path, Song> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    public int getFilesScanned() {
+        return filesScanned;
+    }
+
+    public int getNumFailed() {
+        return numFailed;
+    }
+
+    // EFFECTS: returns a description of each of the first MAX_REPORTED files that could not be read
+    public List<String> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // EFFECTS: returns the number of files scanned per second
+    public double getFilesPerSecond() {
+        return elapsedNanos == 0 ? 0 : filesScanned * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Scanned %d file(s) in %.2f s (%.0f files/s): %d song(s), %d unreadable",
+                filesScanned, elapsedNanos / 1e9, getFilesPerSecond(), files.size(), numFailed);
+    }
+}
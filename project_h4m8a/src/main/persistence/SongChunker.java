@@ -0,0 +1,58 @@
+package persistence;
+
+import model.Song;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Represents a buffer that collects songs as a playlist is parsed and hands them on in chunks of a fixed size,
+// so the songs at the start of a large file can be shown before the rest of it has been read. Each chunk is a
+// new list that is never changed after it is handed on, so it can be passed to another thread.
+public class SongChunker {
+    private final int chunkSize;
+    private final Consumer<List<Song>> onChunk;
+    private List<Song> chunk = new ArrayList<>();
+
+    /*
+     * REQUIRES: chunkSize > 0
+     * EFFECTS: creates a buffer that hands songs to onChunk chunkSize at a time
+     */
+    public SongChunker(int chunkSize, Consumer<List<Song>> onChunk) {
+        this.chunkSize = chunkSize;
+        this.onChunk = onChunk;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds song after the songs collected so far, handing them on once there are chunkSize of them
+     */
+    public void add(Song song) {
+        chunk.add(song);
+        if (chunk.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds songs in order, handing them on chunkSize at a time
+     */
+    public void addAll(List<Song> songs) {
+        for (Song song : songs) {
+            add(song);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: hands on the songs collected so far, if there are any
+     */
+    public void flush() {
+        if (!chunk.isEmpty()) {
+            List<Song> full = chunk;
+            chunk = new ArrayList<>();
+            onChunk.accept(full);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Represents an exporter that writes the songs of a playlist to a file for another music player. Songs
+// are streamed one at a time through a buffered writer, so exporting takes the same memory however long
+// the playlist is. The file is replaced only once it is completely written.
+public abstract class SongExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String destination;
+
+    // EFFECTS: creates an exporter that writes to destination file
+    public SongExporter(String destination) {
+        this.destination = destination;
+    }
+
+    /*
+     * EFFECTS: returns an exporter for the file at path, chosen by its extension;
+     *          throws IllegalArgumentException if no exporter writes files with that extension
+     */
+    public static SongExporter forFile(String path) {
+        String name = Compression.stripSuffix(path).toLowerCase();
+        if (name.endsWith(".m3u") || name.endsWith(".m3u8")) {
+            return new M3uExporter(path);
+        } else if (name.endsWith(".csv")) {
+            return new CsvExporter(path);
+        }
+        throw new IllegalArgumentException("Cannot export to " + path);
+    }
+
+    /*
+     * EFFECTS: writes the songs of playlist to destination file, compressed if its name ends with
+     *          Compression.GZIP_SUFFIX, and returns the number of songs written;
+     *          throws IOException if the file cannot be written, in which case it is left unchanged
+     */
+    public int export(Playlist playlist) throws IOException {
+        AtomicFile file = new AtomicFile(destination);
+        try {
+            OutputStream out = Compression.compress(file.open(), destination);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writeHeader(writer, playlist);
+            for (Song song : playlist.getSongs()) {
+                writeSong(writer, song);
+            }
+            writer.flush();
+            Compression.finish(out);
+            file.commit();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+        return playlist.getNumSongs();
+    }
+
+    /*
+     * MODIFIES: writer
+     * EFFECTS: writes what comes before the songs of playlist
+     */
+    protected abstract void writeHeader(Writer writer, Playlist playlist) throws IOException;
+
+    /*
+     * MODIFIES: writer
+     * EFFECTS: writes song
+     */
+    protected abstract void writeSong(Writer writer, Song song) throws IOException;
+}
@@ -0,0 +1,93 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents an importer that reads songs from a file made by another music player, one line at a time,
+// and adds them all to a playlist at once. Lines that cannot be parsed are reported in the ImportResult
+// and skipped, so one bad line does not stop the import.
+public abstract class SongImporter {
+    public static final String UNKNOWN = "Unknown";     // artist or genre of songs whose file does not give one
+    private static final String BOM = "\uFEFF";   // byte order mark some Windows tools start UTF-8 files with
+    private String source;
+
+    // EFFECTS: creates an importer that reads from source file
+    public SongImporter(String source) {
+        this.source = source;
+    }
+
+    /*
+     * EFFECTS: returns an importer for the file at path, chosen by its extension;
+     *          throws IllegalArgumentException if no importer reads files with that extension
+     */
+    public static SongImporter forFile(String path) {
+        String name = Compression.stripSuffix(path).toLowerCase();
+        if (name.endsWith(".m3u") || name.endsWith(".m3u8")) {
+            return new M3uImporter(path);
+        } else if (name.endsWith(".csv")) {
+            return new CsvImporter(path);
+        }
+        throw new IllegalArgumentException("Cannot import " + path);
+    }
+
+    /*
+     * MODIFIES: playlist
+     * EFFECTS: reads the songs in source file, ignoring a byte order mark at its start, and adds those not
+     *          already in playlist to it in one batch; returns what was imported; throws IOException if the file
+     *          cannot be read
+     */
+    public ImportResult importInto(Playlist playlist) throws IOException {
+        ImportResult result = new ImportResult();
+        List<Song> songs = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Compression.open(source), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                result.lineRead();
+                if (result.getLinesRead() == 1 && line.startsWith(BOM)) {
+                    line = line.substring(BOM.length());
+                }
+                try {
+                    Song song = parseLine(line);
+                    if (song != null) {
+                        songs.add(song);
+                    }
+                } catch (MalformedLineException e) {
+                    result.addMalformed(result.getLinesRead(), e.getMessage());
+                }
+            }
+        }
+        result.setSongsAdded(playlist.addSongs(songs));
+        return result;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: parses the next line of the file and returns the song it completes, or null if it does not
+     *          complete a song; throws MalformedLineException if the line cannot be parsed
+     */
+    protected abstract Song parseLine(String line) throws MalformedLineException;
+
+    /*
+     * EFFECTS: returns text parsed as a song duration in whole seconds, rounding fractions;
+     *          throws MalformedLineException if text is not a positive number
+     */
+    protected int parseDuration(String text) throws MalformedLineException {
+        try {
+            long seconds = Math.round(Double.parseDouble(text.trim()));
+            if (seconds > 0 && seconds <= Integer.MAX_VALUE) {
+                return (int) seconds;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new MalformedLineException("duration \"" + text + "\" is not a positive number of seconds");
+    }
+}
@@ -0,0 +1,305 @@
+package persistence;
+
+import model.Playlist;
+import model.PlaylistChange;
+import model.Song;
+import model.SongPager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a store that keeps playlists in an embedded, file-based SQL database reached through JDBC,
+// as an alternative to one JSON file per playlist. Each song is a row that records its playlist and its
+// position, and there are indexes on artist, genre and duration, so songs can be found by those fields
+// without reading whole playlists. Only portable SQL is used, so any embedded database with a JDBC driver
+// on the classpath works; forFile() opens an H2 database file, and SQLite works with a "jdbc:sqlite:" url.
+public class SqlPlaylistStore {
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS playlists (name VARCHAR(255) PRIMARY KEY)",
+            "CREATE TABLE IF NOT EXISTS songs (playlist VARCHAR(255) NOT NULL, position INTEGER NOT NULL, "
+                    + "title VARCHAR(1024) NOT NULL, artist VARCHAR(1024) NOT NULL, duration INTEGER NOT NULL, "
+                    + "genre VARCHAR(255) NOT NULL, PRIMARY KEY (playlist, position))",
+            "CREATE INDEX IF NOT EXISTS songs_artist ON songs (artist)",
+            "CREATE INDEX IF NOT EXISTS songs_genre ON songs (genre)",
+            "CREATE INDEX IF NOT EXISTS songs_duration ON songs (duration)"
+    };
+    private static final String SONG_COLUMNS = "title, artist, duration, genre";
+    private static final int BATCH_SIZE = 1000;
+    private Connection connection;
+    private Map<String, Long> versions = new HashMap<>();   // number of times each playlist was written or removed
+
+    /*
+     * EFFECTS: opens the database at url, creating its tables and indexes if they do not exist;
+     *          throws IOException if the database cannot be opened, for example if no JDBC driver for
+     *          url is on the classpath
+     */
+    public SqlPlaylistStore(String url) throws IOException {
+        try {
+            connection = DriverManager.getConnection(url);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to open database " + url, e);
+        }
+    }
+
+    /*
+     * EFFECTS: opens the H2 database stored in the file at path, creating it if it does not exist;
+     *          throws IOException if the database cannot be opened
+     */
+    public static SqlPlaylistStore forFile(String path) throws IOException {
+        return new SqlPlaylistStore("jdbc:h2:file:" + new File(path).getAbsolutePath());
+    }
+
+    /*
+     * EFFECTS: returns the playlist with given name, with its songs in order;
+     *          throws IOException if there is no such playlist or the database cannot be read
+     */
+    public Playlist read(String name) throws IOException {
+        try {
+            if (!contains(name)) {
+                throw new IOException("No playlist named " + name);
+            }
+            Playlist playlist = new Playlist(name);
+            String sql = "SELECT " + SONG_COLUMNS + " FROM songs WHERE playlist = ? ORDER BY position";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, name);
+                playlist.applyChange(new PlaylistChange(PlaylistChange.Type.ADD_ALL, readSongs(statement)));
+            }
+            return playlist;
+        } catch (SQLException e) {
+            throw new IOException("Unable to read playlist " + name, e);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stores playlist in one transaction, replacing any playlist with the same name;
+     *          throws IOException if the database cannot be written, in which case it is left unchanged
+     */
+    public void write(Playlist playlist) throws IOException {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                delete(playlist.getPlaylistName());
+                insert(playlist);
+                connection.commit();
+                versions.merge(playlist.getPlaylistName(), 1L, Long::sum);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to write playlist " + playlist.getPlaylistName(), e);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes the playlist with given name and its songs, if any;
+     *          throws IOException if the database cannot be written
+     */
+    public void remove(String name) throws IOException {
+        try {
+            delete(name);
+            versions.merge(name, 1L, Long::sum);
+        } catch (SQLException e) {
+            throw new IOException("Unable to remove playlist " + name, e);
+        }
+    }
+
+    /*
+     * EFFECTS: returns the names of the stored playlists in alphabetical order;
+     *          throws IOException if the database cannot be read
+     */
+    public List<String> list() throws IOException {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT name FROM playlists ORDER BY name")) {
+            while (rows.next()) {
+                names.add(rows.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to list playlists", e);
+        }
+        return names;
+    }
+
+    /*
+     * EFFECTS: returns the songs in any stored playlist by artist (if not null), in genre (if not null) and
+     *          at most maxTime seconds long (if maxTime > 0), each song once, using the indexes instead of
+     *          reading whole playlists; throws IOException if the database cannot be read
+     */
+    public List<Song> findSongs(String artist, String genre, int maxTime) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT DISTINCT " + SONG_COLUMNS + " FROM songs WHERE 1 = 1");
+        List<Object> parameters = new ArrayList<>();
+        addCondition(sql, parameters, " AND artist = ?", artist);
+        addCondition(sql, parameters, " AND genre = ?", genre);
+        addCondition(sql, parameters, " AND duration <= ?", maxTime > 0 ? maxTime : null);
+        sql.append(" ORDER BY ").append(SONG_COLUMNS);
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return readSongs(statement);
+        } catch (SQLException e) {
+            throw new IOException("Unable to find songs", e);
+        }
+    }
+
+    /*
+     * EFFECTS: returns a pager over the songs of the stored playlist with given name that reads each window
+     *          straight from the database by position, so that a caller showing one screen of a large playlist
+     *          never reads the rest of it; the pager throws UncheckedIOException if the database cannot be read
+     */
+    public SongPager pager(String name) {
+        return new SongPager() {
+            @Override
+            public int getNumSongs() {
+                return countSongs(name);
+            }
+
+            @Override
+            public List<Song> getSongs(int offset, int limit) {
+                return readWindow(name, offset, limit);
+            }
+
+            @Override
+            public long getVersion() {
+                return versions.getOrDefault(name, 0L);
+            }
+        };
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: closes the database; throws IOException if it cannot be closed
+     */
+    public void close() throws IOException {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("Unable to close database", e);
+        }
+    }
+
+    // EFFECTS: returns true if a playlist with given name is stored
+    private boolean contains(String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM playlists WHERE name = ?")) {
+            statement.setString(1, name);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: deletes the playlist with given name and its songs
+     */
+    private void delete(String name) throws SQLException {
+        for (String table : new String[] {"songs WHERE playlist", "playlists WHERE name"}) {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + table + " = ?")) {
+                statement.setString(1, name);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: inserts playlist and its songs, sending the songs in batches of BATCH_SIZE
+     */
+    private void insert(Playlist playlist) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO playlists (name) VALUES (?)")) {
+            statement.setString(1, playlist.getPlaylistName());
+            statement.executeUpdate();
+        }
+        String sql = "INSERT INTO songs (playlist, position, " + SONG_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int position = 0;
+            for (Song song : playlist.getSongs()) {
+                statement.setString(1, playlist.getPlaylistName());
+                statement.setInt(2, position);
+                statement.setString(3, song.getTitle());
+                statement.setString(4, song.getArtist());
+                statement.setInt(5, song.getTime());
+                statement.setString(6, song.getGenre());
+                statement.addBatch();
+                if (++position % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    // EFFECTS: runs statement, which selects SONG_COLUMNS, and returns the songs it finds in order
+    private List<Song> readSongs(PreparedStatement statement) throws SQLException {
+        List<Song> songs = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                songs.add(new Song(rows.getString(1), rows.getString(2), rows.getInt(3), rows.getString(4)));
+            }
+        }
+        return songs;
+    }
+
+    // EFFECTS: returns the number of songs in the playlist with given name; 0 if there is no such playlist
+    private int countSongs(String name) {
+        String sql = "SELECT COUNT(*) FROM songs WHERE playlist = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new UncheckedIOException(new IOException("Unable to count songs of " + name, e));
+        }
+    }
+
+    /*
+     * EFFECTS: returns at most limit songs of the playlist with given name starting at position offset, using
+     *          the primary key on position rather than OFFSET so a late window costs no more than an early one
+     */
+    private List<Song> readWindow(String name, int offset, int limit) {
+        String sql = "SELECT " + SONG_COLUMNS + " FROM songs WHERE playlist = ? AND position >= ? AND position < ? "
+                + "ORDER BY position";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            statement.setInt(2, offset);
+            statement.setLong(3, (long) offset + limit);
+            return readSongs(statement);
+        } catch (SQLException e) {
+            throw new UncheckedIOException(new IOException("Unable to read songs of " + name, e));
+        }
+    }
+
+    /*
+     * MODIFIES: sql, parameters
+     * EFFECTS: appends condition to sql and value to parameters if value is not null
+     */
+    private void addCondition(StringBuilder sql, List<Object> parameters, String condition, Object value) {
+        if (value != null) {
+            sql.append(condition);
+            parameters.add(value);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package persistence;
+
+import model.Song;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Represents a reader of the tag metadata in audio files of one container format. Only the headers and
+// tags of a file are read, by seeking past the audio data and anything else that is not needed, so reading
+// a file costs a few small reads however large it is.
+public abstract class TagReader {
+
+    // EFFECTS: returns the file name extensions, in lower case and without the dot, of the files this reads
+    public abstract List<String> getExtensions();
+
+    /*
+     * EFFECTS: reads the tags of the audio file at path and returns a song made from them, taking the title
+     *          from the file name if the file has none; throws IOException if the file cannot be read, its
+     *          tags are malformed or its duration cannot be found
+     */
+    public Song read(Path path) throws IOException {
+        AudioTags tags = new AudioTags();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readTags(channel, tags);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Malformed tags in " + path, e);
+        }
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return tags.toSong(dot > 0 ? name.substring(0, dot) : name);
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads the tags of the audio file open in channel into tags;
+     *          throws IOException if the file cannot be read or is not in this format
+     */
+    protected abstract void readTags(FileChannel channel, AudioTags tags) throws IOException;
+
+    /*
+     * EFFECTS: returns a buffer holding the length bytes of channel starting at position, in given byte order;
+     *          throws EOFException if the file ends before them
+     */
+    protected ByteBuffer readAt(FileChannel channel, long position, int length, ByteOrder order)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(order);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("File ends at " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    // EFFECTS: returns the next length bytes of buffer decoded with charset, ending at the first null character
+    protected String readString(ByteBuffer buffer, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        String text = new String(bytes, charset);
+        int end = text.indexOf('\0');
+        return end == -1 ? text : text.substring(0, end);
+    }
+}
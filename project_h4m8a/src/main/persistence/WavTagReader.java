@@ -0,0 +1,85 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Represents a reader of WAV files. The duration comes from the size of the data chunk and the byte rate in
+// the fmt chunk, and the title, artist and genre from the INAM, IART and IGNR entries of a LIST INFO chunk.
+public class WavTagReader extends TagReader {
+    private static final int CHUNK_HEADER = 8;
+
+    @Override
+    public List<String> getExtensions() {
+        return Arrays.asList("wav", "wave");
+    }
+
+    @Override
+    protected void readTags(FileChannel channel, AudioTags tags) throws IOException {
+        ByteBuffer header = readAt(channel, 0, 12, ByteOrder.LITTLE_ENDIAN);
+        if (!readString(header, 4, StandardCharsets.US_ASCII).equals("RIFF")
+                || !readString(header.position(8), 4, StandardCharsets.US_ASCII).equals("WAVE")) {
+            throw new IOException("Not a WAV file");
+        }
+        long byteRate = 0;
+        long dataSize = 0;
+        long position = 12;
+        while (position + CHUNK_HEADER <= channel.size()) {
+            ByteBuffer chunk = readAt(channel, position, CHUNK_HEADER, ByteOrder.LITTLE_ENDIAN);
+            String id = readString(chunk, 4, StandardCharsets.US_ASCII);
+            long size = chunk.getInt() & 0xffffffffL;
+            if (id.equals("fmt ")) {
+                byteRate = readAt(channel, position + CHUNK_HEADER + 8, 4, ByteOrder.LITTLE_ENDIAN).getInt();
+            } else if (id.equals("data")) {
+                dataSize = Math.min(size, channel.size() - position - CHUNK_HEADER);
+            } else if (id.equals("LIST")) {
+                readInfo(channel, position + CHUNK_HEADER, size, tags);
+            }
+            position += CHUNK_HEADER + size + (size % 2);
+        }
+        tags.offerSeconds(byteRate > 0 ? (double) dataSize / byteRate : 0);
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads the title, artist and genre from the LIST chunk of given size starting at start,
+     *          if it is an INFO list
+     */
+    private void readInfo(FileChannel channel, long start, long size, AudioTags tags) throws IOException {
+        if (size < 4 || size > Integer.MAX_VALUE) {
+            return;
+        }
+        ByteBuffer list = readAt(channel, start, (int) size, ByteOrder.LITTLE_ENDIAN);
+        if (!readString(list, 4, StandardCharsets.US_ASCII).equals("INFO")) {
+            return;
+        }
+        while (list.remaining() >= CHUNK_HEADER) {
+            String id = readString(list, 4, StandardCharsets.US_ASCII);
+            int length = list.getInt();
+            if (length < 0 || length > list.remaining()) {
+                return;
+            }
+            int next = list.position() + length + (length % 2);
+            readItem(id, readString(list, length, StandardCharsets.UTF_8), tags);
+            list.position(Math.min(next, list.limit()));
+        }
+    }
+
+    /*
+     * MODIFIES: tags
+     * EFFECTS: reads value into tags if id names the title, artist or genre item of an INFO list
+     */
+    private void readItem(String id, String value, AudioTags tags) {
+        if (id.equals("INAM")) {
+            tags.offerTitle(value);
+        } else if (id.equals("IART")) {
+            tags.offerArtist(value);
+        } else if (id.equals("IGNR")) {
+            tags.offerGenre(value);
+        }
+    }
+}
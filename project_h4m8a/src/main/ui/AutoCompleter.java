@@ -0,0 +1,110 @@
+package ui;
+
+import javax.swing.AbstractAction;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Represents inline completion for a text field. As the user types at the end of the field, the best completion
+ * of what they typed is filled in after the caret and selected, so typing on replaces it and Enter or Tab keeps
+ * it; the Up and Down keys step through the other completions, best first.
+ */
+public class AutoCompleter {
+    public static final int CHOICES = 8;
+    private final JTextField field;
+    private final BiFunction<String, Integer, List<String>> completions;
+    private List<String> choices = new ArrayList<>();   // completions of typed, best first
+    private String typed = "";      // text the user typed before the completion shown
+    private int chosen = -1;        // index in choices of the completion shown; -1 if none
+    private boolean filling = false;    // true while the field is changed by a completion
+
+    /**
+     * Constructs a completer for the given field
+     * @param field         text field to complete
+     * @param completions   gives, for a prefix and a number k, at most k completions of the prefix, best first
+     */
+    public AutoCompleter(JTextField field, BiFunction<String, Integer, List<String>> completions) {
+        this.field = field;
+        this.completions = completions;
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                if (!filling) {
+                    SwingUtilities.invokeLater(AutoCompleter.this::complete);
+                }
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                if (!filling) {
+                    choices = new ArrayList<>();
+                    chosen = -1;
+                }
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        bindKey("DOWN", "nextCompletion", 1);
+        bindKey("UP", "previousCompletion", -1);
+    }
+
+    /**
+     * Fills in the best completion of the text in the field, if the caret is at the end of it
+     */
+    private void complete() {
+        String text = field.getText();
+        choices = new ArrayList<>();
+        chosen = -1;
+        if (text.isEmpty() || field.getCaretPosition() != text.length()) {
+            return;
+        }
+        typed = text;
+        for (String choice : completions.apply(text, CHOICES)) {
+            if (choice.length() > text.length()) {
+                choices.add(choice);
+            }
+        }
+        show(0);
+    }
+
+    /**
+     * Shows the completion at the given index of the choices, keeping what the user typed and selecting the
+     * rest, or does nothing if there is no such completion
+     * @param index index in choices of the completion to show
+     */
+    private void show(int index) {
+        if (index < 0 || index >= choices.size()) {
+            return;
+        }
+        chosen = index;
+        filling = true;
+        field.setText(typed + choices.get(index).substring(typed.length()));
+        filling = false;
+        field.select(typed.length(), field.getText().length());
+    }
+
+    /**
+     * Makes a key step through the completions while some are shown
+     * @param key   name of the key, as KeyStroke understands it
+     * @param name  name of the action
+     * @param step  number of completions to move by
+     */
+    private void bindKey(String key, String name, int step) {
+        field.getInputMap().put(KeyStroke.getKeyStroke(key), name);
+        field.getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                show(chosen + step);
+            }
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package ui;
+
+import model.Playlist;
+import model.PlaylistChange;
+import model.PlaylistObserver;
+import model.Song;
+import model.SongIndex;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JTextField;
+import javax.swing.ListModel;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a text field that filters the song list as the user types, showing only the songs whose title,
+ * artist or genre contains the text. Searches are served by a SongIndex and only run once the user has stopped
+ * typing for DEBOUNCE_MILLIS, so a burst of keystrokes costs one search. While a filter is shown it is run again
+ * whenever the playlist changes; clearing the field shows the whole playlist again.
+ */
+public class FilterField extends JTextField implements PlaylistObserver {
+    public static final int DEBOUNCE_MILLIS = 150;
+    private static final String HINT = "Filter by title, artist or genre";
+    private final SongList list;
+    private final ListModel<Song> playlistModel;    // model showing the whole playlist
+    private final ResultsModel results = new ResultsModel();
+    private final Timer timer;
+    private SongIndex index;    // index of the playlist shown; null if none
+
+    /**
+     * Constructs an empty filter field for the given list, which shows the whole playlist through its model
+     * @param list  song list to filter
+     */
+    public FilterField(SongList list) {
+        this.list = list;
+        this.playlistModel = list.getModel();
+        timer = new Timer(DEBOUNCE_MILLIS, e -> applyFilter());
+        timer.setRepeats(false);
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+        });
+        setToolTipText(HINT);
+    }
+
+    /**
+     * Makes the field search the playlist of the given index, closing the index used before, and runs the
+     * current filter again
+     * @param index index of the playlist now shown
+     */
+    public void setIndex(SongIndex index) {
+        if (this.index != null) {
+            this.index.getPlaylist().removeObserver(this);
+            this.index.close();
+        }
+        this.index = index;
+        index.getPlaylist().addObserver(this);
+        applyFilter();
+    }
+
+    public SongIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Runs the filter again, once the playlist stops changing, if a filter is shown
+     * @param playlist  playlist that changed
+     * @param change    change made to playlist
+     */
+    @Override
+    public void update(Playlist playlist, PlaylistChange change) {
+        if (list.getModel() == results) {
+            timer.restart();
+        }
+    }
+
+    /**
+     * Shows the songs matching the text in the field, or the whole playlist if the field is blank
+     */
+    private void applyFilter() {
+        timer.stop();
+        String query = getText().trim();
+        if (query.isEmpty() || index == null) {
+            if (list.getModel() != playlistModel) {
+                list.setModel(playlistModel);
+            }
+            setToolTipText(HINT);
+            return;
+        }
+        long start = System.nanoTime();
+        results.setSongs(index.search(query));
+        long micros = (System.nanoTime() - start) / 1000;
+        if (list.getModel() != results) {
+            list.setModel(results);
+        }
+        setToolTipText(results.getSize() + " matching song(s), found in " + micros / 1000.0 + " ms");
+    }
+
+    /**
+     * Represents a list model showing the songs found by the last search
+     */
+    private static class ResultsModel extends AbstractListModel<Song> {
+        private List<Song> songs = new ArrayList<>();
+
+        /**
+         * Shows the given songs in place of the songs shown before
+         * @param found songs to show
+         */
+        void setSongs(List<Song> found) {
+            int oldSize = songs.size();
+            songs = new ArrayList<>();
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            songs = found;
+            if (!found.isEmpty()) {
+                fireIntervalAdded(this, 0, found.size() - 1);
+            }
+        }
+
+        @Override
+        public int getSize() {
+            return songs.size();
+        }
+
+        @Override
+        public Song getElementAt(int index) {
+            return songs.get(index);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ui;
+
+import java.util.Arrays;
+
+/**
+ * Represents a record of how long the most recent frames of a component took to paint. Only the last CAPACITY
+ * frame times are kept, in a fixed array, so recording a frame never allocates.
+ */
+public class FrameTimer {
+    public static final int CAPACITY = 1024;
+    private final long[] frames = new long[CAPACITY];   // nanoseconds per frame, used as a ring buffer
+    private int next = 0;       // index in frames of the next frame to record
+    private long numFrames = 0; // number of frames recorded in total
+
+    /**
+     * Records that a frame took given time to paint, replacing the oldest frame kept if there are CAPACITY
+     * @param nanos time the frame took, in nanoseconds
+     */
+    public void record(long nanos) {
+        frames[next] = nanos;
+        next = (next + 1) % CAPACITY;
+        numFrames++;
+    }
+
+    public long getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Returns the time within which given fraction of the kept frames were painted
+     * @param fraction  fraction of frames, between 0 and 1; 0.5 gives the median and 1 the slowest frame
+     * @return  time in milliseconds; 0 if no frames have been recorded
+     */
+    public double percentile(double fraction) {
+        int kept = (int) Math.min(numFrames, CAPACITY);
+        if (kept == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(frames, kept);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(fraction * kept) - (fraction > 0 ? 1 : 0)] / 1e6;
+    }
+
+    /**
+     * Describes the kept frame times
+     * @return  number of frames painted and the median, 95th percentile and slowest of the kept frame times
+     */
+    @Override
+    public String toString() {
+        return String.format("%d frame(s) painted; median %.2f ms, 95th percentile %.2f ms, slowest %.2f ms",
+                numFrames, percentile(0.5), percentile(0.95), percentile(1));
+    }
+}
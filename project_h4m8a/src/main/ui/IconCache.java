@@ -0,0 +1,99 @@
+package ui;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the icons shown in dialogs, shared by every window of the application. Each icon is read from the
+ * Icons folder, decoded and scaled to SIZE pixels only once, the first time it is asked for or when the icons are
+ * preloaded in the background, and the same scaled icon is handed out from then on.
+ */
+public class IconCache {
+    public static final int SIZE = 75;
+    public static final String[] NAMES = {"Start", "Error", "Load", "Save", "Confirm", "Add", "Remove", "Quit",
+        "Info"};
+    private static IconCache theCache;
+    private final String folder;
+    private final Map<String, ImageIcon> icons = new ConcurrentHashMap<>();
+    private Thread preloader;   // thread preloading the icons; null if not started
+
+    /**
+     * Constructs an empty cache of the icons in folder
+     * @param folder    folder holding one PNG file per icon
+     */
+    IconCache(String folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Returns the only cache, which reads the Icons folder in the working directory, creating it if it does not
+     * already exist
+     * @return  the shared icon cache
+     */
+    public static synchronized IconCache getInstance() {
+        if (theCache == null) {
+            theCache = new IconCache(System.getProperty("user.dir") + File.separator + "Icons");
+        }
+        return theCache;
+    }
+
+    /**
+     * Returns the scaled icon with the given name, decoding and scaling it first if that has not been done yet;
+     * waits if the icon is being loaded by the preloader
+     * @param name  name of the icon file, without the .png extension
+     * @return  the scaled icon, or an empty icon if the file cannot be read
+     */
+    public ImageIcon get(String name) {
+        return icons.computeIfAbsent(name, this::load);
+    }
+
+    /**
+     * Starts loading every icon in NAMES on a background thread, unless that has already been started, so that
+     * later calls to get do not have to wait for the disk
+     */
+    public synchronized void preload() {
+        if (preloader == null) {
+            preloader = new Thread(() -> {
+                for (String name : NAMES) {
+                    get(name);
+                }
+            }, "icon-preloader");
+            preloader.setDaemon(true);
+            preloader.start();
+        }
+    }
+
+    public int getNumLoaded() {
+        return icons.size();
+    }
+
+    /**
+     * Reads, decodes and scales the icon with the given name. The scaled image is drawn into a new image
+     * straight away, so none of the work is left to be done when the icon is first painted.
+     * @param name  name of the icon file, without the .png extension
+     * @return  the scaled icon, or an empty icon if the file cannot be read
+     */
+    private ImageIcon load(String name) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new File(folder, name + ".png"));
+        } catch (IOException e) {
+            image = null;
+        }
+        if (image == null) {
+            return new ImageIcon();
+        }
+        BufferedImage scaled = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.drawImage(image.getScaledInstance(SIZE, SIZE, Image.SCALE_SMOOTH), 0, 0, null);
+        graphics.dispose();
+        return new ImageIcon(scaled);
+    }
+}
@@ -1,29 +1,56 @@
 package ui;
 
+import model.FuzzyIndex;
+import model.LibrarySearch;
 import model.Playlist;
+import model.SearchHit;
+import model.SmartPlaylist;
 import model.Song;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import model.SongCompletions;
+import model.SongCursor;
+import model.SongIndex;
+import model.SongRule;
+import persistence.DirectoryScanner;
+import persistence.ImportResult;
+import persistence.LibraryEntry;
+import persistence.PlaylistBatchIO;
+import persistence.PlaylistLibrary;
+import persistence.ScanResult;
+import persistence.SongExporter;
+import persistence.SongImporter;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 //Playlist application
 public class PlaylistApp {
-    private static final String JSON_STORE = "./data/playlist.json";
+    private static final String LIBRARY_STORE = "./data/library";
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_TYPOS = 2;
+    private static final int SUGGESTIONS = 5;
     private Playlist playlist;
     private Scanner input;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private PlaylistLibrary library;
+    private SongIndex index;    // index of playlist used by find; null until the first find
+    private FuzzyIndex fuzzyIndex;  // index of playlist used for suggestions; null until the first typo
+    private SongCompletions completions = new SongCompletions();    // artists and genres offered when adding
+    private LibrarySearch librarySearch;    // index of every playlist in the library; null until the first search
+    private Map<String, SmartPlaylist> smartPlaylists = new HashMap<>();   // smart playlists shown, by name
 
     // MODIFIES: this
     // EFFECTS: initializes Playlist and runs the Playlist application
     public PlaylistApp() throws FileNotFoundException {
         input = new Scanner(System.in);
         input.useDelimiter("\n");
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        library = new PlaylistLibrary(LIBRARY_STORE);
+        prefetchLastPlaylist();
 
         init();
 
@@ -48,6 +75,23 @@ public class PlaylistApp {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: starts reading the playlist used last in the background, so that loading it is served from the cache
+    private void prefetchLastPlaylist() {
+        Thread prefetch = new Thread(() -> {
+            try {
+                String last = library.getLastUsed();
+                if (last != null) {
+                    library.open(last);
+                }
+            } catch (IOException e) {
+                // playlist is read again, and the error reported, if the user loads it
+            }
+        }, "playlist-prefetch");
+        prefetch.setDaemon(true);
+        prefetch.start();
+    }
+
     // MODIFIES: this
     // EFFECTS: processes user input
     private void runPlaylist() {
@@ -71,6 +115,7 @@ public class PlaylistApp {
                 processCommand(command);
             }
         }
+        library.close();
         System.out.println("Playlist " + playlist.getPlaylistName() + " has terminated");
     }
 
@@ -79,7 +124,9 @@ public class PlaylistApp {
         System.out.println("\na -> Add a song");
         System.out.println("r -> Remove a song");
         System.out.println("s -> Shuffle playlist");
-        System.out.println("f -> Find a song");
+        System.out.println("f -> Find songs by title, artist or genre");
+        System.out.println("search -> Search every playlist in the library");
+        System.out.println("smart -> Show or make a smart playlist");
         System.out.println("title -> Arrange by alphabet order of song titles");
         System.out.println("time -> Arrange by ascending order of song playtime");
         System.out.println("artist -> Arrange by alphabet order of artist name");
@@ -88,6 +135,9 @@ public class PlaylistApp {
         System.out.println("show -> Show all songs in playlist");
         System.out.println("save -> Save playlist to file");
         System.out.println("load -> Load playlist from file");
+        System.out.println("import -> Import songs from an M3U or CSV file");
+        System.out.println("export -> Export playlist to an M3U or CSV file");
+        System.out.println("scan -> Add the audio files in a folder");
         System.out.println("q -> Quit");
     }
 
@@ -103,6 +153,10 @@ public class PlaylistApp {
             playlist.shuffle();
         } else if (command.equals("f")) {
             findSong();
+        } else if (command.equals("search")) {
+            searchLibrary();
+        } else if (command.equals("smart")) {
+            showSmartPlaylist();
         } else if (command.equals("title")) {
             playlist.arrangeByTitle();
         } else if (command.equals("time")) {
@@ -119,6 +173,12 @@ public class PlaylistApp {
             savePlaylist();
         } else if (command.equals("load")) {
             loadPlaylist();
+        } else if (command.equals("import")) {
+            importSongs();
+        } else if (command.equals("export")) {
+            exportSongs();
+        } else if (command.equals("scan")) {
+            scanFolder();
         } else {
             System.out.println("Invalid Choice");
         }
@@ -127,22 +187,47 @@ public class PlaylistApp {
     // MODIFIES: this
     // EFFECTS: adds a song to playlist
     private void addASong() {
+        completions.watchOnly(playlist);
         System.out.println("Title: ");
         String title = input.next();
 
         System.out.println("Artist: ");
         String artist = input.next();
+        artist = chooseCompletion(artist, completions.completeArtist(artist, SUGGESTIONS),
+                completions.canonicalArtist(artist));
 
         System.out.println("Duration: ");
         int duration = input.nextInt();
 
         System.out.println("Genre: ");
         String genre = input.next();
+        genre = chooseCompletion(genre, completions.completeGenre(genre, SUGGESTIONS),
+                completions.canonicalGenre(genre));
 
         Song song = new Song(title, artist, duration, genre);
         playlist.addSong(song);
     }
 
+    // EFFECTS: returns known, the usual spelling of text, if text is already in use; otherwise lists the choices
+    //          in use that complete text and returns the one the user picks by number, or text if they pick none
+    private String chooseCompletion(String text, List<String> choices, String known) {
+        if (!known.equals(text) || choices.isEmpty() || choices.contains(text)) {
+            return known;
+        }
+        System.out.println("Already in use:");
+        for (int i = 0; i < choices.size(); i++) {
+            System.out.println((i + 1) + ". " + choices.get(i));
+        }
+        System.out.println("Number to use one, or Enter to keep " + text + ": ");
+        String choice = input.next().trim();
+        for (int i = 0; i < choices.size(); i++) {
+            if (choice.equals(String.valueOf(i + 1))) {
+                return choices.get(i);
+            }
+        }
+        return text;
+    }
+
     // MODIFIES: this
     // EFFECTS: removes a song from playlist
     private void removeASong() {
@@ -153,47 +238,269 @@ public class PlaylistApp {
             playlist.removeSong(title);
         } else {
             System.out.println(title + " not in " + playlist.getPlaylistName());
+            suggest(title, FuzzyIndex.Field.TITLE);
         }
     }
 
-    // EFFECTS: finds a song in playlist
+    // EFFECTS: lists the songs in playlist whose title, artist or genre contains the text given by the user
     private void findSong() {
-        System.out.println("Title: ");
-        String title = input.next();
+        System.out.println("Title, artist or genre: ");
+        String text = input.next();
+        if (index == null || index.getPlaylist() != playlist) {
+            if (index != null) {
+                index.close();
+            }
+            index = new SongIndex(playlist);
+        }
+        List<Song> found = index.search(text.trim());
+        if (found.isEmpty()) {
+            System.out.println(text + " not in " + playlist.getPlaylistName());
+            suggest(text.trim(), FuzzyIndex.Field.TITLE);
+            suggest(text.trim(), FuzzyIndex.Field.ARTIST);
+        }
+        for (int i = 0; i < found.size() && i < PAGE_SIZE; i++) {
+            System.out.println(found.get(i).toString());
+        }
+        if (found.size() > PAGE_SIZE) {
+            System.out.println("... and " + (found.size() - PAGE_SIZE) + " more");
+        }
+    }
 
-        if (playlist.isInPlaylist(title)) {
-            Song song = playlist.getSong(playlist.findSongIndex(title));
-            System.out.println(song.toString());
-        } else {
-            System.out.println(title + " not in " + playlist.getPlaylistName());
+    // MODIFIES: this
+    // EFFECTS: lists the best matches, in every playlist of the library, for the words given by the user
+    private void searchLibrary() {
+        System.out.println("Words to search for: ");
+        String query = input.next();
+        if (librarySearch == null) {
+            librarySearch = openLibrarySearch();
+        }
+        librarySearch.watchLatest(playlist);
+        long start = System.nanoTime();
+        List<SearchHit> hits = librarySearch.search(query, PAGE_SIZE);
+        long micros = (System.nanoTime() - start) / 1000;
+        if (hits.isEmpty()) {
+            System.out.println("No songs match " + query);
+        }
+        for (SearchHit hit : hits) {
+            System.out.println(hit.toString());
+        }
+        System.out.println("Searched " + librarySearch.getNumSongs() + " songs in " + micros / 1000.0 + " ms");
+    }
+
+    // EFFECTS: returns an index of every playlist in the library other than playlist, leaving out those that
+    //          cannot be read
+    private LibrarySearch openLibrarySearch() {
+        LibrarySearch search = new LibrarySearch();
+        PlaylistBatchIO batchIO = new PlaylistBatchIO(Runtime.getRuntime().availableProcessors());
+        try {
+            for (Playlist other : library.openAllExcept(playlist.getPlaylistName(), batchIO)) {
+                search.watch(other);
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read library: " + LIBRARY_STORE);
+        } finally {
+            batchIO.close();
+        }
+        return search;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the songs of the smart playlist named by the user, making it from rules over playlist if
+    //          there is none by that name
+    private void showSmartPlaylist() {
+        try {
+            for (SmartPlaylist saved : library.listSmart()) {
+                smartPlaylists.putIfAbsent(saved.getName(), saved);
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read library: " + LIBRARY_STORE);
+        }
+        for (SmartPlaylist smart : smartPlaylists.values()) {
+            System.out.println(smart.getName() + ": " + smart.describeRules());
+        }
+        System.out.println("Name of a smart playlist to show, or of a new one over " + playlist.getPlaylistName()
+                + ": ");
+        String name = input.next();
+        SmartPlaylist smart = smartPlaylists.get(name);
+        if (smart == null) {
+            smart = makeSmartPlaylist(name);
+        }
+        attachSources(smart);
+        System.out.println("\n" + name + " has " + smart.getNumSongs() + " song(s) where " + smart.describeRules());
+        List<Song> songs = smart.getSongs();
+        for (int i = 0; i < Math.min(songs.size(), PAGE_SIZE); i++) {
+            System.out.println((i + 1) + ". " + songs.get(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes and saves a smart playlist with given name over playlist, from the rules given by the user
+    private SmartPlaylist makeSmartPlaylist(String name) {
+        List<SongRule> rules = new ArrayList<>();
+        addRule(rules, "Genre is", SongRule.Field.GENRE, SongRule.Operator.IS);
+        addRule(rules, "Artist is", SongRule.Field.ARTIST, SongRule.Operator.IS);
+        addRule(rules, "Title contains", SongRule.Field.TITLE, SongRule.Operator.CONTAINS);
+        addRule(rules, "Shorter than (seconds)", SongRule.Field.TIME, SongRule.Operator.LESS_THAN);
+        addRule(rules, "Longer than (seconds)", SongRule.Field.TIME, SongRule.Operator.MORE_THAN);
+        SmartPlaylist smart = new SmartPlaylist(name, rules, Collections.singletonList(playlist.getPlaylistName()));
+        smartPlaylists.put(name, smart);
+        try {
+            library.saveSmart(smart);
+        } catch (IOException e) {
+            System.out.println("Unable to write to library: " + LIBRARY_STORE);
+        }
+        return smart;
+    }
+
+    // MODIFIES: rules
+    // EFFECTS: asks the user for the value of a rule on field, adding the rule unless the user leaves it blank
+    //          or gives a time that is not a whole number
+    private void addRule(List<SongRule> rules, String prompt, SongRule.Field field, SongRule.Operator operator) {
+        System.out.println(prompt + " (Enter for any): ");
+        String value = input.next().trim();
+        if (value.isEmpty()) {
+            return;
+        }
+        if (field == SongRule.Field.TIME && !value.matches("\\d{1,9}")) {
+            System.out.println("Not a whole number of seconds, so any time will do");
+            return;
         }
+        rules.add(new SongRule(field, operator, value));
     }
 
-    // EFFECTS: saves playlist to file
+    // MODIFIES: smart
+    // EFFECTS: attaches playlist to smart if it is one of its sources, then reads from the library the other
+    //          sources that are not attached yet and attaches them, leaving out those that cannot be read
+    private void attachSources(SmartPlaylist smart) {
+        List<String> names = new ArrayList<>(smart.getSourceNames());
+        if (names.remove(playlist.getPlaylistName())) {
+            smart.attach(playlist);
+        }
+        for (Playlist source : smart.getSources()) {
+            names.remove(source.getPlaylistName());
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        PlaylistBatchIO batchIO = new PlaylistBatchIO(Runtime.getRuntime().availableProcessors());
+        try {
+            for (Playlist source : library.openEach(names, batchIO)) {
+                smart.attach(source);
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read library: " + LIBRARY_STORE);
+        } finally {
+            batchIO.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prints the songs whose field is closest to text, within MAX_TYPOS edits, if there are any
+    private void suggest(String text, FuzzyIndex.Field field) {
+        if (fuzzyIndex == null || fuzzyIndex.getPlaylist() != playlist) {
+            if (fuzzyIndex != null) {
+                fuzzyIndex.close();
+            }
+            fuzzyIndex = new FuzzyIndex(playlist);
+        }
+        List<Song> closest = fuzzyIndex.closest(field, text, MAX_TYPOS, SUGGESTIONS);
+        if (!closest.isEmpty()) {
+            System.out.println("Did you mean:");
+            for (Song song : closest) {
+                System.out.println(song.toString());
+            }
+        }
+    }
+
+    // EFFECTS: saves the changes made to playlist since it was last saved to the library
     private void savePlaylist() {
         try {
-            jsonWriter.open();
-            jsonWriter.write(playlist);
-            jsonWriter.close();
-            System.out.println("Saved " + playlist.getPlaylistName() + " to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
-            System.out.println("Unable to write to file: " + JSON_STORE);
+            library.save(playlist);
+            System.out.println("Saved " + playlist.getPlaylistName() + " to " + LIBRARY_STORE);
+        } catch (IOException e) {
+            System.out.println("Unable to write to library: " + LIBRARY_STORE);
         }
     }
 
-    // EFFECTS: loads playlist from file
+    // EFFECTS: lists the playlists in the library and loads the one chosen by the user
     private void loadPlaylist() {
         try {
-            playlist = jsonReader.read();
-            System.out.println("Loaded " + playlist.getPlaylistName() + " from " + JSON_STORE);
+            for (LibraryEntry entry : library.list()) {
+                System.out.println(entry.getName() + " (" + entry.getNumSongs() + " song(s), "
+                        + entry.getTotalTime() + " seconds)");
+            }
+            System.out.println("Playlist Name: ");
+            String name = input.next();
+            playlist = library.open(name);
+            library.writeIndex();
+            System.out.println("Loaded " + playlist.getPlaylistName() + " from " + LIBRARY_STORE);
+        } catch (IOException e) {
+            System.out.println("Unable to read from library: " + LIBRARY_STORE);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the songs in an M3U or CSV file chosen by the user to playlist
+    private void importSongs() {
+        System.out.println("File: ");
+        String file = input.next();
+        try {
+            ImportResult result = SongImporter.forFile(file).importInto(playlist);
+            System.out.println(result);
+            for (String line : result.getMalformed()) {
+                System.out.println(line);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Unable to import from file: " + file);
+        }
+    }
+
+    // EFFECTS: writes the songs in playlist to an M3U or CSV file chosen by the user
+    private void exportSongs() {
+        System.out.println("File: ");
+        String file = input.next();
+        try {
+            int numSongs = SongExporter.forFile(file).export(playlist);
+            System.out.println("Exported " + numSongs + " song(s) to " + file);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Unable to export to file: " + file);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a song for each MP3, FLAC or WAV file in a folder chosen by the user to playlist
+    private void scanFolder() {
+        System.out.println("Folder: ");
+        String folder = input.next();
+        DirectoryScanner scanner = new DirectoryScanner();
+        try {
+            ScanResult result = scanner.scanInto(Paths.get(folder), playlist);
+            System.out.println(result);
+            for (String failure : result.getFailures()) {
+                System.out.println(failure);
+            }
         } catch (IOException e) {
-            System.out.println("Unable to read from file: " + JSON_STORE);
+            System.out.println("Unable to scan folder: " + folder);
+        } finally {
+            scanner.close();
         }
     }
 
-    // EFFECTS: shows the songs in playlist
+    // EFFECTS: shows the songs in playlist PAGE_SIZE at a time, asking before each further page
     private void showSongs() {
-        System.out.println("\n" + playlist.toString());
+        System.out.println("\n" + playlist.getPlaylistName() + " has " + playlist.getNumSongs() + " song(s)");
+        SongCursor cursor = playlist.cursor(PAGE_SIZE);
+        while (cursor.hasNext()) {
+            int index = cursor.nextIndex();
+            System.out.println((index + 1) + ". " + cursor.next());
+            if (index % PAGE_SIZE == PAGE_SIZE - 1 && cursor.hasNext()) {
+                System.out.println("Show more?");
+                System.out.println("Y\tN");
+                if (!input.next().equalsIgnoreCase("y")) {
+                    return;
+                }
+            }
+        }
     }
 
 }
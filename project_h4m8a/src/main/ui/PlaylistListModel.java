@@ -0,0 +1,120 @@
+package ui;
+
+import model.Playlist;
+import model.PlaylistChange;
+import model.PlaylistObserver;
+import model.Song;
+
+import javax.swing.AbstractListModel;
+import java.util.List;
+
+/**
+ * Represents a list model that shows the songs of a playlist without copying them. It observes the playlist
+ * and turns each change into the matching list data event (songs inserted, removed, moved or reordered), so a
+ * JList only updates and repaints the rows a change touched, and fetches each row from the playlist only when
+ * the row is shown.
+ */
+public class PlaylistListModel extends AbstractListModel<Song> implements PlaylistObserver {
+    private Playlist playlist;
+
+    /**
+     * Makes the model show playlist instead of the playlist it showed before, if any, and stops observing
+     * the old playlist
+     * @param playlist  playlist to show; null to show nothing
+     */
+    public void setPlaylist(Playlist playlist) {
+        if (playlist == this.playlist) {
+            return;
+        }
+        if (this.playlist != null) {
+            this.playlist.removeObserver(this);
+            int oldSize = this.playlist.getNumSongs();
+            this.playlist = null;
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+        }
+        this.playlist = playlist;
+        if (playlist != null) {
+            playlist.addObserver(this);
+            if (playlist.getNumSongs() > 0) {
+                fireIntervalAdded(this, 0, playlist.getNumSongs() - 1);
+            }
+        }
+    }
+
+    public Playlist getPlaylist() {
+        return playlist;
+    }
+
+    @Override
+    public int getSize() {
+        return playlist == null ? 0 : playlist.getNumSongs();
+    }
+
+    @Override
+    public Song getElementAt(int index) {
+        return playlist.getSong(index);
+    }
+
+    /**
+     * Fires the list data event that matches a change just made to the shown playlist
+     * @param playlist  playlist that changed
+     * @param change    change that was made
+     */
+    @Override
+    public void update(Playlist playlist, PlaylistChange change) {
+        int size = playlist.getNumSongs();
+        switch (change.getType()) {
+            case ADD:
+                fireIntervalAdded(this, change.getToIndex(), change.getToIndex());
+                break;
+            case ADD_ALL:
+                fireIntervalAdded(this, size - change.getSongs().size(), size - 1);
+                break;
+            case REMOVE:
+                fireIntervalRemoved(this, change.getIndex(), change.getIndex());
+                break;
+            case REMOVE_ALL:
+                fireRemovedRuns(change.getIndexes());
+                break;
+            case MOVE:
+                fireMoved(change.getIndex(), change.getToIndex());
+                break;
+            default:
+                if (size > 0) {
+                    fireContentsChanged(this, 0, size - 1);
+                }
+        }
+    }
+
+    /**
+     * Fires one interval removed event for each run of consecutive indexes, from the last run to the first so
+     * that the indexes of each event are still correct when it is handled
+     * @param indexes   ascending indexes the removed songs were at
+     */
+    private void fireRemovedRuns(List<Integer> indexes) {
+        int end = indexes.size() - 1;
+        while (end >= 0) {
+            int start = end;
+            while (start > 0 && indexes.get(start - 1) == indexes.get(start) - 1) {
+                start--;
+            }
+            fireIntervalRemoved(this, indexes.get(start), indexes.get(end));
+            end = start - 1;
+        }
+    }
+
+    /**
+     * Fires the event for a song moved from index to toIndex, which is an insertion if it was not in the playlist
+     * @param index     index the song was at; -1 if it was not in the playlist
+     * @param toIndex   index the song is at now
+     */
+    private void fireMoved(int index, int toIndex) {
+        if (index == -1) {
+            fireIntervalAdded(this, toIndex, toIndex);
+        } else {
+            fireContentsChanged(this, Math.min(index, toIndex), Math.max(index, toIndex));
+        }
+    }
+}
@@ -1,19 +1,34 @@
 package ui;
 
+import model.FuzzyIndex;
+import model.LibrarySearch;
 import model.Playlist;
+import model.PlaylistChange;
+import model.SearchHit;
+import model.SmartPlaylist;
 import model.Song;
+import model.SongCompletions;
+import model.SongIndex;
+import model.SongRule;
 import model.EventLog;
 import model.Event;
 import persistence.*;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
 
 /**
  * Represents graphical user interface of playlist application
@@ -26,46 +41,62 @@ import java.util.Objects;
 public class PlaylistUI extends JFrame {
     private static final int WIDTH = 700;
     private static final int LENGTH = 600;
-    private static final String sep = System.getProperty("file.separator");
+    private static final String UNTITLED = "Untitled";
+    private static final int MAX_TYPOS = 2;
+    private static final int SUGGESTIONS = 5;
+    private static final int SEARCH_RESULTS = 50;
+    private static final int LOAD_CHUNK = 1000;     // songs shown at a time while a playlist loads
     private Playlist playlist;
+    private Playlist preview;       // songs of the playlist being loaded, shown until it is ready; null if none
     private JPanel panel;
-    private static final String JSON_STORE = "./data/playlist.json";
-    private JList<Song> songs;
-    private DefaultListModel<Song> songModel;
+    private static final String LIBRARY_STORE = "./data/library";
+    private SongList songs;
+    private FilterField filterField;
+    private FuzzyIndex fuzzyIndex;      // index of playlist used for suggestions; null until the first typo
+    private SongCompletions completions = new SongCompletions();    // artists and genres offered when adding
+    private LibrarySearch librarySearch;    // index of every playlist in the library; null until the first search
+    private Map<String, SmartPlaylist> smartPlaylists = new HashMap<>();   // smart playlists shown, by name
+    private PlaylistListModel songModel;
     private JSplitPane separateList;
+    private PlaylistLibrary library;
+    private SaveService saveService;
+    private DirectoryScanner scanner = new DirectoryScanner();
+    private LibraryWatcher watcher;
+    private TaskBar taskBar = new TaskBar();
     private JLabel songLabel;
-    private ImageIcon startIcon;
-    private ImageIcon errorIcon;
-    private ImageIcon loadIcon;
-    private ImageIcon saveIcon;
-    private ImageIcon confirmIcon;
+    private IconCache icons = IconCache.getInstance();
+    private StartupTimer startupTimer = new StartupTimer();
 
     /**
-     * Constructs the main window and sets up the start menu
+     * Constructs and shows the main window straight away, then restores the playlist used last in the background,
+     * or shows the start menu if there is none
      */
     public PlaylistUI() {
-        songs = new JList<>();
-        songModel = new DefaultListModel<>();
+        songModel = new PlaylistListModel();
+        songs = new SongList(songModel);
+        filterField = new FilterField(songs);
         separateList = new JSplitPane();
         panel = new JPanel();
         songLabel = new JLabel();
-        startIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep + "Start.png");
-        startIcon = changeIconSize(startIcon);
-        errorIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep + "Error.png");
-        errorIcon = changeIconSize(errorIcon);
-        loadIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep + "Load.png");
-        loadIcon = changeIconSize(loadIcon);
-        saveIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep + "Save.png");
-        saveIcon = changeIconSize(saveIcon);
-        confirmIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep + "Confirm.png");
-        confirmIcon = changeIconSize(confirmIcon);
-
-        startMenu();
+        library = new PlaylistLibrary(LIBRARY_STORE);
+        playlist = new Playlist(UNTITLED);
 
         setSize(WIDTH, LENGTH);
         addMenu();
+        setUpList();
         setUpPlaylist();
         setUpWindow();
+        restoreLastPlaylist();
+    }
+
+    /**
+     * Paints the window, recording the time of the first paint
+     * @param g graphics context to paint with
+     */
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        startupTimer.markFirstPaint();
     }
 
     /**
@@ -79,24 +110,48 @@ public class PlaylistUI extends JFrame {
             @Override
             public void windowClosing(WindowEvent e) {
                 super.windowClosing(e);
+                closeLibrary();
                 printLog(EventLog.getInstance());
+                printTimings();
             }
         });
     }
 
+    /**
+     * Reads and indexes the playlist used last in the background and shows it once that is done; shows the start
+     * menu instead if the library has no playlist used last, or if it cannot be read
+     */
+    private void restoreLastPlaylist() {
+        taskBar.run("Restoring last playlist...", publish -> {
+            String last = library.getLastUsed();
+            return last == null ? null : new SongIndex(library.open(last, LOAD_CHUNK, publish));
+        }, this::showLoadedSongs, restored -> {
+            if (restored == null) {
+                startMenu();
+            } else {
+                filterField.setIndex(restored);
+                showPlaylist(restored.getPlaylist());
+            }
+        }, e -> {
+            endPreview();
+            showLoadError();
+            startMenu();
+        }, this::endPreview);
+    }
+
     /**
      * Constructs the start menu
      */
     private void startMenu() {
         Object[] options = {"Load", "New"};
         int startMenuOption = JOptionPane.showOptionDialog(null, "Load or New", "Start",
-                JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE, startIcon, options, options[1]);
+                JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE, icons.get("Start"), options, options[1]);
 
         if (startMenuOption == JOptionPane.OK_OPTION) {
             loadPlaylist();
         } else if (startMenuOption == JOptionPane.NO_OPTION) {
             String start = (String) JOptionPane.showInputDialog(null, "Playlist name: ",
-                     null, JOptionPane.QUESTION_MESSAGE, startIcon, null, null);
+                     null, JOptionPane.QUESTION_MESSAGE, icons.get("Start"), null, null);
             if (start == null) {
                 System.exit(0);
             }
@@ -113,37 +168,86 @@ public class PlaylistUI extends JFrame {
     private void checkName(String playlistName) {
         if (playlistName.equals("")) {
             JOptionPane.showMessageDialog(null, "Error creating playlist",
-                    "Error", JOptionPane.QUESTION_MESSAGE, errorIcon);
-            new PlaylistUI();
+                    "Error", JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+            startMenu();
         } else {
-            playlist = new Playlist(playlistName);
+            showPlaylist(new Playlist(playlistName));
         }
     }
 
     /**
-     * Sets up the display that shows playlist and song information
+     * Sets up the display that shows playlist and song information; the list is bound to the playlist through
+     * songModel, so it is built once and then follows every change to the playlist by itself
      */
-    private void setUpPlaylist() {
-        songModel = new DefaultListModel<>();
-        songs = new JList<>();
-
-        setTitle(playlist.getPlaylistName());
-        songs.setModel(songModel);
-
-        for (Song song : playlist.getSongs()) {
-            songModel.addElement(song);
-        }
-
+    private void setUpList() {
         songs.getSelectionModel().addListSelectionListener(e -> {
             Song s = songs.getSelectedValue();
-            songLabel.setText(s.guiString());
+            songLabel.setText(s == null ? "" : s.guiString());
         });
 
-        separateList.setLeftComponent(new JScrollPane(songs));
+        JPanel listPanel = new JPanel(new BorderLayout());
+        listPanel.add(filterField, BorderLayout.NORTH);
+        listPanel.add(new JScrollPane(songs), BorderLayout.CENTER);
+        separateList.setLeftComponent(listPanel);
         panel.add(songLabel);
         separateList.setRightComponent(panel);
         separateList.setDividerLocation(300);
         add(separateList);
+        add(taskBar, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Replaces the playlist shown with the given one; the application is ready to use from the first time this
+     * happens
+     * @param shown playlist to show
+     */
+    private void showPlaylist(Playlist shown) {
+        playlist = shown;
+        preview = null;
+        setUpPlaylist();
+        startupTimer.markInteractive();
+    }
+
+    /**
+     * Shows songs read so far from the playlist being loaded, in place of the playlist shown, until it is ready;
+     * the list cannot be edited meanwhile, since the task bar disables editing while the playlist loads
+     * @param chunks    songs read since this was last called, in the order they appear in the playlist
+     */
+    private void showLoadedSongs(List<List<Song>> chunks) {
+        if (preview == null) {
+            preview = new Playlist(UNTITLED);
+            songModel.setPlaylist(preview);
+            startupTimer.markFirstSongs();
+        }
+        for (List<Song> chunk : chunks) {
+            PlaylistChange change = new PlaylistChange(PlaylistChange.Type.ADD_ALL, chunk);
+            preview.applyChange(change);
+            songModel.update(preview, change);
+        }
+    }
+
+    /**
+     * Shows the current playlist again in place of the songs of a playlist that failed to load or was cancelled
+     */
+    private void endPreview() {
+        if (preview != null) {
+            preview = null;
+            if (playlist != null) {
+                setUpPlaylist();
+            }
+        }
+    }
+
+    /**
+     * Shows the current playlist, which may have just replaced the one shown before, indexing it for the filter
+     * unless it was indexed when it was loaded
+     */
+    private void setUpPlaylist() {
+        setTitle(playlist.getPlaylistName());
+        songModel.setPlaylist(playlist);
+        if (filterField.getIndex() == null || filterField.getIndex().getPlaylist() != playlist) {
+            filterField.setIndex(new SongIndex(playlist));
+        }
     }
 
     /**
@@ -156,6 +260,9 @@ public class PlaylistUI extends JFrame {
         fileMenu.setMnemonic('F');
         addMenuItem(fileMenu, new SaveAction(), KeyStroke.getKeyStroke("control S"));
         addMenuItem(fileMenu, new LoadAction(), KeyStroke.getKeyStroke("control L"));
+        addMenuItem(fileMenu, new ImportAction(), KeyStroke.getKeyStroke("control I"));
+        addMenuItem(fileMenu, new ExportAction(), KeyStroke.getKeyStroke("control E"));
+        addMenuItem(fileMenu, new ScanAction(), null);
         addMenuItem(fileMenu, new InfoAction(), null);
         menuBar.add(fileMenu);
 
@@ -163,6 +270,8 @@ public class PlaylistUI extends JFrame {
         playlistMenu.setMnemonic('E');
         addMenuItem(playlistMenu, new AddSongAction(), null);
         addMenuItem(playlistMenu, new RemoveSongAction(), null);
+        addMenuItem(playlistMenu, new SearchLibraryAction(), KeyStroke.getKeyStroke("control F"));
+        addMenuItem(playlistMenu, new SmartPlaylistAction(), null);
         menuBar.add(playlistMenu);
 
         JMenu arrangeMenu = new JMenu("Arrange");
@@ -183,12 +292,16 @@ public class PlaylistUI extends JFrame {
     }
 
     /**
-     * Adds an item with given handler to the given menu
+     * Adds an item with given handler to the given menu; every handler except Info and Quit changes or replaces
+     * the playlist, so it is disabled while a background task is running
      * @param theMenu   menu to which new item is added
      * @param action    handler for new menu item
      * @param accelerator   keystroke accelerator for this menu item
      */
     private void addMenuItem(JMenu theMenu, AbstractAction action, KeyStroke accelerator) {
+        if (!(action instanceof InfoAction || action instanceof QuitAction)) {
+            taskBar.addConflictingAction(action);
+        }
         JMenuItem menuItem = new JMenuItem(action);
         menuItem.setMnemonic(menuItem.getText().charAt(0));
         menuItem.setAccelerator(accelerator);
@@ -196,40 +309,179 @@ public class PlaylistUI extends JFrame {
     }
 
     /**
-     * Helper method for loading playlist from given file
-     * Used only for loading from start menu
+     * Helper method for loading playlist chosen from the library
+     * Used only for loading from start menu, which is shown again if the playlist cannot be loaded
      */
     private void loadPlaylist() {
-        JsonReader reader = new JsonReader(JSON_STORE);
         try {
-            playlist = reader.read();
-            JOptionPane.showMessageDialog(null, "Loaded " + playlist.getPlaylistName(),
-                    null, JOptionPane.QUESTION_MESSAGE, loadIcon);
-            setUpPlaylist();
+            String name = choosePlaylist();
+            if (name == null) {
+                System.exit(0);
+            }
+            loadInBackground(name, this::startMenu);
         } catch (IOException e) {
-            JOptionPane.showMessageDialog(null, "Error loading playlist.", null,
-                    JOptionPane.QUESTION_MESSAGE, errorIcon);
+            showLoadError();
+            startMenu();
         }
     }
 
+    /**
+     * Helper method that lets the user choose one of the titles in the playlist closest to a title that is not in
+     * it, within MAX_TYPOS edits
+     * @param songTitle title that is not in the playlist
+     * @return the title chosen, or null if there is none close enough or the user chose none
+     */
+    private String chooseSuggestion(String songTitle) {
+        if (fuzzyIndex == null || fuzzyIndex.getPlaylist() != playlist) {
+            if (fuzzyIndex != null) {
+                fuzzyIndex.close();
+            }
+            fuzzyIndex = new FuzzyIndex(playlist);
+        }
+        Object[] titles = fuzzyIndex.closest(FuzzyIndex.Field.TITLE, songTitle, MAX_TYPOS, SUGGESTIONS).stream()
+                .map(Song::getTitle).toArray();
+        if (titles.length == 0) {
+            JOptionPane.showMessageDialog(null, "Cannot find song", null,
+                    JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+            return null;
+        }
+        return (String) JOptionPane.showInputDialog(null, "Cannot find " + songTitle + ". Did you mean:",
+                "Remove Song", JOptionPane.QUESTION_MESSAGE, icons.get("Error"), titles, titles[0]);
+    }
+
+    /**
+     * Helper method that waits for outstanding saves, then reads and indexes the playlist with given name on a
+     * background thread and shows it once that is done; the library remembers it as the playlist used last
+     * @param name      name of the playlist to load
+     * @param onFailure run after the error is shown if the playlist cannot be loaded
+     */
+    private void loadInBackground(String name, Runnable onFailure) {
+        SaveService pendingSaves = saveService;
+        taskBar.run("Loading " + name + "...", publish -> {
+            if (pendingSaves != null) {
+                pendingSaves.flush();
+            }
+            Playlist loaded = library.open(name, LOAD_CHUNK, publish);
+            try {
+                library.writeIndex();
+            } catch (IOException e) {
+                // playlist used last is written with the index at the next save
+            }
+            return new SongIndex(loaded);
+        }, this::showLoadedSongs, loaded -> {
+            filterField.setIndex(loaded);
+            showPlaylist(loaded.getPlaylist());
+            JOptionPane.showMessageDialog(null, "Loaded " + playlist.getPlaylistName(),
+                    null, JOptionPane.QUESTION_MESSAGE, icons.get("Confirm"));
+        }, e -> {
+            endPreview();
+            showLoadError();
+            onFailure.run();
+        }, this::endPreview);
+    }
+
+    /**
+     * Helper method that shows that a playlist could not be loaded
+     */
+    private void showLoadError() {
+        JOptionPane.showMessageDialog(null, "Error loading playlist.", null,
+                JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+    }
+
+    /**
+     * Helper method that prints how long the song list takes to paint and how long startup took
+     */
+    private void printTimings() {
+        System.out.println("Song list: " + songs.getFrameTimer());
+        System.out.println("Startup: " + startupTimer);
+    }
+
     /**
      * Helper method for saving playlist from given file
-     * Used only for saving playlist by quitting through quit option
+     * Used only for saving playlist by quitting through quit option, so the save is finished before the
+     * application exits
      */
     private void savePlaylist() {
-
-        JsonWriter writer = new JsonWriter(JSON_STORE);
         try {
-            writer.open();
-            writer.write(playlist);
-            writer.close();
+            if (saveService != null) {
+                saveService.flush();
+            }
+            library.save(playlist);
             JOptionPane.showMessageDialog(null,playlist.getPlaylistName() + " saved.",
-                    null, JOptionPane.QUESTION_MESSAGE, saveIcon);
-        } catch (FileNotFoundException e) {
+                    null, JOptionPane.QUESTION_MESSAGE, icons.get("Save"));
+        } catch (IOException e) {
             JOptionPane.showMessageDialog(null,
                     "Error saving " + playlist.getPlaylistName(), null, JOptionPane.QUESTION_MESSAGE,
-                    errorIcon);
+                    icons.get("Error"));
+        }
+    }
+
+    /**
+     * Helper method for choosing a playlist from the names listed in the library index
+     * @return the name of the chosen playlist, or null if no playlist was chosen
+     * @throws IOException if the library index cannot be read
+     */
+    private String choosePlaylist() throws IOException {
+        Object[] names = library.list().stream().map(LibraryEntry::getName).toArray();
+        if (names.length == 0) {
+            throw new FileNotFoundException("No playlists in " + LIBRARY_STORE);
+        }
+        return (String) JOptionPane.showInputDialog(null, "Playlist: ", "Load Playlist",
+                JOptionPane.QUESTION_MESSAGE, icons.get("Load"), names, names[0]);
+    }
+
+    /**
+     * Helper method that returns the save service of the current playlist, replacing the save service of
+     * a previous playlist once its saves are written
+     * @return the save service that saves the current playlist to the library
+     * @throws IOException if the library index cannot be read
+     */
+    private SaveService currentSaveService() throws IOException {
+        PlaylistJournal journal = library.journalFor(playlist.getPlaylistName());
+        if (saveService == null || saveService.getJournal() != journal) {
+            if (saveService != null) {
+                saveService.close();
+            }
+            saveService = new SaveService(journal);
         }
+        return saveService;
+    }
+
+    /**
+     * Helper method that reorders the playlist on a background thread. The new order is worked out from a snapshot
+     * and installed in one step on the event thread, unless the playlist was replaced or changed in the meantime.
+     * @param description   what the reordering does, shown while it runs
+     * @param type          ARRANGE, SHUFFLE or REVERSE
+     * @param detail        key arranged by, seed of the shuffle, or null to reverse
+     */
+    private void reorderInBackground(String description, PlaylistChange.Type type, String detail) {
+        PlaylistChange change = new PlaylistChange(type, null, -1, -1, detail);
+        Playlist target = playlist;
+        Playlist snapshot = target.snapshot();
+        long version = target.getVersion();
+        taskBar.run(description, () -> snapshot.reorderedBy(change), reordered -> {
+            if (target == playlist && target.getVersion() == version) {
+                target.reorder(change, reordered);
+            } else {
+                JOptionPane.showMessageDialog(null, "Playlist changed while arranging; try again.", null,
+                        JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+            }
+        }, e -> JOptionPane.showMessageDialog(null, "Error arranging playlist.", null,
+                JOptionPane.QUESTION_MESSAGE, icons.get("Error")));
+    }
+
+    /**
+     * Helper method that waits for outstanding saves and background work to finish before the application exits
+     */
+    private void closeLibrary() {
+        if (watcher != null) {
+            watcher.close();
+        }
+        scanner.close();
+        if (saveService != null) {
+            saveService.close();
+        }
+        library.close();
     }
 
     /**
@@ -241,17 +493,6 @@ public class PlaylistUI extends JFrame {
         setLocation((width - getWidth()) / 2, (height - getHeight()) / 2);
     }
 
-    /**
-     * Helper method to change icon size
-     * @param icon icon which size will be changed
-     * @return a resized icon
-     */
-    private ImageIcon changeIconSize(ImageIcon icon) {
-        Image tempIcon = icon.getImage();
-        Image scaledIcon = tempIcon.getScaledInstance(75, 75, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaledIcon);
-    }
-
     /**
      * Prints the log to the console
      * @param el  the event log to be printed
@@ -271,7 +512,6 @@ public class PlaylistUI extends JFrame {
         private JTextField artistField;
         private JTextField timeField;
         private JTextField genreField;
-        private ImageIcon addIcon;
         Object[] songFields;
 
         AddSongAction() {
@@ -280,9 +520,8 @@ public class PlaylistUI extends JFrame {
             artistField = new JTextField();
             timeField = new JTextField();
             genreField = new JTextField();
-            addIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep
-            + "Add.png");
-            addIcon = changeIconSize(addIcon);
+            new AutoCompleter(artistField, completions::completeArtist);
+            new AutoCompleter(genreField, completions::completeGenre);
             songFields = new Object[]{
                     "Title", titleField,
                     "Artist", artistField,
@@ -294,30 +533,31 @@ public class PlaylistUI extends JFrame {
         @SuppressWarnings({"checkstyle:MethodLength", "checkstyle:SuppressWarnings"})
         @Override
         public void actionPerformed(ActionEvent evt) {
+            completions.watchOnly(playlist);
             int addSong = JOptionPane.showConfirmDialog(null, songFields, "Add Song",
-                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, addIcon);
+                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, icons.get("Add"));
 
             if (addSong == JOptionPane.OK_OPTION) {
                 if (!Objects.equals(titleField.getText(), "") && !Objects.equals(artistField.getText(), "")
                         && !Objects.equals(timeField.getText(), "")
                         && !Objects.equals(genreField.getText(), "")) {
                     try {
-                        Song song = new Song(titleField.getText(), artistField.getText(),
-                                Integer.parseInt(timeField.getText()), genreField.getText());
+                        Song song = new Song(titleField.getText(), completions.canonicalArtist(artistField.getText()),
+                                Integer.parseInt(timeField.getText()),
+                                completions.canonicalGenre(genreField.getText()));
                         if (playlist.isInPlaylist(song)) {
                             JOptionPane.showMessageDialog(null, "Song already in playlist",
-                                    null, JOptionPane.QUESTION_MESSAGE, errorIcon);
+                                    null, JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
                         } else {
                             playlist.addSong(song);
                         }
                     } catch (NumberFormatException e) {
                         JOptionPane.showMessageDialog(null, "Duration is not a number",
-                                null, JOptionPane.QUESTION_MESSAGE, errorIcon);
+                                null, JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
                     }
-                    setUpPlaylist();
                 } else {
                     JOptionPane.showMessageDialog(null, "Error adding song", null,
-                            JOptionPane.QUESTION_MESSAGE, errorIcon);
+                            JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
                 }
             }
         }
@@ -328,36 +568,238 @@ public class PlaylistUI extends JFrame {
      * Represents the action to be taken when the user wants to remove a song from the playlist.
      */
     private class RemoveSongAction extends AbstractAction {
-        private ImageIcon removeIcon;
 
         RemoveSongAction() {
             super("Remove");
-            removeIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep
-                    + "Remove.png");
-            removeIcon = changeIconSize(removeIcon);
         }
 
         @Override
         public void actionPerformed(ActionEvent evt) {
             String songTitle = (String) JOptionPane.showInputDialog(null, "Title",
-                    "Remove Song", JOptionPane.QUESTION_MESSAGE, removeIcon, null,
+                    "Remove Song", JOptionPane.QUESTION_MESSAGE, icons.get("Remove"), null,
                     null);
             if (songTitle != null && !songTitle.equals("")) {
                 if (!playlist.isInPlaylist(songTitle)) {
-                    JOptionPane.showMessageDialog(null, "Cannot find song", null,
-                            JOptionPane.QUESTION_MESSAGE, errorIcon);
-                } else {
+                    songTitle = chooseSuggestion(songTitle);
+                }
+                if (songTitle != null) {
                     playlist.removeSong(songTitle);
-                    setUpPlaylist();
                 }
             } else if (Objects.equals(songTitle, "")) {
                 JOptionPane.showMessageDialog(null, "Error removing song", null,
-                        JOptionPane.QUESTION_MESSAGE, errorIcon);
+                        JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
             }
         }
     }
 
 
+    /**
+     * Represents the action to be taken when the user wants to search every playlist in the library. The library
+     * is read and indexed on a background thread the first time; after that the index follows the playlists'
+     * changes, so later searches answer at once.
+     */
+    private class SearchLibraryAction extends AbstractAction {
+
+        SearchLibraryAction() {
+            super("Search Library");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent evt) {
+            String query = JOptionPane.showInputDialog(PlaylistUI.this, "Title, artist or genre words",
+                    "Search Library", JOptionPane.QUESTION_MESSAGE);
+            if (query == null || query.trim().isEmpty()) {
+                return;
+            }
+            if (librarySearch != null) {
+                showSearchResults(query);
+            } else {
+                indexLibrary(query);
+            }
+        }
+
+        /**
+         * Reads and indexes every playlist in the library other than the one shown on a background thread, then
+         * shows the results of the first search
+         * @param query words to search for once the library is indexed
+         */
+        private void indexLibrary(String query) {
+            String shown = playlist.getPlaylistName();
+            taskBar.run("Indexing library...", () -> {
+                LibrarySearch search = new LibrarySearch();
+                PlaylistBatchIO batchIO = new PlaylistBatchIO(Runtime.getRuntime().availableProcessors());
+                try {
+                    for (Playlist other : library.openAllExcept(shown, batchIO)) {
+                        search.watch(other);
+                    }
+                } finally {
+                    batchIO.close();
+                }
+                return search;
+            }, search -> {
+                librarySearch = search;
+                showSearchResults(query);
+            }, e -> showLoadError());
+        }
+
+        /**
+         * Shows the best matches for query in the library and lets the user pick one, which is then shown in its
+         * playlist, loading that playlist if it is not the one shown
+         * @param query words to search for
+         */
+        private void showSearchResults(String query) {
+            librarySearch.watchLatest(playlist);
+            long start = System.nanoTime();
+            Object[] hits = librarySearch.search(query, SEARCH_RESULTS).toArray();
+            long micros = (System.nanoTime() - start) / 1000;
+            if (hits.length == 0) {
+                JOptionPane.showMessageDialog(PlaylistUI.this, "No songs match " + query, null,
+                        JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+                return;
+            }
+            SearchHit hit = (SearchHit) JOptionPane.showInputDialog(PlaylistUI.this,
+                    "Best matches of " + librarySearch.getNumSongs() + " songs, found in " + micros / 1000.0 + " ms",
+                    "Search Library", JOptionPane.QUESTION_MESSAGE, null, hits, hits[0]);
+            if (hit == null) {
+                return;
+            }
+            if (hit.getPlaylist() == playlist) {
+                songs.setSelectedValue(hit.getSong(), true);
+            } else {
+                loadInBackground(hit.getPlaylist().getPlaylistName(), () -> { });
+            }
+        }
+    }
+
+
+    /**
+     * Represents the action to be taken when the user wants to see a smart playlist, or make one from rules over
+     * the playlist shown. A smart playlist shown stays attached to its sources, so it follows their changes and
+     * is shown again without reading them.
+     */
+    private class SmartPlaylistAction extends AbstractAction {
+        private static final String NEW = "New smart playlist...";
+        private JTextField nameField = new JTextField();
+        private JTextField genreField = new JTextField();
+        private JTextField artistField = new JTextField();
+        private JTextField titleField = new JTextField();
+        private JTextField shorterField = new JTextField();
+        private JTextField longerField = new JTextField();
+        private Object[] ruleFields = new Object[]{
+                "Name", nameField,
+                "Genre is", genreField,
+                "Artist is", artistField,
+                "Title contains", titleField,
+                "Shorter than (seconds)", shorterField,
+                "Longer than (seconds)", longerField
+        };
+
+        SmartPlaylistAction() {
+            super("Smart Playlist...");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent evt) {
+            List<Object> choices = new ArrayList<>(Collections.singletonList(NEW));
+            try {
+                for (SmartPlaylist saved : library.listSmart()) {
+                    smartPlaylists.putIfAbsent(saved.getName(), saved);
+                }
+            } catch (IOException e) {
+                showLoadError();
+            }
+            choices.addAll(smartPlaylists.values());
+            Object choice = JOptionPane.showInputDialog(PlaylistUI.this, "Smart playlist", "Smart Playlist",
+                    JOptionPane.QUESTION_MESSAGE, null, choices.toArray(), NEW);
+            SmartPlaylist smart = choice == NEW ? makeSmartPlaylist() : (SmartPlaylist) choice;
+            if (smart != null) {
+                attachSources(smart);
+            }
+        }
+
+        /**
+         * Asks the user for the name and rules of a smart playlist over the playlist shown, then saves it
+         * @return the smart playlist made, or null if the user cancels or leaves the name blank
+         */
+        private SmartPlaylist makeSmartPlaylist() {
+            int made = JOptionPane.showConfirmDialog(PlaylistUI.this, ruleFields, "New Smart Playlist",
+                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE);
+            String name = nameField.getText().trim();
+            if (made != JOptionPane.OK_OPTION || name.isEmpty()) {
+                return null;
+            }
+            List<SongRule> rules = new ArrayList<>();
+            addRule(rules, genreField, SongRule.Field.GENRE, SongRule.Operator.IS);
+            addRule(rules, artistField, SongRule.Field.ARTIST, SongRule.Operator.IS);
+            addRule(rules, titleField, SongRule.Field.TITLE, SongRule.Operator.CONTAINS);
+            addRule(rules, shorterField, SongRule.Field.TIME, SongRule.Operator.LESS_THAN);
+            addRule(rules, longerField, SongRule.Field.TIME, SongRule.Operator.MORE_THAN);
+            SmartPlaylist smart = new SmartPlaylist(name, rules, Collections.singletonList(playlist.getPlaylistName()));
+            smartPlaylists.put(name, smart);
+            try {
+                library.saveSmart(smart);
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(null, "Error saving smart playlist.", null,
+                        JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+            }
+            return smart;
+        }
+
+        /**
+         * Adds to rules a rule comparing field with the text of valueField, unless the text is blank or the field
+         * is the time and the text is not a whole number
+         */
+        private void addRule(List<SongRule> rules, JTextField valueField, SongRule.Field field,
+                             SongRule.Operator operator) {
+            String value = valueField.getText().trim();
+            if (!value.isEmpty() && (field != SongRule.Field.TIME || value.matches("\\d{1,9}"))) {
+                rules.add(new SongRule(field, operator, value));
+            }
+        }
+
+        /**
+         * Attaches the playlist shown to smart if it is one of its sources, reads the other sources that are not
+         * attached yet on a background thread, then attaches them and shows the songs of smart
+         * @param smart the smart playlist to show
+         */
+        private void attachSources(SmartPlaylist smart) {
+            List<String> names = new ArrayList<>(smart.getSourceNames());
+            if (names.remove(playlist.getPlaylistName())) {
+                smart.attach(playlist);
+            }
+            for (Playlist source : smart.getSources()) {
+                names.remove(source.getPlaylistName());
+            }
+            if (names.isEmpty()) {
+                showSmartSongs(smart);
+                return;
+            }
+            taskBar.run("Opening " + smart.getName() + "...", () -> {
+                PlaylistBatchIO batchIO = new PlaylistBatchIO(Runtime.getRuntime().availableProcessors());
+                try {
+                    return library.openEach(names, batchIO);
+                } finally {
+                    batchIO.close();
+                }
+            }, sources -> {
+                sources.forEach(smart::attach);
+                showSmartSongs(smart);
+            }, e -> showLoadError());
+        }
+
+        /**
+         * Shows the songs of smart and the rules they satisfy
+         */
+        private void showSmartSongs(SmartPlaylist smart) {
+            JList<Song> members = new JList<>(smart.getSongs().toArray(new Song[0]));
+            members.setVisibleRowCount(Math.min(15, Math.max(1, smart.getNumSongs())));
+            Object[] message = {smart.getNumSongs() + " song(s) where " + smart.describeRules(),
+                    new JScrollPane(members)};
+            JOptionPane.showMessageDialog(PlaylistUI.this, message, smart.getName(), JOptionPane.PLAIN_MESSAGE);
+        }
+    }
+
+
     /**
      * Represents the action to be taken when the user wants to shuffle the playlist.
      * Playlist order may be maintained by random chance.
@@ -370,8 +812,7 @@ public class PlaylistUI extends JFrame {
 
         @Override
         public void actionPerformed(ActionEvent evt) {
-            playlist.shuffle();
-            setUpPlaylist();
+            reorderInBackground("Shuffling...", PlaylistChange.Type.SHUFFLE, Long.toString(new Random().nextLong()));
         }
     }
 
@@ -388,8 +829,7 @@ public class PlaylistUI extends JFrame {
 
         @Override
         public void actionPerformed(ActionEvent evt) {
-            playlist.arrangeByTitle();
-            setUpPlaylist();
+            reorderInBackground("Arranging by title...", PlaylistChange.Type.ARRANGE, "title");
         }
     }
 
@@ -406,8 +846,7 @@ public class PlaylistUI extends JFrame {
 
         @Override
         public void actionPerformed(ActionEvent evt) {
-            playlist.arrangeByArtist();
-            setUpPlaylist();
+            reorderInBackground("Arranging by artist...", PlaylistChange.Type.ARRANGE, "artist");
         }
     }
 
@@ -424,8 +863,7 @@ public class PlaylistUI extends JFrame {
 
         @Override
         public void actionPerformed(ActionEvent evt) {
-            playlist.arrangeByTime();
-            setUpPlaylist();
+            reorderInBackground("Arranging by time...", PlaylistChange.Type.ARRANGE, "time");
         }
     }
 
@@ -442,8 +880,7 @@ public class PlaylistUI extends JFrame {
 
         @Override
         public void actionPerformed(ActionEvent evt) {
-            playlist.arrangeByGenre();
-            setUpPlaylist();
+            reorderInBackground("Arranging by genre...", PlaylistChange.Type.ARRANGE, "genre");
         }
     }
 
@@ -459,41 +896,35 @@ public class PlaylistUI extends JFrame {
 
         @Override
         public void actionPerformed(ActionEvent evt) {
-            playlist.reverse();
-            setUpPlaylist();
+            reorderInBackground("Reversing...", PlaylistChange.Type.REVERSE, null);
         }
     }
 
 
     /**
-     * Represents the action to be taken when the user wants to save the playlist to given file.
+     * Represents the action to be taken when the user wants to save the changes made to the playlist to given file.
      */
     private class SaveAction extends AbstractAction {
-        private JsonWriter jsonWriter;
-        private static final String JSON_STORE = "./data/playlist.json";
 
         SaveAction() {
             super("Save");
-            jsonWriter = new JsonWriter(JSON_STORE);
         }
 
         @Override
         public void actionPerformed(ActionEvent evt) {
             int savePlaylist = JOptionPane.showConfirmDialog(null,
                     "Save " + playlist.getPlaylistName() + "?",
-                    "Save Playlist", JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, saveIcon);
+                    "Save Playlist", JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, icons.get("Save"));
 
             if (savePlaylist == JOptionPane.OK_OPTION) {
                 try {
-                    jsonWriter.open();
-                    jsonWriter.write(playlist);
-                    jsonWriter.close();
-                    JOptionPane.showMessageDialog(null,playlist.getPlaylistName() + " saved.",
-                            null, JOptionPane.QUESTION_MESSAGE, confirmIcon);
-                } catch (FileNotFoundException e) {
+                    SaveService service = currentSaveService();
+                    library.updateEntry(playlist);
+                    service.save(playlist, new SaveDialogListener());
+                } catch (IOException e) {
                     JOptionPane.showMessageDialog(null,
                             "Error saving " + playlist.getPlaylistName(), null,
-                            JOptionPane.QUESTION_MESSAGE, errorIcon);
+                            JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
                 }
             }
 
@@ -502,34 +933,181 @@ public class PlaylistUI extends JFrame {
 
 
     /**
-     * Represents the action to be taken when the user wants to load a playlist from given file.
+     * Represents the dialogs shown once a save requested through the save option has been written. The library
+     * index is written along with the playlist.
+     */
+    private class SaveDialogListener implements SaveListener {
+
+        @Override
+        public void saveCompleted(String playlistName) {
+            try {
+                library.writeIndex();
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, playlistName + " saved.",
+                        null, JOptionPane.QUESTION_MESSAGE, icons.get("Confirm")));
+            } catch (IOException e) {
+                saveFailed(playlistName, e);
+            }
+        }
+
+        @Override
+        public void saveFailed(String playlistName, IOException error) {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                    "Error saving " + playlistName, null, JOptionPane.QUESTION_MESSAGE, icons.get("Error")));
+        }
+    }
+
+
+    /**
+     * Represents the action to be taken when the user wants to load a playlist from the library.
      */
     private class LoadAction extends AbstractAction {
-        private JsonReader jsonReader;
-        private static final String JSON_STORE = "./data/playlist.json";
 
         LoadAction() {
             super("Load");
-            jsonReader = new JsonReader(JSON_STORE);
         }
 
+        /**
+         * Lets the user choose a playlist, then reads it on a background thread; the playlist shown is only
+         * replaced once the whole playlist has been read
+         * @param evt   event that triggered the action
+         */
         @Override
         public void actionPerformed(ActionEvent evt) {
-            int loadPlaylist = JOptionPane.showConfirmDialog(null,
-                    "Load playlist from file?",
-                    "Load Playlist", JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, loadIcon);
+            try {
+                String name = choosePlaylist();
+                if (name != null) {
+                    loadInBackground(name, () -> { });
+                }
+            } catch (IOException e) {
+                showLoadError();
+            }
+        }
+    }
 
-            if (loadPlaylist == JOptionPane.OK_OPTION) {
-                try {
-                    playlist = jsonReader.read();
-                    JOptionPane.showMessageDialog(null, "Loaded " + playlist.getPlaylistName(),
-                            null, JOptionPane.QUESTION_MESSAGE, confirmIcon);
-                } catch (IOException e) {
-                    JOptionPane.showMessageDialog(null, "Error loading playlist.", null,
-                            JOptionPane.QUESTION_MESSAGE, errorIcon);
+
+    /**
+     * Represents the action to be taken when the user wants to import the songs in an M3U or CSV file made by
+     * another music player into the playlist.
+     */
+    private class ImportAction extends AbstractAction {
+        private static final int SHOWN_ERRORS = 10;
+
+        ImportAction() {
+            super("Import");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent evt) {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setFileFilter(new FileNameExtensionFilter("M3U or CSV files", "m3u", "m3u8", "csv"));
+            if (chooser.showOpenDialog(PlaylistUI.this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            try {
+                ImportResult result = SongImporter.forFile(chooser.getSelectedFile().getPath()).importInto(playlist);
+                JOptionPane.showMessageDialog(null, describe(result), null, JOptionPane.QUESTION_MESSAGE,
+                        icons.get("Confirm"));
+            } catch (IOException | IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(null, "Error importing songs.", null,
+                        JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+            }
+        }
+
+        /**
+         * Describes the result of an import, listing the first malformed lines
+         * @param result    result of the import
+         * @return  description of result to show to the user
+         */
+        private String describe(ImportResult result) {
+            StringBuilder message = new StringBuilder(result.toString());
+            for (String line : result.getMalformed().subList(0, Math.min(SHOWN_ERRORS, result.getNumMalformed()))) {
+                message.append("\n").append(line);
+            }
+            return message.toString();
+        }
+    }
+
+
+    /**
+     * Represents the action to be taken when the user wants to export the playlist to an M3U or CSV file for
+     * another music player.
+     */
+    private class ExportAction extends AbstractAction {
+
+        ExportAction() {
+            super("Export");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent evt) {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setFileFilter(new FileNameExtensionFilter("M3U or CSV files", "m3u", "m3u8", "csv"));
+            if (chooser.showSaveDialog(PlaylistUI.this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            String file = chooser.getSelectedFile().getPath();
+            try {
+                int numSongs = SongExporter.forFile(file).export(playlist);
+                JOptionPane.showMessageDialog(null, "Exported " + numSongs + " song(s) to " + file, null,
+                        JOptionPane.QUESTION_MESSAGE, icons.get("Confirm"));
+            } catch (IOException | IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(null, "Error exporting playlist.", null,
+                        JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+            }
+        }
+    }
+
+
+    /**
+     * Represents the action to be taken when the user wants to add the MP3, FLAC and WAV files in a folder, and
+     * the folders inside it, to the playlist. The folder is scanned on a background thread and then watched, and
+     * files later added to, changed in or removed from it are reflected in the playlist, until another folder is
+     * scanned.
+     */
+    private class ScanAction extends AbstractAction {
+        private static final int SHOWN_ERRORS = 10;
+
+        ScanAction() {
+            super("Scan Folder");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent evt) {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            if (chooser.showOpenDialog(PlaylistUI.this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            LibraryWatcher started = new LibraryWatcher(chooser.getSelectedFile().toPath(), scanner,
+                    SwingUtilities::invokeLater);
+            Playlist target = playlist;
+            taskBar.run("Scanning folder...", started::start, result -> {
+                if (watcher != null) {
+                    watcher.close();
                 }
-                setUpPlaylist();
+                watcher = started;
+                target.addSongs(result.getSongs());
+                watcher.watch(target);
+                JOptionPane.showMessageDialog(null, describe(result), null, JOptionPane.QUESTION_MESSAGE,
+                        icons.get("Confirm"));
+            }, e -> {
+                started.close();
+                JOptionPane.showMessageDialog(null, "Error scanning folder.", null,
+                        JOptionPane.QUESTION_MESSAGE, icons.get("Error"));
+            });
+        }
+
+        /**
+         * Describes the result of a scan, listing the first files that could not be read
+         * @param result    result of the scan
+         * @return  description of result to show to the user
+         */
+        private String describe(ScanResult result) {
+            StringBuilder message = new StringBuilder(result.toString());
+            for (String failure : result.getFailures().subList(0, Math.min(SHOWN_ERRORS, result.getNumFailed()))) {
+                message.append("\n").append(failure);
             }
+            return message.toString();
         }
     }
 
@@ -539,25 +1117,26 @@ public class PlaylistUI extends JFrame {
      * menu.
      */
     private class QuitAction extends AbstractAction {
-        private ImageIcon quitIcon;
 
         QuitAction() {
             super("Quit");
-            quitIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep + "Quit.png");
-            quitIcon = changeIconSize(quitIcon);
         }
 
         @Override
         public void actionPerformed(ActionEvent evt) {
             int quitPlaylist = JOptionPane.showConfirmDialog(null,
                     "Would you like to save before quitting?", "Quit", JOptionPane.YES_NO_OPTION,
-                    JOptionPane.QUESTION_MESSAGE, quitIcon);
+                    JOptionPane.QUESTION_MESSAGE, icons.get("Quit"));
             if (quitPlaylist == JOptionPane.YES_OPTION) {
                 savePlaylist();
+                closeLibrary();
                 printLog(EventLog.getInstance());
+                printTimings();
                 System.exit(0);
             } else if (quitPlaylist == JOptionPane.NO_OPTION) {
+                closeLibrary();
                 printLog(EventLog.getInstance());
+                printTimings();
                 System.exit(0);
             }
         }
@@ -568,26 +1147,25 @@ public class PlaylistUI extends JFrame {
      * Represents the action to be taken when the user wants to get information about the playlist.
      */
     private class InfoAction extends AbstractAction {
-        private ImageIcon infoIcon;
 
         InfoAction() {
             super("Information");
-            infoIcon = new ImageIcon(System.getProperty("user.dir") + sep + "Icons" + sep + "Info.png");
-            infoIcon = changeIconSize(infoIcon);
         }
 
         @Override
         public void actionPerformed(ActionEvent evt) {
             String message = "Name: " + playlist.getPlaylistName() + "\nNumber of songs: " + playlist.getNumSongs()
-                    + "\nTotal Duration: " + playlist.totalTime();
+                    + "\nTotal Duration: " + playlist.totalTime() + "\nSong list: " + songs.getFrameTimer()
+                    + "\nStartup: " + startupTimer;
             JOptionPane.showMessageDialog(null, message,
-                    "Playlist Information", JOptionPane.QUESTION_MESSAGE, infoIcon);
+                    "Playlist Information", JOptionPane.QUESTION_MESSAGE, icons.get("Info"));
         }
     }
 
 
-    // starts the application
+    // starts the application, decoding the icons in the background while the window is built
     public static void main(String[] args) {
-        new PlaylistUI();
+        IconCache.getInstance().preload();
+        SwingUtilities.invokeLater(PlaylistUI::new);
     }
 }
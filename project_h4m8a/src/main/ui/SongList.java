@@ -0,0 +1,106 @@
+package ui;
+
+import model.Song;
+
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListModel;
+import javax.swing.border.EmptyBorder;
+import java.awt.Component;
+import java.awt.Graphics;
+
+/**
+ * Represents a list of songs that stays fast however many songs it shows. Every row has the height and width of
+ * a prototype song, so Swing never measures the rows one by one, and only the rows in view are fetched and
+ * painted. One label renders every row without allocating, and the time each paint takes is recorded.
+ */
+public class SongList extends JList<Song> {
+    private static final Song PROTOTYPE = new Song("A reasonably long song title to size rows", "", 0, "");
+    private final FrameTimer frameTimer = new FrameTimer();
+
+    /**
+     * Constructs a list that shows the songs in model
+     * @param model model holding the songs to show
+     */
+    public SongList(ListModel<Song> model) {
+        super(model);
+        setCellRenderer(new SongRenderer());
+        setPrototypeCellValue(PROTOTYPE);
+    }
+
+    public FrameTimer getFrameTimer() {
+        return frameTimer;
+    }
+
+    /**
+     * Paints the rows in view and records how long it took
+     * @param g graphics to paint with
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        super.paintComponent(g);
+        frameTimer.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Makes rows as wide as the list, so that titles longer than the prototype are not cut short
+     * @return  true
+     */
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    /**
+     * Represents a renderer that shows a song's title in a single reused label. Like Swing's default renderer it
+     * skips the revalidation, repaint requests and property change events a label normally makes when it changes,
+     * since the label is only ever painted as a rubber stamp; only text changes are passed on, so that titles
+     * written in HTML still render.
+     */
+    private static class SongRenderer extends JLabel implements ListCellRenderer<Song> {
+
+        SongRenderer() {
+            setOpaque(true);
+            setBorder(new EmptyBorder(1, 4, 1, 4));
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Song> list, Song song, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            setText(song.getTitle());
+            setBackground(isSelected ? list.getSelectionBackground() : list.getBackground());
+            setForeground(isSelected ? list.getSelectionForeground() : list.getForeground());
+            setFont(list.getFont());
+            return this;
+        }
+
+        @Override
+        public void validate() {
+            // never laid out as part of a container
+        }
+
+        @Override
+        public void invalidate() {
+            // never laid out as part of a container
+        }
+
+        @Override
+        public void revalidate() {
+            // never laid out as part of a container
+        }
+
+        @Override
+        public void repaint(long tm, int x, int y, int width, int height) {
+            // painted by the list, not on its own
+        }
+
+        @Override
+        protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+            if ("text".equals(propertyName)) {
+                super.firePropertyChange(propertyName, oldValue, newValue);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ui;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Represents the startup times of the application, measured from when the JVM started: the time until the main
+ * window first painted, the time until the first songs of the playlist being loaded were shown, and the time until
+ * the user could work with a playlist. Each time is recorded once; later marks are ignored.
+ */
+public class StartupTimer {
+    private final long origin;          // time the JVM started, in milliseconds since the epoch
+    private long firstPaint = -1;       // milliseconds from origin to first paint; -1 if not yet
+    private long firstSongs = -1;       // milliseconds from origin to the first songs shown; -1 if not yet
+    private long interactive = -1;      // milliseconds from origin to interactive; -1 if not yet
+
+    /**
+     * Constructs a timer that measures from when the JVM started
+     */
+    public StartupTimer() {
+        this(ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    /**
+     * Constructs a timer that measures from the given time
+     * @param origin    time to measure from, in milliseconds since the epoch
+     */
+    public StartupTimer(long origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * Records the time the main window first painted, unless it has already been recorded
+     */
+    public void markFirstPaint() {
+        if (firstPaint < 0) {
+            firstPaint = System.currentTimeMillis() - origin;
+        }
+    }
+
+    /**
+     * Records the time the first songs of a playlist being loaded were shown, unless it has already been recorded
+     */
+    public void markFirstSongs() {
+        if (firstSongs < 0) {
+            firstSongs = System.currentTimeMillis() - origin;
+        }
+    }
+
+    /**
+     * Records the time the user could first work with a playlist, unless it has already been recorded
+     */
+    public void markInteractive() {
+        if (interactive < 0) {
+            interactive = System.currentTimeMillis() - origin;
+        }
+    }
+
+    public long getFirstPaint() {
+        return firstPaint;
+    }
+
+    public long getFirstSongs() {
+        return firstSongs;
+    }
+
+    public long getInteractive() {
+        return interactive;
+    }
+
+    @Override
+    public String toString() {
+        return "first paint " + describe(firstPaint) + ", first songs " + describe(firstSongs)
+                + ", interactive " + describe(interactive);
+    }
+
+    /**
+     * Describes a recorded time
+     * @param millis    recorded time, or -1 if it has not been recorded
+     * @return  the time in milliseconds, or "-" if it has not been recorded
+     */
+    private String describe(long millis) {
+        return millis < 0 ? "-" : millis + " ms";
+    }
+}
@@ -0,0 +1,168 @@
+package ui;
+
+import javax.swing.Action;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingWorker;
+import java.awt.BorderLayout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Represents a status bar that runs one long task at a time off the Swing event thread. While a task runs the bar
+ * shows what it is doing with a progress indicator and a Cancel button, and the actions that would conflict with
+ * it are disabled. The task's result is handed back on the event thread, in one step, only if the task finished
+ * without being cancelled, so a cancelled task leaves the playlist exactly as it was. A task may also publish parts
+ * of its result as it goes, such as the first songs of a playlist being loaded, to be shown while it runs.
+ */
+public class TaskBar extends JPanel {
+    private final JLabel label = new JLabel();
+    private final JProgressBar progress = new JProgressBar();
+    private final JButton cancel = new JButton("Cancel");
+    private final List<Action> conflicting = new ArrayList<>();
+    private SwingWorker<?, ?> running;      // task being run; null if none
+
+    /**
+     * Constructs an idle, hidden task bar
+     */
+    public TaskBar() {
+        super(new BorderLayout(8, 0));
+        progress.setIndeterminate(true);
+        cancel.addActionListener(e -> cancelTask());
+        add(label, BorderLayout.WEST);
+        add(progress, BorderLayout.CENTER);
+        add(cancel, BorderLayout.EAST);
+        setVisible(false);
+    }
+
+    /**
+     * Makes action be disabled while a task runs
+     * @param action    action that must not run at the same time as a task
+     */
+    public void addConflictingAction(Action action) {
+        conflicting.add(action);
+    }
+
+    /**
+     * Represents work run by a task bar that can hand on parts of its result before it finishes
+     * @param <T>   type of the result of the work
+     * @param <V>   type of the parts handed on
+     */
+    public interface ChunkedWork<T, V> {
+        /**
+         * Does the work, on a background thread
+         * @param publish   hands on a part of the result
+         * @return  the result of the work
+         * @throws Exception    if the work cannot be done
+         */
+        T call(Consumer<V> publish) throws Exception;
+    }
+
+    public boolean isBusy() {
+        return running != null;
+    }
+
+    /**
+     * Runs work on a background thread, then hands its result to onSuccess, or the exception it threw to
+     * onFailure, on the event thread; does nothing with the result if the task is cancelled first
+     * @param description   what the task does, shown while it runs
+     * @param work          work to run in the background; must not touch Swing components or the live playlist
+     * @param onSuccess     applies the result of work, on the event thread
+     * @param onFailure     reports the exception thrown by work, on the event thread
+     * @param <T>           type of the result of work
+     */
+    public <T> void run(String description, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        run(description, publish -> work.call(), chunks -> { }, onSuccess, onFailure, () -> { });
+    }
+
+    /**
+     * Runs work like run, and hands the parts of its result it publishes to onChunks on the event thread while
+     * the task is still running, so they can be shown before it finishes; parts that reach the event thread after
+     * the task has ended are dropped
+     * @param description   what the task does, shown while it runs
+     * @param work          work to run in the background; must not touch Swing components or the live playlist
+     * @param onChunks      shows the parts published since it was last called, on the event thread
+     * @param onSuccess     applies the result of work, on the event thread
+     * @param onFailure     reports the exception thrown by work, on the event thread
+     * @param onCancel      undoes what onChunks showed if the task is cancelled, on the event thread
+     * @param <T>           type of the result of work
+     * @param <V>           type of the parts work publishes
+     */
+    public <T, V> void run(String description, ChunkedWork<T, V> work, Consumer<List<V>> onChunks,
+                           Consumer<T> onSuccess, Consumer<Exception> onFailure, Runnable onCancel) {
+        if (running != null) {
+            return;
+        }
+        running = new SwingWorker<T, V>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return work.call(chunk -> publish(chunk));
+            }
+
+            @Override
+            protected void process(List<V> chunks) {
+                if (running == this) {
+                    onChunks.accept(chunks);
+                }
+            }
+
+            @Override
+            protected void done() {
+                finish(this, onSuccess, onFailure, onCancel);
+            }
+        };
+        label.setText(description);
+        setBusy(true);
+        running.execute();
+    }
+
+    /**
+     * Cancels the running task, if any; its result is thrown away
+     */
+    public void cancelTask() {
+        if (running != null) {
+            running.cancel(true);
+        }
+    }
+
+    /**
+     * Ends the task that just finished and hands its outcome to onSuccess, onFailure or onCancel
+     * @param task      task that finished
+     * @param onSuccess applies the result of the task
+     * @param onFailure reports the exception thrown by the task
+     * @param onCancel  runs if the task was cancelled
+     * @param <T>       type of the result of the task
+     */
+    private <T> void finish(SwingWorker<T, ?> task, Consumer<T> onSuccess, Consumer<Exception> onFailure,
+                            Runnable onCancel) {
+        running = null;
+        setBusy(false);
+        try {
+            onSuccess.accept(task.get());
+        } catch (CancellationException e) {
+            // result of a cancelled task is thrown away
+            onCancel.run();
+        } catch (ExecutionException e) {
+            onFailure.accept(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Shows or hides the bar and disables or enables the conflicting actions
+     * @param busy  true if a task has started, false if it has ended
+     */
+    private void setBusy(boolean busy) {
+        for (Action action : conflicting) {
+            action.setEnabled(!busy);
+        }
+        setVisible(busy);
+    }
+}
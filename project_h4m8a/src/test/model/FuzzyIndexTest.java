@@ -0,0 +1,115 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static model.FuzzyIndex.Field.ARTIST;
+import static model.FuzzyIndex.Field.TITLE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FuzzyIndexTest {
+    private Playlist playlist;
+    private FuzzyIndex index;
+    private Song song1;
+    private Song song2;
+    private Song song3;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Eden's Playlist");
+        song1 = new Song("Yesterday", "Beatles", 125, "Pop");
+        song2 = new Song("Yellow", "Coldplay", 266, "Rock");
+        song3 = new Song("Help", "Beatles", 138, "Pop");
+        playlist.addSong(song1);
+        playlist.addSong(song2);
+        playlist.addSong(song3);
+        index = new FuzzyIndex(playlist);
+    }
+
+    @Test
+    public void testEditDistance() {
+        assertEquals(0, FuzzyIndex.editDistance("song", "song"));
+        assertEquals(3, FuzzyIndex.editDistance("kitten", "sitting"));
+        assertEquals(4, FuzzyIndex.editDistance("", "song"));
+        assertEquals(4, FuzzyIndex.editDistance("song", ""));
+        assertEquals(1, FuzzyIndex.editDistance("help", "hlp"));
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(3, index.getNumTerms(TITLE));
+        assertEquals(2, index.getNumTerms(ARTIST));
+        assertEquals(playlist, index.getPlaylist());
+    }
+
+    @Test
+    public void testClosestTitle() {
+        assertEquals(Arrays.asList(song1), index.closest(TITLE, "Yesturday", 2, 5));
+        assertEquals(Arrays.asList(song1), index.closest(TITLE, "YESTERDAY", 0, 5));
+        assertEquals(Arrays.asList(song3), index.closest(TITLE, "hlep", 2, 5));
+        assertEquals(Collections.emptyList(), index.closest(TITLE, "hlep", 1, 5));
+    }
+
+    @Test
+    public void testClosestOrdersByDistance() {
+        Song song4 = new Song("Yellow Submarine", "Beatles", 160, "Pop");
+        Song song5 = new Song("Mellow", "Donovan", 200, "Folk");
+        playlist.addSong(song4);
+        playlist.addSong(song5);
+
+        assertEquals(Arrays.asList(song2, song5), index.closest(TITLE, "yellow", 1, 5));
+        assertEquals(Arrays.asList(song2), index.closest(TITLE, "yellow", 1, 1));
+        assertEquals(Arrays.asList(song2, song5), index.closest(TITLE, "yelow", 2, 5));
+    }
+
+    @Test
+    public void testClosestArtist() {
+        assertEquals(Arrays.asList(song1, song3), index.closest(ARTIST, "beetles", 1, 5));
+        assertEquals(Arrays.asList(song1), index.closest(ARTIST, "beetles", 1, 1));
+        assertEquals(Arrays.asList(song2), index.closest(ARTIST, "Coldply", 1, 5));
+    }
+
+    @Test
+    public void testUpdateAddAndRemove() {
+        Song song4 = new Song("Hello", "Adele", 295, "Pop");
+        playlist.addSongs(Arrays.asList(song4));
+        assertEquals(Arrays.asList(song4, song3), index.closest(TITLE, "helo", 1, 5));
+
+        playlist.removeSong("Help");
+        assertEquals(Arrays.asList(song4), index.closest(TITLE, "helo", 1, 5));
+        assertEquals(Arrays.asList(song1), index.closest(ARTIST, "beatles", 0, 5));
+
+        playlist.removeAll(Arrays.asList(song1, song2));
+        assertEquals(Collections.emptyList(), index.closest(ARTIST, "beatles", 2, 5));
+        assertEquals(1, index.getNumTerms(TITLE));
+    }
+
+    @Test
+    public void testCompactKeepsTermsReachable() {
+        List<Song> many = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            many.add(new Song("Track " + i, "Band " + i, 100, "Rock"));
+        }
+        playlist.addSongs(many);
+        playlist.removeAll(many.subList(0, 45));
+
+        assertEquals(8, index.getNumTerms(TITLE));
+        for (int i = 45; i < 50; i++) {
+            assertEquals(Arrays.asList(many.get(i)), index.closest(TITLE, "track " + i, 0, 5));
+        }
+        assertEquals(5, index.closest(TITLE, "track 4", 1, 10).size());
+    }
+
+    @Test
+    public void testClose() {
+        index.close();
+        playlist.removeSong("Help");
+
+        assertEquals(Arrays.asList(song3), index.closest(TITLE, "help", 0, 5));
+    }
+}
@@ -0,0 +1,163 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LibrarySearchTest {
+    private Playlist playlist;
+    private Playlist other;
+    private LibrarySearch search;
+    private Song song1;
+    private Song song2;
+    private Song song3;
+    private Song song4;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Eden's Playlist");
+        other = new Playlist("Road Trip");
+        song1 = new Song("Yesterday", "Beatles", 125, "Pop");
+        song2 = new Song("Yellow", "Coldplay", 266, "Rock");
+        song3 = new Song("Help", "Beatles", 138, "Pop");
+        song4 = new Song("Pop Muzik", "M", 200, "New Wave");
+        playlist.addSong(song1);
+        playlist.addSong(song2);
+        playlist.addSong(song3);
+        other.addSong(song4);
+        search = new LibrarySearch();
+        search.watch(playlist);
+        search.watch(other);
+    }
+
+    // EFFECTS: returns the songs of hits, in order
+    private static List<Song> songsOf(List<SearchHit> hits) {
+        List<Song> songs = new ArrayList<>();
+        for (SearchHit hit : hits) {
+            songs.add(hit.getSong());
+        }
+        return songs;
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals(Arrays.asList("stayin", "alive"), LibrarySearch.tokenize("Stayin' Alive!"));
+        assertEquals(Arrays.asList("beyonce", "cafe"), LibrarySearch.tokenize("BEYONC\u00c9  Cafe\u0301"));
+        assertEquals(Arrays.asList("r", "b", "2"), LibrarySearch.tokenize("R&B 2"));
+        assertEquals(Collections.emptyList(), LibrarySearch.tokenize(" -- "));
+    }
+
+    @Test
+    public void testWatch() {
+        assertEquals(4, search.getNumSongs());
+        assertEquals(Arrays.asList(playlist, other), search.getWatched());
+        search.watch(playlist);
+        assertEquals(4, search.getNumSongs());
+        assertEquals(11, search.getNumWords());
+    }
+
+    @Test
+    public void testSearchRanksByField() {
+        List<SearchHit> hits = search.search("pop", 10);
+        assertEquals(Arrays.asList(song4, song1, song3), songsOf(hits));
+        assertEquals(LibrarySearch.TITLE_WEIGHT, hits.get(0).getScore());
+        assertEquals(other, hits.get(0).getPlaylist());
+        assertEquals(LibrarySearch.GENRE_WEIGHT, hits.get(1).getScore());
+        assertEquals(playlist, hits.get(1).getPlaylist());
+        assertEquals(Arrays.asList(song4, song1), songsOf(search.search("POP", 2)));
+    }
+
+    @Test
+    public void testSearchEveryWord() {
+        assertEquals(Arrays.asList(song3), songsOf(search.search("beatles help", 10)));
+        List<SearchHit> hits = search.search("Beatles pop", 10);
+        assertEquals(Arrays.asList(song1, song3), songsOf(hits));
+        assertEquals(LibrarySearch.ARTIST_WEIGHT + LibrarySearch.GENRE_WEIGHT, hits.get(0).getScore());
+        assertEquals(Collections.emptyList(), search.search("beatles rock", 10));
+        assertEquals(Collections.emptyList(), search.search("beat", 10));
+        assertEquals(Collections.emptyList(), search.search("!", 10));
+    }
+
+    @Test
+    public void testSearchWordInSeveralFields() {
+        Song song5 = new Song("Rock Me", "Rock Band", 180, "Rock");
+        other.addSong(song5);
+        List<SearchHit> hits = search.search("rock", 10);
+        assertEquals(Arrays.asList(song5, song2), songsOf(hits));
+        assertEquals(LibrarySearch.TITLE_WEIGHT + LibrarySearch.ARTIST_WEIGHT + LibrarySearch.GENRE_WEIGHT,
+                hits.get(0).getScore());
+        assertEquals(Arrays.asList(song5), songsOf(search.search("rock me rock", 10)));
+    }
+
+    @Test
+    public void testSearchManyWordsInManyFields() {
+        Playlist colours = new Playlist("Colours");
+        Song songA = new Song("Red Blue Green Gold", "Red", 100, "Blue");
+        Song songB = new Song("Red", "Blue Green", 100, "Gold");
+        Song songC = new Song("Blue", "Gold", 100, "Red Green");
+        Song songD = new Song("Intro", "Red Blue Green Gold", 100, "Pop");
+        colours.addSong(songA);
+        colours.addSong(songB);
+        colours.addSong(songC);
+        colours.addSong(songD);
+        colours.addSong(new Song("Red Blue Green", "Red", 100, "Blue"));
+        search.watch(colours);
+
+        List<SearchHit> hits = search.search("gold green blue red", 10);
+        assertEquals(Arrays.asList(songA, songB, songD, songC), songsOf(hits));
+        assertEquals(15, hits.get(0).getScore());
+        assertEquals(8, hits.get(2).getScore());
+        assertEquals(7, hits.get(3).getScore());
+        assertEquals(Arrays.asList(songA, songB), songsOf(search.search("red blue green gold", 2)));
+        assertEquals(Collections.emptyList(), search.search("red blue green gold yesterday", 10));
+        colours.removeSong("Red");
+        assertEquals(Arrays.asList(songA, songD, songC), songsOf(search.search("red blue green gold", 10)));
+    }
+
+    @Test
+    public void testFollowsAddsAndRemoves() {
+        Song song5 = new Song("Clocks", "Coldplay", 307, "Rock");
+        playlist.addSong(song5);
+        assertEquals(Arrays.asList(song2, song5), songsOf(search.search("coldplay", 10)));
+        playlist.removeSong("Yellow");
+        assertEquals(Arrays.asList(song5), songsOf(search.search("coldplay", 10)));
+        playlist.removeAll(Arrays.asList(song1, song3));
+        assertEquals(Arrays.asList(song4), songsOf(search.search("pop", 10)));
+        assertEquals(2, search.getNumSongs());
+        playlist.addSongs(Arrays.asList(song1, song3));
+        assertEquals(Arrays.asList(song4, song1, song3), songsOf(search.search("pop", 10)));
+        assertEquals(4, search.getNumSongs());
+    }
+
+    @Test
+    public void testWatchLatest() {
+        Playlist copy = new Playlist("Road Trip");
+        Song song5 = new Song("Pop Goes the Weasel", "Anon", 60, "Folk");
+        copy.addSong(song4);
+        copy.addSong(song5);
+        search.watchLatest(copy);
+        assertEquals(Arrays.asList(playlist, copy), search.getWatched());
+        assertEquals(Arrays.asList(song4, song5, song1, song3), songsOf(search.search("pop", 10)));
+        search.watchLatest(copy);
+        assertEquals(5, search.getNumSongs());
+    }
+
+    @Test
+    public void testUnwatch() {
+        search.unwatch(other);
+        assertEquals(Arrays.asList(song1, song3), songsOf(search.search("pop", 10)));
+        assertEquals(Arrays.asList(playlist), search.getWatched());
+        other.addSong(new Song("Pop Goes the Weasel", "Anon", 60, "Folk"));
+        assertEquals(3, search.getNumSongs());
+        search.unwatch(other);
+        search.unwatch(playlist);
+        assertEquals(0, search.getNumSongs());
+        assertEquals(Collections.emptyList(), search.search("pop", 10));
+    }
+}
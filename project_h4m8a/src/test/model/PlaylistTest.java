@@ -460,6 +460,267 @@ class PlaylistTest {
         assertEquals(titles, testPlaylist.songTitlesInPlaylist());
     }
 
+    @Test
+    public void testShuffleWithSeedIsRepeatable() {
+        Playlist playlist2 = new Playlist("Copy");
+        playlist2.addSong(song1);
+        playlist2.addSong(song2);
+        playlist2.addSong(song3);
+
+        playlist.shuffle(7);
+        playlist2.shuffle(7);
+
+        assertEquals(playlist.getSongs(), playlist2.getSongs());
+    }
+
+    @Test
+    public void testMoveSongLogsEvent() {
+        EventLog.getInstance().clear();
+        playlist.moveSong(song3, 1);
+
+        Date time = Calendar.getInstance().getTime();
+        assertEquals(message + time + "\nMoved A Song to position 1 of Eden's Playlist\n\n",
+                printLog(EventLog.getInstance()));
+    }
+
+    @Test
+    public void testDirty() {
+        Playlist playlist2 = new Playlist("Playlist");
+        assertFalse(playlist2.isDirty());
+
+        playlist2.addSong(song1);
+        assertTrue(playlist2.isDirty());
+
+        playlist2.markClean();
+        assertFalse(playlist2.isDirty());
+
+        playlist2.reverse();
+        assertTrue(playlist2.isDirty());
+    }
+
+    @Test
+    public void testObserverNotified() {
+        List<PlaylistChange> changes = new ArrayList<>();
+        PlaylistObserver observer = (p, change) -> changes.add(change);
+        playlist.addObserver(observer);
+
+        playlist.removeSong("My Song");
+        playlist.moveSong(song3, 1);
+        playlist.arrangeByGenre();
+        playlist.removeObserver(observer);
+        playlist.reverse();
+
+        assertEquals(3, changes.size());
+        assertEquals(PlaylistChange.Type.REMOVE, changes.get(0).getType());
+        assertEquals(song2, changes.get(0).getSong());
+        assertEquals(1, changes.get(0).getIndex());
+        assertEquals(PlaylistChange.Type.MOVE, changes.get(1).getType());
+        assertEquals(1, changes.get(1).getIndex());
+        assertEquals(0, changes.get(1).getToIndex());
+        assertEquals("genre", changes.get(2).getDetail());
+    }
+
+    @Test
+    public void testApplyChange() {
+        Playlist copy = new Playlist("Copy");
+        copy.addSongJson(song1);
+        copy.addSongJson(song2);
+        copy.addSongJson(song3);
+        List<PlaylistChange> changes = new ArrayList<>();
+        playlist.addObserver((p, change) -> changes.add(change));
+
+        playlist.addSong(new Song("Z", "Zed", 5, "Jazz"));
+        playlist.shuffle(3);
+        playlist.arrangeByArtist();
+        playlist.moveSong(song1, 4);
+        playlist.removeSong("A Song");
+        playlist.reverse();
+        for (PlaylistChange change : changes) {
+            copy.applyChange(change);
+        }
+
+        assertEquals(playlist.getSongs(), copy.getSongs());
+        assertFalse(copy.isDirty());
+    }
+
+    @Test
+    public void testAddSongs() {
+        EventLog.getInstance().clear();
+        List<PlaylistChange> changes = new ArrayList<>();
+        playlist.addObserver((p, change) -> changes.add(change));
+        Song song4 = new Song("Z", "Zed", 5, "Jazz");
+        Song song5 = new Song("Y", "Yan", 6, "Jazz");
+
+        assertEquals(2, playlist.addSongs(Arrays.asList(song4, song1, song5, song4)));
+
+        Date time = Calendar.getInstance().getTime();
+        assertEquals(Arrays.asList(song1, song2, song3, song4, song5), playlist.getSongs());
+        assertEquals(message + time + "\nAdded 2 songs to Eden's Playlist\n\n", printLog(EventLog.getInstance()));
+        assertEquals(1, changes.size());
+        assertEquals(PlaylistChange.Type.ADD_ALL, changes.get(0).getType());
+        assertEquals(Arrays.asList(song4, song5), changes.get(0).getSongs());
+    }
+
+    @Test
+    public void testAddSongsNoneNew() {
+        playlist.markClean();
+        List<PlaylistChange> changes = new ArrayList<>();
+        playlist.addObserver((p, change) -> changes.add(change));
+
+        assertEquals(0, playlist.addSongs(Arrays.asList(song1, song2)));
+        assertEquals(3, playlist.getNumSongs());
+        assertTrue(changes.isEmpty());
+        assertFalse(playlist.isDirty());
+    }
+
+    @Test
+    public void testApplyAddSongs() {
+        Playlist copy = playlist.snapshot();
+        List<PlaylistChange> changes = new ArrayList<>();
+        playlist.addObserver((p, change) -> changes.add(change));
+        playlist.addSongs(Arrays.asList(new Song("Z", "Zed", 5, "Jazz"), new Song("Y", "Yan", 6, "Jazz")));
+
+        copy.applyChange(changes.get(0));
+        assertEquals(playlist.getSongs(), copy.getSongs());
+        assertEquals(2, changes.get(0).toJson().getJSONArray("songs").length());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        EventLog.getInstance().clear();
+        List<PlaylistChange> changes = new ArrayList<>();
+        playlist.addObserver((p, change) -> changes.add(change));
+        playlist.playNextSong();
+
+        assertEquals(2, playlist.removeAll(Arrays.asList(song3, new Song("Z", "Zed", 5, "Jazz"), song1)));
+
+        Date time = Calendar.getInstance().getTime();
+        assertEquals(Arrays.asList(song2), playlist.getSongs());
+        assertEquals(0, playlist.getCounter());
+        assertEquals(message + time + "\nRemoved 2 songs from Eden's Playlist\n\n",
+                printLog(EventLog.getInstance()));
+        assertEquals(1, changes.size());
+        assertEquals(PlaylistChange.Type.REMOVE_ALL, changes.get(0).getType());
+        assertEquals(Arrays.asList(song1, song3), changes.get(0).getSongs());
+        assertEquals(Arrays.asList(0, 2), changes.get(0).getIndexes());
+    }
+
+    @Test
+    public void testRemoveTitles() {
+        Song sameTitle = new Song("My Song", "Kim", 30, "Rock");
+        playlist.addSong(sameTitle);
+
+        assertEquals(3, playlist.removeTitles(Arrays.asList("My Song", "A Song", "No Song")));
+        assertEquals(Arrays.asList(song1), playlist.getSongs());
+    }
+
+    @Test
+    public void testRemoveIf() {
+        assertEquals(2, playlist.removeIf(song -> song.getTime() < 130));
+        assertEquals(Arrays.asList(song1), playlist.getSongs());
+    }
+
+    @Test
+    public void testRemoveIfNoneMatch() {
+        playlist.markClean();
+        playlist.playNextSong();
+        List<PlaylistChange> changes = new ArrayList<>();
+        playlist.addObserver((p, change) -> changes.add(change));
+
+        assertEquals(0, playlist.removeIf(song -> false));
+        assertEquals(3, playlist.getNumSongs());
+        assertEquals(1, playlist.getCounter());
+        assertTrue(changes.isEmpty());
+        assertFalse(playlist.isDirty());
+    }
+
+    @Test
+    public void testApplyRemoveAll() {
+        Playlist copy = playlist.snapshot();
+        List<PlaylistChange> changes = new ArrayList<>();
+        playlist.addObserver((p, change) -> changes.add(change));
+        playlist.removeTitles(Arrays.asList("Eden's Song", "A Song"));
+
+        copy.applyChange(changes.get(0));
+        assertEquals(playlist.getSongs(), copy.getSongs());
+        assertEquals(2, changes.get(0).toJson().getJSONArray("songs").length());
+    }
+
+    @Test
+    public void testGetSongsWindow() {
+        assertEquals(Arrays.asList(song2, song3), playlist.getSongs(1, 5));
+        assertEquals(Arrays.asList(song1), playlist.getSongs(0, 1));
+        assertTrue(playlist.getSongs(3, 2).isEmpty());
+        assertTrue(playlist.getSongs(7, Integer.MAX_VALUE).isEmpty());
+        assertEquals(3, playlist.getSongs(0, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testGetSongsIsReadOnly() {
+        try {
+            playlist.getSongs().clear();
+            fail("UnsupportedOperationException expected");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals(3, playlist.getNumSongs());
+    }
+
+    @Test
+    public void testVersion() {
+        long version = playlist.getVersion();
+        playlist.playNextSong();
+        playlist.markClean();
+        assertEquals(version, playlist.getVersion());
+        playlist.reverse();
+        assertTrue(playlist.getVersion() > version);
+        version = playlist.getVersion();
+        playlist.applyChange(new PlaylistChange(PlaylistChange.Type.REVERSE, null, -1, -1, null));
+        assertTrue(playlist.getVersion() > version);
+    }
+
+    @Test
+    public void testSnapshot() {
+        playlist.playNextSong();
+        Playlist copy = playlist.snapshot();
+        playlist.removeSong("My Song");
+
+        assertEquals("Eden's Playlist", copy.getPlaylistName());
+        assertEquals(Arrays.asList(song1, song2, song3), copy.getSongs());
+        assertEquals(1, copy.getCounter());
+        assertFalse(copy.isDirty());
+    }
+
+    @Test
+    public void testReorderedByLeavesPlaylist() {
+        PlaylistChange byTitle = new PlaylistChange(PlaylistChange.Type.ARRANGE, null, -1, -1, "title");
+
+        assertEquals(Arrays.asList(song3, song1, song2), playlist.reorderedBy(byTitle));
+        assertEquals(Arrays.asList(song1, song2, song3), playlist.getSongs());
+        assertEquals(Arrays.asList(song3, song2, song1),
+                playlist.reorderedBy(new PlaylistChange(PlaylistChange.Type.REVERSE, null, -1, -1, null)));
+    }
+
+    @Test
+    public void testReorderFromSnapshot() {
+        PlaylistChange shuffle = new PlaylistChange(PlaylistChange.Type.SHUFFLE, null, -1, -1, "42");
+        List<Song> reordered = playlist.snapshot().reorderedBy(shuffle);
+        List<PlaylistChange> changes = new ArrayList<>();
+        playlist.addObserver((p, change) -> changes.add(change));
+        playlist.playNextSong();
+        long version = playlist.getVersion();
+        playlist.reorder(shuffle, reordered);
+
+        assertEquals(reordered, playlist.getSongs());
+        assertEquals(0, playlist.getCounter());
+        assertEquals(Arrays.asList(shuffle), changes);
+        assertEquals(version + 1, playlist.getVersion());
+        Playlist shuffled = new Playlist("Shuffled");
+        shuffled.addSongs(Arrays.asList(song1, song2, song3));
+        shuffled.shuffle(42);
+        assertEquals(shuffled.getSongs(), playlist.getSongs());
+    }
+
     @Test
     public void testToString() {
         assertEquals("Eden's Playlist has 3 song(s)\nSongs:Eden's SongMy SongA Song", playlist.toString());
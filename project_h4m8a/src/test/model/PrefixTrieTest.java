@@ -0,0 +1,101 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefixTrieTest {
+    private PrefixTrie trie;
+
+    @BeforeEach
+    public void runBefore() {
+        trie = new PrefixTrie();
+        trie.add("Beatles", 3);
+        trie.add("Beach Boys");
+        trie.add("Bee Gees", 2);
+        trie.add("Coldplay");
+    }
+
+    @Test
+    public void testConstructor() {
+        PrefixTrie empty = new PrefixTrie();
+        assertEquals(0, empty.size());
+        assertEquals(Collections.emptyList(), empty.complete("", 5));
+        assertEquals(0, empty.getCount("Beatles"));
+    }
+
+    @Test
+    public void testCompleteRanksByCount() {
+        assertEquals(Arrays.asList("Beatles", "Bee Gees", "Beach Boys"), trie.complete("be", 5));
+        assertEquals(Arrays.asList("Beatles", "Bee Gees"), trie.complete("BE", 2));
+        assertEquals(Arrays.asList("Beatles", "Beach Boys"), trie.complete("bea", 5));
+        assertEquals(Arrays.asList("Beatles", "Bee Gees", "Beach Boys", "Coldplay"), trie.complete("", 5));
+        assertEquals(Collections.emptyList(), trie.complete("x", 5));
+    }
+
+    @Test
+    public void testCompleteTiesAlphabetical() {
+        trie.add("Beach Boys");
+        trie.add("Beck", 2);
+        assertEquals(Arrays.asList("Beatles", "Beach Boys", "Beck", "Bee Gees"), trie.complete("be", 5));
+    }
+
+    @Test
+    public void testCompleteIncludesPrefixItself() {
+        trie.add("Bee");
+        trie.add("Bee", 2);
+        assertEquals(Arrays.asList("Beatles", "Bee", "Bee Gees"), trie.complete("be", 3));
+        assertEquals(Arrays.asList("Bee", "Bee Gees"), trie.complete("bee", 5));
+    }
+
+    @Test
+    public void testSpelling() {
+        trie.add("beatles");
+        trie.add("BEATLES");
+        assertEquals(5, trie.getCount("Beatles"));
+        assertEquals(4, trie.size());
+        assertEquals("Beatles", trie.canonical("bEaTlEs"));
+        assertEquals("Unknown", trie.canonical("Unknown"));
+        assertEquals("Beat", trie.canonical("Beat"));
+        trie.add("beatles", 3);
+        assertEquals("beatles", trie.canonical("Beatles"));
+        assertEquals(Arrays.asList("beatles"), trie.complete("beat", 5));
+    }
+
+    @Test
+    public void testRemove() {
+        trie.remove("beatles");
+        assertEquals(2, trie.getCount("Beatles"));
+        trie.remove("Coldplay");
+        assertEquals(3, trie.size());
+        assertEquals(Collections.emptyList(), trie.complete("c", 5));
+        trie.remove("Coldplay");
+        trie.remove("Cold");
+        trie.remove("Nobody");
+        assertEquals(3, trie.size());
+        trie.remove("Beach Boys");
+        assertEquals(Arrays.asList("Beatles", "Bee Gees"), trie.complete("be", 5));
+        trie.add("Coldplay");
+        assertEquals(Arrays.asList("Coldplay"), trie.complete("co", 5));
+    }
+
+    @Test
+    public void testRemoveKeepsOtherSpellings() {
+        trie.add("beatles", 4);
+        trie.remove("beatles");
+        trie.remove("beatles");
+        assertEquals("Beatles", trie.canonical("BEATLES"));
+        assertEquals(5, trie.getCount("Beatles"));
+    }
+
+    @Test
+    public void testRemoveReranks() {
+        trie.remove("Beatles");
+        trie.remove("Beatles");
+        assertEquals(Arrays.asList("Bee Gees", "Beach Boys", "Beatles"), trie.complete("be", 5));
+    }
+}
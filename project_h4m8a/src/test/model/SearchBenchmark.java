@@ -0,0 +1,116 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Represents a benchmark of library search. It indexes several large generated playlists whose titles, artists
+// and genres repeat like a real library's, then measures, for queries ranging from one rare word to words that
+// every song has and long queries that no song matches, the first, fastest and median time of many searches for
+// the top hits.
+public class SearchBenchmark {
+    private static final String[] GENRES = {"Pop", "Rock", "Jazz", "Classical", "Hip Hop", "Electronic",
+            "Country", "Blues", "Folk", "Metal", "R&B", "Reggae"};
+    private static final String[] SYLLABLES = {"la", "mo", "ri", "sun", "ka", "ve", "dor", "ni", "ta", "lu",
+            "bel", "so", "mi", "ra", "zen", "po", "fa", "do", "quo", "tri"};
+    private static final String[] QUERIES = {"artist 4242", "rimo", "rock", "rimo rock", "lamo sunka jazz",
+            "artist", "pop jazz", "hip hop artist 17", "rock artist", "lamo sunka rimo veni tado belso",
+            "rock artist pop jazz blues folk metal", "lamo sunka rimo rock artist 4242 hip hop",
+            "artist rock pop jazz classical blues country folk metal reggae"};
+    private static final int NUM_PLAYLISTS = 5;
+    private static final int NUM_ARTISTS = 5000;
+    private static final int RUNS = 50;
+    private static final int TOP = 20;
+    private static final int CROSSOVER = 100000;    // one in this many titles also names a genre and an artist
+    private static final int GENRE_TITLES = 10;     // one in this many titles also names a genre
+    private int numSongs;
+
+    // EFFECTS: creates a benchmark that searches numSongs songs, spread over NUM_PLAYLISTS playlists
+    public SearchBenchmark(int numSongs) {
+        this.numSongs = numSongs;
+    }
+
+    // EFFECTS: runs the benchmark on 5000000 songs, or the number given, and prints the results; needs a heap of
+    //          about 3 GB for 5000000 songs
+    public static void main(String[] args) {
+        int numSongs = args.length > 0 ? Integer.parseInt(args[0]) : 5000000;
+        for (String line : new SearchBenchmark(numSongs).run()) {
+            System.out.println(line);
+        }
+    }
+
+    /*
+     * EFFECTS: indexes the generated playlists and returns a line with the time that took, then one line per
+     *          query with the number of hits and the fastest and median search time
+     */
+    public List<String> run() {
+        List<Playlist> playlists = generate();
+        LibrarySearch search = new LibrarySearch();
+        long start = System.nanoTime();
+        for (Playlist playlist : playlists) {
+            search.watch(playlist);
+        }
+        List<String> results = new ArrayList<>();
+        results.add(String.format("indexed %d songs, %d words in %.0f ms", search.getNumSongs(),
+                search.getNumWords(), (System.nanoTime() - start) / 1e6));
+        results.add(String.format("%-62s %6s %10s %10s %10s", "query", "hits", "first ms", "best ms", "median ms"));
+        for (String query : QUERIES) {
+            results.add(measure(search, query));
+        }
+        return results;
+    }
+
+    /*
+     * EFFECTS: searches for the TOP best hits for query RUNS times and returns a line with the number of hits,
+     *          the time of the first search, before the search code has warmed up, and the fastest and median time
+     */
+    private String measure(LibrarySearch search, String query) {
+        long[] times = new long[RUNS];
+        int hits = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            hits = search.search(query, TOP).size();
+            times[i] = System.nanoTime() - start;
+        }
+        long first = times[0];
+        Arrays.sort(times);
+        return String.format("%-62s %6d %10.3f %10.3f %10.3f", query, hits, first / 1e6, times[0] / 1e6,
+                times[RUNS / 2] / 1e6);
+    }
+
+    // EFFECTS: returns NUM_PLAYLISTS playlists holding numSongs songs between them
+    private List<Playlist> generate() {
+        Random random = new Random(numSongs);
+        String[] artists = new String[NUM_ARTISTS];
+        for (int i = 0; i < NUM_ARTISTS; i++) {
+            artists[i] = "Artist " + i;
+        }
+        List<Playlist> playlists = new ArrayList<>();
+        for (int p = 0; p < NUM_PLAYLISTS; p++) {
+            int size = numSongs / NUM_PLAYLISTS + (p < numSongs % NUM_PLAYLISTS ? 1 : 0);
+            List<Song> songs = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String title = word(random) + " " + word(random) + " " + word(random);
+                if (i % CROSSOVER == 0) {
+                    title += " Rock Artist";
+                }
+                String genre = GENRES[random.nextInt(GENRES.length)];
+                if (i % GENRE_TITLES == 1) {
+                    title += " " + GENRES[random.nextInt(GENRES.length)];
+                }
+                songs.add(new Song(title, artists[random.nextInt(NUM_ARTISTS)], 60 + random.nextInt(540), genre));
+            }
+            Playlist playlist = new Playlist("Benchmark " + p);
+            playlist.addSongs(songs);
+            playlists.add(playlist);
+        }
+        return playlists;
+    }
+
+    // EFFECTS: returns a word of two syllables, capitalized
+    private static String word(Random random) {
+        String word = SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)];
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,20 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        List<String> results = new SearchBenchmark(1000).run();
+
+        assertEquals(15, results.size());
+        assertTrue(results.get(0).startsWith("indexed 1000 songs"));
+        assertTrue(results.get(1).startsWith("query "));
+        assertTrue(results.get(2).startsWith("artist 4242 "));
+    }
+}
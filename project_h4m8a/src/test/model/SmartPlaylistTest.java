@@ -0,0 +1,116 @@
+package model;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmartPlaylistTest {
+    private Playlist playlist;
+    private Playlist other;
+    private SmartPlaylist shortJazz;
+    private Song song1;
+    private Song song2;
+    private Song song3;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Eden's Playlist");
+        other = new Playlist("Road Trip");
+        song1 = new Song("Take Five", "Dave Brubeck", 324, "Jazz");
+        song2 = new Song("Yellow", "Coldplay", 266, "Rock");
+        song3 = new Song("Blue in Green", "Miles Davis", 337, "Jazz");
+        playlist.addSong(song1);
+        playlist.addSong(song2);
+        shortJazz = new SmartPlaylist("Short Jazz",
+                Arrays.asList(new SongRule(SongRule.Field.GENRE, SongRule.Operator.IS, "Jazz"),
+                        new SongRule(SongRule.Field.TIME, SongRule.Operator.LESS_THAN, "330")),
+                Arrays.asList("Eden's Playlist", "Road Trip"));
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals("Short Jazz", shortJazz.getName());
+        assertEquals("Short Jazz", shortJazz.toString());
+        assertEquals(2, shortJazz.getRules().size());
+        assertEquals(Arrays.asList("Eden's Playlist", "Road Trip"), shortJazz.getSourceNames());
+        assertEquals(Collections.emptyList(), shortJazz.getSongs());
+        assertEquals("genre is Jazz and time less than 330", shortJazz.describeRules());
+        assertEquals("every song", new SmartPlaylist("All", new ArrayList<>(), new ArrayList<>()).describeRules());
+    }
+
+    @Test
+    public void testAttach() {
+        shortJazz.attach(playlist);
+        assertEquals(Arrays.asList(song1), shortJazz.getSongs());
+        assertEquals(2, shortJazz.getNumChecked());
+        assertEquals(Arrays.asList(playlist), shortJazz.getSources());
+        shortJazz.attach(playlist);
+        assertEquals(2, shortJazz.getNumChecked());
+        assertTrue(shortJazz.matches(song1));
+        assertFalse(shortJazz.matches(song3));
+    }
+
+    @Test
+    public void testFollowsChangesWithoutRescanning() {
+        shortJazz.attach(playlist);
+        Song song4 = new Song("Blue Train", "John Coltrane", 643, "Jazz");
+        Song song5 = new Song("Naima", "John Coltrane", 261, "Jazz");
+        playlist.addSong(song4);
+        playlist.addSong(song5);
+        assertEquals(Arrays.asList(song1, song5), shortJazz.getSongs());
+        playlist.shuffle();
+        playlist.arrangeByTitle();
+        playlist.removeSong("Take Five");
+        playlist.removeSong("Yellow");
+        assertEquals(Arrays.asList(song5), shortJazz.getSongs());
+        playlist.addSongs(Arrays.asList(song1, song2));
+        playlist.removeAll(Arrays.asList(song4, song5));
+        assertEquals(Arrays.asList(song1), shortJazz.getSongs());
+        assertEquals(2 + 2 + 2 + 2 + 2, shortJazz.getNumChecked());
+    }
+
+    @Test
+    public void testSeveralSources() {
+        shortJazz.attach(playlist);
+        shortJazz.attach(other);
+        other.addSong(new Song("Take Five", "Dave Brubeck", 324, "Jazz"));
+        other.addSong(new Song("So What", "Miles Davis", 300, "Jazz"));
+        assertEquals(2, shortJazz.getNumSongs());
+        playlist.removeSong("Take Five");
+        assertEquals(2, shortJazz.getNumSongs());
+        shortJazz.detach(other);
+        assertEquals(Collections.emptyList(), shortJazz.getSongs());
+        other.addSong(new Song("Naima", "John Coltrane", 261, "Jazz"));
+        assertEquals(0, shortJazz.getNumSongs());
+        shortJazz.detach(other);
+        assertEquals(Arrays.asList(playlist), shortJazz.getSources());
+    }
+
+    @Test
+    public void testAttachReplacesCopy() {
+        shortJazz.attach(playlist);
+        Playlist copy = new Playlist("Eden's Playlist");
+        copy.addSong(song3);
+        copy.addSong(new Song("Naima", "John Coltrane", 261, "Jazz"));
+        shortJazz.attach(copy);
+        assertEquals(Arrays.asList(copy), shortJazz.getSources());
+        assertEquals(1, shortJazz.getNumSongs());
+        playlist.addSong(new Song("So What", "Miles Davis", 300, "Jazz"));
+        assertEquals(1, shortJazz.getNumSongs());
+    }
+
+    @Test
+    public void testToJson() {
+        JSONObject json = shortJazz.toJson();
+        assertEquals("Short Jazz", json.getString("name"));
+        assertEquals(2, json.getJSONArray("sources").length());
+        assertEquals("Road Trip", json.getJSONArray("sources").getString(1));
+        assertEquals("IS", json.getJSONArray("rules").getJSONObject(0).getString("operator"));
+    }
+}
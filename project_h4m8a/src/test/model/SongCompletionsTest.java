@@ -0,0 +1,86 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SongCompletionsTest {
+    private Playlist playlist;
+    private Playlist other;
+    private SongCompletions completions;
+    private Song song1;
+    private Song song2;
+    private Song song3;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Eden's Playlist");
+        other = new Playlist("Road Trip");
+        song1 = new Song("Yesterday", "Beatles", 125, "Pop");
+        song2 = new Song("Yellow", "Coldplay", 266, "Rock");
+        song3 = new Song("Help", "Beatles", 138, "Pop");
+        playlist.addSong(song1);
+        playlist.addSong(song2);
+        playlist.addSong(song3);
+        other.addSong(new Song("Stayin' Alive", "Bee Gees", 285, "Disco"));
+        completions = new SongCompletions();
+        completions.watch(playlist);
+    }
+
+    @Test
+    public void testWatch() {
+        assertTrue(completions.isWatched(playlist));
+        assertFalse(completions.isWatched(other));
+        assertEquals(2, completions.getNumArtists());
+        assertEquals(2, completions.getNumGenres());
+        completions.watch(playlist);
+        assertEquals(Arrays.asList("Beatles"), completions.completeArtist("b", 5));
+        assertEquals(Arrays.asList("Pop"), completions.completeGenre("P", 5));
+    }
+
+    @Test
+    public void testAcrossPlaylists() {
+        completions.watch(other);
+        other.addSong(new Song("Night Fever", "Bee Gees", 213, "Disco"));
+        other.addSong(new Song("Tragedy", "Bee Gees", 301, "Disco"));
+        assertEquals(Arrays.asList("Bee Gees", "Beatles"), completions.completeArtist("be", 5));
+        assertEquals(Arrays.asList("Disco"), completions.completeGenre("d", 5));
+        completions.unwatch(other);
+        assertFalse(completions.isWatched(other));
+        assertEquals(Arrays.asList("Beatles"), completions.completeArtist("be", 5));
+        assertEquals(Collections.emptyList(), completions.completeGenre("d", 5));
+        completions.unwatch(other);
+        assertEquals(2, completions.getNumArtists());
+    }
+
+    @Test
+    public void testWatchOnly() {
+        completions.watchOnly(other);
+        assertTrue(completions.isWatched(other));
+        assertFalse(completions.isWatched(playlist));
+        assertEquals(Arrays.asList("Bee Gees"), completions.completeArtist("be", 5));
+        playlist.addSong(new Song("Clocks", "Coldplay", 307, "Rock"));
+        assertEquals(Collections.emptyList(), completions.completeArtist("c", 5));
+    }
+
+    @Test
+    public void testFollowsAddsAndRemoves() {
+        playlist.addSong(new Song("Clocks", "coldplay", 307, "Rock"));
+        playlist.addSong(new Song("Fix You", "coldplay", 295, "Rock"));
+        assertEquals(Arrays.asList("coldplay", "Beatles"), completions.completeArtist("", 5));
+        assertEquals("Rock", completions.canonicalGenre("ROCK"));
+        playlist.removeSong("Yesterday");
+        playlist.removeSong("Help");
+        assertEquals(Arrays.asList("coldplay"), completions.completeArtist("", 5));
+        assertEquals("Beatles", completions.canonicalArtist("Beatles"));
+        playlist.addSongs(Arrays.asList(song1, song3));
+        assertEquals("Beatles", completions.canonicalArtist("BEATLES"));
+        playlist.removeAll(Arrays.asList(song1, song2));
+        assertEquals(Arrays.asList("coldplay", "Beatles"), completions.completeArtist("", 5));
+        assertEquals("coldplay", completions.canonicalArtist("Coldplay"));
+    }
+}
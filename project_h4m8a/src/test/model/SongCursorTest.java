@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SongCursorTest {
+    private Playlist playlist;
+    private List<Song> added;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Paged Playlist");
+        added = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            added.add(new Song("Song " + i, "eden", 10 + i, "Pop"));
+        }
+        playlist.addSongs(added);
+    }
+
+    @Test
+    public void testIteratesInPages() {
+        SongCursor cursor = playlist.cursor(3);
+        List<Song> read = new ArrayList<>();
+        assertEquals(0, cursor.nextIndex());
+        while (cursor.hasNext()) {
+            read.add(cursor.next());
+        }
+        assertEquals(added, read);
+        assertEquals(7, cursor.nextIndex());
+        try {
+            cursor.next();
+            fail("NoSuchElementException expected");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testExactMultipleOfPageSize() {
+        playlist.removeTitles(List.of("Song 6"));
+        SongCursor cursor = playlist.cursor(2);
+        int count = 0;
+        while (cursor.hasNext()) {
+            cursor.next();
+            count++;
+        }
+        assertEquals(6, count);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertFalse(new Playlist("Empty").cursor(5).hasNext());
+    }
+
+    @Test
+    public void testFailFast() {
+        SongCursor cursor = playlist.cursor(3);
+        cursor.next();
+        playlist.addSong(new Song("New", "kim", 5, "Rock"));
+        try {
+            cursor.next();
+            fail("ConcurrentModificationException expected");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSnapshotCursorIgnoresChanges() {
+        SongCursor cursor = playlist.snapshot().cursor(3);
+        cursor.next();
+        playlist.reverse();
+        int count = 1;
+        while (cursor.hasNext()) {
+            cursor.next();
+            count++;
+        }
+        assertEquals(7, count);
+    }
+}
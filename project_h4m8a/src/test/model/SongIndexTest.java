@@ -0,0 +1,123 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SongIndexTest {
+    private Playlist playlist;
+    private SongIndex index;
+    private Song song1;
+    private Song song2;
+    private Song song3;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Eden's Playlist");
+        song1 = new Song("Eden's Song", "Eden", 138, "Classical");
+        song2 = new Song("My Song", "EK", 120, "Orchestral");
+        song3 = new Song("A Tune", "Eun", 60, "Hip-Hop");
+        playlist.addSong(song1);
+        playlist.addSong(song2);
+        playlist.addSong(song3);
+        index = new SongIndex(playlist);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(3, index.getNumSongs());
+        assertTrue(index.getNumTrigrams() > 0);
+        assertEquals(playlist, index.getPlaylist());
+    }
+
+    @Test
+    public void testSearchFields() {
+        assertEquals(Arrays.asList(song1, song2), index.search("song"));
+        assertEquals(Arrays.asList(song3), index.search("Eun"));
+        assertEquals(Arrays.asList(song2), index.search("ORCHESTRAL"));
+        assertEquals(Arrays.asList(song3), index.search("hip-h"));
+        assertEquals(Collections.emptyList(), index.search("jazz"));
+    }
+
+    @Test
+    public void testSearchShortText() {
+        assertEquals(Arrays.asList(song1, song2, song3), index.search(""));
+        assertEquals(Arrays.asList(song2, song3), index.search("t"));
+        assertEquals(Arrays.asList(song2), index.search("ek"));
+    }
+
+    @Test
+    public void testSearchNeedsWholeText() {
+        playlist.addSong(new Song("abc bcd", "x", 10, "y"));
+
+        assertEquals(Collections.emptyList(), index.search("abcd"));
+    }
+
+    @Test
+    public void testSearchDoesNotSpanFields() {
+        assertEquals(Collections.emptyList(), index.search("tuneeun"));
+        assertEquals(Collections.emptyList(), index.search("tune eun"));
+    }
+
+    @Test
+    public void testSearchFollowsPlaylistOrder() {
+        playlist.arrangeByTitle();
+        assertEquals(Arrays.asList(song3, song1, song2), index.search("e"));
+
+        playlist.reverse();
+        assertEquals(Arrays.asList(song2, song1), index.search("song"));
+    }
+
+    @Test
+    public void testUpdateAdd() {
+        Song song4 = new Song("Song of Songs", "Kim", 90, "Jazz");
+        index.search("song");
+        playlist.addSong(song4);
+        playlist.addSongs(Arrays.asList(new Song("Other", "Lee", 30, "Jazz"), song1));
+
+        assertEquals(5, index.getNumSongs());
+        assertEquals(Arrays.asList(song1, song2, song4), index.search("song"));
+        assertEquals(2, index.search("jazz").size());
+    }
+
+    @Test
+    public void testUpdateRemove() {
+        playlist.removeSong("My Song");
+        assertEquals(Arrays.asList(song1), index.search("song"));
+
+        playlist.removeAll(Arrays.asList(song1, song3));
+        assertEquals(0, index.getNumSongs());
+        assertEquals(Collections.emptyList(), index.search("e"));
+
+        playlist.addSong(song2);
+        assertEquals(Arrays.asList(song2), index.search("song"));
+    }
+
+    @Test
+    public void testRebuildAfterManyRemovals() {
+        List<Song> many = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            many.add(new Song("Track " + i, "Band", 100, "Rock"));
+        }
+        playlist.addSongs(many);
+        playlist.removeAll(many.subList(0, 90));
+
+        assertEquals(13, index.getNumSongs());
+        assertEquals(many.subList(90, 100), index.search("track"));
+        assertEquals(Arrays.asList(many.get(95)), index.search("track 95"));
+    }
+
+    @Test
+    public void testClose() {
+        index.close();
+        playlist.removeSong("My Song");
+
+        assertEquals(3, index.getNumSongs());
+    }
+}
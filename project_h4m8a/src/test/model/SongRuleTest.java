@@ -0,0 +1,57 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static model.SongRule.Field.*;
+import static model.SongRule.Operator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SongRuleTest {
+    private Song song;
+
+    @BeforeEach
+    public void runBefore() {
+        song = new Song("So What", "Miles Davis", 562, "Jazz");
+    }
+
+    @Test
+    public void testConstructor() {
+        SongRule rule = new SongRule(GENRE, IS, "Jazz");
+        assertEquals(GENRE, rule.getField());
+        assertEquals(IS, rule.getOperator());
+        assertEquals("Jazz", rule.getValue());
+        assertEquals("genre is Jazz", rule.toString());
+        assertEquals("time less than 300", new SongRule(TIME, LESS_THAN, "300").toString());
+    }
+
+    @Test
+    public void testTextFields() {
+        assertTrue(new SongRule(GENRE, IS, "jazz").matches(song));
+        assertFalse(new SongRule(GENRE, IS, "Jaz").matches(song));
+        assertTrue(new SongRule(ARTIST, CONTAINS, "DAVIS").matches(song));
+        assertTrue(new SongRule(TITLE, CONTAINS, "what").matches(song));
+        assertFalse(new SongRule(TITLE, CONTAINS, "who").matches(song));
+        assertTrue(new SongRule(TITLE, LESS_THAN, "t").matches(song));
+        assertFalse(new SongRule(TITLE, MORE_THAN, "t").matches(song));
+        assertTrue(new SongRule(ARTIST, MORE_THAN, "Louis").matches(song));
+    }
+
+    @Test
+    public void testTime() {
+        assertTrue(new SongRule(TIME, IS, "562").matches(song));
+        assertTrue(new SongRule(TIME, LESS_THAN, "600").matches(song));
+        assertFalse(new SongRule(TIME, LESS_THAN, "562").matches(song));
+        assertTrue(new SongRule(TIME, MORE_THAN, "90").matches(song));
+        assertFalse(new SongRule(TIME, MORE_THAN, "600").matches(song));
+        assertTrue(new SongRule(TIME, CONTAINS, "56").matches(song));
+    }
+
+    @Test
+    public void testToJson() {
+        SongRule rule = new SongRule(TIME, MORE_THAN, "90");
+        assertEquals("TIME", rule.toJson().getString("field"));
+        assertEquals("MORE_THAN", rule.toJson().getString("operator"));
+        assertEquals("90", rule.toJson().getString("value"));
+    }
+}
@@ -0,0 +1,54 @@
+package persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AtomicFileTest {
+    private static final String FILE = "./data/testAtomicFile.txt";
+
+    @AfterEach
+    public void runAfter() {
+        new File(FILE).delete();
+        new File(FILE + ".tmp").delete();
+    }
+
+    @Test
+    public void testCommit() {
+        try {
+            AtomicFile file = new AtomicFile(FILE);
+            OutputStream out = file.open();
+            out.write("hello".getBytes(StandardCharsets.UTF_8));
+            assertFalse(new File(FILE).exists());
+            file.commit();
+
+            assertEquals("hello", Files.readString(Paths.get(FILE)));
+            assertFalse(new File(FILE + ".tmp").exists());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testAbortLeavesDestination() {
+        try {
+            Files.writeString(Paths.get(FILE), "old");
+            AtomicFile file = new AtomicFile(FILE);
+            file.open().write("new".getBytes(StandardCharsets.UTF_8));
+            file.abort();
+
+            assertEquals("old", Files.readString(Paths.get(FILE)));
+            assertFalse(new File(FILE + ".tmp").exists());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+}
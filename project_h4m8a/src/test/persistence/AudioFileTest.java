@@ -0,0 +1,108 @@
+package persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Writes small audio files holding only the headers and tags the tag readers look at
+public class AudioFileTest extends JsonTest {
+    protected static final int MP3_BYTES_PER_SECOND = 16000;   // 128 kbit/s
+
+    // EFFECTS: writes an MP3 file with an ID3v2.3 tag holding given frames (id, text, id, text, ...),
+    //          seconds of 128 kbit/s audio and, if v1Title is not null, an ID3v1 tag
+    protected void writeMp3(Path file, int seconds, String v1Title, String... frames) throws IOException {
+        ByteArrayOutputStream tag = new ByteArrayOutputStream();
+        for (int i = 0; i < frames.length; i += 2) {
+            byte[] text = frames[i + 1].getBytes(StandardCharsets.ISO_8859_1);
+            tag.write(frames[i].getBytes(StandardCharsets.ISO_8859_1));
+            tag.write(ByteBuffer.allocate(6).putInt(text.length + 1).array());
+            tag.write(0);
+            tag.write(text);
+        }
+        tag.write(new byte[16]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] {'I', 'D', '3', 3, 0, 0});
+        out.write(ByteBuffer.allocate(4).putInt(synchsafe(tag.size())).array());
+        out.write(tag.toByteArray());
+        byte[] audio = new byte[seconds * MP3_BYTES_PER_SECOND];
+        ByteBuffer.wrap(audio).putInt(0xfffb9000);
+        out.write(audio);
+        if (v1Title != null) {
+            ByteBuffer v1 = ByteBuffer.allocate(128);
+            v1.put("TAG".getBytes(StandardCharsets.ISO_8859_1)).put(v1Title.getBytes(StandardCharsets.ISO_8859_1));
+            v1.put(127, (byte) 17);
+            out.write(v1.array());
+        }
+        Files.write(file, out.toByteArray());
+    }
+
+    // EFFECTS: writes a FLAC file of given seconds at 44.1 kHz with given vorbis comments ("KEY=value")
+    protected void writeFlac(Path file, int seconds, String... comments) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("fLaC".getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer streamInfo = ByteBuffer.allocate(34);
+        streamInfo.putLong(10, 44100L << 44 | (1L << 41) | (15L << 36) | 44100L * seconds);
+        writeFlacBlock(out, 0, false, streamInfo.array());
+        writeFlacBlock(out, 6, false, new byte[100]);
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        block.write(littleEndian(0));
+        block.write(littleEndian(comments.length));
+        for (String comment : comments) {
+            byte[] bytes = comment.getBytes(StandardCharsets.UTF_8);
+            block.write(littleEndian(bytes.length));
+            block.write(bytes);
+        }
+        writeFlacBlock(out, 4, true, block.toByteArray());
+        out.write(new byte[64]);
+        Files.write(file, out.toByteArray());
+    }
+
+    // EFFECTS: writes a 16 bit stereo 8 kHz WAV file of given seconds with given INFO items (id, text, ...)
+    protected void writeWav(Path file, int seconds, String... info) throws IOException {
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        ByteBuffer format = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        format.putShort((short) 1).putShort((short) 2).putInt(8000).putInt(32000).putShort((short) 4)
+                .putShort((short) 16);
+        writeWavChunk(chunks, "fmt ", format.array());
+        ByteArrayOutputStream list = new ByteArrayOutputStream();
+        list.write("INFO".getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < info.length; i += 2) {
+            writeWavChunk(list, info[i], (info[i + 1] + "\0").getBytes(StandardCharsets.UTF_8));
+        }
+        writeWavChunk(chunks, "LIST", list.toByteArray());
+        writeWavChunk(chunks, "data", new byte[seconds * 32000]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("RIFF".getBytes(StandardCharsets.US_ASCII));
+        out.write(littleEndian(chunks.size() + 4));
+        out.write("WAVE".getBytes(StandardCharsets.US_ASCII));
+        out.write(chunks.toByteArray());
+        Files.write(file, out.toByteArray());
+    }
+
+    private void writeFlacBlock(ByteArrayOutputStream out, int type, boolean last, byte[] data) throws IOException {
+        out.write((last ? 0x80 : 0) | type);
+        out.write(ByteBuffer.allocate(4).putInt(data.length).array(), 1, 3);
+        out.write(data);
+    }
+
+    private void writeWavChunk(ByteArrayOutputStream out, String id, byte[] data) throws IOException {
+        out.write(id.getBytes(StandardCharsets.US_ASCII));
+        out.write(littleEndian(data.length));
+        out.write(data);
+        if (data.length % 2 == 1) {
+            out.write(0);
+        }
+    }
+
+    private byte[] littleEndian(int value) {
+        return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array();
+    }
+
+    private int synchsafe(int value) {
+        return (value & 0x7f) | (value & 0x3f80) << 1 | (value & 0x1fc000) << 2 | (value & 0xfe00000) << 3;
+    }
+}
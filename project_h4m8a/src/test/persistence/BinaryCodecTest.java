@@ -0,0 +1,101 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryCodecTest extends JsonTest {
+    private BinaryCodec codec;
+
+    @BeforeEach
+    public void runBefore() {
+        codec = new BinaryCodec();
+    }
+
+    @Test
+    public void testMatches() {
+        byte[] binary = "PLST\u0001".getBytes(StandardCharsets.US_ASCII);
+        byte[] json = "{\"Name\"".getBytes(StandardCharsets.US_ASCII);
+        assertTrue(codec.matches(binary, binary.length));
+        assertFalse(codec.matches(binary, 3));
+        assertFalse(codec.matches(json, json.length));
+    }
+
+    @Test
+    public void testWriteThenRead() {
+        try {
+            Playlist playlist = new Playlist("Binary Playlist");
+            playlist.addSong(new Song("Song 1", "eden", 302, "Orchestral"));
+            playlist.addSong(new Song("S\u00f3ng 2", "Eun", 196, "Classical"));  // non-ASCII title
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            codec.write(playlist, out);
+
+            Playlist read = codec.read(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals("Binary Playlist", read.getPlaylistName());
+            assertEquals(2, read.getNumSongs());
+            checkSong("Song 1", "eden", 302, "Orchestral", read.getSong(0));
+            checkSong("S\u00f3ng 2", "Eun", 196, "Classical", read.getSong(1));  // non-ASCII title
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSmallerThanJson() {
+        try {
+            Playlist playlist = new Playlist("Large Playlist");
+            for (int i = 0; i < 1000; i++) {
+                playlist.addSongJson(new Song("Song " + i, "Artist " + (i % 50), i, "Pop"));
+            }
+            ByteArrayOutputStream binary = new ByteArrayOutputStream();
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            codec.write(playlist, binary);
+            new JsonCodec().write(playlist, json);
+
+            assertTrue(binary.size() < json.size() / 2);
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadWrongMagic() {
+        try {
+            codec.read(new ByteArrayInputStream("PLSX\u0001".getBytes(StandardCharsets.US_ASCII)));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReadInChunks() {
+        try {
+            Playlist playlist = new Playlist("Chunks");
+            for (int i = 0; i < 5; i++) {
+                playlist.addSong(new Song("Song " + i, "eden", 100 + i, "Pop"));
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            codec.write(playlist, out);
+            List<List<Song>> chunks = new ArrayList<>();
+
+            Playlist read = codec.read(new ByteArrayInputStream(out.toByteArray()), 2, chunks::add);
+            assertEquals(playlist.getSongs(), read.getSongs());
+            assertEquals(3, chunks.size());
+            assertEquals(playlist.getSongs().subList(2, 4), chunks.get(1));
+            assertEquals(playlist.getSongs().subList(4, 5), chunks.get(2));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodecRegistryTest extends JsonTest {
+    private static final String JSON_FILE = "./data/testRegistry.json";
+    private static final String BINARY_FILE = "./data/testRegistry.plst";
+    private CodecRegistry registry;
+    private Playlist playlist;
+
+    @BeforeEach
+    public void runBefore() {
+        registry = CodecRegistry.getInstance();
+        playlist = new Playlist("Registry Playlist");
+        playlist.addSong(new Song("Song 1", "eden", 302, "Orchestral"));
+    }
+
+    @AfterEach
+    public void runAfter() {
+        new File(JSON_FILE).delete();
+        new File(BINARY_FILE).delete();
+    }
+
+    @Test
+    public void testForFile() {
+        assertEquals("JSON", registry.forFile(JSON_FILE).getName());
+        assertEquals("Binary", registry.forFile(BINARY_FILE).getName());
+        assertEquals(registry.getDefault(), registry.forFile("./data/playlist"));
+        assertSame(registry, CodecRegistry.getInstance());
+    }
+
+    @Test
+    public void testWriteChoosesFormatByExtension() {
+        try {
+            registry.write(playlist, BINARY_FILE);
+            registry.write(playlist, JSON_FILE);
+
+            assertEquals('P', Files.readAllBytes(Paths.get(BINARY_FILE))[0]);
+            assertEquals('{', Files.readAllBytes(Paths.get(JSON_FILE))[0]);
+            checkSong("Song 1", "eden", 302, "Orchestral", registry.read(BINARY_FILE).getSong(0));
+            checkSong("Song 1", "eden", 302, "Orchestral", registry.read(JSON_FILE).getSong(0));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadDetectsFormatFromContents() {
+        try {
+            registry.write(playlist, BINARY_FILE);
+            Files.move(Paths.get(BINARY_FILE), Paths.get(JSON_FILE));
+
+            Playlist read = registry.read(JSON_FILE);
+            assertEquals("Registry Playlist", read.getPlaylistName());
+            checkSong("Song 1", "eden", 302, "Orchestral", read.getSong(0));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadExistingJsonFile() {
+        try {
+            Playlist read = registry.read("./data/testReaderEmpty.json");
+            assertEquals(0, read.getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+}
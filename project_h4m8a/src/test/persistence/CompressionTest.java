@@ -0,0 +1,106 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionTest extends JsonTest {
+    private static final String PLAIN = "./data/testCompression.json";
+    private static final String COMPRESSED = "./data/testCompression.json.gz";
+    private Playlist playlist;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Compressed Playlist");
+        for (int i = 0; i < 500; i++) {
+            playlist.addSongJson(new Song("Song " + i, "eden", i, "Pop"));
+        }
+    }
+
+    @AfterEach
+    public void runAfter() {
+        new File(PLAIN).delete();
+        new File(COMPRESSED).delete();
+    }
+
+    @Test
+    public void testSuffix() {
+        assertTrue(Compression.isCompressed(COMPRESSED));
+        assertFalse(Compression.isCompressed(PLAIN));
+        assertEquals(PLAIN, Compression.stripSuffix(COMPRESSED));
+        assertEquals(PLAIN, Compression.stripSuffix(PLAIN));
+    }
+
+    @Test
+    public void testJsonWriterCompressesAndReaderDetects() {
+        try {
+            writeJson(PLAIN);
+            writeJson(COMPRESSED);
+
+            assertTrue(Files.size(Paths.get(COMPRESSED)) < Files.size(Paths.get(PLAIN)) / 5);
+            Playlist read = new JsonReader(COMPRESSED).read();
+            assertEquals(500, read.getNumSongs());
+            checkSong("Song 499", "eden", 499, "Pop", read.getSong(499));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadCompressedFileWithAnyName() {
+        try {
+            writeJson(COMPRESSED);
+            Files.move(Paths.get(COMPRESSED), Paths.get(PLAIN));
+
+            assertEquals(500, new JsonReader(PLAIN).read().getNumSongs());
+            assertEquals(500, CodecRegistry.getInstance().read(PLAIN).getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testRegistryCompressesBinary() {
+        String binary = "./data/testCompression.plst.gz";
+        try {
+            CodecRegistry.getInstance().write(playlist, binary);
+
+            assertEquals("Binary", CodecRegistry.getInstance().forFile(binary).getName());
+            assertEquals(playlist.getSongs(), CodecRegistry.getInstance().read(binary).getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        } finally {
+            new File(binary).delete();
+        }
+    }
+
+    @Test
+    public void testDecompressLeavesPlainStream() {
+        try {
+            InputStream in = new BufferedInputStream(new ByteArrayInputStream(new byte[] {'{', '}'}));
+            assertSame(in, Compression.decompress(in));
+            assertEquals('{', in.read());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    private void writeJson(String path) throws IOException {
+        JsonWriter writer = new JsonWriter(path);
+        writer.open();
+        writer.write(playlist);
+        writer.close();
+    }
+}
@@ -0,0 +1,95 @@
+package persistence;
+
+import model.Playlist;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvImporterTest extends JsonTest {
+    private static final String FILE = "./data/testImport.csv";
+    private Playlist playlist;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Imported");
+    }
+
+    @AfterEach
+    public void runAfter() {
+        new File(FILE).delete();
+    }
+
+    @Test
+    public void testImport() {
+        try {
+            writeLines("Title, Artist, Duration, Genre",
+                    "Song 1,eden,302,Orchestral",
+                    "\"Song, with comma\",\"the \"\"band\"\"\",120,Rock",
+                    "Song 1,eden,302,Orchestral");
+
+            ImportResult result = new CsvImporter(FILE).importInto(playlist);
+            assertEquals(2, result.getSongsAdded());
+            assertEquals(0, result.getNumMalformed());
+            checkSong("Song 1", "eden", 302, "Orchestral", playlist.getSong(0));
+            checkSong("Song, with comma", "the \"band\"", 120, "Rock", playlist.getSong(1));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testImportReportsMalformedLines() {
+        try {
+            writeLines("Song 1,eden,302",
+                    "Song 2,eden,long,Pop",
+                    "\"Song 3,eden,100,Pop",
+                    "Song 4,,100,Pop",
+                    "Song 5,kim,100,Pop");
+
+            ImportResult result = new CsvImporter(FILE).importInto(playlist);
+            assertEquals(5, result.getLinesRead());
+            assertEquals(1, result.getSongsAdded());
+            assertEquals(4, result.getNumMalformed());
+            assertEquals("line 1: expected 4 fields but found 3", result.getMalformed().get(0));
+            checkSong("Song 5", "kim", 100, "Pop", playlist.getSong(0));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testParseFields() {
+        try {
+            assertEquals(Arrays.asList("a", "", "b,c", "d\"e"), CsvImporter.parseFields("a,,\"b,c\",\"d\"\"e\""));
+        } catch (MalformedLineException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReportKeepsFirstLines() {
+        ImportResult result = new ImportResult();
+        for (int i = 1; i <= ImportResult.MAX_REPORTED + 5; i++) {
+            result.addMalformed(i, "bad");
+        }
+
+        assertEquals(ImportResult.MAX_REPORTED + 5, result.getNumMalformed());
+        assertEquals(ImportResult.MAX_REPORTED, result.getMalformed().size());
+        assertEquals("Added 0 song(s) from 0 line(s), 105 malformed", result.toString());
+    }
+
+    private void writeLines(String... lines) throws IOException {
+        try (PrintWriter writer = new PrintWriter(FILE)) {
+            for (String line : lines) {
+                writer.println(line);
+            }
+        }
+    }
+}
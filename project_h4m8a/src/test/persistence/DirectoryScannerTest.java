@@ -0,0 +1,165 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectoryScannerTest extends AudioFileTest {
+    private static final Path ROOT = Paths.get("./data/testScan");
+    private DirectoryScanner scanner;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        deleteRoot();
+        scanner = new DirectoryScanner(4);
+        Files.createDirectories(ROOT.resolve("eden").resolve("album"));
+        Files.createDirectories(ROOT.resolve("kim"));
+        writeMp3(ROOT.resolve("eden").resolve("album").resolve("one.MP3"), 1, null, "TIT2", "Song 1",
+                "TPE1", "eden", "TCON", "Pop");
+        writeFlac(ROOT.resolve("eden").resolve("two.flac"), 20, "TITLE=Song 2", "ARTIST=eden");
+        writeWav(ROOT.resolve("kim").resolve("three.wav"), 1, "INAM", "Song 3");
+        Files.writeString(ROOT.resolve("kim").resolve("broken.flac"), "not audio");
+        Files.writeString(ROOT.resolve("kim").resolve("cover.jpg"), "not audio either");
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        scanner.close();
+        deleteRoot();
+    }
+
+    @Test
+    public void testScan() {
+        try {
+            ScanResult result = scanner.scan(ROOT);
+
+            assertEquals(4, result.getFilesScanned());
+            assertEquals(3, result.getSongs().size());
+            assertEquals(1, result.getNumFailed());
+            assertTrue(result.getFailures().get(0).contains("broken.flac"));
+            assertTrue(result.getElapsedNanos() > 0);
+            assertTrue(result.getFilesPerSecond() > 0);
+            assertTrue(result.toString().contains("files/s"));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testScanInto() {
+        Playlist playlist = new Playlist("Scanned");
+        try {
+            scanner.scanInto(ROOT, playlist);
+
+            assertEquals(3, playlist.getNumSongs());
+            Song song = playlist.getSong(playlist.findSongIndex("Song 2"));
+            checkSong("Song 2", "eden", 20, SongImporter.UNKNOWN, song);
+            assertTrue(playlist.isInPlaylist("Song 1"));
+            assertTrue(playlist.isInPlaylist("Song 3"));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testScanOrderedByPath() {
+        try {
+            ScanResult first = scanner.scan(ROOT);
+            ScanResult second = scanner.scan(ROOT);
+
+            assertEquals(first.getSongs(), second.getSongs());
+            assertEquals("Song 1", first.getSongs().get(0).getTitle());
+            assertEquals("Song 2", first.getSongs().get(1).getTitle());
+            assertEquals("Song 3", first.getSongs().get(2).getTitle());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testWalkSkipsFolderDeletedDuringWalk() {
+        List<Path> found = new ArrayList<>();
+        List<Path> deleted = new ArrayList<>();
+        List<Path> skipped = new ArrayList<>();
+        try {
+            scanner.walk(ROOT, new AudioFileVisitor() {
+                @Override
+                public void visitFolder(Path folder) throws IOException {
+                    if (ROOT.equals(folder.getParent()) && deleted.isEmpty()) {
+                        deleted.add(ROOT.resolve(folder.endsWith("eden") ? "kim" : "eden"));
+                        deleteTree(deleted.get(0));
+                    }
+                }
+
+                @Override
+                public void visitAudioFile(Path file) {
+                    found.add(file);
+                }
+
+                @Override
+                public void visitFailed(Path path, IOException error) {
+                    skipped.add(path);
+                }
+            });
+
+            assertEquals(deleted, skipped);
+            assertFalse(found.isEmpty());
+            for (Path file : found) {
+                assertFalse(file.startsWith(deleted.get(0)));
+            }
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testScanMissingFolder() {
+        try {
+            scanner.scan(ROOT.resolve("missing"));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRead() {
+        try {
+            assertTrue(scanner.isAudioFile(Paths.get("a.Flac")));
+            assertFalse(scanner.isAudioFile(Paths.get("a.jpg")));
+            assertFalse(scanner.isAudioFile(Paths.get("mp3")));
+            checkSong("Song 3", SongImporter.UNKNOWN, 1, SongImporter.UNKNOWN,
+                    scanner.read(ROOT.resolve("kim").resolve("three.wav")));
+            scanner.read(ROOT.resolve("kim").resolve("cover.jpg"));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private void deleteRoot() throws IOException {
+        deleteTree(ROOT);
+    }
+
+    private void deleteTree(Path folder) throws IOException {
+        if (Files.exists(folder)) {
+            try (Stream<Path> files = Files.walk(folder)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+}
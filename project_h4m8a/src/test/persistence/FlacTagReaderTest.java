@@ -0,0 +1,55 @@
+package persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlacTagReaderTest extends AudioFileTest {
+    private static final Path FILE = Paths.get("./data/testTags.flac");
+    private FlacTagReader reader = new FlacTagReader();
+
+    @AfterEach
+    public void runAfter() {
+        new File(FILE.toString()).delete();
+    }
+
+    @Test
+    public void testRead() {
+        try {
+            writeFlac(FILE, 196, "title=Song 2", "ARTIST=kim", "GENRE=Rock", "ALBUM=Album");
+
+            checkSong("Song 2", "kim", 196, "Rock", reader.read(FILE));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadWithoutComments() {
+        try {
+            writeFlac(FILE, 5);
+
+            checkSong("testTags", SongImporter.UNKNOWN, 5, SongImporter.UNKNOWN, reader.read(FILE));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadNotFlac() {
+        try {
+            Files.writeString(FILE, "not a flac file");
+            reader.read(FILE);
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package persistence;
+
+import model.Playlist;
+import model.PlaylistChange;
+import model.Song;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalBatchTest {
+    private PlaylistChange add;
+    private PlaylistChange reverse;
+
+    @BeforeEach
+    public void runBefore() {
+        add = new PlaylistChange(PlaylistChange.Type.ADD, new Song("a", "b", 1, "c"), -1, 0, null);
+        reverse = new PlaylistChange(PlaylistChange.Type.REVERSE, null, -1, -1, null);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(new JournalBatch(null, new ArrayList<>()).isEmpty());
+        assertFalse(new JournalBatch(new Playlist("p"), new ArrayList<>()).isEmpty());
+        assertFalse(new JournalBatch(null, Arrays.asList(add)).isEmpty());
+    }
+
+    @Test
+    public void testChangesCannotBeModified() {
+        List<PlaylistChange> changes = new ArrayList<>(Arrays.asList(add));
+        JournalBatch batch = new JournalBatch(null, changes);
+        changes.add(reverse);
+
+        assertEquals(1, batch.getChanges().size());
+        assertThrows(UnsupportedOperationException.class, () -> batch.getChanges().add(reverse));
+    }
+
+    @Test
+    public void testMergeChanges() {
+        Playlist snapshot = new Playlist("p");
+        JournalBatch merged = new JournalBatch(snapshot, Arrays.asList(add))
+                .merge(new JournalBatch(null, Arrays.asList(reverse)));
+
+        assertEquals(snapshot, merged.getSnapshot());
+        assertEquals(Arrays.asList(add, reverse), merged.getChanges());
+    }
+
+    @Test
+    public void testMergeLaterSnapshot() {
+        Playlist snapshot = new Playlist("p");
+        JournalBatch merged = new JournalBatch(null, Arrays.asList(add))
+                .merge(new JournalBatch(snapshot, Arrays.asList(reverse)));
+
+        assertEquals(snapshot, merged.getSnapshot());
+        assertEquals(Arrays.asList(reverse), merged.getChanges());
+    }
+}
@@ -0,0 +1,153 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonCodecTest extends JsonTest {
+    private JsonCodec codec;
+
+    @BeforeEach
+    public void runBefore() {
+        codec = new JsonCodec();
+    }
+
+    @Test
+    public void testMatches() {
+        byte[] json = "  \n{\"Name\"".getBytes(StandardCharsets.UTF_8);
+        byte[] other = "PLST".getBytes(StandardCharsets.UTF_8);
+        assertTrue(codec.matches(json, json.length));
+        assertFalse(codec.matches(other, other.length));
+        assertFalse(codec.matches(json, 2));
+        assertEquals(".json", codec.getExtension());
+    }
+
+    @Test
+    public void testWriteThenRead() {
+        try {
+            Playlist playlist = new Playlist("Codec Playlist");
+            playlist.addSong(new Song("Song 1", "eden", 302, "Orchestral"));
+            playlist.addSong(new Song("S\u00f3ng 2", "Eun", 196, "Classical"));  // non-ASCII title
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            codec.write(playlist, out);
+
+            Playlist read = codec.read(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals("Codec Playlist", read.getPlaylistName());
+            assertEquals(2, read.getNumSongs());
+            checkSong("S\u00f3ng 2", "Eun", 196, "Classical", read.getSong(1));  // non-ASCII title
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadNotJson() {
+        try {
+            codec.read(new ByteArrayInputStream("PLST".getBytes(StandardCharsets.UTF_8)));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testColumnarLayout() {
+        Playlist playlist = new Playlist("Columns");
+        playlist.addSong(new Song("Song 1", "eden", 302, "Pop"));
+        playlist.addSong(new Song("Song 2", "kim", 196, "Pop"));
+        playlist.addSong(new Song("Song 3", "eden", 100, "Rock"));
+
+        JSONObject json = new JsonCodec(true).toJson(playlist);
+        assertFalse(json.has("Songs"));
+        assertEquals(2, json.getJSONArray("ArtistDictionary").length());
+        assertEquals(2, json.getJSONArray("GenreDictionary").length());
+        assertEquals(0, json.getJSONArray("Artists").getInt(2));
+
+        Playlist parsed = codec.parsePlaylist(json);
+        assertEquals(playlist.getSongs(), parsed.getSongs());
+        checkSong("Song 3", "eden", 100, "Rock", parsed.getSong(2));
+    }
+
+    @Test
+    public void testColumnarWriteThenRead() {
+        try {
+            JsonCodec columnar = new JsonCodec(true);
+            Playlist playlist = new Playlist("Columns");
+            playlist.addSong(new Song("Song 1", "eden", 302, "Pop"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            columnar.write(playlist, out);
+
+            assertTrue(columnar.isColumnar());
+            assertTrue(codec.matches(out.toByteArray(), out.size()));
+            checkSong("Song 1", "eden", 302, "Pop", codec.read(new ByteArrayInputStream(out.toByteArray())).getSong(0));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testColumnarMismatchedColumns() {
+        String json = "{\"Name\": \"Bad\", \"Layout\": \"columnar\", \"Titles\": [\"a\", \"b\"], "
+                + "\"Artists\": [0], \"Durations\": [1, 2], \"Genres\": [0, 0], "
+                + "\"ArtistDictionary\": [\"eden\"], \"GenreDictionary\": [\"Pop\"]}";
+        try {
+            codec.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReadInChunks() {
+        try {
+            Playlist playlist = new Playlist("Chunks");
+            for (int i = 0; i < 5; i++) {
+                playlist.addSong(new Song("Song " + i, "eden", 100 + i, "Pop"));
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            codec.write(playlist, out);
+            List<List<Song>> chunks = new ArrayList<>();
+
+            Playlist read = codec.read(new ByteArrayInputStream(out.toByteArray()), 2, chunks::add);
+            assertEquals(playlist.getSongs(), read.getSongs());
+            assertEquals(3, chunks.size());
+            assertEquals(playlist.getSongs().subList(0, 2), chunks.get(0));
+            assertEquals(playlist.getSongs().subList(4, 5), chunks.get(2));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadColumnarInChunks() {
+        try {
+            Playlist playlist = new Playlist("Columns");
+            playlist.addSong(new Song("Song 1", "eden", 302, "Pop"));
+            playlist.addSong(new Song("Song 2", "kim", 196, "Pop"));
+            playlist.addSong(new Song("Song 3", "eden", 100, "Rock"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new JsonCodec(true).write(playlist, out);
+            List<List<Song>> chunks = new ArrayList<>();
+
+            Playlist read = codec.read(new ByteArrayInputStream(out.toByteArray()), 2, chunks::add);
+            assertEquals("Columns", read.getPlaylistName());
+            assertEquals(playlist.getSongs(), read.getSongs());
+            assertEquals(2, chunks.size());
+            assertEquals(playlist.getSongs().subList(2, 3), chunks.get(1));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+}
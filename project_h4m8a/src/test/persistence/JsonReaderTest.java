@@ -46,4 +46,19 @@ public class JsonReaderTest extends JsonTest {
             fail("Couldn't read from file");
         }
     }
+
+    @Test
+    public void testReaderColumnar() {
+        JsonReader reader = new JsonReader("./data/testReaderColumnar.json");
+        try {
+            Playlist playlist = reader.read();
+            assertEquals("My Columnar Playlist", playlist.getPlaylistName());
+            assertEquals(3, playlist.getNumSongs());
+            checkSong("eden's song", "eden", 100, "classical", playlist.getSong(0));
+            checkSong("a song", "e", 1, "blues", playlist.getSong(1));
+            checkSong("a title", "eden", 182, "blues", playlist.getSong(2));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
 }
@@ -4,9 +4,11 @@ import model.Song;
 import model.Playlist;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class JsonWriterTest extends JsonTest {
@@ -47,6 +49,43 @@ public class JsonWriterTest extends JsonTest {
         }
     }
 
+    @Test
+    public void testWriterColumnar() {
+        try {
+            JsonWriter writer = new JsonWriter("./data/testWriterColumnar.json", true);
+            Playlist playlist = new Playlist("A Playlist");
+            playlist.addSong(new Song("Song 1", "eden", 302, "Orchestral"));
+            playlist.addSong(new Song("Song 2", "eden", 196, "Classical"));
+            writer.open();
+            writer.write(playlist);
+            writer.close();
+
+            JsonReader reader = new JsonReader("./data/testWriterColumnar.json");
+            assertEquals(1, reader.readJson().getJSONArray("ArtistDictionary").length());
+            playlist = reader.read();
+            assertEquals(2, playlist.getNumSongs());
+            checkSong("Song 2", "eden", 196, "Classical", playlist.getSong(1));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        } finally {
+            new File("./data/testWriterColumnar.json").delete();
+        }
+    }
+
+    @Test
+    public void testWriterLeavesNoTemporaryFile() {
+        try {
+            JsonWriter writer = new JsonWriter("./data/testWriterEmpty.json");
+            writer.open();
+            writer.write(new Playlist("Playlist"));
+            writer.close();
+
+            assertFalse(new File("./data/testWriterEmpty.json.tmp").exists());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
     @Test
     public void testWriterEmpty() {
         try {
@@ -0,0 +1,228 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LibraryWatcherTest extends AudioFileTest {
+    private static final Path ROOT = Paths.get("./data/testWatch");
+    private static final Path STAGING = Paths.get("./data/testWatchStaging");
+    private DeletingScanner scanner;
+    private LibraryWatcher watcher;
+    private Playlist playlist;
+    private BlockingQueue<LibraryChange> changes;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        deleteRoot();
+        Files.createDirectories(ROOT);
+        writeWav(ROOT.resolve("one.wav"), 1, "INAM", "Song 1", "IART", "eden");
+        writeWav(ROOT.resolve("two.wav"), 2, "INAM", "Song 2");
+        scanner = new DeletingScanner();
+        watcher = new LibraryWatcher(ROOT, scanner, Runnable::run);
+        watcher.setQuietMillis(300);
+        changes = new LinkedBlockingQueue<>();
+        watcher.setListener(changes::add);
+        playlist = new Playlist("Watched");
+        playlist.addSong(new Song("Other", "kim", 10, "Rock"));
+        playlist.addSongs(watcher.start().getSongs());
+        watcher.watch(playlist);
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        watcher.close();
+        scanner.close();
+        deleteRoot();
+    }
+
+    @Test
+    public void testStartScans() {
+        assertEquals(3, playlist.getNumSongs());
+        assertEquals(0, watcher.getNumBatches());
+    }
+
+    @Test
+    public void testBulkCopyIsOneBatch() {
+        try {
+            Path album = ROOT.resolve("album");
+            Files.createDirectories(album);
+            for (int i = 0; i < 50; i++) {
+                writeWav(album.resolve("song" + i + ".wav"), 1, "INAM", "Copied " + i);
+            }
+
+            LibraryChange change = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change);
+            assertEquals(50, change.getAdded().size());
+            assertEquals(1, watcher.getNumBatches());
+            assertEquals(53, playlist.getNumSongs());
+            assertTrue(playlist.isInPlaylist("Copied 49"));
+        } catch (IOException | InterruptedException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testDeleteAndModify() {
+        try {
+            Files.delete(ROOT.resolve("one.wav"));
+            writeWav(ROOT.resolve("two.wav"), 4, "INAM", "Song 2", "IGNR", "Jazz");
+
+            LibraryChange change = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change);
+            assertEquals(1, change.getRemoved().size());
+            assertEquals(1, change.getUpdated().size());
+            assertEquals("0 added, 1 removed, 1 updated", change.toString());
+            assertEquals(2, playlist.getNumSongs());
+            assertFalse(playlist.isInPlaylist("Song 1"));
+            checkSong("Song 2", SongImporter.UNKNOWN, 4, "Jazz", playlist.getSong(1));
+        } catch (IOException | InterruptedException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testRetagKeepsPlace() {
+        try {
+            writeWav(ROOT.resolve("one.wav"), 3, "INAM", "Song 1", "IART", "eden", "IGNR", "Pop");
+
+            LibraryChange change = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change);
+            assertEquals(1, change.getUpdated().size());
+            assertEquals(3, playlist.getNumSongs());
+            checkSong("Song 1", "eden", 3, "Pop", playlist.getSong(1));
+            assertEquals("Song 2", playlist.getSong(2).getTitle());
+        } catch (IOException | InterruptedException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testDeleteFolderNextToSimilarName() {
+        try {
+            Path album = ROOT.resolve("album");
+            Path live = ROOT.resolve("album - live");
+            Files.createDirectories(album);
+            Files.createDirectories(live);
+            writeWav(live.resolve("live.wav"), 1, "INAM", "Live");
+            writeWav(album.resolve("studio.wav"), 1, "INAM", "Studio");
+            while (playlist.getNumSongs() < 5) {
+                assertNotNull(changes.poll(10, TimeUnit.SECONDS));
+            }
+            deleteTree(album);
+
+            LibraryChange change = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change);
+            assertEquals(1, change.getRemoved().size());
+            assertFalse(playlist.isInPlaylist("Studio"));
+            assertTrue(playlist.isInPlaylist("Live"));
+        } catch (IOException | InterruptedException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testUnwatchedPlaylistUnchanged() {
+        try {
+            watcher.unwatch(playlist);
+            writeWav(ROOT.resolve("three.wav"), 1, "INAM", "Song 3");
+            Files.writeString(ROOT.resolve("notes.txt"), "not audio");
+
+            LibraryChange change = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change);
+            assertEquals(1, change.size());
+            assertEquals(3, playlist.getNumSongs());
+        } catch (IOException | InterruptedException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testFolderDeletedDuringWalk() {
+        try {
+            Path moved = ROOT.resolve("moved");
+            Files.createDirectories(STAGING.resolve("a"));
+            Files.createDirectories(STAGING.resolve("b"));
+            writeWav(STAGING.resolve("a").resolve("a.wav"), 1, "INAM", "Moved A");
+            writeWav(STAGING.resolve("b").resolve("b.wav"), 1, "INAM", "Moved B");
+            scanner.deleteDuringWalk(moved);
+            Files.move(STAGING, moved);
+
+            LibraryChange change = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change);
+            assertEquals(1, change.getAdded().size());
+            writeWav(ROOT.resolve("after.wav"), 1, "INAM", "After");
+            assertNotNull(changes.poll(10, TimeUnit.SECONDS));
+            assertTrue(playlist.isInPlaylist("After"));
+            assertEquals(5, playlist.getNumSongs());
+        } catch (IOException | InterruptedException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    private void deleteRoot() throws IOException {
+        deleteTree(ROOT);
+        deleteTree(STAGING);
+    }
+
+    private void deleteTree(Path folder) throws IOException {
+        if (Files.exists(folder)) {
+            try (Stream<Path> files = Files.walk(folder)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    // scanner whose walk deletes one of the folders in a given folder as soon as it reaches the other one
+    private class DeletingScanner extends DirectoryScanner {
+        private volatile Path parent;   // folder whose folders race the walk; null if none
+
+        DeletingScanner() {
+            super(2);
+        }
+
+        void deleteDuringWalk(Path parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void walk(Path root, AudioFileVisitor visitor) throws IOException {
+            super.walk(root, new AudioFileVisitor() {
+                @Override
+                public void visitFolder(Path folder) throws IOException {
+                    if (parent != null && parent.equals(folder.getParent())) {
+                        Path other = parent.resolve(folder.endsWith("a") ? "b" : "a");
+                        parent = null;
+                        deleteTree(other);
+                    }
+                    visitor.visitFolder(folder);
+                }
+
+                @Override
+                public void visitAudioFile(Path file) {
+                    visitor.visitAudioFile(file);
+                }
+
+                @Override
+                public void visitFailed(Path path, IOException error) {
+                    visitor.visitFailed(path, error);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class M3uImporterTest extends JsonTest {
+    private static final String FILE = "./data/testImport.m3u";
+    private Playlist playlist;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Imported");
+        playlist.addSong(new Song("Existing", "eden", 10, "Pop"));
+    }
+
+    @AfterEach
+    public void runAfter() {
+        new File(FILE).delete();
+    }
+
+    @Test
+    public void testImport() {
+        try {
+            Files.writeString(Paths.get(FILE), String.join("\n",
+                    "#EXTM3U",
+                    "#EXTINF:302,eden - Song 1",
+                    "#EXTGENRE:Orchestral",
+                    "/music/eden/song1.mp3",
+                    "",
+                    "# a comment",
+                    "#EXTINF:196.6,Song 2",
+                    "C:\\\\music\\\\song2.mp3",
+                    "#EXTINF:10,eden - Existing",
+                    "#EXTGENRE:Pop",
+                    "existing.mp3"));
+
+            ImportResult result = new M3uImporter(FILE).importInto(playlist);
+            assertEquals(11, result.getLinesRead());
+            assertEquals(2, result.getSongsAdded());
+            assertEquals(0, result.getNumMalformed());
+            assertEquals(3, playlist.getNumSongs());
+            checkSong("Song 1", "eden", 302, "Orchestral", playlist.getSong(1));
+            checkSong("Song 2", SongImporter.UNKNOWN, 197, SongImporter.UNKNOWN, playlist.getSong(2));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testImportReportsMalformedLines() {
+        try {
+            Files.writeString(Paths.get(FILE), String.join("\n",
+                    "#EXTM3U",
+                    "no-info.mp3",
+                    "#EXTINF:-1,eden - Stream",
+                    "http://radio.example/stream",
+                    "#EXTINF:abc",
+                    "#EXTINF:100,kim - Good",
+                    "good.mp3"));
+
+            ImportResult result = new M3uImporter(FILE).importInto(playlist);
+            assertEquals(1, result.getSongsAdded());
+            assertEquals(4, result.getNumMalformed());
+            assertTrue(result.getMalformed().get(0).startsWith("line 2: "));
+            assertTrue(result.getMalformed().get(1).startsWith("line 3: "));
+            checkSong("Good", "kim", 100, SongImporter.UNKNOWN, playlist.getSong(1));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testImportWithByteOrderMark() {
+        try {
+            Files.writeString(Paths.get(FILE), String.join("\n",
+                    "\uFEFF#EXTM3U",
+                    "#EXTINF:100,kim - Good",
+                    "good.mp3"));
+
+            ImportResult result = new M3uImporter(FILE).importInto(playlist);
+            assertEquals(1, result.getSongsAdded());
+            assertEquals(0, result.getNumMalformed());
+            checkSong("Good", "kim", 100, SongImporter.UNKNOWN, playlist.getSong(1));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testForFile() {
+        assertTrue(SongImporter.forFile("./data/a.M3U8") instanceof M3uImporter);
+        assertTrue(SongImporter.forFile("./data/a.csv.gz") instanceof CsvImporter);
+        try {
+            SongImporter.forFile("./data/a.json");
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testImportMissingFile() {
+        try {
+            new M3uImporter("./data/noSuchFile.m3u").importInto(playlist);
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertEquals(1, playlist.getNumSongs());
+        }
+    }
+}
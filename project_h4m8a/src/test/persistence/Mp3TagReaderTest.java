@@ -0,0 +1,78 @@
+package persistence;
+
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Mp3TagReaderTest extends AudioFileTest {
+    private static final Path FILE = Paths.get("./data/testTags.mp3");
+    private Mp3TagReader reader = new Mp3TagReader();
+
+    @AfterEach
+    public void runAfter() {
+        new File(FILE.toString()).delete();
+    }
+
+    @Test
+    public void testReadId3v2() {
+        try {
+            writeMp3(FILE, 2, null, "TIT2", "Song 1", "TPE1", "eden", "TCON", "Pop", "TLEN", "302000");
+
+            checkSong("Song 1", "eden", 302, "Pop", reader.read(FILE));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadDurationFromAudio() {
+        try {
+            writeMp3(FILE, 3, null, "TIT2", "Song 1", "TCON", "(8)");
+
+            checkSong("Song 1", SongImporter.UNKNOWN, 3, "Jazz", reader.read(FILE));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadId3v1Fallback() {
+        try {
+            writeMp3(FILE, 1, "Old Title", "TPE1", "kim");
+
+            checkSong("Old Title", "kim", 1, "Rock", reader.read(FILE));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadUntaggedUsesFileName() {
+        try {
+            writeMp3(FILE, 1, null);
+
+            checkSong("testTags", SongImporter.UNKNOWN, 1, SongImporter.UNKNOWN, reader.read(FILE));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadNoAudio() {
+        try {
+            Files.write(FILE, new byte[] {'I', 'D', '3', 3, 0, 0, 0, 0, 0, 0});
+            reader.read(FILE);
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
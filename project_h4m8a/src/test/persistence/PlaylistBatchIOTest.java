@@ -0,0 +1,98 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlaylistBatchIOTest extends JsonTest {
+    private static final int NUM_FILES = 8;
+    private PlaylistBatchIO batchIO;
+    private List<String> paths;
+
+    @BeforeEach
+    public void runBefore() {
+        batchIO = new PlaylistBatchIO(3);
+        paths = new ArrayList<>();
+        for (int i = 0; i < NUM_FILES; i++) {
+            paths.add("./data/testBatch" + i + ".json");
+        }
+    }
+
+    @AfterEach
+    public void runAfter() {
+        batchIO.close();
+        for (String path : paths) {
+            new File(path).delete();
+        }
+    }
+
+    @Test
+    public void testWriteAllThenReadAll() {
+        Map<String, Playlist> playlists = new LinkedHashMap<>();
+        for (int i = 0; i < NUM_FILES; i++) {
+            Playlist playlist = new Playlist("Playlist " + i);
+            playlist.addSong(new Song("song " + i, "eden", i + 1, "Pop"));
+            playlists.put(paths.get(i), playlist);
+        }
+
+        Map<String, BatchResult> written = collect(batchIO.writeAll(playlists));
+        Map<String, BatchResult> read = collect(batchIO.readAll(paths));
+
+        assertEquals(NUM_FILES, written.size());
+        assertEquals(NUM_FILES, read.size());
+        for (int i = 0; i < NUM_FILES; i++) {
+            BatchResult result = read.get(paths.get(i));
+            assertTrue(result.isSuccess());
+            assertEquals("Playlist " + i, result.getPlaylist().getPlaylistName());
+            checkSong("song " + i, "eden", i + 1, "Pop", result.getPlaylist().getSong(0));
+        }
+    }
+
+    @Test
+    public void testFailuresDoNotStopBatch() {
+        List<String> mixed = new ArrayList<>();
+        mixed.add("./data/testReaderNormal.json");
+        mixed.add("./data/notPlaylist.json");
+        mixed.add("./data/tobs.jpg");
+        mixed.add("./data/testReaderEmpty.json");
+
+        Map<String, BatchResult> results = collect(batchIO.readAll(mixed));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get("./data/testReaderNormal.json").isSuccess());
+        assertTrue(results.get("./data/testReaderEmpty.json").isSuccess());
+        assertFalse(results.get("./data/notPlaylist.json").isSuccess());
+        assertNull(results.get("./data/notPlaylist.json").getPlaylist());
+        assertNotNull(results.get("./data/tobs.jpg").getError());
+    }
+
+    @Test
+    public void testIteratorEnds() {
+        Iterator<BatchResult> results = batchIO.readAll(new ArrayList<>());
+
+        assertFalse(results.hasNext());
+        assertThrows(NoSuchElementException.class, results::next);
+    }
+
+    private Map<String, BatchResult> collect(Iterator<BatchResult> results) {
+        Map<String, BatchResult> collected = new HashMap<>();
+        while (results.hasNext()) {
+            BatchResult result = results.next();
+            collected.put(result.getKey(), result);
+        }
+        return collected;
+    }
+}
@@ -0,0 +1,140 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlaylistCacheTest extends JsonTest {
+    private static final String FILE1 = "./data/testCache1.json";
+    private static final String FILE2 = "./data/testCache2.json";
+    private static final String FILE3 = "./data/testCache3.json";
+    private PlaylistCache cache;
+    private Playlist playlist;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        playlist = new Playlist("Cached");
+        playlist.addSong(new Song("a", "eden", 30, "Pop"));
+        playlist.addSong(new Song("b", "kim", 20, "Rock"));
+        writeFile(FILE1, playlist);
+        writeFile(FILE2, playlist);
+        writeFile(FILE3, playlist);
+        cache = new PlaylistCache(0);
+        cache = new PlaylistCache(3 * cache.estimateSize(playlist));
+    }
+
+    @AfterEach
+    public void runAfter() {
+        new File(FILE1).delete();
+        new File(FILE2).delete();
+        new File(FILE3).delete();
+    }
+
+    @Test
+    public void testReadMissThenHit() {
+        try {
+            Playlist first = cache.read(FILE1);
+            Playlist second = cache.read(FILE1);
+
+            assertEquals(1, cache.getMisses());
+            assertEquals(1, cache.getHits());
+            assertEquals(playlist.getSongs(), second.getSongs());
+            assertNotSame(first, second);
+            assertEquals(cache.estimateSize(playlist), cache.getUsedBytes());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testCopiesAreIndependent() {
+        try {
+            cache.read(FILE1).removeSong("a");
+
+            assertEquals(2, cache.read(FILE1).getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testChangedFileIsReread() {
+        try {
+            cache.read(FILE1);
+            playlist.addSong(new Song("c", "eun", 10, "Jazz"));
+            writeFile(FILE1, playlist);
+
+            assertEquals(3, cache.read(FILE1).getNumSongs());
+            assertEquals(2, cache.getMisses());
+            assertEquals(0, cache.getHits());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        try {
+            cache = new PlaylistCache(2 * cache.estimateSize(playlist));
+            cache.read(FILE1);
+            cache.read(FILE2);
+            cache.read(FILE1);
+            cache.read(FILE3);
+
+            assertEquals(2, cache.getNumEntries());
+            assertEquals(1, cache.getEvictions());
+            assertNotNull(cache.get(FILE1));
+            assertNull(cache.get(FILE2));
+            assertNotNull(cache.get(FILE3));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testPlaylistLargerThanCache() {
+        cache = new PlaylistCache(10);
+        cache.put(FILE1, playlist);
+
+        assertEquals(0, cache.getNumEntries());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    public void testInvalidateAndClear() {
+        cache.put(FILE1, playlist);
+        cache.put(FILE2, playlist);
+        cache.invalidate(FILE1);
+
+        assertNull(cache.get(FILE1));
+        assertEquals(1, cache.getNumEntries());
+
+        cache.clear();
+        assertEquals(0, cache.getNumEntries());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    public void testReadInvalidFile() {
+        try {
+            cache.read("./data/notPlaylist.json");
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertEquals(0, cache.getNumEntries());
+        }
+    }
+
+    private void writeFile(String path, Playlist playlist) throws IOException {
+        JsonWriter writer = new JsonWriter(path);
+        writer.open();
+        writer.write(playlist);
+        writer.close();
+    }
+}
@@ -0,0 +1,336 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlaylistJournalTest extends JsonTest {
+    private static final String SNAPSHOT = "./data/testJournal.json";
+    private static final String BINARY_SNAPSHOT = "./data/testJournal.plst";
+    private PlaylistJournal journal;
+    private Playlist playlist;
+    private Song song1;
+    private Song song2;
+    private Song song3;
+
+    @BeforeEach
+    public void runBefore() {
+        deleteFiles();
+        journal = new PlaylistJournal(SNAPSHOT);
+        playlist = new Playlist("Journal Playlist");
+        song1 = new Song("b", "eden", 30, "Pop");
+        song2 = new Song("a", "kim", 20, "Rock");
+        song3 = new Song("c", "eun", 10, "Jazz");
+        playlist.addSong(song1);
+        playlist.addSong(song2);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        journal.close();
+        deleteFiles();
+    }
+
+    @Test
+    public void testLoadInvalidFile() {
+        try {
+            new PlaylistJournal("./data/notPlaylist.json").load();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSaveNewPlaylistWritesSnapshot() {
+        try {
+            journal.save(playlist);
+
+            assertFalse(playlist.isDirty());
+            assertEquals(0, journal.getJournalSize());
+            assertFalse(new File(SNAPSHOT + ".journal").exists());
+            Playlist read = new JsonReader(SNAPSHOT).read();
+            assertEquals(2, read.getNumSongs());
+            checkSong("b", "eden", 30, "Pop", read.getSong(0));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSaveAppendsOnlyChanges() {
+        try {
+            journal.save(playlist);
+            playlist.addSong(song3);
+            playlist.removeSong("b");
+            journal.save(playlist);
+
+            assertEquals(2, journal.getJournalSize());
+            assertEquals(2, new JsonReader(SNAPSHOT).read().getNumSongs());
+            Playlist loaded = new PlaylistJournal(SNAPSHOT).load();
+            assertEquals(playlist.getSongs(), loaded.getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSaveUnchangedPlaylist() {
+        try {
+            journal.save(playlist);
+            journal.save(playlist);
+
+            assertEquals(0, journal.getJournalSize());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReplayReorders() {
+        try {
+            journal.save(playlist);
+            playlist.addSong(song3);
+            playlist.shuffle(42);
+            playlist.arrangeByTitle();
+            playlist.reverse();
+            playlist.moveSong(song1, 3);
+            playlist.arrangeByTime();
+            journal.save(playlist);
+
+            Playlist loaded = new PlaylistJournal(SNAPSHOT).load();
+            assertEquals(playlist.getSongs(), loaded.getSongs());
+            assertFalse(loaded.isDirty());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testLoadThenSaveAppends() {
+        try {
+            journal.save(playlist);
+            PlaylistJournal journal2 = new PlaylistJournal(SNAPSHOT);
+            Playlist loaded = journal2.load();
+            loaded.addSong(song3);
+            journal2.save(loaded);
+            journal2.close();
+
+            assertEquals(1, journal2.getJournalSize());
+            assertEquals(3, new PlaylistJournal(SNAPSHOT).load().getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReplayAddSongs() {
+        try {
+            journal.save(playlist);
+            playlist.addSongs(Arrays.asList(song3, new Song("d", "kim", 40, "Pop")));
+            journal.save(playlist);
+
+            assertEquals(1, journal.getJournalSize());
+            assertEquals(playlist.getSongs(), new PlaylistJournal(SNAPSHOT).load().getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReplayRemoveAll() {
+        try {
+            playlist.addSong(song3);
+            journal.save(playlist);
+            playlist.removeAll(Arrays.asList(song1, song3));
+            journal.save(playlist);
+
+            assertEquals(1, journal.getJournalSize());
+            assertEquals(Arrays.asList(song2), new PlaylistJournal(SNAPSHOT).load().getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testCompact() {
+        try {
+            journal.save(playlist);
+            playlist.addSong(song3);
+            playlist.arrangeByTitle();
+            journal.save(playlist);
+            journal.compact();
+
+            assertEquals(0, journal.getJournalSize());
+            assertFalse(new File(SNAPSHOT + ".journal").exists());
+            Playlist read = new JsonReader(SNAPSHOT).read();
+            assertEquals(playlist.getSongs(), read.getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testLoadIgnoresPartlyWrittenChange() {
+        try {
+            journal.save(playlist);
+            playlist.addSong(song3);
+            journal.save(playlist);
+            try (FileWriter writer = new FileWriter(SNAPSHOT + ".journal", true)) {
+                writer.write("{\"op\":\"REMOVE\",\"se");
+            }
+
+            Playlist loaded = new PlaylistJournal(SNAPSHOT).load();
+            assertEquals(playlist.getSongs(), loaded.getSongs());
+            assertFalse(new File(SNAPSHOT + ".journal").exists());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testLoadIgnoresJournalOfOlderSnapshot() {
+        try {
+            journal.save(playlist);
+            playlist.addSong(song3);
+            journal.save(playlist);
+            String stale = Files.readString(Paths.get(SNAPSHOT + ".journal"));
+            journal.compact();
+            try (FileWriter writer = new FileWriter(SNAPSHOT + ".journal")) {
+                writer.write(stale);
+            }
+
+            Playlist loaded = new PlaylistJournal(SNAPSHOT).load();
+            assertEquals(playlist.getSongs(), loaded.getSongs());
+            assertFalse(new File(SNAPSHOT + ".journal").exists());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSnapshotBatchCoversChangesBeforeIt() {
+        try {
+            playlist.addSong(song3);
+            JournalBatch first = journal.takeBatch(playlist);
+            playlist.reverse();
+            JournalBatch second = journal.takeBatch(playlist);
+            journal.commit(first.merge(second));
+            playlist.addSong(new Song("d", "kim", 40, "Pop"));
+            journal.save(playlist);
+
+            assertEquals(1, journal.getJournalSize());
+            assertEquals(playlist.getSongs(), new PlaylistJournal(SNAPSHOT).load().getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testAppendRestartsJournalOfOlderSnapshot() {
+        try {
+            journal.save(playlist);
+            playlist.addSong(song3);
+            journal.save(playlist);
+            String stale = Files.readString(Paths.get(SNAPSHOT + ".journal"));
+            Playlist other = new Playlist("Journal Playlist");
+            other.addSong(song2);
+            journal.save(other);
+            try (FileWriter writer = new FileWriter(SNAPSHOT + ".journal")) {
+                writer.write(stale);
+            }
+            other.addSong(song1);
+            journal.save(other);
+
+            assertEquals(1, journal.getJournalSize());
+            assertEquals(Arrays.asList(song2, song1), new PlaylistJournal(SNAPSHOT).load().getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testBinarySnapshot() {
+        PlaylistJournal binary = new PlaylistJournal(BINARY_SNAPSHOT);
+        try {
+            binary.save(playlist);
+            playlist.addSong(song3);
+            binary.save(playlist);
+            binary.compact();
+
+            assertEquals(playlist.getSongs(), new PlaylistJournal(BINARY_SNAPSHOT).load().getSongs());
+            assertEquals(playlist.getSongs(), CodecRegistry.getInstance().read(BINARY_SNAPSHOT).getSongs());
+            assertEquals('P', Files.readAllBytes(Paths.get(BINARY_SNAPSHOT))[0]);
+        } catch (IOException e) {
+            fail("Exception not expected");
+        } finally {
+            binary.close();
+            new File(BINARY_SNAPSHOT).delete();
+            new File(BINARY_SNAPSHOT + ".journal").delete();
+        }
+    }
+
+    @Test
+    public void testFailedSaveIsNotLost() {
+        File journalFile = new File(SNAPSHOT + ".journal");
+        File aside = new File(SNAPSHOT + ".aside");
+        try {
+            journal.save(playlist);
+            playlist.removeSong("b");
+            journal.save(playlist);
+            makeUnwritable(journalFile, aside);
+            playlist.addSong(song3);
+            try {
+                journal.save(playlist);
+                fail("IOException expected");
+            } catch (IOException e) {
+                // expected
+            }
+            assertTrue(playlist.isDirty());
+            restoreAccess(journalFile, aside);
+            journal.save(playlist);
+
+            Playlist read = new PlaylistJournal(SNAPSHOT).load();
+            assertEquals(Arrays.asList(song2, song3), read.getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        } finally {
+            restoreAccess(journalFile, aside);
+        }
+    }
+
+    // EFFECTS: makes file unwritable; a superuser can write any file, so if file is still writable it is moved
+    //          to aside and a folder, which cannot be written to as a file by anyone, is put in its place
+    private void makeUnwritable(File file, File aside) throws IOException {
+        file.setWritable(false);
+        if (file.canWrite()) {
+            Files.move(file.toPath(), aside.toPath());
+            assertTrue(file.mkdir());
+        }
+    }
+
+    // EFFECTS: undoes makeUnwritable(file, aside)
+    private void restoreAccess(File file, File aside) {
+        if (aside.exists()) {
+            file.delete();
+            aside.renameTo(file);
+        }
+        file.setWritable(true);
+    }
+
+    private void deleteFiles() {
+        new File(SNAPSHOT).delete();
+        new File(SNAPSHOT + ".journal").delete();
+    }
+}
@@ -0,0 +1,284 @@
+package persistence;
+
+import model.Playlist;
+import model.SmartPlaylist;
+import model.Song;
+import model.SongRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlaylistLibraryTest extends JsonTest {
+    private static final String DIRECTORY = "./data/testLibrary";
+    private PlaylistLibrary library;
+    private Playlist playlist1;
+    private Playlist playlist2;
+
+    @BeforeEach
+    public void runBefore() {
+        deleteDirectory();
+        library = new PlaylistLibrary(DIRECTORY);
+        playlist1 = new Playlist("Eden's Playlist");
+        playlist1.addSong(new Song("a", "eden", 30, "Pop"));
+        playlist1.addSong(new Song("b", "kim", 20, "Rock"));
+        playlist2 = new Playlist("Eden/s Playlist");
+        playlist2.addSong(new Song("c", "eun", 10, "Jazz"));
+    }
+
+    @AfterEach
+    public void runAfter() {
+        library.close();
+        deleteDirectory();
+    }
+
+    @Test
+    public void testEmptyLibrary() {
+        try {
+            assertTrue(library.list().isEmpty());
+            assertFalse(library.contains("Eden's Playlist"));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSaveAndList() {
+        try {
+            library.save(playlist1);
+            library.save(playlist2);
+
+            List<LibraryEntry> entries = new PlaylistLibrary(DIRECTORY).list();
+            assertEquals(2, entries.size());
+            assertEquals("Eden's Playlist", entries.get(0).getName());
+            assertEquals("Eden_s_Playlist.json", entries.get(0).getFile());
+            assertEquals(2, entries.get(0).getNumSongs());
+            assertEquals(50, entries.get(0).getTotalTime());
+            assertEquals("Eden/s Playlist", entries.get(1).getName());
+            assertEquals("Eden_s_Playlist-2.json", entries.get(1).getFile());
+            assertEquals(1, entries.get(1).getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSaveCompressed() {
+        try {
+            library.setCompressed(true);
+            library.save(playlist1);
+            playlist1.addSong(new Song("c", "eun", 10, "Jazz"));
+            library.save(playlist1);
+
+            assertEquals("Eden_s_Playlist.json.gz", library.list().get(0).getFile());
+            PlaylistLibrary library2 = new PlaylistLibrary(DIRECTORY);
+            assertEquals(3, library2.open("Eden's Playlist").getNumSongs());
+            library2.close();
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testListDoesNotReadPlaylists() {
+        try {
+            library.save(playlist1);
+            new File(DIRECTORY + File.separator + "Eden_s_Playlist.json").delete();
+
+            assertEquals(1, new PlaylistLibrary(DIRECTORY).list().size());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testOpen() {
+        try {
+            library.save(playlist1);
+            library.save(playlist2);
+            playlist1.removeSong("a");
+            library.save(playlist1);
+
+            PlaylistLibrary library2 = new PlaylistLibrary(DIRECTORY);
+            Playlist opened = library2.open("Eden's Playlist");
+            library2.close();
+            assertEquals(1, opened.getNumSongs());
+            checkSong("b", "kim", 20, "Rock", opened.getSong(0));
+            assertEquals(1, library2.list().get(0).getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReopenUsesCache() {
+        try {
+            library.save(playlist1);
+            library.close();
+            PlaylistLibrary library2 = new PlaylistLibrary(DIRECTORY);
+            Playlist opened = library2.open("Eden's Playlist");
+            Playlist reopened = library2.open("Eden's Playlist");
+            reopened.addSong(new Song("c", "eun", 10, "Jazz"));
+            library2.save(reopened);
+            Playlist changed = library2.open("Eden's Playlist");
+            library2.close();
+
+            assertEquals(1, library2.getCache().getHits());
+            assertEquals(1, library2.getCache().getMisses());
+            assertNotSame(opened, reopened);
+            assertEquals(3, changed.getNumSongs());
+            assertEquals(3, new PlaylistLibrary(DIRECTORY).open("Eden's Playlist").getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testOpenAllExcept() {
+        PlaylistBatchIO batchIO = new PlaylistBatchIO(2);
+        try {
+            library.save(playlist1);
+            library.save(playlist2);
+            List<Playlist> others = new PlaylistLibrary(DIRECTORY).openAllExcept("Eden/s Playlist", batchIO);
+
+            assertEquals(1, others.size());
+            assertEquals("Eden's Playlist", others.get(0).getPlaylistName());
+            assertEquals(2, new PlaylistLibrary(DIRECTORY).openAllExcept(null, batchIO).size());
+            List<Playlist> each = new PlaylistLibrary(DIRECTORY).openEach(
+                    Arrays.asList("Eden's Playlist", "Missing", "Eden/s Playlist"), batchIO);
+            assertEquals(2, each.size());
+            assertEquals("Eden's Playlist", each.get(0).getPlaylistName());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        } finally {
+            batchIO.close();
+        }
+    }
+
+    @Test
+    public void testOpenAll() {
+        PlaylistBatchIO batchIO = new PlaylistBatchIO(2);
+        try {
+            library.save(playlist1);
+            library.save(playlist2);
+            PlaylistLibrary library2 = new PlaylistLibrary(DIRECTORY);
+            Iterator<BatchResult> results = library2.openAll(
+                    Arrays.asList("Eden's Playlist", "Eden/s Playlist", "Missing"), batchIO);
+            Map<String, BatchResult> byName = new HashMap<>();
+            while (results.hasNext()) {
+                BatchResult result = results.next();
+                byName.put(result.getKey(), result);
+            }
+            library2.close();
+
+            assertEquals(2, byName.get("Eden's Playlist").getPlaylist().getNumSongs());
+            assertEquals(1, byName.get("Eden/s Playlist").getPlaylist().getNumSongs());
+            assertTrue(byName.get("Missing").getError() instanceof FileNotFoundException);
+            assertEquals(2, library2.getCache().getNumEntries());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        } finally {
+            batchIO.close();
+        }
+    }
+
+    @Test
+    public void testOpenNotInLibrary() {
+        try {
+            library.open("Not a playlist");
+            fail("FileNotFoundException expected");
+        } catch (FileNotFoundException e) {
+            // expected
+        } catch (IOException e) {
+            fail("FileNotFoundException expected");
+        }
+    }
+
+    @Test
+    public void testUpdateEntryThenWriteIndex() {
+        try {
+            library.journalFor(playlist1.getPlaylistName()).save(playlist1);
+            library.updateEntry(playlist1);
+            assertTrue(new PlaylistLibrary(DIRECTORY).list().isEmpty());
+
+            library.writeIndex();
+            assertEquals(2, new PlaylistLibrary(DIRECTORY).list().get(0).getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testLastUsed() {
+        try {
+            assertNull(library.getLastUsed());
+            library.save(playlist1);
+            library.save(playlist2);
+            assertEquals("Eden/s Playlist", library.getLastUsed());
+
+            PlaylistLibrary reopened = new PlaylistLibrary(DIRECTORY);
+            assertEquals("Eden/s Playlist", reopened.getLastUsed());
+            reopened.open("Eden's Playlist");
+            reopened.writeIndex();
+            reopened.close();
+            assertEquals("Eden's Playlist", new PlaylistLibrary(DIRECTORY).getLastUsed());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSmartPlaylists() {
+        try {
+            assertTrue(library.listSmart().isEmpty());
+            SmartPlaylist quick = new SmartPlaylist("Quick Pop",
+                    Arrays.asList(new SongRule(SongRule.Field.GENRE, SongRule.Operator.IS, "Pop"),
+                            new SongRule(SongRule.Field.TIME, SongRule.Operator.LESS_THAN, "60")),
+                    Arrays.asList("Eden's Playlist"));
+            library.save(playlist1);
+            library.saveSmart(quick);
+            library.saveSmart(new SmartPlaylist("Everything", new ArrayList<>(), Arrays.asList("Eden's Playlist",
+                    "Eden/s Playlist")));
+
+            PlaylistLibrary reopened = new PlaylistLibrary(DIRECTORY);
+            List<SmartPlaylist> smart = reopened.listSmart();
+            assertEquals(2, smart.size());
+            assertEquals("Quick Pop", smart.get(0).getName());
+            assertEquals("genre is Pop and time less than 60", smart.get(0).describeRules());
+            assertEquals(Arrays.asList("Eden's Playlist"), smart.get(0).getSourceNames());
+            assertEquals(0, smart.get(0).getNumSongs());
+            smart.get(0).attach(reopened.open("Eden's Playlist"));
+            assertEquals(1, smart.get(0).getNumSongs());
+            assertEquals(2, smart.get(1).getSourceNames().size());
+            assertEquals(1, reopened.list().size());
+
+            reopened.removeSmart("Everything");
+            reopened.removeSmart("Missing");
+            reopened.close();
+            assertEquals(1, new PlaylistLibrary(DIRECTORY).listSmart().size());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    private void deleteDirectory() {
+        File[] files = new File(DIRECTORY).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        new File(DIRECTORY).delete();
+    }
+}
@@ -0,0 +1,175 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveServiceTest extends JsonTest {
+    private static final String SNAPSHOT = "./data/testSaveService.json";
+    private PlaylistJournal journal;
+    private SaveService service;
+    private Playlist playlist;
+    private List<String> results;
+
+    @BeforeEach
+    public void runBefore() {
+        deleteFiles();
+        journal = new PlaylistJournal(SNAPSHOT);
+        service = new SaveService(journal);
+        playlist = new Playlist("Saved Playlist");
+        playlist.addSong(new Song("a", "eden", 30, "Pop"));
+        results = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void runAfter() {
+        service.close();
+        journal.close();
+        deleteFiles();
+    }
+
+    @Test
+    public void testSaveWritesInBackground() {
+        try {
+            service.save(playlist, new RecordingListener());
+            assertFalse(playlist.isDirty());
+            service.flush();
+
+            assertEquals(1, results.size());
+            assertEquals("saved Saved Playlist", results.get(0));
+            Playlist read = new JsonReader(SNAPSHOT).read();
+            assertEquals(playlist.getSongs(), read.getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSaveUsesSnapshot() {
+        try {
+            service.save(playlist, null);
+            playlist.addSong(new Song("b", "kim", 20, "Rock"));
+            service.flush();
+
+            assertEquals(1, new JsonReader(SNAPSHOT).read().getNumSongs());
+            assertTrue(playlist.isDirty());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSavesWhileWritingAreMerged() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        service.save(playlist, new BlockingListener(started, release));
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            fail("Interrupted");
+        }
+        for (int i = 0; i < 10; i++) {
+            playlist.addSong(new Song("song " + i, "eden", i, "Pop"));
+            service.save(playlist, new RecordingListener());
+        }
+        release.countDown();
+        service.flush();
+
+        assertEquals(2, service.getWrites());
+        assertEquals(10, results.size());
+        try {
+            assertEquals(playlist.getSongs(), new PlaylistJournal(SNAPSHOT).load().getSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testSaveFailed() {
+        PlaylistJournal badJournal = new PlaylistJournal("./data/illegal\0playlist.json");
+        SaveService badService = new SaveService(badJournal);
+        badService.save(playlist, new RecordingListener());
+        badService.close();
+        badJournal.close();
+
+        assertEquals(1, results.size());
+        assertEquals("failed Saved Playlist", results.get(0));
+    }
+
+    @Test
+    public void testUnexpectedErrorIsReported() {
+        Playlist broken = new Playlist("Broken") {
+            @Override
+            public JSONObject toJson() {
+                throw new IllegalStateException("cannot be written");
+            }
+        };
+        PlaylistJournal brokenJournal = new PlaylistJournal(SNAPSHOT) {
+            @Override
+            public JournalBatch takeBatch(Playlist playlist) {
+                return new JournalBatch(broken, new ArrayList<>());
+            }
+        };
+        SaveService brokenService = new SaveService(brokenJournal);
+        brokenService.save(playlist, new RecordingListener());
+        brokenService.close();
+
+        assertEquals(Arrays.asList("failed Saved Playlist"), results);
+    }
+
+    private void deleteFiles() {
+        new File(SNAPSHOT).delete();
+        new File(SNAPSHOT + ".journal").delete();
+    }
+
+    // records the results of saves
+    private class RecordingListener implements SaveListener {
+        @Override
+        public void saveCompleted(String playlistName) {
+            results.add("saved " + playlistName);
+        }
+
+        @Override
+        public void saveFailed(String playlistName, IOException error) {
+            results.add("failed " + playlistName);
+        }
+    }
+
+    // holds up the background thread until released
+    private class BlockingListener implements SaveListener {
+        private CountDownLatch started;
+        private CountDownLatch release;
+
+        BlockingListener(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public void saveCompleted(String playlistName) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                fail("Interrupted");
+            }
+        }
+
+        @Override
+        public void saveFailed(String playlistName, IOException error) {
+            started.countDown();
+        }
+    }
+}
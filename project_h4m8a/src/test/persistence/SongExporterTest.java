@@ -0,0 +1,92 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SongExporterTest extends JsonTest {
+    private static final String M3U = "./data/testExport.m3u";
+    private static final String CSV = "./data/testExport.csv";
+    private Playlist playlist;
+
+    @BeforeEach
+    public void runBefore() {
+        playlist = new Playlist("Exported");
+        playlist.addSong(new Song("Song 1", "eden", 302, "Orchestral"));
+        playlist.addSong(new Song("Song, \"2\"", " kim", 196, "Rock\nRoll"));
+    }
+
+    @AfterEach
+    public void runAfter() {
+        new File(M3U).delete();
+        new File(CSV).delete();
+        new File(CSV + ".gz").delete();
+    }
+
+    @Test
+    public void testExportM3u() {
+        try {
+            assertEquals(2, SongExporter.forFile(M3U).export(playlist));
+
+            List<String> lines = Files.readAllLines(Paths.get(M3U));
+            assertEquals("#EXTM3U", lines.get(0));
+            assertEquals("#PLAYLIST:Exported", lines.get(1));
+            assertEquals("#EXTINF:302,eden - Song 1", lines.get(2));
+            assertEquals("#EXTGENRE:Orchestral", lines.get(3));
+            assertEquals(8, lines.size());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testExportCsv() {
+        try {
+            SongExporter.forFile(CSV).export(playlist);
+
+            List<String> lines = Files.readAllLines(Paths.get(CSV));
+            assertEquals(CsvImporter.HEADER, lines.get(0));
+            assertEquals("Song 1,eden,302,Orchestral", lines.get(1));
+            assertEquals("\"Song, \"\"2\"\"\",\" kim\",196,Rock Roll", lines.get(2));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testExportThenImport() {
+        try {
+            SongExporter.forFile(M3U).export(playlist);
+            SongExporter.forFile(CSV + ".gz").export(playlist);
+
+            Playlist fromM3u = new Playlist("M3U");
+            Playlist fromCsv = new Playlist("CSV");
+            assertEquals(2, SongImporter.forFile(M3U).importInto(fromM3u).getSongsAdded());
+            assertEquals(2, SongImporter.forFile(CSV + ".gz").importInto(fromCsv).getSongsAdded());
+            checkSong("Song 1", "eden", 302, "Orchestral", fromM3u.getSong(0));
+            checkSong("Song, \"2\"", " kim", 196, "Rock Roll", fromCsv.getSong(1));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testExportInvalidFile() {
+        try {
+            new CsvExporter("./data/illegal\0export.csv").export(playlist);
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
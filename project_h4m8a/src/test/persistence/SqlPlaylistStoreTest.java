@@ -0,0 +1,140 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+import model.SongCursor;
+import model.SongPager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlPlaylistStoreTest extends JsonTest {
+    private Path directory;
+    private SqlPlaylistStore store;
+    private Playlist playlist;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        directory = Files.createTempDirectory("playlist-db");
+        store = SqlPlaylistStore.forFile(directory.resolve("playlists").toString());
+        playlist = new Playlist("Database Playlist");
+        playlist.addSong(new Song("b", "eden", 300, "Jazz"));
+        playlist.addSong(new Song("a", "kim", 200, "Jazz"));
+        playlist.addSong(new Song("c", "eden", 100, "Pop"));
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+        if (directory != null) {
+            for (File file : directory.toFile().listFiles()) {
+                file.delete();
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testWriteThenRead() {
+        try {
+            store.write(playlist);
+
+            Playlist read = store.read("Database Playlist");
+            assertEquals(playlist.getSongs(), read.getSongs());
+            assertFalse(read.isDirty());
+            assertEquals(Arrays.asList("Database Playlist"), store.list());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testWriteReplaces() {
+        try {
+            store.write(playlist);
+            playlist.removeSong("b");
+            playlist.reverse();
+            store.write(playlist);
+
+            assertEquals(playlist.getSongs(), store.read("Database Playlist").getSongs());
+            assertEquals(1, store.list().size());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testPager() {
+        try {
+            store.write(playlist);
+            SongPager pager = store.pager("Database Playlist");
+
+            assertEquals(3, pager.getNumSongs());
+            assertEquals(playlist.getSongs(1, 2), pager.getSongs(1, 2));
+            assertTrue(pager.getSongs(3, 10).isEmpty());
+            SongCursor cursor = new SongCursor(pager, 2);
+            assertEquals(playlist.getSong(0), cursor.next());
+            store.write(playlist);
+            assertThrows(ConcurrentModificationException.class, cursor::next);
+            assertEquals(0, store.pager("Missing").getNumSongs());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testFindSongs() {
+        try {
+            store.write(playlist);
+            Playlist other = new Playlist("Other");
+            other.addSong(new Song("a", "kim", 200, "Jazz"));
+            other.addSong(new Song("d", "eun", 500, "Jazz"));
+            store.write(other);
+
+            List<Song> found = store.findSongs(null, "Jazz", 300);
+            assertEquals(2, found.size());
+            checkSong("a", "kim", 200, "Jazz", found.get(0));
+            checkSong("b", "eden", 300, "Jazz", found.get(1));
+            assertEquals(2, store.findSongs("eden", null, 0).size());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReopenAndRemove() {
+        try {
+            store.write(playlist);
+            store.close();
+            store = SqlPlaylistStore.forFile(directory.resolve("playlists").toString());
+            assertEquals(3, store.read("Database Playlist").getNumSongs());
+
+            store.remove("Database Playlist");
+            assertTrue(store.list().isEmpty());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadMissingPlaylist() {
+        try {
+            store.read("Database Playlist");
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package persistence;
+
+import model.Playlist;
+import model.Song;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Represents a benchmark of the ways a playlist can be stored. For a large generated playlist it measures,
+// for each format with and without compression, the bytes the file takes on disk and the fastest of several
+// writes and reads of it, showing how much disk I/O each saves and what it costs in load time.
+public class StorageBenchmark {
+    private static final String[] GENRES = {"Pop", "Rock", "Jazz", "Classical", "Hip Hop", "Electronic",
+            "Country", "Blues", "Folk", "Metal", "R&B", "Reggae"};
+    private static final int NUM_ARTISTS = 500;
+    private static final int RUNS = 5;
+    private String directory;
+    private int numSongs;
+
+    // EFFECTS: creates a benchmark that stores a playlist of numSongs songs in files in directory
+    public StorageBenchmark(String directory, int numSongs) {
+        this.directory = directory;
+        this.numSongs = numSongs;
+    }
+
+    // EFFECTS: runs the benchmark on a playlist of 100000 songs and prints the results
+    public static void main(String[] args) throws IOException {
+        for (String line : new StorageBenchmark(System.getProperty("java.io.tmpdir"), 100000).run()) {
+            System.out.println(line);
+        }
+    }
+
+    /*
+     * EFFECTS: stores the generated playlist in every format, including the columnar JSON layout, with and
+     *          without compression, and returns one line of results per format; the files are deleted
+     *          afterwards; throws IOException if a file cannot be written or read
+     */
+    public List<String> run() throws IOException {
+        Playlist playlist = generate();
+        Map<String, PlaylistCodec> formats = new LinkedHashMap<>();
+        for (PlaylistCodec codec : CodecRegistry.getInstance().getCodecs()) {
+            formats.put(codec.getExtension(), codec);
+        }
+        formats.put("columnar .json", new JsonCodec(true));
+        List<String> results = new ArrayList<>();
+        results.add(String.format("%-20s %12s %10s %10s", "format", "bytes", "write ms", "read ms"));
+        for (Map.Entry<String, PlaylistCodec> format : formats.entrySet()) {
+            results.add(measure(playlist, format.getValue(), format.getKey(), ""));
+            results.add(measure(playlist, format.getValue(), format.getKey(), Compression.GZIP_SUFFIX));
+        }
+        return results;
+    }
+
+    /*
+     * EFFECTS: writes playlist with codec, compressed if suffix is Compression.GZIP_SUFFIX, and reads it
+     *          back RUNS times, then returns a line with the size of the file and the fastest write and read;
+     *          throws IOException if the file cannot be written or read
+     */
+    private String measure(Playlist playlist, PlaylistCodec codec, String name, String suffix) throws IOException {
+        String path = directory + File.separator + "benchmark" + codec.getExtension() + suffix;
+        long bestWrite = Long.MAX_VALUE;
+        long bestRead = Long.MAX_VALUE;
+        try {
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                write(playlist, codec, path);
+                long written = System.nanoTime();
+                CodecRegistry.getInstance().read(path);
+                bestWrite = Math.min(bestWrite, written - start);
+                bestRead = Math.min(bestRead, System.nanoTime() - written);
+            }
+            return String.format("%-20s %12d %10.1f %10.1f", name + suffix, Files.size(new File(path).toPath()),
+                    bestWrite / 1e6, bestRead / 1e6);
+        } finally {
+            new File(path).delete();
+        }
+    }
+
+    /*
+     * EFFECTS: writes playlist with codec to the file at path, compressed if path is to be compressed;
+     *          throws IOException if the file cannot be written
+     */
+    private void write(Playlist playlist, PlaylistCodec codec, String path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(path))) {
+            OutputStream contents = Compression.compress(out, path);
+            codec.write(playlist, contents);
+            Compression.finish(contents);
+        }
+    }
+
+    // EFFECTS: returns a playlist of numSongs songs whose artists and genres repeat like a real library's
+    private Playlist generate() {
+        Random random = new Random(numSongs);
+        Playlist playlist = new Playlist("Benchmark");
+        List<Song> songs = new ArrayList<>(numSongs);
+        for (int i = 0; i < numSongs; i++) {
+            String artist = "Artist " + random.nextInt(NUM_ARTISTS);
+            String genre = GENRES[random.nextInt(GENRES.length)];
+            songs.add(new Song("Song " + i, artist, 60 + random.nextInt(540), genre));
+        }
+        playlist.addSongs(songs);
+        return playlist;
+    }
+}
@@ -0,0 +1,27 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StorageBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        try {
+            List<String> results = new StorageBenchmark("./data", 100).run();
+
+            assertEquals(3 + 2 * CodecRegistry.getInstance().getCodecs().size(), results.size());
+            assertTrue(results.get(1).startsWith(".json "));
+            assertTrue(results.get(2).startsWith(".json.gz "));
+            assertTrue(results.get(results.size() - 1).startsWith("columnar .json.gz "));
+            assertFalse(new File("./data/benchmark.json").exists());
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+}
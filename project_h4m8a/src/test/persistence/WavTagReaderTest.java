@@ -0,0 +1,55 @@
+package persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WavTagReaderTest extends AudioFileTest {
+    private static final Path FILE = Paths.get("./data/testTags.wav");
+    private WavTagReader reader = new WavTagReader();
+
+    @AfterEach
+    public void runAfter() {
+        new File(FILE.toString()).delete();
+    }
+
+    @Test
+    public void testRead() {
+        try {
+            writeWav(FILE, 3, "INAM", "Song 3", "IART", "eun", "ICMT", "a comment", "IGNR", "Jazz");
+
+            checkSong("Song 3", "eun", 3, "Jazz", reader.read(FILE));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadWithoutInfo() {
+        try {
+            writeWav(FILE, 2);
+
+            checkSong("testTags", SongImporter.UNKNOWN, 2, SongImporter.UNKNOWN, reader.read(FILE));
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    public void testReadNotWav() {
+        try {
+            Files.writeString(FILE, "RIFF....AVI LIST");
+            reader.read(FILE);
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}